@@ -0,0 +1,41 @@
+package com.vibe.fundsmith.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Detects the database product once at startup so services can choose
+ * PostgreSQL-specific statements and fall back to portable SQL elsewhere (H2 in tests).
+ */
+@Component
+public class DatabasePlatform {
+    private static final Logger log = LoggerFactory.getLogger(DatabasePlatform.class);
+
+    private final String productName;
+
+    public DatabasePlatform(DataSource dataSource) {
+        String name;
+        try {
+            name = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not determine database product, using portable SQL: {}", e.getMessage());
+            name = "unknown";
+        }
+        this.productName = name;
+        log.info("Database platform detected: {}", productName);
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public boolean isPostgres() {
+        return "PostgreSQL".equalsIgnoreCase(productName);
+    }
+}
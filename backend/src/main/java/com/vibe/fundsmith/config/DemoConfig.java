@@ -12,6 +12,7 @@ public class DemoConfig {
     private boolean enabled = false;
     private List<String> isins;
     private Map<String, BigDecimal> basePrices;
+    private Map<String, BigDecimal> fxRates;
     private long minQuantity = 100;
     private long maxQuantity = 5000;
     private long quantityStep = 100;
@@ -42,6 +43,14 @@ public class DemoConfig {
         this.basePrices = basePrices;
     }
 
+    public Map<String, BigDecimal> getFxRates() {
+        return fxRates;
+    }
+
+    public void setFxRates(Map<String, BigDecimal> fxRates) {
+        this.fxRates = fxRates;
+    }
+
     public long getMinQuantity() {
         return minQuantity;
     }
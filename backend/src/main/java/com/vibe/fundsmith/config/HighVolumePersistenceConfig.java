@@ -0,0 +1,46 @@
+package com.vibe.fundsmith.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Connection pool sizing for the {@code highvolume} profile (see application-highvolume.yml).
+ * The pool is sized from the CPU count as (cores * connections-per-core) + 1: enough
+ * connections to keep booking threads busy while some wait on the database, without
+ * queueing more concurrent work on it than it can run. An explicit
+ * spring.datasource.hikari.maximum-pool-size wins.
+ */
+@Configuration
+@Profile("highvolume")
+public class HighVolumePersistenceConfig {
+    private static final Logger log = LoggerFactory.getLogger(HighVolumePersistenceConfig.class);
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    @Bean
+    public static BeanPostProcessor cpuSizedConnectionPool(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+                    int connectionsPerCore = environment.getProperty(
+                        "ibor.datasource.pool.connections-per-core", Integer.class, 2);
+                    int size = poolSize(Runtime.getRuntime().availableProcessors(), connectionsPerCore);
+                    dataSource.setMaximumPoolSize(size);
+                    log.info("Sized connection pool {} to {} connections", dataSource.getPoolName(), size);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int cores, int connectionsPerCore) {
+        return Math.max(1, cores) * Math.max(1, connectionsPerCore) + 1;
+    }
+}
@@ -0,0 +1,58 @@
+package com.vibe.fundsmith.controller;
+
+import com.vibe.fundsmith.dto.ResetResultDto;
+import com.vibe.fundsmith.service.AdminResetService;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Administrative resets for demo and UAT environments, reporting rows deleted per table
+ */
+@RestController
+@RequestMapping("/api/admin/reset")
+public class AdminController {
+    private final AdminResetService adminResetService;
+
+    public AdminController(AdminResetService adminResetService) {
+        this.adminResetService = adminResetService;
+    }
+
+    /**
+     * Clear trades, positions, journals, ledger balances, settlement, cash history and
+     * NAV snapshots, then book the opening cash balance
+     *
+     * @param portfolioId Portfolio identifier (optional, every portfolio when omitted)
+     * @param initialCash Opening cash balance (optional, defaults to 10,000,000.00)
+     * @return Rows deleted per table
+     */
+    @PostMapping
+    public ResetResultDto resetAll(
+            @RequestParam(required = false) String portfolioId,
+            @RequestParam(required = false, defaultValue = "10000000.00") BigDecimal initialCash) {
+        return adminResetService.resetAll(portfolioId, initialCash);
+    }
+
+    /**
+     * Clear trades and everything derived from them, leaving cash as it is
+     *
+     * @param portfolioId Portfolio identifier (optional, every portfolio when omitted)
+     * @return Rows deleted per table
+     */
+    @PostMapping("/trades")
+    public ResetResultDto resetTrades(@RequestParam(required = false) String portfolioId) {
+        return adminResetService.resetTrades(portfolioId);
+    }
+
+    /**
+     * Clear NAV snapshots
+     *
+     * @param portfolioId Portfolio identifier (optional, every portfolio when omitted)
+     * @return Rows deleted per table
+     */
+    @PostMapping("/nav")
+    public ResetResultDto resetNavSnapshots(@RequestParam(required = false) String portfolioId) {
+        return adminResetService.resetNavSnapshots(portfolioId);
+    }
+}
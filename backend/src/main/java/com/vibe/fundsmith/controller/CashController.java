@@ -1,27 +1,39 @@
 package com.vibe.fundsmith.controller;
 
 import com.vibe.fundsmith.dto.CashBalanceDto;
+import com.vibe.fundsmith.dto.CashHistoryPageDto;
+import com.vibe.fundsmith.dto.CashReconciliationDto;
 import com.vibe.fundsmith.dto.CashResetResultDto;
-import com.vibe.fundsmith.model.CashEntry;
+import com.vibe.fundsmith.exception.ValidationException;
 import com.vibe.fundsmith.repository.CashLedgerRepository;
+import com.vibe.fundsmith.service.CashReconciliationService;
 import com.vibe.fundsmith.service.CashService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/cash")
 public class CashController {
     
     private final CashService cashService;
+    private final CashReconciliationService cashReconciliationService;
     private final CashLedgerRepository cashLedgerRepository;
     
     @Autowired
-    public CashController(CashService cashService, CashLedgerRepository cashLedgerRepository) {
+    public CashController(CashService cashService,
+                          CashReconciliationService cashReconciliationService,
+                          CashLedgerRepository cashLedgerRepository) {
         this.cashService = cashService;
+        this.cashReconciliationService = cashReconciliationService;
         this.cashLedgerRepository = cashLedgerRepository;
     }
     
@@ -35,6 +47,16 @@ public class CashController {
         return cashService.getCurrentBalance();
     }
     
+    /**
+     * Reconcile materialized cash balances against the ledger
+     * 
+     * @return Reconciliation result listing any breaks
+     */
+    @GetMapping("/reconciliation")
+    public CashReconciliationDto reconcile() {
+        return cashReconciliationService.reconcile();
+    }
+    
     /**
      * Get cash balance for a specific portfolio
      * 
@@ -50,17 +72,53 @@ public class CashController {
      * Get cash history for a portfolio
      * 
      * @param portfolioId Portfolio identifier (optional, defaults to "DEFAULT")
-     * @param limit Maximum number of entries (optional, defaults to 50)
+     * @param limit Maximum number of entries (optional, defaults to 50; 0 returns no entries)
      * @return List of cash entries
      */
     @GetMapping("/history")
-    public List<CashEntry> getCashHistory(
+    public ResponseEntity<?> getCashHistory(
             @RequestParam(required = false, defaultValue = "DEFAULT") String portfolioId,
             @RequestParam(required = false, defaultValue = "50") int limit) {
         
-        return cashLedgerRepository.findByPortfolioIdOrderByCreatedAtDesc(portfolioId).stream()
-                .limit(limit)
-                .toList();
+        if (limit < 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("field", "limit", "message", "Limit cannot be negative"));
+        }
+        if (limit == 0) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(
+                cashLedgerRepository.findByPortfolioIdOrderByCreatedAtDescIdDesc(portfolioId, PageRequest.of(0, limit)));
+    }
+    
+    /**
+     * Page through cash history newest first; pass the returned nextCursor to get the next page
+     * 
+     * @param portfolioId Portfolio identifier (optional, defaults to "DEFAULT")
+     * @param reasonPrefix Only entries whose reason starts with this, e.g. BUY: or ADMIN: (optional)
+     * @param fromDate Earliest entry date, inclusive (optional)
+     * @param toDate Latest entry date, inclusive (optional)
+     * @param cursor Continuation token from the previous page (optional)
+     * @param limit Page size (optional, defaults to 50)
+     * @return Page of cash entries
+     */
+    @GetMapping("/history/page")
+    public ResponseEntity<?> getCashHistoryPage(
+            @RequestParam(required = false, defaultValue = "DEFAULT") String portfolioId,
+            @RequestParam(required = false) String reasonPrefix,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CashHistoryPageDto page = cashService.findHistoryPage(portfolioId, reasonPrefix, fromDate, toDate, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("field", e.getField(), "message", e.getMessage()));
+        }
     }
     
     /**
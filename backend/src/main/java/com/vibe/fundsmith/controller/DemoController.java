@@ -1,7 +1,9 @@
 package com.vibe.fundsmith.controller;
 
+import com.vibe.fundsmith.exception.ValidationException;
 import com.vibe.fundsmith.service.DemoTradeGenerator;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import com.vibe.fundsmith.service.LoadTestGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
@@ -9,12 +11,15 @@ import org.slf4j.LoggerFactory;
 
 @RestController
 @RequestMapping("api/admin/auto-trades")
+@ConditionalOnProperty(name = "demo.enabled", havingValue = "true")
 public class DemoController {
     private static final Logger log = LoggerFactory.getLogger(DemoController.class);
     private final DemoTradeGenerator generator;
+    private final LoadTestGenerator loadTestGenerator;
 
-    public DemoController(DemoTradeGenerator generator) {
+    public DemoController(DemoTradeGenerator generator, LoadTestGenerator loadTestGenerator) {
         this.generator = generator;
+        this.loadTestGenerator = loadTestGenerator;
         log.info("DemoController initialized with generator: {}", generator.getClass().getName());
     }
 
@@ -61,6 +66,7 @@ public class DemoController {
             status.put("running", generator.isRunning());
             status.put("mode", generator.getGenerationMode().toString());
             status.put("tradeCount", generator.getTradeCount());
+            status.put("loadTest", loadTestGenerator.getStatus());
             log.info("Status: running={}, mode={}, tradeCount={}",
                 generator.isRunning(), generator.getGenerationMode(), generator.getTradeCount());
             return ResponseEntity.ok(status);
@@ -72,6 +78,32 @@ public class DemoController {
         }
     }
     
+    /**
+     * Start an open-loop load test at a constant target rate
+     *
+     * @param rate Target trades per second
+     * @param producers Concurrent producers
+     * @param durationSeconds Run length, 0 to run until stopped
+     */
+    @PostMapping("/load-test/start")
+    public ResponseEntity<?> startLoadTest(@RequestParam double rate,
+                                           @RequestParam(defaultValue = "16") int producers,
+                                           @RequestParam(defaultValue = "60") long durationSeconds) {
+        try {
+            return ResponseEntity.ok(loadTestGenerator.start(rate, producers, durationSeconds));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("field", e.getField(), "message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/load-test/stop")
+    public ResponseEntity<java.util.Map<String, Object>> stopLoadTest() {
+        loadTestGenerator.stop();
+        return ResponseEntity.ok(loadTestGenerator.getStatus());
+    }
+    
     @GetMapping("/ping")
     public ResponseEntity<String> ping() {
         log.info("Ping endpoint called");
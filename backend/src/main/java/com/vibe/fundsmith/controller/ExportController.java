@@ -0,0 +1,120 @@
+package com.vibe.fundsmith.controller;
+
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.repository.ExportRepository.Dataset;
+import com.vibe.fundsmith.service.ExportService;
+import com.vibe.fundsmith.service.ExportService.Format;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk exports streamed straight to the response.
+ * Responses are gzip-encoded when the client sends Accept-Encoding: gzip.
+ */
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Export trades, filtered by trade date
+     */
+    @GetMapping("/trades")
+    public ResponseEntity<?> exportTrades(
+        @RequestParam(required = false, defaultValue = "csv") String format,
+        @RequestParam(required = false) String portfolioId,
+        @RequestParam(required = false) String isin,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return export(Dataset.TRADES, "trades", format, portfolioId, isin, fromDate, toDate, acceptEncoding);
+    }
+
+    /**
+     * Export the cash ledger, filtered by entry date
+     */
+    @GetMapping("/cash-ledger")
+    public ResponseEntity<?> exportCashLedger(
+        @RequestParam(required = false, defaultValue = "csv") String format,
+        @RequestParam(required = false) String portfolioId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return export(Dataset.CASH_LEDGER, "cash-ledger", format, portfolioId, null, fromDate, toDate, acceptEncoding);
+    }
+
+    /**
+     * Export journal lines with their journal, filtered by journal date
+     */
+    @GetMapping("/journals")
+    public ResponseEntity<?> exportJournals(
+        @RequestParam(required = false, defaultValue = "csv") String format,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return export(Dataset.JOURNALS, "journals", format, null, null, fromDate, toDate, acceptEncoding);
+    }
+
+    /**
+     * Export NAV snapshots, filtered by calculation date
+     */
+    @GetMapping("/nav")
+    public ResponseEntity<?> exportNav(
+        @RequestParam(required = false, defaultValue = "csv") String format,
+        @RequestParam(required = false) String portfolioId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return export(Dataset.NAV, "nav", format, portfolioId, null, fromDate, toDate, acceptEncoding);
+    }
+
+    private ResponseEntity<?> export(Dataset dataset, String name, String format, String portfolioId, String isin,
+                                     LocalDate fromDate, LocalDate toDate, String acceptEncoding) {
+        Format outputFormat;
+        try {
+            outputFormat = Format.parse(format);
+            exportService.validate(fromDate, toDate);
+        } catch (ValidationException e) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("field", e.getField(), "message", e.getMessage()));
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            exportService.export(dataset, outputFormat, portfolioId, isin, fromDate, toDate, target);
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(outputFormat.getContentType() + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + outputFormat.getExtension() + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
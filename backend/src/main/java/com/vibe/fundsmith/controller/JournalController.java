@@ -1,16 +1,23 @@
 package com.vibe.fundsmith.controller;
 
 import com.vibe.fundsmith.dto.JournalDto;
+import com.vibe.fundsmith.dto.JournalPageDto;
+import com.vibe.fundsmith.dto.SettlementRunDto;
 import com.vibe.fundsmith.exception.UnbalancedJournalException;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.model.JournalType;
 import com.vibe.fundsmith.service.JournalService;
+import com.vibe.fundsmith.service.SettlementService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -23,10 +30,12 @@ public class JournalController {
     private static final Logger log = LoggerFactory.getLogger(JournalController.class);
     
     private final JournalService journalService;
+    private final SettlementService settlementService;
     
     @Autowired
-    public JournalController(JournalService journalService) {
+    public JournalController(JournalService journalService, SettlementService settlementService) {
         this.journalService = journalService;
+        this.settlementService = settlementService;
     }
     
     /**
@@ -53,13 +62,18 @@ public class JournalController {
     /**
      * Get recent journals
      * 
+     * @param limit Maximum number of journals (optional, defaults to 10, maximum 500)
      * @return List of recent journal DTOs
      */
     @GetMapping("/journals/recent")
-    public ResponseEntity<List<JournalDto>> getRecentJournals() {
+    public ResponseEntity<?> getRecentJournals(@RequestParam(defaultValue = "10") int limit) {
         try {
-            List<JournalDto> journals = journalService.getRecentJournals();
+            List<JournalDto> journals = journalService.getRecentJournals(limit);
             return ResponseEntity.ok(journals);
+        } catch (ValidationException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("field", e.getField(), "message", e.getMessage()));
         } catch (Exception e) {
             log.error("Error getting recent journals: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -67,29 +81,93 @@ public class JournalController {
     }
     
     /**
-     * Process settlements for today
+     * Search journals newest first; pass the returned nextCursor to get the next page
      * 
-     * @return Number of trades processed
+     * @param portfolioId Only journals of this portfolio (optional)
+     * @param type Only journals of this type, TRADE_DATE or SETTLEMENT_DATE (optional)
+     * @param account Only journals with a line on this account (optional)
+     * @param minAmount Smallest line amount, inclusive (optional)
+     * @param maxAmount Largest line amount, inclusive (optional)
+     * @param fromDate Earliest accounting date, inclusive (optional)
+     * @param toDate Latest accounting date, inclusive (optional)
+     * @param cursor Token from the previous page (optional)
+     * @param limit Page size (optional, defaults to 50, maximum 500)
+     * @return Journals with their lines and the token for the next page
+     */
+    @GetMapping("/journals/search")
+    public ResponseEntity<?> searchJournals(
+            @RequestParam(required = false) String portfolioId,
+            @RequestParam(required = false) JournalType type,
+            @RequestParam(required = false) String account,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            JournalPageDto page = journalService.searchJournals(
+                    portfolioId, type, account, minAmount, maxAmount, fromDate, toDate, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("field", e.getField(), "message", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Process settlements for a date (today by default)
+     * 
+     * @param date Settlement date (yyyy-MM-dd)
+     * @param async Start the run in the background and return immediately
+     * @return Run summary including processed count and per-chunk failures
      */
     @PostMapping("/journals/process-settlements")
-    public ResponseEntity<Map<String, Object>> processSettlements(
-            @RequestParam(required = false) String date) {
+    public ResponseEntity<SettlementRunDto> processSettlements(
+            @RequestParam(required = false) String date,
+            @RequestParam(defaultValue = "false") boolean async) {
         
         try {
             LocalDate settleDate = date != null ? LocalDate.parse(date) : LocalDate.now();
-            int processed = journalService.processSettlements(settleDate);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("processed", processed);
-            response.put("date", settleDate.toString());
-            
-            return ResponseEntity.ok(response);
+            if (async) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(settlementService.startSettlements(settleDate));
+            }
+            return ResponseEntity.ok(settlementService.processSettlements(settleDate));
         } catch (Exception e) {
             log.error("Error processing settlements: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    /**
+     * Get progress of a settlement run
+     * 
+     * @param runId The run ID
+     * @return Run progress
+     */
+    @GetMapping("/journals/settlement-runs/{runId}")
+    public ResponseEntity<SettlementRunDto> getSettlementRun(@PathVariable String runId) {
+        try {
+            return settlementService.getRun(UUID.fromString(runId))
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid run ID format: {}", runId);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get recent settlement runs
+     * 
+     * @return Runs, newest first
+     */
+    @GetMapping("/journals/settlement-runs")
+    public ResponseEntity<List<SettlementRunDto>> getSettlementRuns() {
+        return ResponseEntity.ok(settlementService.getRecentRuns());
+    }
+    
     /**
      * Handle unbalanced journal exceptions
      */
@@ -0,0 +1,68 @@
+package com.vibe.fundsmith.controller;
+
+import com.vibe.fundsmith.dto.AccountLedgerDto;
+import com.vibe.fundsmith.dto.TrialBalanceDto;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.service.LedgerService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * ABOR ledger views served from the materialized account balances
+ */
+@RestController
+@RequestMapping("/api/ledger")
+public class LedgerController {
+    private final LedgerService ledgerService;
+
+    public LedgerController(LedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    /**
+     * Get the trial balance as of a date
+     *
+     * @param portfolioId Portfolio identifier (optional, all portfolios when omitted)
+     * @param asOf Accounting date, inclusive (optional, defaults to today)
+     * @return Net balance of every account with debit and credit totals
+     */
+    @GetMapping("/trial-balance")
+    public TrialBalanceDto getTrialBalance(
+            @RequestParam(required = false) String portfolioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+
+        return ledgerService.getTrialBalance(portfolioId, asOf != null ? asOf : LocalDate.now());
+    }
+
+    /**
+     * Get one account's daily postings and closing balances
+     *
+     * @param account Account name, e.g. CASH or SECURITIES_RECEIVABLE
+     * @param portfolioId Portfolio identifier (optional, defaults to "DEFAULT")
+     * @param fromDate Earliest date, inclusive (optional, from the first posting when omitted)
+     * @param toDate Latest date, inclusive (optional, defaults to today)
+     * @return Opening balance and one entry per posted date
+     */
+    @GetMapping("/accounts/{account}")
+    public ResponseEntity<?> getAccountLedger(
+            @PathVariable String account,
+            @RequestParam(required = false, defaultValue = "DEFAULT") String portfolioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        try {
+            AccountLedgerDto ledger = ledgerService.getAccountLedger(
+                    portfolioId, account, fromDate, toDate != null ? toDate : LocalDate.now());
+            return ResponseEntity.ok(ledger);
+        } catch (ValidationException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("field", e.getField(), "message", e.getMessage()));
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.vibe.fundsmith.controller;
 import com.vibe.fundsmith.dto.NavCalculationDto;
 import com.vibe.fundsmith.model.NavCalculation;
 import com.vibe.fundsmith.repository.NavCalculationRepository;
+import com.vibe.fundsmith.service.AdminResetService;
 import com.vibe.fundsmith.service.NavCalculationService;
+import com.vibe.fundsmith.service.NavEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -26,6 +28,8 @@ import java.util.stream.Collectors;
  * - GET /api/nav/history -> returns newest-first limited history
  * - GET /api/nav/history/range -> returns historical snapshots between start
  * and end (asc)
+ * - POST /api/nav/engine/verify -> verifies incremental NAV state against a
+ * full recompute
  */
 @RestController
 @RequestMapping("/api/nav")
@@ -34,11 +38,17 @@ public class NavCalculationController {
 
     private final NavCalculationService navCalculationService;
     private final NavCalculationRepository navCalculationRepository;
+    private final NavEngine navEngine;
+    private final AdminResetService adminResetService;
 
     public NavCalculationController(NavCalculationService navCalculationService,
-            NavCalculationRepository navCalculationRepository) {
+            NavCalculationRepository navCalculationRepository,
+            NavEngine navEngine,
+            AdminResetService adminResetService) {
         this.navCalculationService = navCalculationService;
         this.navCalculationRepository = navCalculationRepository;
+        this.navEngine = navEngine;
+        this.adminResetService = adminResetService;
     }
 
     @PostMapping("/calculate")
@@ -105,6 +115,24 @@ public class NavCalculationController {
         }
     }
 
+    /**
+     * Verify every loaded portfolio's incremental value against a full recompute
+     *
+     * @return Number of portfolios reset in this run and since startup
+     */
+    @PostMapping("/engine/verify")
+    public ResponseEntity<Map<String, Object>> verifyEngine() {
+        try {
+            int breaks = navEngine.verifyAll();
+            return ResponseEntity.ok(Map.of(
+                    "breaks", breaks,
+                    "totalBreaks", navEngine.getVerificationBreaks()));
+        } catch (Exception e) {
+            log.error("Error verifying NAV engine: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Delete all NAV snapshots (for system reset)
      *
@@ -113,9 +141,7 @@ public class NavCalculationController {
     @DeleteMapping
     public ResponseEntity<Map<String, Object>> deleteAllSnapshots() {
         try {
-            long deletedCount = navCalculationRepository.count();
-            navCalculationRepository.deleteAll();
-            log.info("Deleted {} NAV snapshots", deletedCount);
+            long deletedCount = adminResetService.resetNavSnapshots(null).deletedFrom("nav_snapshots");
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -1,16 +1,21 @@
 package com.vibe.fundsmith.controller;
 
 import com.vibe.fundsmith.dto.PositionDto;
+import com.vibe.fundsmith.service.PositionCache;
 import com.vibe.fundsmith.service.PositionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/positions")
 public class PositionController {
     
+    private static final String EPOCH_HEADER = "X-Positions-Epoch";
+    
     private final PositionService positionService;
     
     @Autowired
@@ -19,12 +24,35 @@ public class PositionController {
     }
     
     /**
-     * Get all positions
+     * Get all positions, optionally restricted to one portfolio.
+     * Served from the in-memory position cache; the X-Positions-Epoch header
+     * identifies the snapshot the response was read from.
      * 
-     * @return List of all positions sorted by ISIN
+     * @param portfolioId Portfolio identifier (optional, all portfolios when omitted)
+     * @return List of positions sorted by portfolio, then ISIN
      */
     @GetMapping
-    public List<PositionDto> getAllPositions() {
-        return positionService.getAllPositions();
+    public ResponseEntity<List<PositionDto>> getAllPositions(@RequestParam(required = false) String portfolioId) {
+        PositionCache.Snapshot snapshot = positionService.getSnapshot();
+        List<PositionDto> positions = portfolioId != null
+                ? snapshot.portfolio(portfolioId)
+                : snapshot.all();
+        return ResponseEntity.ok()
+                .header(EPOCH_HEADER, String.valueOf(snapshot.epoch()))
+                .body(positions);
+    }
+    
+    /**
+     * Reload the position cache from the database
+     * 
+     * @return Epoch and size of the rebuilt snapshot
+     */
+    @PostMapping("/cache/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildCache() {
+        PositionCache.Snapshot snapshot = positionService.rebuildCache();
+        return ResponseEntity.ok(Map.of(
+                "epoch", snapshot.epoch(),
+                "positions", snapshot.size()
+        ));
     }
 }
\ No newline at end of file
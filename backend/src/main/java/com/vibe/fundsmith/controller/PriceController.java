@@ -0,0 +1,57 @@
+package com.vibe.fundsmith.controller;
+
+import com.vibe.fundsmith.dto.PriceDto;
+import com.vibe.fundsmith.service.PriceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for instrument prices.
+ * - GET /api/prices?isins=..&asOf=.. -> cached prices, fetched in bulk on miss
+ * - POST /api/prices/refresh -> re-fetches cached latest prices and publishes changes
+ */
+@RestController
+@RequestMapping("/api/prices")
+public class PriceController {
+    private static final Logger log = LoggerFactory.getLogger(PriceController.class);
+
+    private final PriceService priceService;
+
+    public PriceController(PriceService priceService) {
+        this.priceService = priceService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PriceDto>> getPrices(
+            @RequestParam List<String> isins,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        try {
+            List<PriceDto> prices = priceService.getPrices(isins, asOf).values().stream()
+                    .sorted(Comparator.comparing(PriceDto::getIsin))
+                    .toList();
+            return ResponseEntity.ok(prices);
+        } catch (Exception e) {
+            log.error("Error fetching prices: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        try {
+            int changed = priceService.refresh();
+            return ResponseEntity.ok(Map.of("changed", changed, "cached", priceService.getCachedCount()));
+        } catch (Exception e) {
+            log.error("Error refreshing prices: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.vibe.fundsmith.controller;
+
+import com.vibe.fundsmith.service.LiveStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event stream of TradeBooked, PositionUpdated and CashMovement events
+ */
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    private final LiveStreamService liveStreamService;
+
+    public StreamController(LiveStreamService liveStreamService) {
+        this.liveStreamService = liveStreamService;
+    }
+
+    /**
+     * Subscribe to committed events. Each event's SSE id is its publish sequence number;
+     * browsers resend it as Last-Event-ID on reconnect, other clients may pass since.
+     *
+     * @param lastEventId Last sequence received (sent automatically by EventSource on reconnect)
+     * @param since Last sequence received (explicit alternative to Last-Event-ID)
+     * @param portfolioId Only stream this portfolio's events (optional)
+     * @return Event stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(required = false) Long since,
+                             @RequestParam(required = false) String portfolioId) {
+        return liveStreamService.subscribe(since != null ? since : parseSequence(lastEventId), portfolioId);
+    }
+
+    private Long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Unknown resume point: stream live events only
+            return null;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.vibe.fundsmith.controller;
 
+import com.vibe.fundsmith.dto.ResetResultDto;
+import com.vibe.fundsmith.dto.TradeBatchResponse;
+import com.vibe.fundsmith.dto.TradePageDto;
 import com.vibe.fundsmith.dto.TradeRequest;
 import com.vibe.fundsmith.dto.TradeResponse;
 import com.vibe.fundsmith.exception.ValidationException;
 import com.vibe.fundsmith.model.Trade;
+import com.vibe.fundsmith.service.AdminResetService;
+import com.vibe.fundsmith.service.TradeBatchService;
 import com.vibe.fundsmith.service.TradeService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -20,9 +25,14 @@ import java.util.Optional;
 @RequestMapping("/api/trades")
 public class TradeController {
     private final TradeService tradeService;
+    private final TradeBatchService tradeBatchService;
+    private final AdminResetService adminResetService;
 
-    public TradeController(TradeService tradeService) {
+    public TradeController(TradeService tradeService, TradeBatchService tradeBatchService,
+                           AdminResetService adminResetService) {
         this.tradeService = tradeService;
+        this.tradeBatchService = tradeBatchService;
+        this.adminResetService = adminResetService;
     }
 
     /**
@@ -44,6 +54,25 @@ public class TradeController {
         }
     }
 
+    /**
+     * Book a batch of trades in one transaction, reporting per-row results
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> bookTrades(@RequestBody List<TradeRequest> requests) {
+        try {
+            TradeBatchResponse response = tradeBatchService.bookTrades(requests);
+            return ResponseEntity.ok(response);
+        } catch (ValidationException e) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("field", e.getField(), "message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * List trades with optional filtering
      */
@@ -57,6 +86,27 @@ public class TradeController {
         return tradeService.findTrades(fromDate, toDate, isin, limit);
     }
     
+    /**
+     * Page through trades newest first; pass the returned nextCursor to get the next page
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> pageTrades(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestParam(required = false) String isin,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            TradePageDto page = tradeService.findTradePage(fromDate, toDate, isin, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("field", e.getField(), "message", e.getMessage()));
+        }
+    }
+    
     /**
      * Get a trade by its trade ID
      */
@@ -68,16 +118,18 @@ public class TradeController {
     }
     
     /**
-     * Clears all trades from the database
+     * Clears all trades from the database, with the positions, journals and settlement
+     * records derived from them
      * @return A response indicating how many trades were deleted
      */
     @DeleteMapping
     public ResponseEntity<Map<String, Object>> clearAllTrades() {
-        long deletedCount = tradeService.deleteAllTrades();
+        ResetResultDto result = adminResetService.resetTrades(null);
         return ResponseEntity.ok(Map.of(
             "success", true,
             "message", "All trades have been cleared",
-            "deletedCount", deletedCount
+            "deletedCount", result.deletedFrom("trades"),
+            "deletedRows", result.getDeletedRows()
         ));
     }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.vibe.fundsmith.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for one account's daily activity and running balance over a date range.
+ * Balances are net debit balances (negative for a credit balance).
+ */
+public class AccountLedgerDto {
+    private String portfolioId;
+    private String account;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private List<Day> days = new ArrayList<>();
+    
+    public AccountLedgerDto() {}
+    
+    public AccountLedgerDto(String portfolioId, String account, LocalDate fromDate, LocalDate toDate,
+                            BigDecimal openingBalance, List<Day> days) {
+        this.portfolioId = portfolioId;
+        this.account = account;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.openingBalance = openingBalance;
+        this.days = days;
+        this.closingBalance = days.isEmpty() ? openingBalance : days.get(days.size() - 1).getBalance();
+    }
+    
+    // Getters and setters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+    
+    public String getAccount() {
+        return account;
+    }
+    
+    public void setAccount(String account) {
+        this.account = account;
+    }
+    
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+    
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+    
+    public LocalDate getToDate() {
+        return toDate;
+    }
+    
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+    
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+    
+    public void setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+    
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+    
+    public void setClosingBalance(BigDecimal closingBalance) {
+        this.closingBalance = closingBalance;
+    }
+    
+    public List<Day> getDays() {
+        return days;
+    }
+    
+    public void setDays(List<Day> days) {
+        this.days = days;
+    }
+    
+    /**
+     * Postings on one accounting date and the balance at its close
+     */
+    public static class Day {
+        private LocalDate date;
+        private BigDecimal debit;
+        private BigDecimal credit;
+        private BigDecimal balance;
+        
+        public Day() {}
+        
+        public Day(LocalDate date, BigDecimal debit, BigDecimal credit, BigDecimal balance) {
+            this.date = date;
+            this.debit = debit;
+            this.credit = credit;
+            this.balance = balance;
+        }
+        
+        // Getters and setters
+        public LocalDate getDate() {
+            return date;
+        }
+        
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+        
+        public BigDecimal getDebit() {
+            return debit;
+        }
+        
+        public void setDebit(BigDecimal debit) {
+            this.debit = debit;
+        }
+        
+        public BigDecimal getCredit() {
+            return credit;
+        }
+        
+        public void setCredit(BigDecimal credit) {
+            this.credit = credit;
+        }
+        
+        public BigDecimal getBalance() {
+            return balance;
+        }
+        
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.vibe.fundsmith.dto;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
- * DTO representing cash balance for API responses
+ * DTO representing cash balance for API responses.
+ * The balance is the total in the fund base currency; balances holds each currency's own balance.
  */
 public class CashBalanceDto {
     private String balance;
     private String currency;
+    private Map<String, String> balances = new LinkedHashMap<>();
     
     public CashBalanceDto() {}
     
@@ -14,6 +19,12 @@ public class CashBalanceDto {
         this.currency = currency;
     }
     
+    public CashBalanceDto(String balance, String currency, Map<String, String> balances) {
+        this.balance = balance;
+        this.currency = currency;
+        this.balances = balances;
+    }
+    
     // Getters and setters
     public String getBalance() {
         return balance;
@@ -30,4 +41,12 @@ public class CashBalanceDto {
     public void setCurrency(String currency) {
         this.currency = currency;
     }
-}
\ No newline at end of file
+    
+    public Map<String, String> getBalances() {
+        return balances;
+    }
+    
+    public void setBalances(Map<String, String> balances) {
+        this.balances = balances;
+    }
+}
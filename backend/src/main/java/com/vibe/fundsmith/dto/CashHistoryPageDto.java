@@ -0,0 +1,48 @@
+package com.vibe.fundsmith.dto;
+
+import com.vibe.fundsmith.model.CashEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of cash ledger entries with an opaque continuation token
+ */
+public class CashHistoryPageDto {
+    private List<CashEntry> entries = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CashHistoryPageDto() {}
+
+    public CashHistoryPageDto(List<CashEntry> entries, String nextCursor, boolean hasMore) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and setters
+    public List<CashEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<CashEntry> entries) {
+        this.entries = entries;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
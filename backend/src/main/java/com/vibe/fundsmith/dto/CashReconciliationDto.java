@@ -0,0 +1,119 @@
+package com.vibe.fundsmith.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO representing the result of reconciling cash_state snapshots against the ledger
+ */
+public class CashReconciliationDto {
+    private String checkedAt;
+    private int portfoliosChecked;
+    private boolean consistent;
+    private List<Break> breaks = new ArrayList<>();
+    
+    public CashReconciliationDto() {}
+    
+    public CashReconciliationDto(String checkedAt, int portfoliosChecked, List<Break> breaks) {
+        this.checkedAt = checkedAt;
+        this.portfoliosChecked = portfoliosChecked;
+        this.breaks = breaks;
+        this.consistent = breaks.isEmpty();
+    }
+    
+    // Getters and setters
+    public String getCheckedAt() {
+        return checkedAt;
+    }
+    
+    public void setCheckedAt(String checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+    
+    public int getPortfoliosChecked() {
+        return portfoliosChecked;
+    }
+    
+    public void setPortfoliosChecked(int portfoliosChecked) {
+        this.portfoliosChecked = portfoliosChecked;
+    }
+    
+    public boolean isConsistent() {
+        return consistent;
+    }
+    
+    public void setConsistent(boolean consistent) {
+        this.consistent = consistent;
+    }
+    
+    public List<Break> getBreaks() {
+        return breaks;
+    }
+    
+    public void setBreaks(List<Break> breaks) {
+        this.breaks = breaks;
+    }
+    
+    /**
+     * A portfolio currency balance whose snapshot differs from its ledger sum
+     */
+    public static class Break {
+        private String portfolioId;
+        private String currency;
+        private String snapshotBalance;
+        private String ledgerBalance;
+        private String difference;
+        
+        public Break() {}
+        
+        public Break(String portfolioId, String currency, String snapshotBalance, String ledgerBalance,
+                     String difference) {
+            this.portfolioId = portfolioId;
+            this.currency = currency;
+            this.snapshotBalance = snapshotBalance;
+            this.ledgerBalance = ledgerBalance;
+            this.difference = difference;
+        }
+        
+        // Getters and setters
+        public String getPortfolioId() {
+            return portfolioId;
+        }
+        
+        public void setPortfolioId(String portfolioId) {
+            this.portfolioId = portfolioId;
+        }
+        
+        public String getCurrency() {
+            return currency;
+        }
+        
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+        
+        public String getSnapshotBalance() {
+            return snapshotBalance;
+        }
+        
+        public void setSnapshotBalance(String snapshotBalance) {
+            this.snapshotBalance = snapshotBalance;
+        }
+        
+        public String getLedgerBalance() {
+            return ledgerBalance;
+        }
+        
+        public void setLedgerBalance(String ledgerBalance) {
+            this.ledgerBalance = ledgerBalance;
+        }
+        
+        public String getDifference() {
+            return difference;
+        }
+        
+        public void setDifference(String difference) {
+            this.difference = difference;
+        }
+    }
+}
@@ -18,6 +18,8 @@ public class JournalDto {
     private UUID journalId;
     private UUID tradeId;
     private String type;
+    private String portfolioId;
+    private String accountingDate;
     private String createdAt;
     private List<JournalLineDto> lines = new ArrayList<>();
     private BigDecimal totalDebits = BigDecimal.ZERO;
@@ -33,6 +35,8 @@ public class JournalDto {
         dto.setJournalId(journal.getId());
         dto.setTradeId(journal.getTradeId());
         dto.setType(journal.getJournalType().toString());
+        dto.setPortfolioId(journal.getPortfolioId());
+        dto.setAccountingDate(journal.getAccountingDate() != null ? journal.getAccountingDate().toString() : null);
         dto.setCreatedAt(journal.getCreatedAt().toString());
         
         BigDecimal totalDr = BigDecimal.ZERO;
@@ -82,6 +86,22 @@ public class JournalDto {
         this.type = type;
     }
     
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+    
+    public String getAccountingDate() {
+        return accountingDate;
+    }
+    
+    public void setAccountingDate(String accountingDate) {
+        this.accountingDate = accountingDate;
+    }
+    
     public String getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,46 @@
+package com.vibe.fundsmith.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of journals, with their lines, and an opaque continuation token
+ */
+public class JournalPageDto {
+    private List<JournalDto> journals = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+
+    public JournalPageDto() {}
+
+    public JournalPageDto(List<JournalDto> journals, String nextCursor, boolean hasMore) {
+        this.journals = journals;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and setters
+    public List<JournalDto> getJournals() {
+        return journals;
+    }
+
+    public void setJournals(List<JournalDto> journals) {
+        this.journals = journals;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
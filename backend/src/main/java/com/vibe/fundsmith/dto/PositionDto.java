@@ -7,19 +7,29 @@ import java.time.ZonedDateTime;
  * DTO representing position data for API responses
  */
 public class PositionDto {
+    private String portfolioId;
     private String isin;
     private BigDecimal quantity;
     private String lastUpdated; // ISO-8601 string with timezone
     
     public PositionDto() {}
     
-    public PositionDto(String isin, BigDecimal quantity, ZonedDateTime lastUpdated) {
+    public PositionDto(String portfolioId, String isin, BigDecimal quantity, ZonedDateTime lastUpdated) {
+        this.portfolioId = portfolioId;
         this.isin = isin;
         this.quantity = quantity;
         this.lastUpdated = lastUpdated.toString();
     }
     
     // Getters and setters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+    
     public String getIsin() {
         return isin;
     }
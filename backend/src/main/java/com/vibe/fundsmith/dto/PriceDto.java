@@ -0,0 +1,56 @@
+package com.vibe.fundsmith.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO representing an instrument price as of a business date
+ */
+public class PriceDto {
+    private String isin;
+    private BigDecimal price;
+    private String currency;
+    private LocalDate asOf;
+    
+    public PriceDto() {}
+    
+    public PriceDto(String isin, BigDecimal price, String currency, LocalDate asOf) {
+        this.isin = isin;
+        this.price = price;
+        this.currency = currency;
+        this.asOf = asOf;
+    }
+    
+    // Getters and setters
+    public String getIsin() {
+        return isin;
+    }
+    
+    public void setIsin(String isin) {
+        this.isin = isin;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+    
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+    
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+}
@@ -0,0 +1,53 @@
+package com.vibe.fundsmith.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of an administrative reset: rows deleted per table
+ */
+public class ResetResultDto {
+    private String portfolioId;
+    private Map<String, Long> deletedRows = new LinkedHashMap<>();
+    private long totalDeleted;
+
+    public ResetResultDto() {}
+
+    public ResetResultDto(String portfolioId, Map<String, Long> deletedRows) {
+        this.portfolioId = portfolioId;
+        this.deletedRows = deletedRows;
+        this.totalDeleted = deletedRows.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Rows deleted from one table, 0 if the reset did not touch it
+     */
+    public long deletedFrom(String table) {
+        return deletedRows.getOrDefault(table, 0L);
+    }
+
+    // Getters and setters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public Map<String, Long> getDeletedRows() {
+        return deletedRows;
+    }
+
+    public void setDeletedRows(Map<String, Long> deletedRows) {
+        this.deletedRows = deletedRows;
+    }
+
+    public long getTotalDeleted() {
+        return totalDeleted;
+    }
+
+    public void setTotalDeleted(long totalDeleted) {
+        this.totalDeleted = totalDeleted;
+    }
+}
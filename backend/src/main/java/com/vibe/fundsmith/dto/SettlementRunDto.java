@@ -0,0 +1,173 @@
+package com.vibe.fundsmith.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO representing the progress and outcome of a settlement run
+ */
+public class SettlementRunDto {
+    private String runId;
+    private String date;
+    private String status;
+    private int totalTrades;
+    private int totalChunks;
+    private int completedChunks;
+    private int processed;
+    private int alreadySettled;
+    private int failed;
+    private String startedAt;
+    private String finishedAt;
+    private List<ChunkFailure> failures = new ArrayList<>();
+    
+    public SettlementRunDto() {}
+    
+    // Getters and setters
+    public String getRunId() {
+        return runId;
+    }
+    
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+    
+    public String getDate() {
+        return date;
+    }
+    
+    public void setDate(String date) {
+        this.date = date;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public int getTotalTrades() {
+        return totalTrades;
+    }
+    
+    public void setTotalTrades(int totalTrades) {
+        this.totalTrades = totalTrades;
+    }
+    
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+    
+    public void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+    
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+    
+    public void setCompletedChunks(int completedChunks) {
+        this.completedChunks = completedChunks;
+    }
+    
+    public int getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(int processed) {
+        this.processed = processed;
+    }
+    
+    public int getAlreadySettled() {
+        return alreadySettled;
+    }
+    
+    public void setAlreadySettled(int alreadySettled) {
+        this.alreadySettled = alreadySettled;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public String getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(String startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public String getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(String finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public List<ChunkFailure> getFailures() {
+        return failures;
+    }
+    
+    public void setFailures(List<ChunkFailure> failures) {
+        this.failures = failures;
+    }
+    
+    /**
+     * A chunk, or trades within a chunk, that could not be settled
+     */
+    public static class ChunkFailure {
+        private int chunk;
+        private int trades;
+        private List<String> tradeIds = new ArrayList<>();
+        private String message;
+        
+        public ChunkFailure() {}
+        
+        public ChunkFailure(int chunk, int trades, List<String> tradeIds, String message) {
+            this.chunk = chunk;
+            this.trades = trades;
+            this.tradeIds = tradeIds;
+            this.message = message;
+        }
+        
+        // Getters and setters
+        public int getChunk() {
+            return chunk;
+        }
+        
+        public void setChunk(int chunk) {
+            this.chunk = chunk;
+        }
+        
+        public int getTrades() {
+            return trades;
+        }
+        
+        public void setTrades(int trades) {
+            this.trades = trades;
+        }
+        
+        public List<String> getTradeIds() {
+            return tradeIds;
+        }
+        
+        public void setTradeIds(List<String> tradeIds) {
+            this.tradeIds = tradeIds;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.vibe.fundsmith.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response for bulk trade booking with a per-row accept/reject result
+ */
+public class TradeBatchResponse {
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String IDEMPOTENT_HIT = "IDEMPOTENT_HIT";
+    public static final String REJECTED = "REJECTED";
+
+    private int accepted;
+    private int idempotentHits;
+    private int rejected;
+    private List<RowResult> results = new ArrayList<>();
+
+    public TradeBatchResponse() {}
+
+    public TradeBatchResponse(List<RowResult> results) {
+        this.results = results;
+        for (RowResult result : results) {
+            switch (result.getOutcome()) {
+                case ACCEPTED -> accepted++;
+                case IDEMPOTENT_HIT -> idempotentHits++;
+                default -> rejected++;
+            }
+        }
+    }
+
+    // Getters and setters
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getIdempotentHits() {
+        return idempotentHits;
+    }
+
+    public void setIdempotentHits(int idempotentHits) {
+        this.idempotentHits = idempotentHits;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<RowResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<RowResult> results) {
+        this.results = results;
+    }
+
+    /**
+     * Result for a single row of the batch, in request order
+     */
+    public static class RowResult {
+        private int index;
+        private UUID tradeId;
+        private String outcome;
+        private String field;
+        private String message;
+
+        public RowResult() {}
+
+        public RowResult(int index, UUID tradeId, String outcome, String field, String message) {
+            this.index = index;
+            this.tradeId = tradeId;
+            this.outcome = outcome;
+            this.field = field;
+            this.message = message;
+        }
+
+        public static RowResult accepted(int index, UUID tradeId) {
+            return new RowResult(index, tradeId, ACCEPTED, null, null);
+        }
+
+        public static RowResult idempotentHit(int index, UUID tradeId) {
+            return new RowResult(index, tradeId, IDEMPOTENT_HIT, null, "Trade already booked");
+        }
+
+        public static RowResult rejected(int index, UUID tradeId, String field, String message) {
+            return new RowResult(index, tradeId, REJECTED, field, message);
+        }
+
+        // Getters and setters
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public UUID getTradeId() {
+            return tradeId;
+        }
+
+        public void setTradeId(UUID tradeId) {
+            this.tradeId = tradeId;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public void setOutcome(String outcome) {
+            this.outcome = outcome;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public void setField(String field) {
+            this.field = field;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
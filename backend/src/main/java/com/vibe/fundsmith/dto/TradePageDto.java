@@ -0,0 +1,48 @@
+package com.vibe.fundsmith.dto;
+
+import com.vibe.fundsmith.model.Trade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of trades with an opaque continuation token
+ */
+public class TradePageDto {
+    private List<Trade> trades = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+
+    public TradePageDto() {}
+
+    public TradePageDto(List<Trade> trades, String nextCursor, boolean hasMore) {
+        this.trades = trades;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and setters
+    public List<Trade> getTrades() {
+        return trades;
+    }
+
+    public void setTrades(List<Trade> trades) {
+        this.trades = trades;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,132 @@
+package com.vibe.fundsmith.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a trial balance: every account's net balance as of a date, in the debit or credit column
+ */
+public class TrialBalanceDto {
+    private String portfolioId;
+    private LocalDate asOfDate;
+    private List<Line> accounts = new ArrayList<>();
+    private BigDecimal totalDebits = BigDecimal.ZERO;
+    private BigDecimal totalCredits = BigDecimal.ZERO;
+    private boolean balanced;
+    
+    public TrialBalanceDto() {}
+    
+    public TrialBalanceDto(String portfolioId, LocalDate asOfDate, List<Line> accounts) {
+        this.portfolioId = portfolioId;
+        this.asOfDate = asOfDate;
+        this.accounts = accounts;
+        for (Line line : accounts) {
+            this.totalDebits = this.totalDebits.add(line.getDebit());
+            this.totalCredits = this.totalCredits.add(line.getCredit());
+        }
+        this.balanced = totalDebits.compareTo(totalCredits) == 0;
+    }
+    
+    // Getters and setters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+    
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+    
+    public void setAsOfDate(LocalDate asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+    
+    public List<Line> getAccounts() {
+        return accounts;
+    }
+    
+    public void setAccounts(List<Line> accounts) {
+        this.accounts = accounts;
+    }
+    
+    public BigDecimal getTotalDebits() {
+        return totalDebits;
+    }
+    
+    public void setTotalDebits(BigDecimal totalDebits) {
+        this.totalDebits = totalDebits;
+    }
+    
+    public BigDecimal getTotalCredits() {
+        return totalCredits;
+    }
+    
+    public void setTotalCredits(BigDecimal totalCredits) {
+        this.totalCredits = totalCredits;
+    }
+    
+    public boolean isBalanced() {
+        return balanced;
+    }
+    
+    public void setBalanced(boolean balanced) {
+        this.balanced = balanced;
+    }
+    
+    /**
+     * One account's net balance; a debit balance fills the debit column, a credit balance the credit column
+     */
+    public static class Line {
+        private String account;
+        private BigDecimal debit;
+        private BigDecimal credit;
+        private LocalDate lastPostedOn;
+        
+        public Line() {}
+        
+        public Line(String account, BigDecimal balance, LocalDate lastPostedOn) {
+            this.account = account;
+            this.debit = balance.signum() > 0 ? balance : BigDecimal.ZERO;
+            this.credit = balance.signum() < 0 ? balance.negate() : BigDecimal.ZERO;
+            this.lastPostedOn = lastPostedOn;
+        }
+        
+        // Getters and setters
+        public String getAccount() {
+            return account;
+        }
+        
+        public void setAccount(String account) {
+            this.account = account;
+        }
+        
+        public BigDecimal getDebit() {
+            return debit;
+        }
+        
+        public void setDebit(BigDecimal debit) {
+            this.debit = debit;
+        }
+        
+        public BigDecimal getCredit() {
+            return credit;
+        }
+        
+        public void setCredit(BigDecimal credit) {
+            this.credit = credit;
+        }
+        
+        public LocalDate getLastPostedOn() {
+            return lastPostedOn;
+        }
+        
+        public void setLastPostedOn(LocalDate lastPostedOn) {
+            this.lastPostedOn = lastPostedOn;
+        }
+    }
+}
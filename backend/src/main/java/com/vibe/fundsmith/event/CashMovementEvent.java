@@ -10,13 +10,20 @@ import java.util.UUID;
 public class CashMovementEvent {
     private final String event = "CashMovement";
     private final UUID tradeId;
+    private final String portfolioId;
     private final BigDecimal delta;
+    private final BigDecimal balance;
+    private final String currency;
     private final String reason;
     private final ZonedDateTime createdAt;
     
-    public CashMovementEvent(UUID tradeId, BigDecimal delta, String reason, ZonedDateTime createdAt) {
+    public CashMovementEvent(UUID tradeId, String portfolioId, BigDecimal delta, BigDecimal balance,
+                             String currency, String reason, ZonedDateTime createdAt) {
         this.tradeId = tradeId;
+        this.portfolioId = portfolioId;
         this.delta = delta;
+        this.balance = balance;
+        this.currency = currency;
         this.reason = reason;
         this.createdAt = createdAt;
     }
@@ -29,10 +36,22 @@ public class CashMovementEvent {
         return tradeId;
     }
     
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
     public BigDecimal getDelta() {
         return delta;
     }
     
+    public BigDecimal getBalance() {
+        return balance;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
     public String getReason() {
         return reason;
     }
@@ -40,4 +59,4 @@ public class CashMovementEvent {
     public String getCreatedAt() {
         return createdAt.toString();
     }
-}
\ No newline at end of file
+}
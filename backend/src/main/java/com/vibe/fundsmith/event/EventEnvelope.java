@@ -0,0 +1,14 @@
+package com.vibe.fundsmith.event;
+
+/**
+ * A published domain event with its outbox sequence number.
+ * Sequences increase with insertion order and let consumers de-duplicate
+ * redelivered events (delivery is at-least-once). Publish sequences increase in the
+ * order events are published and committed, so they are safe resume points.
+ *
+ * @param sequence         Outbox row ID
+ * @param publishSequence  Position in publication order, assigned by the relay
+ * @param type             Event type (e.g. PositionUpdated)
+ * @param payload          Event body
+ */
+public record EventEnvelope(long sequence, long publishSequence, String type, Object payload) {}
@@ -0,0 +1,18 @@
+package com.vibe.fundsmith.event;
+
+import java.util.List;
+
+/**
+ * Destination for events drained from the outbox.
+ * Every EventSink bean receives each batch; an exception leaves the batch
+ * unpublished so it is retried on the next relay run.
+ */
+public interface EventSink {
+
+    /**
+     * Deliver a batch of events in sequence order
+     *
+     * @param events Events to deliver
+     */
+    void publish(List<EventEnvelope> events);
+}
@@ -0,0 +1,45 @@
+package com.vibe.fundsmith.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a file as newline-delimited JSON, one write per batch
+ */
+@Component
+@ConditionalOnProperty(name = "ibor.events.sink.file.enabled", havingValue = "true")
+public class FileEventSink implements EventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileEventSink(ObjectMapper objectMapper,
+                         @Value("${ibor.events.sink.file.path:events.ndjson}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void publish(List<EventEnvelope> events) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (EventEnvelope event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append events to " + path, e);
+        }
+    }
+}
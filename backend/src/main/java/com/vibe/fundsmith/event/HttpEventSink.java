@@ -0,0 +1,62 @@
+package com.vibe.fundsmith.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch as a JSON array to a webhook endpoint.
+ * Non-2xx responses fail the batch so it is redelivered.
+ */
+@Component
+@ConditionalOnProperty(name = "ibor.events.sink.http.enabled", havingValue = "true")
+public class HttpEventSink implements EventSink {
+
+    private final ObjectMapper objectMapper;
+    private final URI endpoint;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public HttpEventSink(ObjectMapper objectMapper,
+                         @Value("${ibor.events.sink.http.url}") String url,
+                         @Value("${ibor.events.sink.http.timeout-ms:5000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void publish(List<EventEnvelope> events) {
+        HttpResponse<Void> response;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(events)))
+                    .build();
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event batch", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to deliver events to " + endpoint, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted delivering events to " + endpoint, e);
+        }
+
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Event endpoint " + endpoint + " returned " + response.statusCode());
+        }
+    }
+}
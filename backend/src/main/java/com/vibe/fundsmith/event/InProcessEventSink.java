@@ -0,0 +1,30 @@
+package com.vibe.fundsmith.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Republishes outbox events as Spring application events. Events are published
+ * inside the relay transaction, which may still roll back and deliver the batch
+ * again, so in-process consumers must listen with
+ * {@code @TransactionalEventListener(fallbackExecution = true)} to see only
+ * committed batches.
+ */
+@Component
+public class InProcessEventSink implements EventSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    public InProcessEventSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publish(List<EventEnvelope> events) {
+        for (EventEnvelope event : events) {
+            publisher.publishEvent(event);
+        }
+    }
+}
@@ -8,12 +8,15 @@ import java.time.ZonedDateTime;
  */
 public class PositionUpdatedEvent {
     private final String event = "PositionUpdated";
+    private final String portfolioId;
     private final String isin;
     private final BigDecimal delta;
     private final BigDecimal newQuantity;
     private final ZonedDateTime updatedAt;
     
-    public PositionUpdatedEvent(String isin, BigDecimal delta, BigDecimal newQuantity, ZonedDateTime updatedAt) {
+    public PositionUpdatedEvent(String portfolioId, String isin, BigDecimal delta, BigDecimal newQuantity,
+                                ZonedDateTime updatedAt) {
+        this.portfolioId = portfolioId;
         this.isin = isin;
         this.delta = delta;
         this.newQuantity = newQuantity;
@@ -24,6 +27,10 @@ public class PositionUpdatedEvent {
         return event;
     }
     
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
     public String getIsin() {
         return isin;
     }
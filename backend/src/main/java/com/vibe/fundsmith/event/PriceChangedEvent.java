@@ -0,0 +1,36 @@
+package com.vibe.fundsmith.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published in-process when a refresh observes a new latest price for an instrument
+ */
+public class PriceChangedEvent {
+    private final String isin;
+    private final BigDecimal oldPrice;
+    private final BigDecimal newPrice;
+    private final String currency;
+    
+    public PriceChangedEvent(String isin, BigDecimal oldPrice, BigDecimal newPrice, String currency) {
+        this.isin = isin;
+        this.oldPrice = oldPrice;
+        this.newPrice = newPrice;
+        this.currency = currency;
+    }
+    
+    public String getIsin() {
+        return isin;
+    }
+    
+    public BigDecimal getOldPrice() {
+        return oldPrice;
+    }
+    
+    public BigDecimal getNewPrice() {
+        return newPrice;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+}
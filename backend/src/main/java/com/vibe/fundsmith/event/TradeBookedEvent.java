@@ -0,0 +1,62 @@
+package com.vibe.fundsmith.event;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Domain event representing a newly booked trade
+ */
+public class TradeBookedEvent {
+    private final String event = "TradeBooked";
+    private final UUID tradeId;
+    private final String portfolioId;
+    private final String isin;
+    private final String side;
+    private final BigDecimal quantity;
+    private final BigDecimal price;
+    private final ZonedDateTime bookedAt;
+    
+    public TradeBookedEvent(UUID tradeId, String portfolioId, String isin, String side,
+                            BigDecimal quantity, BigDecimal price, ZonedDateTime bookedAt) {
+        this.tradeId = tradeId;
+        this.portfolioId = portfolioId;
+        this.isin = isin;
+        this.side = side;
+        this.quantity = quantity;
+        this.price = price;
+        this.bookedAt = bookedAt;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+    
+    public UUID getTradeId() {
+        return tradeId;
+    }
+    
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public String getIsin() {
+        return isin;
+    }
+    
+    public String getSide() {
+        return side;
+    }
+    
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public String getBookedAt() {
+        return bookedAt.toString();
+    }
+}
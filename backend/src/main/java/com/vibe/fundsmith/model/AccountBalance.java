@@ -0,0 +1,121 @@
+package com.vibe.fundsmith.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Materialized ledger balance of one account in one portfolio at the close of an
+ * accounting date. A row exists for every date the account was posted on and holds
+ * that day's debits and credits plus the cumulative totals through the date, so the
+ * balance as of any date is the latest row on or before it.
+ */
+@Entity
+@Table(name = "account_balances")
+@IdClass(AccountBalanceId.class)
+public class AccountBalance {
+
+    @Id
+    @Column(name = "portfolio_id", nullable = false, length = 32)
+    private String portfolioId;
+
+    @Id
+    @Column(name = "account", nullable = false, length = 100)
+    private String account;
+
+    @Id
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+
+    @Column(name = "day_debit", nullable = false, precision = 28, scale = 4)
+    private BigDecimal dayDebit;
+
+    @Column(name = "day_credit", nullable = false, precision = 28, scale = 4)
+    private BigDecimal dayCredit;
+
+    @Column(name = "total_debit", nullable = false, precision = 28, scale = 4)
+    private BigDecimal totalDebit;
+
+    @Column(name = "total_credit", nullable = false, precision = 28, scale = 4)
+    private BigDecimal totalCredit;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    // Default constructor for JPA
+    protected AccountBalance() {}
+
+    /**
+     * Open a date with no postings yet, carrying the cumulative totals of the previous date
+     */
+    public AccountBalance(String portfolioId, String account, LocalDate asOfDate,
+                          BigDecimal openingDebit, BigDecimal openingCredit) {
+        this.portfolioId = portfolioId;
+        this.account = account;
+        this.asOfDate = asOfDate;
+        this.dayDebit = BigDecimal.ZERO;
+        this.dayCredit = BigDecimal.ZERO;
+        this.totalDebit = openingDebit;
+        this.totalCredit = openingCredit;
+        this.updatedAt = ZonedDateTime.now();
+    }
+
+    /**
+     * Post debits and credits made on this date
+     */
+    public void post(BigDecimal debit, BigDecimal credit) {
+        this.dayDebit = this.dayDebit.add(debit);
+        this.dayCredit = this.dayCredit.add(credit);
+        carry(debit, credit);
+    }
+
+    /**
+     * Add debits and credits posted on an earlier date to the cumulative totals
+     */
+    public void carry(BigDecimal debit, BigDecimal credit) {
+        this.totalDebit = this.totalDebit.add(debit);
+        this.totalCredit = this.totalCredit.add(credit);
+        this.updatedAt = ZonedDateTime.now();
+    }
+
+    /**
+     * Net balance through this date; positive for a debit balance, negative for a credit balance
+     */
+    public BigDecimal getBalance() {
+        return totalDebit.subtract(totalCredit);
+    }
+
+    // Getters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    public BigDecimal getDayDebit() {
+        return dayDebit;
+    }
+
+    public BigDecimal getDayCredit() {
+        return dayCredit;
+    }
+
+    public BigDecimal getTotalDebit() {
+        return totalDebit;
+    }
+
+    public BigDecimal getTotalCredit() {
+        return totalCredit;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,60 @@
+package com.vibe.fundsmith.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Composite primary key for {@link AccountBalance}: one row per portfolio, account and as-of date
+ */
+public class AccountBalanceId implements Serializable {
+
+    private String portfolioId;
+    private String account;
+    private LocalDate asOfDate;
+
+    // Default constructor for JPA
+    public AccountBalanceId() {}
+
+    public AccountBalanceId(String portfolioId, String account, LocalDate asOfDate) {
+        this.portfolioId = portfolioId;
+        this.account = account;
+        this.asOfDate = asOfDate;
+    }
+
+    // Getters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AccountBalanceId other)) {
+            return false;
+        }
+        return Objects.equals(portfolioId, other.portfolioId)
+                && Objects.equals(account, other.account)
+                && Objects.equals(asOfDate, other.asOfDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(portfolioId, account, asOfDate);
+    }
+
+    @Override
+    public String toString() {
+        return portfolioId + "/" + account + "@" + asOfDate;
+    }
+}
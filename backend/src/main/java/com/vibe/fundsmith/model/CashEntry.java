@@ -5,11 +5,12 @@ import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 
 @Entity
-@Table(name = "cash_ledger")
+@Table(name = "cash_ledger", indexes = @Index(name = "idx_cash_ledger_portfolio_created_at_id", columnList = "portfolio_id, created_at DESC, id DESC"))
 public class CashEntry {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cash_ledger_id_seq")
+    @SequenceGenerator(name = "cash_ledger_id_seq", sequenceName = "cash_ledger_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "portfolio_id", nullable = false)
@@ -0,0 +1,70 @@
+package com.vibe.fundsmith.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * Materialized cash balance per portfolio and currency, maintained in the same
+ * transaction as every cash_ledger insert so balance reads do not aggregate the ledger.
+ */
+@Entity
+@Table(name = "cash_state")
+@IdClass(CashStateId.class)
+public class CashState {
+    
+    @Id
+    @Column(name = "portfolio_id", nullable = false, length = 32)
+    private String portfolioId;
+    
+    @Id
+    @Column(nullable = false, length = 3)
+    private String currency;
+    
+    @Column(nullable = false, precision = 28, scale = 2)
+    private BigDecimal balance;
+    
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+    
+    // Default constructor for JPA
+    protected CashState() {}
+    
+    public CashState(String portfolioId, String currency, BigDecimal balance) {
+        this.portfolioId = portfolioId;
+        this.currency = currency;
+        this.balance = balance;
+        this.updatedAt = ZonedDateTime.now();
+    }
+    
+    /**
+     * Apply a cash delta and return the new balance
+     */
+    public BigDecimal apply(BigDecimal delta) {
+        this.balance = this.balance.add(delta);
+        this.updatedAt = ZonedDateTime.now();
+        return this.balance;
+    }
+    
+    // Getters and setters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public BigDecimal getBalance() {
+        return balance;
+    }
+    
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+        this.updatedAt = ZonedDateTime.now();
+    }
+    
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.vibe.fundsmith.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite primary key for {@link CashState}: one balance per portfolio and currency
+ */
+public class CashStateId implements Serializable {
+    
+    private String portfolioId;
+    private String currency;
+    
+    // Default constructor for JPA
+    public CashStateId() {}
+    
+    public CashStateId(String portfolioId, String currency) {
+        this.portfolioId = portfolioId;
+        this.currency = currency;
+    }
+    
+    // Getters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CashStateId other)) {
+            return false;
+        }
+        return Objects.equals(portfolioId, other.portfolioId) && Objects.equals(currency, other.currency);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(portfolioId, currency);
+    }
+    
+    @Override
+    public String toString() {
+        return portfolioId + "/" + currency;
+    }
+}
@@ -1,6 +1,8 @@
 package com.vibe.fundsmith.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,7 +13,11 @@ import java.util.UUID;
  * Each journal consists of multiple journal lines that must balance (sum of debits = sum of credits).
  */
 @Entity
-@Table(name = "journals")
+@Table(name = "journals", indexes = {
+    @Index(name = "idx_journals_created_at_id", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_journals_portfolio_created_at_id", columnList = "portfolio_id, created_at DESC, id DESC"),
+    @Index(name = "idx_journals_type_created_at_id", columnList = "journal_type, created_at DESC, id DESC")
+})
 public class Journal {
     
     @Id
@@ -25,19 +31,34 @@ public class Journal {
     @Enumerated(EnumType.STRING)
     private JournalType journalType;
     
+    @Column(name = "portfolio_id", nullable = false, length = 32)
+    private String portfolioId;
+    
+    // Trade date for TRADE_DATE journals, settlement date for SETTLEMENT_DATE journals
+    @Column(name = "accounting_date", nullable = false)
+    private LocalDate accountingDate;
+    
     @Column(name = "created_at", nullable = false)
     private ZonedDateTime createdAt;
     
-    @OneToMany(mappedBy = "journal", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Read paths fetch lines explicitly (see JournalRepository); anything else loads them for up to 100 journals per query
+    @OneToMany(mappedBy = "journal", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<JournalLine> lines = new ArrayList<>();
     
     // Default constructor for JPA
     protected Journal() {}
     
     public Journal(UUID tradeId, JournalType journalType) {
+        this(tradeId, journalType, "DEFAULT", LocalDate.now());
+    }
+    
+    public Journal(UUID tradeId, JournalType journalType, String portfolioId, LocalDate accountingDate) {
         this.id = UUID.randomUUID();
         this.tradeId = tradeId;
         this.journalType = journalType;
+        this.portfolioId = portfolioId;
+        this.accountingDate = accountingDate;
         this.createdAt = ZonedDateTime.now();
     }
     
@@ -68,6 +89,26 @@ public class Journal {
         this.journalType = journalType;
     }
     
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+    
+    public LocalDate getAccountingDate() {
+        return accountingDate;
+    }
+    
+    public void setAccountingDate(LocalDate accountingDate) {
+        this.accountingDate = accountingDate;
+        // Lines are stored in the partition of their journal's accounting date
+        for (JournalLine line : lines) {
+            line.setJournal(this);
+        }
+    }
+    
     public ZonedDateTime getCreatedAt() {
         return createdAt;
     }
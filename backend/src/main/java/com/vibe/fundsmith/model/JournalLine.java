@@ -2,23 +2,29 @@ package com.vibe.fundsmith.model;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 /**
  * Represents an individual line item in a journal entry (either a debit or credit).
  */
 @Entity
-@Table(name = "journal_lines")
+@Table(name = "journal_lines", indexes = @Index(name = "idx_journal_lines_journal_id_account", columnList = "journal_id, account"))
 public class JournalLine {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_lines_id_seq")
+    @SequenceGenerator(name = "journal_lines_id_seq", sequenceName = "journal_lines_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "journal_id", nullable = false)
     private Journal journal;
     
+    // Copy of the journal's accounting date: journal_lines is partitioned by it like journals (see V21)
+    @Column(name = "accounting_date", nullable = false)
+    private LocalDate accountingDate;
+    
     @Column(name = "account", nullable = false)
     private String account;
     
@@ -33,6 +39,7 @@ public class JournalLine {
     
     public JournalLine(Journal journal, String account, BigDecimal debit, BigDecimal credit) {
         this.journal = journal;
+        this.accountingDate = journal.getAccountingDate();
         this.account = account;
         this.debit = debit != null ? debit : BigDecimal.ZERO;
         this.credit = credit != null ? credit : BigDecimal.ZERO;
@@ -54,6 +61,11 @@ public class JournalLine {
     
     public void setJournal(Journal journal) {
         this.journal = journal;
+        this.accountingDate = journal.getAccountingDate();
+    }
+    
+    public LocalDate getAccountingDate() {
+        return accountingDate;
     }
     
     public String getAccount() {
@@ -0,0 +1,52 @@
+package com.vibe.fundsmith.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * An account that has been posted to in a portfolio. Trial balances start from this
+ * short list instead of discovering accounts from balance or journal line history.
+ */
+@Entity
+@Table(name = "ledger_accounts")
+@IdClass(LedgerAccountId.class)
+public class LedgerAccount {
+
+    @Id
+    @Column(name = "portfolio_id", nullable = false, length = 32)
+    private String portfolioId;
+
+    @Id
+    @Column(name = "account", nullable = false, length = 100)
+    private String account;
+
+    // Earliest accounting date posted to the account
+    @Column(name = "opened_on", nullable = false)
+    private LocalDate openedOn;
+
+    // Default constructor for JPA
+    protected LedgerAccount() {}
+
+    public LedgerAccount(String portfolioId, String account, LocalDate openedOn) {
+        this.portfolioId = portfolioId;
+        this.account = account;
+        this.openedOn = openedOn;
+    }
+
+    // Getters and setters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public LocalDate getOpenedOn() {
+        return openedOn;
+    }
+
+    public void setOpenedOn(LocalDate openedOn) {
+        this.openedOn = openedOn;
+    }
+}
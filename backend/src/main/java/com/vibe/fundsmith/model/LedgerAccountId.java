@@ -0,0 +1,51 @@
+package com.vibe.fundsmith.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite primary key for {@link LedgerAccount}: one account per portfolio and account name
+ */
+public class LedgerAccountId implements Serializable {
+
+    private String portfolioId;
+    private String account;
+
+    // Default constructor for JPA
+    public LedgerAccountId() {}
+
+    public LedgerAccountId(String portfolioId, String account) {
+        this.portfolioId = portfolioId;
+        this.account = account;
+    }
+
+    // Getters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LedgerAccountId other)) {
+            return false;
+        }
+        return Objects.equals(portfolioId, other.portfolioId) && Objects.equals(account, other.account);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(portfolioId, account);
+    }
+
+    @Override
+    public String toString() {
+        return portfolioId + "/" + account;
+    }
+}
@@ -0,0 +1,195 @@
+package com.vibe.fundsmith.model;
+
+import com.vibe.fundsmith.event.CashMovementEvent;
+import com.vibe.fundsmith.event.EventEnvelope;
+import com.vibe.fundsmith.event.PositionUpdatedEvent;
+import com.vibe.fundsmith.event.TradeBookedEvent;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Transactional outbox row. Written in the booking transaction as plain columns
+ * (no JSON on the hot path) and published after commit by the outbox relay.
+ */
+@Entity
+@Table(name = "event_outbox", indexes = {
+    @Index(name = "idx_event_outbox_published_at", columnList = "published_at, id"),
+    @Index(name = "idx_event_outbox_publish_seq", columnList = "publish_seq", unique = true)
+})
+public class OutboxEvent {
+    public static final String POSITION_UPDATED = "PositionUpdated";
+    public static final String CASH_MOVEMENT = "CashMovement";
+    public static final String TRADE_BOOKED = "TradeBooked";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+
+    @Column(name = "trade_id")
+    private UUID tradeId;
+
+    @Column(name = "portfolio_id", nullable = false, length = 32)
+    private String portfolioId;
+
+    @Column(length = 12)
+    private String isin;
+
+    @Column(nullable = false, precision = 28, scale = 6)
+    private BigDecimal delta;
+
+    @Column(name = "new_quantity", precision = 28, scale = 6)
+    private BigDecimal newQuantity;
+
+    @Column(precision = 28, scale = 2)
+    private BigDecimal balance;
+
+    @Column(length = 3)
+    private String currency;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(length = 4)
+    private String side;
+
+    @Column
+    private String reason;
+
+    @Column(name = "occurred_at", nullable = false)
+    private ZonedDateTime occurredAt;
+
+    @Column(name = "published_at")
+    private ZonedDateTime publishedAt;
+
+    @Column(name = "publish_seq")
+    private Long publishSequence;
+
+    // Default constructor for JPA
+    protected OutboxEvent() {}
+
+    private OutboxEvent(String eventType, UUID tradeId, String portfolioId, BigDecimal delta, ZonedDateTime occurredAt) {
+        this.eventType = eventType;
+        this.tradeId = tradeId;
+        this.portfolioId = portfolioId;
+        this.delta = delta;
+        this.occurredAt = occurredAt;
+    }
+
+    /**
+     * Position change; tradeId is null for net batch updates covering several trades
+     */
+    public static OutboxEvent positionUpdated(UUID tradeId, String portfolioId, String isin, BigDecimal delta,
+                                              BigDecimal newQuantity, ZonedDateTime updatedAt) {
+        OutboxEvent event = new OutboxEvent(POSITION_UPDATED, tradeId, portfolioId, delta, updatedAt);
+        event.isin = isin;
+        event.newQuantity = newQuantity;
+        return event;
+    }
+
+    /**
+     * Cash ledger movement
+     */
+    public static OutboxEvent cashMovement(UUID tradeId, String portfolioId, BigDecimal delta, BigDecimal balance,
+                                           String currency, String reason, ZonedDateTime createdAt) {
+        OutboxEvent event = new OutboxEvent(CASH_MOVEMENT, tradeId, portfolioId, delta, createdAt);
+        event.balance = balance;
+        event.currency = currency;
+        event.reason = reason;
+        return event;
+    }
+
+    /**
+     * Newly booked trade; delta holds the (unsigned) trade quantity
+     */
+    public static OutboxEvent tradeBooked(Trade trade) {
+        OutboxEvent event = new OutboxEvent(TRADE_BOOKED, trade.getTradeId(), trade.getPortfolioId(),
+            new BigDecimal(trade.getQuantity()), trade.getCreatedAt().atZone(ZoneId.systemDefault()));
+        event.isin = trade.getIsin();
+        event.price = trade.getPrice();
+        event.side = trade.getSide().name();
+        event.currency = trade.getTradeCurrency();
+        return event;
+    }
+
+    /**
+     * Build the published form of this row; runs on the relay thread, not in the booking transaction
+     *
+     * @param publishSequence Position in publication order
+     */
+    public EventEnvelope toEnvelope(long publishSequence) {
+        Object payload = switch (eventType) {
+            case POSITION_UPDATED -> new PositionUpdatedEvent(portfolioId, isin, delta, newQuantity, occurredAt);
+            case CASH_MOVEMENT -> new CashMovementEvent(tradeId, portfolioId, delta, balance, currency, reason, occurredAt);
+            case TRADE_BOOKED -> new TradeBookedEvent(tradeId, portfolioId, isin, side, delta, price, occurredAt);
+            default -> throw new IllegalStateException("Unknown outbox event type: " + eventType);
+        };
+        return new EventEnvelope(id, publishSequence, eventType, payload);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public UUID getTradeId() {
+        return tradeId;
+    }
+
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getIsin() {
+        return isin;
+    }
+
+    public BigDecimal getDelta() {
+        return delta;
+    }
+
+    public BigDecimal getNewQuantity() {
+        return newQuantity;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public ZonedDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public ZonedDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public Long getPublishSequence() {
+        return publishSequence;
+    }
+}
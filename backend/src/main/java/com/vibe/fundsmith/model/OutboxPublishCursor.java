@@ -0,0 +1,35 @@
+package com.vibe.fundsmith.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter of the last outbox publish sequence handed out. The relay locks
+ * it from numbering a batch until commit, so sequences become visible in order.
+ */
+@Entity
+@Table(name = "event_outbox_publish_cursor")
+public class OutboxPublishCursor {
+    public static final short ID = 1;
+
+    @Id
+    private Short id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    // Default constructor for JPA
+    protected OutboxPublishCursor() {}
+
+    public OutboxPublishCursor(long lastSequence) {
+        this.id = ID;
+        this.lastSequence = lastSequence;
+    }
+
+    public Short getId() {
+        return id;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+}
@@ -6,8 +6,13 @@ import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "positions")
+@IdClass(PositionId.class)
 public class Position {
     
+    @Id
+    @Column(name = "portfolio_id", nullable = false, length = 32)
+    private String portfolioId;
+    
     @Id
     @Column(nullable = false, length = 12)
     private String isin;
@@ -18,22 +23,29 @@ public class Position {
     @Column(name = "updated_at", nullable = false)
     private ZonedDateTime updatedAt;
     
+    // Change counter incremented by every write under the row lock (not a JPA @Version)
+    @Column(nullable = false)
+    private long version;
+    
     // Default constructor for JPA
     protected Position() {}
     
-    public Position(String isin) {
-        this.isin = isin;
-        this.quantity = BigDecimal.ZERO;
-        this.updatedAt = ZonedDateTime.now();
+    public Position(String portfolioId, String isin) {
+        this(portfolioId, isin, BigDecimal.ZERO);
     }
     
-    public Position(String isin, BigDecimal quantity) {
+    public Position(String portfolioId, String isin, BigDecimal quantity) {
+        this.portfolioId = portfolioId;
         this.isin = isin;
         this.quantity = quantity;
         this.updatedAt = ZonedDateTime.now();
     }
     
     // Getters and setters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
     public String getIsin() {
         return isin;
     }
@@ -53,4 +65,12 @@ public class Position {
     public void setUpdatedAt(ZonedDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
\ No newline at end of file
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,51 @@
+package com.vibe.fundsmith.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite primary key for {@link Position}: one position per portfolio and ISIN
+ */
+public class PositionId implements Serializable {
+    
+    private String portfolioId;
+    private String isin;
+    
+    // Default constructor for JPA
+    public PositionId() {}
+    
+    public PositionId(String portfolioId, String isin) {
+        this.portfolioId = portfolioId;
+        this.isin = isin;
+    }
+    
+    // Getters
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
+    public String getIsin() {
+        return isin;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PositionId other)) {
+            return false;
+        }
+        return Objects.equals(portfolioId, other.portfolioId) && Objects.equals(isin, other.isin);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(portfolioId, isin);
+    }
+    
+    @Override
+    public String toString() {
+        return portfolioId + "/" + isin;
+    }
+}
@@ -2,6 +2,7 @@ package com.vibe.fundsmith.model;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
@@ -13,6 +14,9 @@ public class ProcessedTrade {
     @Column(name = "trade_id")
     private UUID tradeId;
     
+    @Column(name = "portfolio_id", nullable = false, length = 32)
+    private String portfolioId;
+    
     @Column(nullable = false, length = 12)
     private String isin;
     
@@ -22,14 +26,20 @@ public class ProcessedTrade {
     @Column(name = "processed_at", nullable = false)
     private ZonedDateTime processedAt;
     
+    // Referenced by trades (trade_id, trade_date), see V20; NULL for registrations made before it
+    @Column(name = "trade_date")
+    private LocalDate tradeDate;
+    
     // Default constructor for JPA
     protected ProcessedTrade() {}
     
-    public ProcessedTrade(UUID tradeId, String isin, BigDecimal appliedDelta) {
+    public ProcessedTrade(UUID tradeId, String portfolioId, String isin, BigDecimal appliedDelta, LocalDate tradeDate) {
         this.tradeId = tradeId;
+        this.portfolioId = portfolioId;
         this.isin = isin;
         this.appliedDelta = appliedDelta;
         this.processedAt = ZonedDateTime.now();
+        this.tradeDate = tradeDate;
     }
     
     // Getters
@@ -37,6 +47,10 @@ public class ProcessedTrade {
         return tradeId;
     }
     
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    
     public String getIsin() {
         return isin;
     }
@@ -48,4 +62,8 @@ public class ProcessedTrade {
     public ZonedDateTime getProcessedAt() {
         return processedAt;
     }
+    
+    public LocalDate getTradeDate() {
+        return tradeDate;
+    }
 }
\ No newline at end of file
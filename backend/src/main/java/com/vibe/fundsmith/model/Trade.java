@@ -7,10 +7,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "trades")
+// Open trades by settle date; on PostgreSQL this is a partial index (WHERE NOT settled), see V11
+@Table(name = "trades", indexes = @Index(name = "idx_trades_open_settle_date", columnList = "settle_date, id"))
 public class Trade {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trades_id_seq")
+    @SequenceGenerator(name = "trades_id_seq", sequenceName = "trades_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "trade_id", nullable = false, unique = true)
@@ -54,6 +56,9 @@ public class Trade {
     @Column(name = "is_synthetic", nullable = false)
     private boolean synthetic;
 
+    @Column(name = "settled", nullable = false)
+    private boolean settled;
+
     // Default constructor for JPA
     protected Trade() {}
 
@@ -183,4 +188,12 @@ public class Trade {
     public void setSynthetic(boolean synthetic) {
         this.synthetic = synthetic;
     }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
 }
\ No newline at end of file
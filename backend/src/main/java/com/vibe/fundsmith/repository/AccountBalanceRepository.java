@@ -0,0 +1,94 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.AccountBalance;
+import com.vibe.fundsmith.model.AccountBalanceId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, AccountBalanceId> {
+    
+    /**
+     * Find an account's balance row for one date and lock it until the transaction ends
+     * 
+     * @param portfolioId The portfolio ID
+     * @param account The account name
+     * @param asOfDate The accounting date
+     * @return The locked balance row, if the account was posted on that date
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalance b " +
+           "WHERE b.portfolioId = :portfolioId AND b.account = :account AND b.asOfDate = :asOfDate")
+    Optional<AccountBalance> findByIdForUpdate(@Param("portfolioId") String portfolioId,
+                                               @Param("account") String account,
+                                               @Param("asOfDate") LocalDate asOfDate);
+    
+    /**
+     * Find and lock an account's balance rows after a date, which carry a back-dated posting
+     * 
+     * @param portfolioId The portfolio ID
+     * @param account The account name
+     * @param asOfDate The posting date (exclusive)
+     * @return Locked balance rows in date order; empty unless the posting is back-dated
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalance b " +
+           "WHERE b.portfolioId = :portfolioId AND b.account = :account AND b.asOfDate > :asOfDate " +
+           "ORDER BY b.asOfDate")
+    List<AccountBalance> findLaterForUpdate(@Param("portfolioId") String portfolioId,
+                                            @Param("account") String account,
+                                            @Param("asOfDate") LocalDate asOfDate);
+    
+    /**
+     * Latest balance row strictly before a date (primary key range scan, newest first)
+     * 
+     * @param portfolioId The portfolio ID
+     * @param account The account name
+     * @param asOfDate The date (exclusive)
+     * @return The previous balance row, if any
+     */
+    Optional<AccountBalance> findFirstByPortfolioIdAndAccountAndAsOfDateLessThanOrderByAsOfDateDesc(
+            String portfolioId, String account, LocalDate asOfDate);
+    
+    /**
+     * Latest balance row on or before a date (primary key range scan, newest first)
+     * 
+     * @param portfolioId The portfolio ID
+     * @param account The account name
+     * @param asOfDate The date (inclusive)
+     * @return The account's balance as of the date, if it had been posted to by then
+     */
+    Optional<AccountBalance> findFirstByPortfolioIdAndAccountAndAsOfDateLessThanEqualOrderByAsOfDateDesc(
+            String portfolioId, String account, LocalDate asOfDate);
+    
+    /**
+     * An account's balance rows within a date range
+     * 
+     * @param portfolioId The portfolio ID
+     * @param account The account name
+     * @param fromDate Earliest date, inclusive
+     * @param toDate Latest date, inclusive
+     * @return Balance rows in date order, one per date the account was posted on
+     */
+    List<AccountBalance> findByPortfolioIdAndAccountAndAsOfDateBetweenOrderByAsOfDate(
+            String portfolioId, String account, LocalDate fromDate, LocalDate toDate);
+    
+    /**
+     * An account's balance rows up to a date
+     * 
+     * @param portfolioId The portfolio ID
+     * @param account The account name
+     * @param toDate Latest date, inclusive
+     * @return Balance rows in date order, one per date the account was posted on
+     */
+    List<AccountBalance> findByPortfolioIdAndAccountAndAsOfDateLessThanEqualOrderByAsOfDate(
+            String portfolioId, String account, LocalDate toDate);
+}
@@ -0,0 +1,142 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.config.DatabasePlatform;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based deletes for administrative resets. Each table is cleared with one statement,
+ * so a reset runs in constant memory however many rows there are, and participates in
+ * the caller's transaction.
+ */
+@Repository
+public class AdminResetRepository {
+
+    // Children before parents: journal lines and settlement markers are found through
+    // their journals and trades, and trades reference processed_trades (see V20)
+    private static final Map<String, String> PORTFOLIO_FILTERS = new LinkedHashMap<>();
+    static {
+        PORTFOLIO_FILTERS.put("journal_lines", "journal_id IN (SELECT id FROM journals WHERE portfolio_id = ?)");
+        PORTFOLIO_FILTERS.put("journals", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("account_balances", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("ledger_accounts", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("settlement_markers", "trade_id IN (SELECT trade_id FROM trades WHERE portfolio_id = ?)");
+        PORTFOLIO_FILTERS.put("trades", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("processed_trades", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("positions", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("cash_ledger", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("cash_state", "portfolio_id = ?");
+        PORTFOLIO_FILTERS.put("nav_snapshots", "portfolio_id = ?");
+    }
+
+    /**
+     * Trades and everything derived from them: journals, ledger balances, settlement and positions
+     */
+    public static final List<String> TRADING_TABLES = List.of("journal_lines", "journals", "account_balances",
+        "ledger_accounts", "settlement_markers", "trades", "processed_trades", "positions");
+
+    /**
+     * Cash ledger and materialized balances
+     */
+    public static final List<String> CASH_TABLES = List.of("cash_ledger", "cash_state");
+
+    /**
+     * NAV snapshots
+     */
+    public static final List<String> NAV_TABLES = List.of("nav_snapshots");
+
+    // PostgreSQL key tables kept by triggers on their partitioned parent (see V20); TRUNCATE
+    // fires no row triggers, so they are truncated along with it
+    private static final Map<String, String> TRIGGER_KEY_TABLES = Map.of("journals", "journal_keys");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public AdminResetRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * Delete one portfolio's rows from the given tables with one DELETE ... WHERE each
+     *
+     * @param tables Tables from {@link #TRADING_TABLES}, {@link #CASH_TABLES} or {@link #NAV_TABLES}, in that order
+     * @param portfolioId Portfolio identifier
+     * @return Rows deleted per table, in deletion order
+     */
+    public Map<String, Long> deletePortfolio(List<String> tables, String portfolioId) {
+        Map<String, Long> deleted = new LinkedHashMap<>();
+        for (String table : tables) {
+            String filter = PORTFOLIO_FILTERS.get(table);
+            if (filter == null) {
+                throw new IllegalArgumentException("Not a resettable table: " + table);
+            }
+            deleted.put(table, (long) jdbcTemplate.update("DELETE FROM " + table + " WHERE " + filter, portfolioId));
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete outbox events of the given types that the relay has not published yet, so events
+     * recorded for deleted rows are never relayed after the reset. A relay publishing some of
+     * them right now holds their row locks; the delete waits for it and then skips them as published.
+     *
+     * @param eventTypes Event types to delete
+     * @param portfolioId Portfolio identifier (null for every portfolio)
+     * @return Rows deleted
+     */
+    public long deleteUnpublishedEvents(Collection<String> eventTypes, String portfolioId) {
+        List<Object> args = new ArrayList<>(eventTypes);
+        String sql = "DELETE FROM event_outbox WHERE published_at IS NULL AND event_type IN ("
+                + String.join(", ", Collections.nCopies(eventTypes.size(), "?")) + ")";
+        if (portfolioId != null) {
+            sql += " AND portfolio_id = ?";
+            args.add(portfolioId);
+        }
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /**
+     * Empty the given tables. On PostgreSQL they are locked, counted and emptied with one
+     * TRUNCATE, which reclaims their storage at once instead of leaving dead rows for vacuum;
+     * elsewhere each gets a DELETE without a filter.
+     *
+     * @param tables Tables from {@link #TRADING_TABLES}, {@link #CASH_TABLES} or {@link #NAV_TABLES}
+     * @return Rows deleted per table, in the given order
+     */
+    public Map<String, Long> deleteAll(List<String> tables) {
+        for (String table : tables) {
+            if (!PORTFOLIO_FILTERS.containsKey(table)) {
+                throw new IllegalArgumentException("Not a resettable table: " + table);
+            }
+        }
+        Map<String, Long> deleted = new LinkedHashMap<>();
+        if (databasePlatform.isPostgres()) {
+            List<String> truncated = new ArrayList<>(tables);
+            for (String table : tables) {
+                if (TRIGGER_KEY_TABLES.containsKey(table)) {
+                    truncated.add(TRIGGER_KEY_TABLES.get(table));
+                }
+            }
+            String tableList = String.join(", ", truncated);
+            // Counts are exact: no booking can commit into a table between its count and the truncate
+            jdbcTemplate.execute("LOCK TABLE " + tableList + " IN ACCESS EXCLUSIVE MODE");
+            for (String table : tables) {
+                deleted.put(table, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class));
+            }
+            jdbcTemplate.execute("TRUNCATE TABLE " + tableList);
+        } else {
+            for (String table : tables) {
+                deleted.put(table, (long) jdbcTemplate.update("DELETE FROM " + table));
+            }
+        }
+        return deleted;
+    }
+}
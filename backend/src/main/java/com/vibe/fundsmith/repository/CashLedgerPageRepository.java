@@ -0,0 +1,28 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.CashEntry;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Keyset pagination over a portfolio's cash ledger, newest first
+ */
+public interface CashLedgerPageRepository {
+
+    /**
+     * Next page of a portfolio's cash entries in (created_at DESC, id DESC) order,
+     * walking idx_cash_ledger_portfolio_created_at_id. Only the filters that are set
+     * are added to the query.
+     * @param portfolioId Portfolio identifier
+     * @param reasonPrefix Only entries whose reason starts with this (e.g. "BUY:"), null for all
+     * @param from Earliest creation time, inclusive (null for no lower bound)
+     * @param to Latest creation time, exclusive (null for no upper bound)
+     * @param afterCreatedAt Creation time of the last entry on the previous page (null for the first page)
+     * @param afterId Id of the last entry on the previous page (null for the first page)
+     * @param limit Maximum number of entries
+     * @return Entries strictly after the cursor
+     */
+    List<CashEntry> findHistoryPage(String portfolioId, String reasonPrefix, ZonedDateTime from, ZonedDateTime to,
+                                    ZonedDateTime afterCreatedAt, Long afterId, int limit);
+}
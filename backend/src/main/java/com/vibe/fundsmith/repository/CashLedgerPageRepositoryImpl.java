@@ -0,0 +1,65 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.CashEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the keyset query with only the filters in use. The cursor condition is the
+ * expanded form of (created_at, id) < (...), which JPQL cannot express as a row value;
+ * the index on (portfolio_id, created_at, id) still serves the portfolio and
+ * ordering, and rows tied on created_at are told apart by id.
+ */
+public class CashLedgerPageRepositoryImpl implements CashLedgerPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CashEntry> findHistoryPage(String portfolioId, String reasonPrefix, ZonedDateTime from,
+                                           ZonedDateTime to, ZonedDateTime afterCreatedAt, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("c.portfolioId = :portfolioId");
+        if (reasonPrefix != null) {
+            conditions.add("c.reason LIKE :reasonPattern ESCAPE '\\'");
+        }
+        if (from != null) {
+            conditions.add("c.createdAt >= :from");
+        }
+        if (to != null) {
+            conditions.add("c.createdAt < :to");
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            conditions.add("(c.createdAt < :afterCreatedAt OR (c.createdAt = :afterCreatedAt AND c.id < :afterId))");
+        }
+
+        String jpql = "SELECT c FROM CashEntry c WHERE " + String.join(" AND ", conditions)
+            + " ORDER BY c.createdAt DESC, c.id DESC";
+
+        TypedQuery<CashEntry> query = entityManager.createQuery(jpql, CashEntry.class)
+            .setParameter("portfolioId", portfolioId);
+        if (reasonPrefix != null) {
+            query.setParameter("reasonPattern", escapeLike(reasonPrefix) + "%");
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            query.setParameter("afterCreatedAt", afterCreatedAt);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
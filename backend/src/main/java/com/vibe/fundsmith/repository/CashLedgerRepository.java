@@ -1,7 +1,9 @@
 package com.vibe.fundsmith.repository;
 
 import com.vibe.fundsmith.model.CashEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,15 +12,23 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
-public interface CashLedgerRepository extends JpaRepository<CashEntry, Long> {
+public interface CashLedgerRepository extends JpaRepository<CashEntry, Long>, CashLedgerPageRepository {
     
     /**
-     * Get the current cash balance for a portfolio
+     * Get the current cash balance for a portfolio in one currency
      * @param portfolioId The portfolio ID
+     * @param currency The currency (ISO 4217)
      * @return The current cash balance
      */
-    @Query("SELECT COALESCE(SUM(c.delta), 0) FROM CashEntry c WHERE c.portfolioId = :portfolioId")
-    BigDecimal getCurrentBalance(@Param("portfolioId") String portfolioId);
+    @Query("SELECT COALESCE(SUM(c.delta), 0) FROM CashEntry c WHERE c.portfolioId = :portfolioId AND c.currency = :currency")
+    BigDecimal getCurrentBalance(@Param("portfolioId") String portfolioId, @Param("currency") String currency);
+    
+    /**
+     * Sum ledger deltas per portfolio and currency (full ledger scan, used for reconciliation only)
+     * @return Rows of [portfolioId, currency, sum of deltas]
+     */
+    @Query("SELECT c.portfolioId, c.currency, COALESCE(SUM(c.delta), 0) FROM CashEntry c GROUP BY c.portfolioId, c.currency")
+    List<Object[]> sumDeltaByPortfolioAndCurrency();
     
     /**
      * Find all cash entries for a portfolio, sorted by creation date (newest first)
@@ -26,4 +36,21 @@ public interface CashLedgerRepository extends JpaRepository<CashEntry, Long> {
      * @return List of cash entries
      */
     List<CashEntry> findByPortfolioIdOrderByCreatedAtDesc(String portfolioId);
-}
\ No newline at end of file
+    
+    /**
+     * Most recent cash entries for a portfolio, limited in the database
+     * @param portfolioId The portfolio ID
+     * @param pageable Maximum number of entries
+     * @return Cash entries, newest first
+     */
+    List<CashEntry> findByPortfolioIdOrderByCreatedAtDescIdDesc(String portfolioId, Pageable pageable);
+    
+    /**
+     * Delete a portfolio's whole cash history in one statement, without loading it
+     * @param portfolioId The portfolio ID
+     * @return Number of entries deleted
+     */
+    @Modifying
+    @Query("DELETE FROM CashEntry c WHERE c.portfolioId = :portfolioId")
+    int deleteByPortfolioId(@Param("portfolioId") String portfolioId);
+}
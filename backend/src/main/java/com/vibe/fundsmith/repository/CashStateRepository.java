@@ -0,0 +1,38 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.CashState;
+import com.vibe.fundsmith.model.CashStateId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CashStateRepository extends JpaRepository<CashState, CashStateId> {
+    
+    /**
+     * Find the cash state for a portfolio and currency and lock it until the
+     * transaction ends, serializing balance updates for that balance
+     * 
+     * @param portfolioId The portfolio ID
+     * @param currency The currency (ISO 4217)
+     * @return The locked cash state, if one exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CashState s WHERE s.portfolioId = :portfolioId AND s.currency = :currency")
+    Optional<CashState> findByIdForUpdate(@Param("portfolioId") String portfolioId,
+                                          @Param("currency") String currency);
+    
+    /**
+     * All currency balances of a portfolio (primary key prefix scan)
+     * 
+     * @param portfolioId The portfolio ID
+     * @return Cash states ordered by currency
+     */
+    List<CashState> findByPortfolioIdOrderByCurrency(String portfolioId);
+}
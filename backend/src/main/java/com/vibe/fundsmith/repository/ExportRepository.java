@@ -0,0 +1,175 @@
+package com.vibe.fundsmith.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row-at-a-time reads for bulk exports.
+ * Queries run with a JDBC fetch size, so the driver holds one window of rows at a
+ * time; on PostgreSQL this needs the caller's (read-only) transaction, because the
+ * driver only uses a server-side cursor when autocommit is off.
+ */
+@Repository
+public class ExportRepository {
+
+    /**
+     * Exportable tables with their columns and filter columns
+     */
+    public enum Dataset {
+        TRADES(
+            "SELECT id, trade_id, portfolio_id, isin, side, quantity, price, trade_currency, status, " +
+            "trade_date, settle_date, settled, is_synthetic, created_at FROM trades",
+            "trade_date", false, "portfolio_id", "isin", "created_at, id"),
+        CASH_LEDGER(
+            "SELECT id, portfolio_id, trade_id, currency, delta, balance, reason, created_at FROM cash_ledger",
+            "created_at", true, "portfolio_id", null, "created_at, id"),
+        JOURNALS(
+            "SELECT j.id AS journal_id, j.trade_id, j.journal_type, j.created_at, l.id AS line_id, l.account, l.dr, l.cr " +
+            "FROM journals j JOIN journal_lines l ON l.journal_id = j.id AND l.accounting_date = j.accounting_date",
+            "j.created_at", true, null, null, "j.created_at, j.id, l.id"),
+        NAV(
+            "SELECT id, portfolio_id, calculation_date, gross_value, fee_accrual, net_value, shares_outstanding, " +
+            "nav_per_share FROM nav_snapshots",
+            "calculation_date", true, "portfolio_id", null, "calculation_date, id");
+
+        private final String select;
+        private final String dateColumn;
+        private final boolean dateIsTimestamp;
+        private final String portfolioColumn;
+        private final String isinColumn;
+        private final String orderBy;
+
+        Dataset(String select, String dateColumn, boolean dateIsTimestamp,
+                String portfolioColumn, String isinColumn, String orderBy) {
+            this.select = select;
+            this.dateColumn = dateColumn;
+            this.dateIsTimestamp = dateIsTimestamp;
+            this.portfolioColumn = portfolioColumn;
+            this.isinColumn = isinColumn;
+            this.orderBy = orderBy;
+        }
+
+        public boolean supportsPortfolio() {
+            return portfolioColumn != null;
+        }
+
+        public boolean supportsIsin() {
+            return isinColumn != null;
+        }
+    }
+
+    /**
+     * Receives the column names once, then every row in order
+     */
+    public interface RowHandler {
+        void columns(List<String> names);
+
+        void row(Object[] values);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource,
+                            @Value("${ibor.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Stream a dataset in a stable order to a handler
+     *
+     * @param dataset     What to export
+     * @param portfolioId Only this portfolio (ignored when the dataset has no portfolio)
+     * @param isin        Only this ISIN (ignored when the dataset has no ISIN)
+     * @param fromDate    Earliest date, inclusive (optional)
+     * @param toDate      Latest date, inclusive (optional)
+     * @param handler     Row consumer
+     * @return Number of rows streamed
+     */
+    public long stream(Dataset dataset, String portfolioId, String isin, LocalDate fromDate, LocalDate toDate,
+                       RowHandler handler) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (portfolioId != null && dataset.supportsPortfolio()) {
+            conditions.add(dataset.portfolioColumn + " = ?");
+            args.add(portfolioId);
+        }
+        if (isin != null && dataset.supportsIsin()) {
+            conditions.add(dataset.isinColumn + " = ?");
+            args.add(isin);
+        }
+        if (fromDate != null) {
+            conditions.add(dataset.dateColumn + " >= ?");
+            args.add(bound(dataset, fromDate));
+        }
+        if (toDate != null) {
+            conditions.add(dataset.dateColumn + " < ?");
+            args.add(bound(dataset, toDate.plusDays(1)));
+        }
+
+        StringBuilder sql = new StringBuilder(dataset.select);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(dataset.orderBy);
+
+        Long count = jdbcTemplate.query(sql.toString(), (ResultSetExtractor<Long>) rs -> streamRows(rs, handler), args.toArray());
+        return count != null ? count : 0L;
+    }
+
+    private static Object bound(Dataset dataset, LocalDate date) {
+        return dataset.dateIsTimestamp ? date.atStartOfDay().atOffset(ZoneOffset.UTC) : date;
+    }
+
+    private static long streamRows(ResultSet rs, RowHandler handler) throws SQLException {
+        // Column metadata is available before the first row, so empty exports still get a header
+        ResultSetMetaData meta = rs.getMetaData();
+        int[] types = new int[meta.getColumnCount()];
+        List<String> names = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            names.add(meta.getColumnLabel(i + 1).toLowerCase());
+            types[i] = isTimestampWithZone(meta, i + 1) ? Types.TIMESTAMP_WITH_TIMEZONE : meta.getColumnType(i + 1);
+        }
+        handler.columns(names);
+
+        long count = 0;
+        while (rs.next()) {
+            Object[] values = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                values[i] = switch (types[i]) {
+                    case Types.TIMESTAMP_WITH_TIMEZONE -> rs.getObject(i + 1, OffsetDateTime.class);
+                    case Types.TIMESTAMP -> rs.getObject(i + 1, LocalDateTime.class);
+                    case Types.DATE -> rs.getObject(i + 1, LocalDate.class);
+                    default -> rs.getObject(i + 1);
+                };
+            }
+            handler.row(values);
+            count++;
+        }
+        return count;
+    }
+
+    // PostgreSQL reports timestamptz as TIMESTAMP; the type name tells them apart
+    private static boolean isTimestampWithZone(ResultSetMetaData meta, int column) throws SQLException {
+        if (meta.getColumnType(column) == Types.TIMESTAMP_WITH_TIMEZONE) {
+            return true;
+        }
+        String typeName = meta.getColumnTypeName(column);
+        return typeName != null && (typeName.equalsIgnoreCase("timestamptz")
+            || typeName.toUpperCase().contains("WITH TIME ZONE"));
+    }
+}
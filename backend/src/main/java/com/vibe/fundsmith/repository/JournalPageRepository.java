@@ -0,0 +1,37 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.JournalType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset pagination over journals, newest first
+ */
+public interface JournalPageRepository {
+
+    /**
+     * IDs of the next page of journals in (created_at DESC, id DESC) order, walking
+     * idx_journals_portfolio_created_at_id, idx_journals_type_created_at_id or
+     * idx_journals_created_at_id depending on the filters. Only the filters that are set
+     * are added to the query. Account and amount filters match journals with at least
+     * one line that satisfies all of them.
+     * @param portfolioId Only journals of this portfolio (null for all)
+     * @param journalType Only journals of this type (null for all)
+     * @param account Only journals with a line on this account (null for all)
+     * @param minAmount Smallest line amount, debit or credit, inclusive (null for no lower bound)
+     * @param maxAmount Largest line amount, debit or credit, inclusive (null for no upper bound)
+     * @param fromDate Earliest accounting date, inclusive (null for no lower bound)
+     * @param toDate Latest accounting date, inclusive (null for no upper bound)
+     * @param afterCreatedAt Creation time of the last journal on the previous page (null for the first page)
+     * @param afterId Id of the last journal on the previous page (null for the first page)
+     * @param limit Maximum number of journals
+     * @return Journal IDs strictly after the cursor, newest first
+     */
+    List<UUID> findPageIds(String portfolioId, JournalType journalType, String account,
+                           BigDecimal minAmount, BigDecimal maxAmount, LocalDate fromDate, LocalDate toDate,
+                           ZonedDateTime afterCreatedAt, UUID afterId, int limit);
+}
@@ -0,0 +1,100 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.JournalType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the keyset query with only the filters in use. Portfolio or type equality and
+ * the (created_at, id) order are served by a composite index, with the cursor written as
+ * the expanded form of (created_at, id) < (...) since JPQL has no row values; line filters
+ * are a semi-join probing idx_journal_lines_journal_id_account per candidate journal,
+ * in the one month of journal_lines matching its accounting date, so a page stops
+ * reading as soon as it has enough matches.
+ */
+public class JournalPageRepositoryImpl implements JournalPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UUID> findPageIds(String portfolioId, JournalType journalType, String account,
+                                  BigDecimal minAmount, BigDecimal maxAmount, LocalDate fromDate, LocalDate toDate,
+                                  ZonedDateTime afterCreatedAt, UUID afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (portfolioId != null) {
+            conditions.add("j.portfolioId = :portfolioId");
+        }
+        if (journalType != null) {
+            conditions.add("j.journalType = :journalType");
+        }
+        if (fromDate != null) {
+            conditions.add("j.accountingDate >= :fromDate");
+        }
+        if (toDate != null) {
+            conditions.add("j.accountingDate <= :toDate");
+        }
+
+        // A line carries either a debit or a credit, so its amount is their sum
+        List<String> lineConditions = new ArrayList<>();
+        if (account != null) {
+            lineConditions.add("l.account = :account");
+        }
+        if (minAmount != null) {
+            lineConditions.add("l.debit + l.credit >= :minAmount");
+        }
+        if (maxAmount != null) {
+            lineConditions.add("l.debit + l.credit <= :maxAmount");
+        }
+        if (!lineConditions.isEmpty()) {
+            conditions.add("EXISTS (SELECT 1 FROM JournalLine l WHERE l.journal = j AND l.accountingDate = j.accountingDate AND "
+                + String.join(" AND ", lineConditions) + ")");
+        }
+
+        if (afterCreatedAt != null && afterId != null) {
+            conditions.add("(j.createdAt < :afterCreatedAt OR (j.createdAt = :afterCreatedAt AND j.id < :afterId))");
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT j.id FROM Journal j");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY j.createdAt DESC, j.id DESC");
+
+        TypedQuery<UUID> query = entityManager.createQuery(jpql.toString(), UUID.class);
+        if (portfolioId != null) {
+            query.setParameter("portfolioId", portfolioId);
+        }
+        if (journalType != null) {
+            query.setParameter("journalType", journalType);
+        }
+        if (fromDate != null) {
+            query.setParameter("fromDate", fromDate);
+        }
+        if (toDate != null) {
+            query.setParameter("toDate", toDate);
+        }
+        if (account != null) {
+            query.setParameter("account", account);
+        }
+        if (minAmount != null) {
+            query.setParameter("minAmount", minAmount);
+        }
+        if (maxAmount != null) {
+            query.setParameter("maxAmount", maxAmount);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            query.setParameter("afterCreatedAt", afterCreatedAt);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -2,31 +2,49 @@ package com.vibe.fundsmith.repository;
 
 import com.vibe.fundsmith.model.Journal;
 import com.vibe.fundsmith.model.JournalType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface JournalRepository extends JpaRepository<Journal, UUID> {
+public interface JournalRepository extends JpaRepository<Journal, UUID>, JournalPageRepository {
     
     /**
-     * Find all journals related to a specific trade
+     * Trade date receivable line of a trade date journal: the amount settlement moves
+     */
+    interface TradeDateReceivable {
+        UUID getTradeId();
+        String getPortfolioId();
+        String getAccount();
+        BigDecimal getAmount();
+    }
+    
+    /**
+     * Find all journals related to a specific trade, with their lines in the same query
      * 
      * @param tradeId The trade ID
      * @return List of journals for the trade
      */
+    @EntityGraph(attributePaths = "lines")
     List<Journal> findByTradeIdOrderByCreatedAtDesc(UUID tradeId);
     
     /**
-     * Find a specific type of journal for a trade
+     * Find a specific type of journal for a trade, with its lines in the same query
      * 
      * @param tradeId The trade ID
      * @param journalType The type of journal
      * @return Optional journal if found
      */
+    @EntityGraph(attributePaths = "lines")
     Optional<Journal> findByTradeIdAndJournalType(UUID tradeId, JournalType journalType);
     
     /**
@@ -39,10 +57,34 @@ public interface JournalRepository extends JpaRepository<Journal, UUID> {
     boolean existsByTradeIdAndJournalType(UUID tradeId, JournalType journalType);
     
     /**
-     * Find the most recent journals
+     * Receivable lines of the trade date journals of many trades, one row per trade.
+     * Settlement needs only this amount, not the journals or their other lines.
+     * 
+     * @param tradeIds The trade IDs
+     * @return One row per trade that has a trade date journal
+     */
+    @Query("SELECT j.tradeId AS tradeId, j.portfolioId AS portfolioId, l.account AS account, l.debit AS amount " +
+           "FROM JournalLine l JOIN l.journal j " +
+           "WHERE j.tradeId IN :tradeIds AND j.journalType = com.vibe.fundsmith.model.JournalType.TRADE_DATE " +
+           "AND l.account IN ('SECURITIES_RECEIVABLE', 'CASH_RECEIVABLE')")
+    List<TradeDateReceivable> findTradeDateReceivables(@Param("tradeIds") Collection<UUID> tradeIds);
+    
+    /**
+     * IDs of the most recent journals, newest first (first query of a listing page)
+     * 
+     * @param pageable Page size
+     * @return Journal IDs
+     */
+    @Query("SELECT j.id FROM Journal j ORDER BY j.createdAt DESC, j.id DESC")
+    List<UUID> findRecentIds(Pageable pageable);
+    
+    /**
+     * Journals with their lines fetched in the same query (second query of a listing or search page)
      * 
-     * @param limit Maximum number of journals to return
-     * @return List of journals ordered by creation date (newest first)
+     * @param ids Journal IDs
+     * @return Journals with lines initialized, newest first
      */
-    List<Journal> findTop10ByOrderByCreatedAtDesc();
+    @Query("SELECT j FROM Journal j LEFT JOIN FETCH j.lines " +
+           "WHERE j.id IN :ids ORDER BY j.createdAt DESC, j.id DESC")
+    List<Journal> findWithLinesByIdIn(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
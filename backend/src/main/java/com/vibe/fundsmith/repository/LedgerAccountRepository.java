@@ -0,0 +1,27 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.LedgerAccount;
+import com.vibe.fundsmith.model.LedgerAccountId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerAccountRepository extends JpaRepository<LedgerAccount, LedgerAccountId> {
+    
+    /**
+     * Accounts posted to in a portfolio
+     * 
+     * @param portfolioId The portfolio ID
+     * @return Accounts ordered by name
+     */
+    List<LedgerAccount> findByPortfolioIdOrderByAccount(String portfolioId);
+    
+    /**
+     * Accounts posted to in every portfolio
+     * 
+     * @return Accounts ordered by portfolio and name
+     */
+    List<LedgerAccount> findAllByOrderByPortfolioIdAscAccountAsc();
+}
@@ -0,0 +1,92 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest unpublished events. Rows locked by another relay instance are
+     * skipped (SKIP LOCKED where the dialect supports it), so relays never block each other.
+     * @param pageable Batch size
+     * @return Unpublished events in insertion order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> lockUnpublished(Pageable pageable);
+
+    /**
+     * Number of events waiting for the relay
+     * @return Unpublished event count
+     */
+    long countByPublishedAtIsNull();
+
+    /**
+     * Occurrence time of the oldest unpublished event, read through the unpublished index
+     * @param pageable First row only
+     * @return Empty when the outbox tail is drained
+     */
+    @Query("SELECT e.occurredAt FROM OutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+    List<ZonedDateTime> findOldestUnpublishedOccurredAt(Pageable pageable);
+
+    /**
+     * Mark events as published and number them in ID order after the given sequence,
+     * in one statement. Clears the persistence context so loaded rows are re-read.
+     * @param ids Event IDs
+     * @param publishedAt Publication time
+     * @param afterSequence Last publish sequence handed out before this batch
+     * @return Number of rows updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt, " +
+           "e.publishSequence = :afterSequence + (SELECT COUNT(o) FROM OutboxEvent o WHERE o.id IN :ids AND o.id <= e.id) " +
+           "WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") ZonedDateTime publishedAt,
+                      @Param("afterSequence") long afterSequence);
+
+    /**
+     * Published events after a publish sequence, for stream resume
+     * @param publishSequence Exclusive lower bound on the publish sequence
+     * @param pageable Maximum number of events
+     * @return Events in publication order
+     */
+    List<OutboxEvent> findByPublishSequenceGreaterThanOrderByPublishSequenceAsc(Long publishSequence, Pageable pageable);
+
+    /**
+     * Oldest retained publish sequence, used to detect resume points that were already purged
+     * @return Minimum publish sequence, null when no published event is retained
+     */
+    @Query("SELECT MIN(e.publishSequence) FROM OutboxEvent e")
+    Long findMinPublishSequence();
+
+    /**
+     * Highest event ID, used to seed the publish cursor
+     * @return Maximum event ID, null when the outbox is empty
+     */
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e")
+    Long findMaxId();
+
+    /**
+     * Delete events published before the cutoff
+     * @param cutoff Retention cutoff
+     * @return Number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") ZonedDateTime cutoff);
+}
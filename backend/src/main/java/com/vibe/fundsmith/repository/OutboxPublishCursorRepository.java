@@ -0,0 +1,33 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.OutboxPublishCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxPublishCursorRepository extends JpaRepository<OutboxPublishCursor, Short> {
+
+    /**
+     * Lock the publish cursor until the transaction ends, serializing publication across relays
+     * @return The cursor row (created by V19; absent on a schema built without migrations)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM OutboxPublishCursor c WHERE c.id = " + OutboxPublishCursor.ID)
+    Optional<OutboxPublishCursor> lockCursor();
+
+    /**
+     * Record the last sequence handed out
+     * @param lastSequence New last sequence
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE OutboxPublishCursor c SET c.lastSequence = :lastSequence WHERE c.id = " + OutboxPublishCursor.ID)
+    int advance(@Param("lastSequence") long lastSequence);
+}
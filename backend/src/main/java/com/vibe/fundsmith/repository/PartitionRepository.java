@@ -0,0 +1,86 @@
+package com.vibe.fundsmith.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the monthly range partitions of the history tables (see V17, V21). PostgreSQL only.
+ * Table and partition names come from the fixed list in PartitionMaintenanceService and
+ * from the catalog, never from user input.
+ */
+@Repository
+public class PartitionRepository {
+
+    private static final Pattern MONTHLY_SUFFIX = Pattern.compile("_p(\\d{6})$");
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create a table's partition for a month if missing, moving that month's rows out of
+     * the default partition
+     *
+     * @return Partition name, e.g. trades_p202610
+     */
+    public String ensureMonthlyPartition(String table, YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT ensure_monthly_partition(?, ?)",
+            String.class, table, month.atDay(1));
+    }
+
+    /**
+     * Monthly partitions currently attached to a table (the default partition is not included)
+     *
+     * @return Partition names by month, oldest first
+     */
+    public NavigableMap<YearMonth, String> findMonthlyPartitions(String table) {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(?)", String.class, table);
+        NavigableMap<YearMonth, String> partitions = new TreeMap<>();
+        for (String name : names) {
+            Matcher matcher = MONTHLY_SUFFIX.matcher(name);
+            if (name.startsWith(table + "_p") && matcher.find()) {
+                partitions.put(YearMonth.parse(matcher.group(1), SUFFIX_FORMAT), name);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Detach a partition, leaving it as a standalone table for archiving. The foreign keys it
+     * inherited are dropped: the archive must not hold rows of processed_trades or
+     * journal_keys (see V20), nor stop them from being truncated.
+     */
+    public void detachPartition(String table, String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + quote(table) + " DETACH PARTITION " + quote(partition));
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+            "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'",
+            String.class, quote(partition));
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + quote(partition) + " DROP CONSTRAINT " + quote(foreignKey));
+        }
+    }
+
+    /**
+     * Drop a partition and its rows
+     */
+    public void dropPartition(String partition) {
+        jdbcTemplate.execute("DROP TABLE " + quote(partition));
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -1,7 +1,10 @@
 package com.vibe.fundsmith.repository;
 
 import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.model.PositionId;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,39 +12,71 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PositionRepository extends JpaRepository<Position, String> {
+public interface PositionRepository extends JpaRepository<Position, PositionId> {
     
     /**
-     * Atomically upsert a position by adding delta quantity
-     * This implementation is simplified for test compatibility with H2
-     * In production PostgreSQL, we would use ON CONFLICT
+     * Find a position and lock its row until the transaction ends,
+     * serializing read-check-write updates of that position across instances
      * 
+     * @param portfolioId The portfolio ID
+     * @param isin The instrument ISIN
+     * @return The locked position, if one exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Position p WHERE p.portfolioId = :portfolioId AND p.isin = :isin")
+    Optional<Position> findByIdForUpdate(@Param("portfolioId") String portfolioId, @Param("isin") String isin);
+    
+    /**
+     * Atomically upsert a position by adding delta quantity and incrementing its version
+     * Portable fallback used on H2; PostgreSQL uses the single-statement
+     * ON CONFLICT path in {@link PositionUpsertRepository}
+     * 
+     * @param portfolioId The portfolio ID
      * @param isin The instrument ISIN
      * @param deltaQuantity The quantity delta to apply (can be positive or negative)
      */
     @Modifying
     @Query(value = 
-        "UPDATE positions SET quantity = quantity + :deltaQuantity, " +
-        "updated_at = CURRENT_TIMESTAMP WHERE isin = :isin", nativeQuery = true)
-    int updateQuantity(@Param("isin") String isin, @Param("deltaQuantity") BigDecimal deltaQuantity);
+        "UPDATE positions SET quantity = quantity + :deltaQuantity, version = version + 1, " +
+        "updated_at = CURRENT_TIMESTAMP WHERE portfolio_id = :portfolioId AND isin = :isin", nativeQuery = true)
+    int updateQuantity(@Param("portfolioId") String portfolioId, @Param("isin") String isin,
+                       @Param("deltaQuantity") BigDecimal deltaQuantity);
     
     /**
-     * Insert a new position record
+     * Insert a new position record at version 1
      * 
+     * @param portfolioId The portfolio ID
      * @param isin The instrument ISIN
      * @param quantity Initial quantity
      */
     @Modifying
     @Query(value = 
-        "INSERT INTO positions (isin, quantity, updated_at) " +
-        "VALUES (:isin, :quantity, CURRENT_TIMESTAMP)", nativeQuery = true)
-    int insertPosition(@Param("isin") String isin, @Param("quantity") BigDecimal quantity);
+        "INSERT INTO positions (portfolio_id, isin, quantity, updated_at, version) " +
+        "VALUES (:portfolioId, :isin, :quantity, CURRENT_TIMESTAMP, 1)", nativeQuery = true)
+    int insertPosition(@Param("portfolioId") String portfolioId, @Param("isin") String isin,
+                       @Param("quantity") BigDecimal quantity);
+    
+    /**
+     * Find all positions ordered by portfolio and ISIN
+     * @return List of all positions sorted by portfolio, then ISIN
+     */
+    List<Position> findAllByOrderByPortfolioIdAscIsinAsc();
+    
+    /**
+     * Find the positions of one portfolio ordered by ISIN.
+     * Served by the (portfolio_id, isin) primary key index, so it reads only that portfolio's rows.
+     * @param portfolioId The portfolio ID
+     * @return Positions of the portfolio sorted by ISIN
+     */
+    List<Position> findByPortfolioIdOrderByIsinAsc(String portfolioId);
     
     /**
-     * Find all positions ordered by ISIN
-     * @return List of all positions sorted by ISIN
+     * Key and version of every position (position cache sync)
+     * @return Rows of [portfolioId, isin, version]
      */
-    List<Position> findAllByOrderByIsinAsc();
+    @Query("SELECT p.portfolioId, p.isin, p.version FROM Position p")
+    List<Object[]> findAllVersions();
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.vibe.fundsmith.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * PostgreSQL single-statement position update.
+ * Registers the trade for idempotency, enforces the non-negative rule, upserts the
+ * position and returns the new quantity in one round trip. Concurrent trades on a
+ * new ISIN are serialized by ON CONFLICT instead of racing between UPDATE and INSERT.
+ * The version is incremented under the row lock, so it orders the position's states
+ * by commit; updated_at is only the transaction start time.
+ */
+@Repository
+public class PositionUpsertRepository {
+
+    private static final String UPSERT_SQL =
+        "WITH registered AS ( " +
+        "    INSERT INTO processed_trades (trade_id, portfolio_id, isin, applied_delta, processed_at, trade_date) " +
+        "    VALUES (?, ?, ?, ?, now(), ?) " +
+        "    ON CONFLICT (trade_id) DO NOTHING " +
+        "    RETURNING trade_id " +
+        "), upserted AS ( " +
+        "    INSERT INTO positions AS p (portfolio_id, isin, quantity, updated_at, version) " +
+        "    SELECT ?, ?, ?, now(), 1 FROM registered " +
+        // A new position may only be opened with a non-negative quantity
+        "    WHERE CAST(? AS NUMERIC) >= 0 " +
+        "       OR EXISTS (SELECT 1 FROM positions e WHERE e.portfolio_id = ? AND e.isin = ?) " +
+        "    ON CONFLICT (portfolio_id, isin) DO UPDATE " +
+        "        SET quantity = p.quantity + EXCLUDED.quantity, updated_at = EXCLUDED.updated_at, " +
+        "            version = p.version + 1 " +
+        "        WHERE p.quantity + EXCLUDED.quantity >= 0 " +
+        "    RETURNING p.quantity, p.updated_at, p.version " +
+        ") " +
+        "SELECT (SELECT count(*) FROM registered) AS registered, u.quantity, u.updated_at, u.version " +
+        "FROM (SELECT 1) AS one LEFT JOIN upserted u ON true";
+
+    private static final String CREATE_IF_ABSENT_SQL =
+        "INSERT INTO positions (portfolio_id, isin, quantity, updated_at, version) " +
+        "VALUES (?, ?, 0, now(), 0) " +
+        "ON CONFLICT (portfolio_id, isin) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PositionUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Apply a trade's delta to its position in one statement
+     *
+     * @param tradeId     Trade ID registered in processed_trades
+     * @param portfolioId Portfolio holding the position
+     * @param isin        Instrument ISIN
+     * @param delta       Signed quantity delta
+     * @param tradeDate   Trade date registered with the trade ID
+     * @return Outcome of the upsert
+     */
+    public UpsertResult applyTradeDelta(UUID tradeId, String portfolioId, String isin, BigDecimal delta,
+                                        LocalDate tradeDate) {
+        return jdbcTemplate.queryForObject(UPSERT_SQL,
+            (rs, rowNum) -> {
+                OffsetDateTime updatedAt = rs.getObject("updated_at", OffsetDateTime.class);
+                return new UpsertResult(
+                    rs.getLong("registered") > 0,
+                    rs.getBigDecimal("quantity"),
+                    updatedAt != null ? updatedAt.toZonedDateTime() : null,
+                    rs.getLong("version"));
+            },
+            tradeId, portfolioId, isin, delta, tradeDate,
+            portfolioId, isin, delta,
+            delta, portfolioId, isin);
+    }
+
+    /**
+     * Create an empty position at version 0 unless it exists, so it can then be locked
+     * with SELECT ... FOR UPDATE. A concurrent insert of the same position, by the upsert
+     * above or by another instance, makes this wait for it and then do nothing, where a
+     * plain INSERT would fail on the primary key.
+     *
+     * @param portfolioId Portfolio holding the position
+     * @param isin        Instrument ISIN
+     */
+    public void createIfAbsent(String portfolioId, String isin) {
+        jdbcTemplate.update(CREATE_IF_ABSENT_SQL, portfolioId, isin);
+    }
+
+    /**
+     * Outcome of a single-statement position update
+     *
+     * @param registered  false when the trade was already processed (nothing applied)
+     * @param newQuantity quantity after the update, null when it would have gone negative
+     * @param updatedAt   position timestamp after the update
+     * @param version     position version after the update, 0 when nothing was applied
+     */
+    public record UpsertResult(boolean registered, BigDecimal newQuantity, ZonedDateTime updatedAt, long version) {
+
+        public boolean wouldBeNegative() {
+            return registered && newQuantity == null;
+        }
+    }
+}
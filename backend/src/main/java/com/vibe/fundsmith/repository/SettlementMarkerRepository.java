@@ -2,9 +2,10 @@ package com.vibe.fundsmith.repository;
 
 import com.vibe.fundsmith.model.SettlementMarker;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,4 +19,13 @@ public interface SettlementMarkerRepository extends JpaRepository<SettlementMark
      * @return true if a marker exists
      */
     boolean existsByTradeId(UUID tradeId);
+    
+    /**
+     * Find which of the given trades already have a settlement marker
+     * 
+     * @param tradeIds Candidate trade IDs
+     * @return The settled subset
+     */
+    @Query("SELECT sm.tradeId FROM SettlementMarker sm WHERE sm.tradeId IN :tradeIds")
+    List<UUID> findSettledTradeIds(Collection<UUID> tradeIds);
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.config.DatabasePlatform;
+import com.vibe.fundsmith.model.CashEntry;
+import com.vibe.fundsmith.model.Journal;
+import com.vibe.fundsmith.model.JournalLine;
+import com.vibe.fundsmith.model.OutboxEvent;
+import com.vibe.fundsmith.model.ProcessedTrade;
+import com.vibe.fundsmith.model.SettlementMarker;
+import com.vibe.fundsmith.model.Trade;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC batch persistence for bulk trade booking and settlement.
+ * Each method issues one statement per chunk instead of one round trip per row,
+ * and participates in the caller's transaction.
+ * <p>
+ * Trade, cash ledger and journal line ids are taken from the same pooled sequences
+ * the entities use: each sequence value is the first id of a block of
+ * {@link #ID_BLOCK_SIZE}, as with Hibernate's pooled-lo optimizer (see V14).
+ */
+@Repository
+public class TradeBatchRepository {
+
+    // Keeps IN lists comfortably below driver bind-parameter limits
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    // Must match allocationSize on Trade, CashEntry and JournalLine and the sequence increments
+    static final int ID_BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public TradeBatchRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * Find which of the given trade IDs are already booked, using set-based lookups
+     *
+     * @param tradeIds Candidate trade IDs
+     * @return The subset of trade IDs that already exist
+     */
+    public Set<UUID> findExistingTradeIds(Collection<UUID> tradeIds) {
+        Set<UUID> existing = new HashSet<>();
+        List<UUID> ids = new ArrayList<>(tradeIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+            existing.addAll(namedJdbcTemplate.queryForList(
+                "SELECT trade_id FROM trades WHERE trade_id IN (:tradeIds)",
+                Map.of("tradeIds", chunk),
+                UUID.class));
+        }
+        return existing;
+    }
+
+    /**
+     * Batch insert trades
+     */
+    public void insertTrades(List<Trade> trades, int batchSize) {
+        Iterator<Long> ids = allocateIds("trades_id_seq", trades.size()).iterator();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO trades (id, trade_id, isin, quantity, price, side, trade_currency, portfolio_id, " +
+            "status, trade_date, settle_date, created_at, version, is_synthetic, settled) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, FALSE)",
+            trades, batchSize,
+            (ps, trade) -> {
+                ps.setLong(1, ids.next());
+                ps.setObject(2, trade.getTradeId());
+                ps.setString(3, trade.getIsin());
+                ps.setLong(4, trade.getQuantity());
+                ps.setBigDecimal(5, trade.getPrice());
+                ps.setString(6, trade.getSide().name());
+                ps.setString(7, trade.getTradeCurrency());
+                ps.setString(8, trade.getPortfolioId());
+                ps.setString(9, trade.getStatus().name());
+                ps.setObject(10, trade.getTradeDate());
+                ps.setObject(11, trade.getSettleDate());
+                ps.setObject(12, trade.getCreatedAt());
+                ps.setBoolean(13, trade.isSynthetic());
+            });
+    }
+
+    /**
+     * Batch register processed trades (position idempotency registry)
+     */
+    public void insertProcessedTrades(List<ProcessedTrade> processedTrades, int batchSize) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO processed_trades (trade_id, portfolio_id, isin, applied_delta, processed_at, trade_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?)",
+            processedTrades, batchSize,
+            (ps, processed) -> {
+                ps.setObject(1, processed.getTradeId());
+                ps.setString(2, processed.getPortfolioId());
+                ps.setString(3, processed.getIsin());
+                ps.setBigDecimal(4, processed.getAppliedDelta());
+                ps.setObject(5, processed.getProcessedAt().toOffsetDateTime());
+                ps.setObject(6, processed.getTradeDate());
+            });
+    }
+
+    /**
+     * Batch insert cash ledger entries
+     */
+    public void insertCashEntries(List<CashEntry> entries, int batchSize) {
+        Iterator<Long> ids = allocateIds("cash_ledger_id_seq", entries.size()).iterator();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO cash_ledger (id, portfolio_id, delta, balance, currency, reason, trade_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            entries, batchSize,
+            (ps, entry) -> {
+                ps.setLong(1, ids.next());
+                ps.setString(2, entry.getPortfolioId());
+                ps.setBigDecimal(3, entry.getDelta());
+                ps.setBigDecimal(4, entry.getBalance());
+                ps.setString(5, entry.getCurrency());
+                ps.setString(6, entry.getReason());
+                ps.setString(7, entry.getTradeId());
+                ps.setObject(8, entry.getCreatedAt().toOffsetDateTime());
+            });
+    }
+
+    /**
+     * Batch insert journals followed by all of their lines
+     */
+    public void insertJournals(List<Journal> journals, int batchSize) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO journals (id, trade_id, journal_type, portfolio_id, accounting_date, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)",
+            journals, batchSize,
+            (ps, journal) -> {
+                ps.setObject(1, journal.getId());
+                ps.setObject(2, journal.getTradeId());
+                ps.setString(3, journal.getJournalType().name());
+                ps.setString(4, journal.getPortfolioId());
+                ps.setObject(5, journal.getAccountingDate());
+                ps.setObject(6, journal.getCreatedAt().toOffsetDateTime());
+            });
+
+        List<JournalLine> lines = new ArrayList<>();
+        for (Journal journal : journals) {
+            lines.addAll(journal.getLines());
+        }
+        Iterator<Long> ids = allocateIds("journal_lines_id_seq", lines.size()).iterator();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO journal_lines (id, journal_id, accounting_date, account, dr, cr) VALUES (?, ?, ?, ?, ?, ?)",
+            lines, batchSize,
+            (ps, line) -> {
+                ps.setLong(1, ids.next());
+                ps.setObject(2, line.getJournal().getId());
+                ps.setObject(3, line.getAccountingDate());
+                ps.setString(4, line.getAccount());
+                ps.setBigDecimal(5, line.getDebit());
+                ps.setBigDecimal(6, line.getCredit());
+            });
+    }
+
+    /**
+     * Batch insert settlement markers
+     */
+    public void insertSettlementMarkers(List<SettlementMarker> markers, int batchSize) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO settlement_markers (trade_id, settled_at) VALUES (?, ?)",
+            markers, batchSize,
+            (ps, marker) -> {
+                ps.setObject(1, marker.getTradeId());
+                ps.setObject(2, marker.getSettledAt().toOffsetDateTime());
+            });
+    }
+
+    /**
+     * Batch insert outbox events
+     */
+    public void insertOutboxEvents(List<OutboxEvent> events, int batchSize) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO event_outbox (event_type, trade_id, portfolio_id, isin, delta, new_quantity, " +
+            "balance, currency, reason, price, side, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            events, batchSize,
+            (ps, event) -> {
+                ps.setString(1, event.getEventType());
+                ps.setObject(2, event.getTradeId());
+                ps.setString(3, event.getPortfolioId());
+                ps.setString(4, event.getIsin());
+                ps.setBigDecimal(5, event.getDelta());
+                ps.setBigDecimal(6, event.getNewQuantity());
+                ps.setBigDecimal(7, event.getBalance());
+                ps.setString(8, event.getCurrency());
+                ps.setString(9, event.getReason());
+                ps.setBigDecimal(10, event.getPrice());
+                ps.setString(11, event.getSide());
+                ps.setObject(12, event.getOccurredAt().toOffsetDateTime());
+            });
+    }
+
+    /**
+     * Reserve ids from a pooled sequence, one sequence call per block of {@link #ID_BLOCK_SIZE}
+     *
+     * @param sequence Sequence name
+     * @param count    Number of ids needed
+     * @return Ids in ascending order
+     */
+    List<Long> allocateIds(String sequence, int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> blockStarts;
+        if (blocks == 0) {
+            blockStarts = List.of();
+        } else if (databasePlatform.isPostgres()) {
+            blockStarts = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks);
+        } else {
+            blockStarts = new ArrayList<>(blocks);
+            for (int i = 0; i < blocks; i++) {
+                blockStarts.add(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class));
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(count);
+        for (long start : blockStarts) {
+            for (long id = start; id < start + ID_BLOCK_SIZE && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,27 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.Trade;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset pagination over trades, newest first
+ */
+public interface TradePageRepository {
+
+    /**
+     * Next page of trades in (created_at DESC, id DESC) order, walking idx_trades_created_at_id.
+     * Only the filters that are set are added to the query.
+     * @param isin Only trades in this ISIN (null for all)
+     * @param fromDate Earliest trade date, inclusive (null for no lower bound)
+     * @param toDate Latest trade date, inclusive (null for no upper bound)
+     * @param afterCreatedAt Creation time of the last trade on the previous page (null for the first page)
+     * @param afterId Id of the last trade on the previous page (null for the first page)
+     * @param limit Maximum number of trades
+     * @return Trades strictly after the cursor
+     */
+    List<Trade> findPage(String isin, LocalDate fromDate, LocalDate toDate,
+                         LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
@@ -0,0 +1,62 @@
+package com.vibe.fundsmith.repository;
+
+import com.vibe.fundsmith.model.Trade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the keyset query with only the filters in use, so each combination gets
+ * its own plan instead of one generic plan full of "parameter IS NULL OR" branches.
+ */
+public class TradePageRepositoryImpl implements TradePageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Trade> findPage(String isin, LocalDate fromDate, LocalDate toDate,
+                                LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (isin != null) {
+            conditions.add("t.isin = :isin");
+        }
+        if (fromDate != null) {
+            conditions.add("t.tradeDate >= :fromDate");
+        }
+        if (toDate != null) {
+            conditions.add("t.tradeDate <= :toDate");
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // Expanded form of (created_at, id) < (...): JPQL has no row value comparison
+            conditions.add("(t.createdAt < :afterCreatedAt OR (t.createdAt = :afterCreatedAt AND t.id < :afterId))");
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Trade t");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY t.createdAt DESC, t.id DESC");
+
+        TypedQuery<Trade> query = entityManager.createQuery(jpql.toString(), Trade.class);
+        if (isin != null) {
+            query.setParameter("isin", isin);
+        }
+        if (fromDate != null) {
+            query.setParameter("fromDate", fromDate);
+        }
+        if (toDate != null) {
+            query.setParameter("toDate", toDate);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            query.setParameter("afterCreatedAt", afterCreatedAt);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -3,12 +3,15 @@ package com.vibe.fundsmith.repository;
 import com.vibe.fundsmith.model.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface TradeRepository extends JpaRepository<Trade, Long> {
+public interface TradeRepository extends JpaRepository<Trade, Long>, TradePageRepository {
     /**
      * Find a trade by its business key (tradeId)
      * @param tradeId The UUID of the trade
@@ -17,16 +20,43 @@ public interface TradeRepository extends JpaRepository<Trade, Long> {
     Optional<Trade> findByTradeId(UUID tradeId);
     
     /**
-     * Find trades that need settlement (have reached their settle date but don't have settlement markers)
+     * Find trades that need settlement (have reached their settle date and are not yet settled)
      * @param settleDate The settlement date to check
      * @return List of trades due for settlement
      */
-    @org.springframework.data.jpa.repository.Query(
-        "SELECT t FROM Trade t WHERE t.settleDate = :settleDate AND t.tradeId NOT IN " +
-        "(SELECT sm.tradeId FROM SettlementMarker sm)"
-    )
+    @Query("SELECT t FROM Trade t WHERE t.settleDate = :settleDate AND t.settled = false")
     List<Trade> findBySettleDateAndNotSettled(LocalDate settleDate);
     
+    /**
+     * Next page of open trades due on a date, keyset-paginated by id.
+     * Served from the partial index of unsettled trades, so cost does not grow with settled history.
+     * @param settleDate The settlement date to check
+     * @param afterId Last id of the previous page (0 for the first page)
+     * @param pageable Page size (page number is ignored by callers, always 0)
+     * @return Up to page size open trades with id greater than afterId, in id order
+     */
+    @Query(
+        "SELECT t.id AS id, t.tradeId AS tradeId FROM Trade t " +
+        "WHERE t.settleDate = :settleDate AND t.settled = false AND t.id > :afterId ORDER BY t.id"
+    )
+    List<OpenTrade> findOpenTradesDueAfter(LocalDate settleDate, long afterId, Pageable pageable);
+    
+    /**
+     * Number of trades not yet settled, counted from the partial index of unsettled trades
+     * @return Open trade count
+     */
+    @Query("SELECT COUNT(t) FROM Trade t WHERE t.settled = false")
+    long countOpenTrades();
+    
+    /**
+     * Flag trades as settled
+     * @param tradeIds Trade IDs
+     * @return Number of trades updated
+     */
+    @Modifying
+    @Query("UPDATE Trade t SET t.settled = true WHERE t.tradeId IN :tradeIds AND t.settled = false")
+    int markSettled(Collection<UUID> tradeIds);
+    
     List<Trade> findByTradeDateBetweenOrderByCreatedAtDescIdDesc(
         LocalDate fromDate, 
         LocalDate toDate, 
@@ -43,4 +73,13 @@ public interface TradeRepository extends JpaRepository<Trade, Long> {
     List<Trade> findByOrderByCreatedAtDescIdDesc(Pageable pageable);
     
     List<Trade> findByIsinOrderByCreatedAtDescIdDesc(String isin, Pageable pageable);
+    
+    /**
+     * Keyset projection of a trade awaiting settlement
+     */
+    interface OpenTrade {
+        Long getId();
+        
+        UUID getTradeId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.CashResetResultDto;
+import com.vibe.fundsmith.dto.ResetResultDto;
+import com.vibe.fundsmith.model.OutboxEvent;
+import com.vibe.fundsmith.repository.AdminResetRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Administrative resets for demo and UAT environments. Each reset clears whole tables or
+ * one portfolio's rows with set-based statements in one transaction, so it runs in
+ * constant memory, and then drops the in-memory state built from them.
+ * Outbox events recorded for the deleted rows and not relayed yet are deleted in the same
+ * transaction, so the relay cannot replay stale positions or cash into the NAV engine and
+ * live streams after the reset. Published events stay as stream history.
+ * Bookings running during a reset may be lost; pause trade generation first.
+ */
+@Service
+public class AdminResetService {
+    private static final Logger log = LoggerFactory.getLogger(AdminResetService.class);
+
+    private static final String DEFAULT_PORTFOLIO = "DEFAULT";
+
+    private final AdminResetRepository adminResetRepository;
+    private final CashService cashService;
+    private final PositionService positionService;
+    private final NavEngine navEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    public AdminResetService(AdminResetRepository adminResetRepository,
+                             CashService cashService,
+                             PositionService positionService,
+                             NavEngine navEngine,
+                             PlatformTransactionManager transactionManager) {
+        this.adminResetRepository = adminResetRepository;
+        this.cashService = cashService;
+        this.positionService = positionService;
+        this.navEngine = navEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Delete trades with their positions, idempotency records, journals, ledger balances
+     * and settlement markers. Cash is left as it is.
+     *
+     * @param portfolioId Portfolio identifier (null for every portfolio)
+     * @return Rows deleted per table
+     */
+    public ResetResultDto resetTrades(String portfolioId) {
+        return reset(portfolioId, AdminResetRepository.TRADING_TABLES, null);
+    }
+
+    /**
+     * Delete NAV snapshots
+     *
+     * @param portfolioId Portfolio identifier (null for every portfolio)
+     * @return Rows deleted per table
+     */
+    public ResetResultDto resetNavSnapshots(String portfolioId) {
+        return reset(portfolioId, AdminResetRepository.NAV_TABLES, null);
+    }
+
+    /**
+     * Delete trades and everything derived from them, cash history and NAV snapshots,
+     * then book the opening cash balance
+     *
+     * @param portfolioId Portfolio identifier (null for every portfolio; the opening balance then goes to DEFAULT)
+     * @param initialCash Opening cash balance in the default currency
+     * @return Rows deleted per table
+     */
+    public ResetResultDto resetAll(String portfolioId, BigDecimal initialCash) {
+        List<String> tables = new ArrayList<>(AdminResetRepository.TRADING_TABLES);
+        tables.addAll(AdminResetRepository.CASH_TABLES);
+        tables.addAll(AdminResetRepository.NAV_TABLES);
+        return reset(portfolioId, tables, initialCash);
+    }
+
+    private ResetResultDto reset(String portfolioId, List<String> tables, BigDecimal initialCash) {
+        Map<String, Long> deleted = transactionTemplate.execute(status -> {
+            Map<String, Long> counts = portfolioId != null
+                    ? adminResetRepository.deletePortfolio(tables, portfolioId)
+                    : adminResetRepository.deleteAll(tables);
+            // Before the opening balance below records its own cash events
+            List<String> eventTypes = eventTypesOf(tables);
+            if (!eventTypes.isEmpty()) {
+                counts.put("event_outbox", adminResetRepository.deleteUnpublishedEvents(eventTypes, portfolioId));
+            }
+            if (initialCash != null) {
+                CashResetResultDto cash = cashService.resetCashBalance(
+                        portfolioId != null ? portfolioId : DEFAULT_PORTFOLIO, initialCash);
+                if (!cash.isSuccess()) {
+                    throw new IllegalStateException(cash.getMessage());
+                }
+            }
+            return counts;
+        });
+
+        // Rebuild in-memory state from what was committed
+        if (tables.contains("positions")) {
+            positionService.rebuildCache();
+        }
+        if (tables.contains("positions") || tables.contains("cash_state")) {
+            navEngine.clear();
+        }
+
+        ResetResultDto result = new ResetResultDto(portfolioId, deleted);
+        log.info("Reset {} for {}: {} rows deleted {}", tables, portfolioId != null ? portfolioId : "all portfolios",
+                result.getTotalDeleted(), deleted);
+        return result;
+    }
+
+    /**
+     * Outbox event types describing rows in the given tables
+     */
+    private static List<String> eventTypesOf(List<String> tables) {
+        List<String> eventTypes = new ArrayList<>();
+        if (tables.contains("trades")) {
+            eventTypes.add(OutboxEvent.TRADE_BOOKED);
+            eventTypes.add(OutboxEvent.POSITION_UPDATED);
+        }
+        if (tables.contains("cash_ledger")) {
+            eventTypes.add(OutboxEvent.CASH_MOVEMENT);
+        }
+        return eventTypes;
+    }
+}
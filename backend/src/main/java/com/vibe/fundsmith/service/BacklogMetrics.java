@@ -0,0 +1,80 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.repository.OutboxEventRepository;
+import com.vibe.fundsmith.repository.TradeRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges for work waiting in the pipeline: open unsettled trades and outbox lag.
+ * Values are refreshed on a schedule rather than queried on every scrape, so a
+ * scraper never adds database load; both queries are served from partial indexes.
+ */
+@Component
+public class BacklogMetrics {
+    private static final Logger log = LoggerFactory.getLogger(BacklogMetrics.class);
+
+    public static final String METRIC_OPEN_TRADES = "ibor.trades.open";
+    public static final String METRIC_OUTBOX_PENDING = "ibor.outbox.lag.events";
+    public static final String METRIC_OUTBOX_AGE = "ibor.outbox.lag.seconds";
+
+    private final TradeRepository tradeRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final AtomicLong openTrades = new AtomicLong();
+    private final AtomicLong outboxPending = new AtomicLong();
+    private final AtomicLong outboxAgeMillis = new AtomicLong();
+
+    public BacklogMetrics(TradeRepository tradeRepository,
+                          OutboxEventRepository outboxEventRepository,
+                          MeterRegistry meterRegistry) {
+        this.tradeRepository = tradeRepository;
+        this.outboxEventRepository = outboxEventRepository;
+
+        Gauge.builder(METRIC_OPEN_TRADES, openTrades, AtomicLong::get)
+            .description("Booked trades not yet settled")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_OUTBOX_PENDING, outboxPending, AtomicLong::get)
+            .description("Outbox events waiting for the relay")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_OUTBOX_AGE, outboxAgeMillis, millis -> millis.get() / 1000.0)
+            .description("Age of the oldest unpublished outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled refresh of the gauge values
+     */
+    @Scheduled(fixedDelayString = "${ibor.metrics.backlog-refresh-ms:15000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Backlog metrics refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-read the backlog from the database
+     */
+    public void refresh() {
+        openTrades.set(tradeRepository.countOpenTrades());
+        outboxPending.set(outboxEventRepository.countByPublishedAtIsNull());
+        List<ZonedDateTime> oldest = outboxEventRepository.findOldestUnpublishedOccurredAt(PageRequest.of(0, 1));
+        outboxAgeMillis.set(oldest.isEmpty()
+            ? 0L
+            : Math.max(Duration.between(oldest.get(0), ZonedDateTime.now()).toMillis(), 0L));
+    }
+}
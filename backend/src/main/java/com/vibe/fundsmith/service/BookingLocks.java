@@ -0,0 +1,168 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.model.CashStateId;
+import com.vibe.fundsmith.model.LedgerAccountId;
+import com.vibe.fundsmith.model.PositionId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-process locks that serialize read-check-write booking steps.
+ * A key maps to one of {@code ibor.booking.lock-stripes} locks, so bookings for
+ * different positions run in parallel while the non-negative check and
+ * update-or-insert of one (portfolio, ISIN) are serialized. Locks are held until the
+ * surrounding transaction completes, so the next holder reads the committed row.
+ * <p>
+ * Deadlock freedom: several stripes are always taken in ascending stripe order, and
+ * position stripes are always taken before cash stripes, and cash stripes before
+ * ledger account stripes (single-trade and batch bookings both update positions, then
+ * cash, then journals). Across backend instances the row locks taken on existing rows
+ * serialize updates as well.
+ * <p>
+ * The stripes are in-process only. The first cash_state and account_balances row of a
+ * balance is inserted under its stripe, so two instances booking the same new balance at
+ * once can both insert it: one transaction fails on the primary key and must be retried.
+ * Positions are not affected on PostgreSQL, where they are only created with ON CONFLICT.
+ */
+@Component
+public class BookingLocks {
+
+    private final ReentrantLock[] positionStripes;
+    private final ReentrantLock[] cashStripes;
+    private final ReentrantLock[] ledgerStripes;
+    private final long timeoutMs;
+
+    public BookingLocks(@Value("${ibor.booking.lock-stripes:1024}") int stripeCount,
+                        @Value("${ibor.booking.lock-timeout-ms:30000}") long timeoutMs) {
+        this.positionStripes = newStripes(stripeCount);
+        this.cashStripes = newStripes(stripeCount);
+        this.ledgerStripes = newStripes(stripeCount);
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Lock one position until the current transaction completes
+     *
+     * @throws IllegalStateException if no transaction is active or the lock is not acquired in time
+     */
+    public void lockPosition(PositionId position) {
+        lockPositions(List.of(position));
+    }
+
+    /**
+     * Lock several positions, in stripe order, until the current transaction completes
+     *
+     * @throws IllegalStateException if no transaction is active or a lock is not acquired in time
+     */
+    public void lockPositions(Collection<PositionId> positions) {
+        lockUntilCompletion(positionStripes, positions);
+    }
+
+    /**
+     * Lock one cash balance until the current transaction completes
+     *
+     * @throws IllegalStateException if no transaction is active or the lock is not acquired in time
+     */
+    public void lockCashBalance(CashStateId balance) {
+        lockCashBalances(List.of(balance));
+    }
+
+    /**
+     * Lock several cash balances, in stripe order, until the current transaction completes
+     *
+     * @throws IllegalStateException if no transaction is active or a lock is not acquired in time
+     */
+    public void lockCashBalances(Collection<CashStateId> balances) {
+        lockUntilCompletion(cashStripes, balances);
+    }
+
+    /**
+     * Lock several ledger accounts (all of their dates), in stripe order, until the current transaction completes
+     *
+     * @throws IllegalStateException if no transaction is active or a lock is not acquired in time
+     */
+    public void lockLedgerAccounts(Collection<LedgerAccountId> accounts) {
+        lockUntilCompletion(ledgerStripes, accounts);
+    }
+
+    /**
+     * Stripes held by the calling thread (diagnostics and tests)
+     */
+    public int heldByCurrentThread() {
+        int count = 0;
+        for (ReentrantLock lock : positionStripes) {
+            count += lock.getHoldCount();
+        }
+        for (ReentrantLock lock : cashStripes) {
+            count += lock.getHoldCount();
+        }
+        for (ReentrantLock lock : ledgerStripes) {
+            count += lock.getHoldCount();
+        }
+        return count;
+    }
+
+    private void lockUntilCompletion(ReentrantLock[] stripes, Collection<?> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Booking locks must be taken inside a transaction");
+        }
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Object key : keys) {
+            indexes.add(stripeOf(stripes, key));
+        }
+
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Timed out after " + timeoutMs + " ms waiting for booking lock");
+                }
+                held.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            held.forEach(ReentrantLock::unlock);
+            throw new IllegalStateException("Interrupted waiting for booking lock", e);
+        } catch (RuntimeException e) {
+            held.forEach(ReentrantLock::unlock);
+            throw e;
+        }
+
+        // Completion callbacks run on the transaction's thread, which owns the locks
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = held.size() - 1; i >= 0; i--) {
+                    held.get(i).unlock();
+                }
+            }
+        });
+    }
+
+    private static int stripeOf(ReentrantLock[] stripes, Object key) {
+        int hash = key.hashCode();
+        // Spread the high bits, as HashMap does, before masking
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private static ReentrantLock[] newStripes(int stripeCount) {
+        // Round up to a power of two so the stripe is a mask of the hash
+        int size = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        ReentrantLock[] stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+}
@@ -0,0 +1,99 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.CashReconciliationDto;
+import com.vibe.fundsmith.model.CashState;
+import com.vibe.fundsmith.model.CashStateId;
+import com.vibe.fundsmith.repository.CashLedgerRepository;
+import com.vibe.fundsmith.repository.CashStateRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Periodically verifies that each materialized cash_state balance equals the
+ * SUM(delta) of its cash_ledger rows in that portfolio and currency. Breaks are logged and reported, never auto-corrected.
+ */
+@Service
+public class CashReconciliationService {
+    private static final Logger log = LoggerFactory.getLogger(CashReconciliationService.class);
+    
+    private final CashLedgerRepository cashLedgerRepository;
+    private final CashStateRepository cashStateRepository;
+    
+    public CashReconciliationService(CashLedgerRepository cashLedgerRepository,
+                                     CashStateRepository cashStateRepository) {
+        this.cashLedgerRepository = cashLedgerRepository;
+        this.cashStateRepository = cashStateRepository;
+    }
+    
+    /**
+     * Scheduled reconciliation run (hourly by default)
+     */
+    @Scheduled(fixedDelayString = "${ibor.cash.reconciliation.interval-ms:3600000}",
+               initialDelayString = "${ibor.cash.reconciliation.initial-delay-ms:60000}")
+    public void scheduledReconciliation() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Cash reconciliation failed", e);
+        }
+    }
+    
+    /**
+     * Compare every snapshot with its ledger sum.
+     * Repeatable read gives both queries the same view of committed bookings.
+     * 
+     * @return Reconciliation result listing any breaks
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CashReconciliationDto reconcile() {
+        Map<CashStateId, BigDecimal> ledgerBalances = new HashMap<>();
+        for (Object[] row : cashLedgerRepository.sumDeltaByPortfolioAndCurrency()) {
+            ledgerBalances.put(new CashStateId((String) row[0], (String) row[1]), (BigDecimal) row[2]);
+        }
+        
+        Map<CashStateId, BigDecimal> snapshotBalances = new HashMap<>();
+        for (CashState state : cashStateRepository.findAll()) {
+            snapshotBalances.put(new CashStateId(state.getPortfolioId(), state.getCurrency()), state.getBalance());
+        }
+        
+        Set<CashStateId> balances = new HashSet<>(ledgerBalances.keySet());
+        balances.addAll(snapshotBalances.keySet());
+        Set<String> portfolios = new HashSet<>();
+        
+        List<CashReconciliationDto.Break> breaks = new ArrayList<>();
+        for (CashStateId key : balances) {
+            portfolios.add(key.getPortfolioId());
+            BigDecimal ledger = ledgerBalances.getOrDefault(key, BigDecimal.ZERO);
+            BigDecimal snapshot = snapshotBalances.getOrDefault(key, BigDecimal.ZERO);
+            BigDecimal difference = snapshot.subtract(ledger);
+            if (difference.signum() != 0) {
+                log.warn("Cash reconciliation break for portfolio {} in {}: snapshot={}, ledger={}, difference={}",
+                        key.getPortfolioId(), key.getCurrency(), snapshot, ledger, difference);
+                breaks.add(new CashReconciliationDto.Break(
+                        key.getPortfolioId(),
+                        key.getCurrency(),
+                        snapshot.setScale(2, RoundingMode.HALF_UP).toString(),
+                        ledger.setScale(2, RoundingMode.HALF_UP).toString(),
+                        difference.setScale(2, RoundingMode.HALF_UP).toString()));
+            }
+        }
+        
+        log.info("Cash reconciliation checked {} portfolios, {} breaks", portfolios.size(), breaks.size());
+        return new CashReconciliationDto(ZonedDateTime.now().toString(), portfolios.size(), breaks);
+    }
+}
@@ -1,15 +1,26 @@
 package com.vibe.fundsmith.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vibe.fundsmith.dto.CashBalanceDto;
+import com.vibe.fundsmith.dto.CashHistoryPageDto;
 import com.vibe.fundsmith.dto.CashResetResultDto;
-import com.vibe.fundsmith.event.CashMovementEvent;
+import com.vibe.fundsmith.exception.ValidationException;
 import com.vibe.fundsmith.model.CashEntry;
+import com.vibe.fundsmith.model.CashState;
+import com.vibe.fundsmith.model.CashStateId;
+import com.vibe.fundsmith.model.OutboxEvent;
 import com.vibe.fundsmith.model.TradeSide;
 import com.vibe.fundsmith.repository.CashLedgerRepository;
+import com.vibe.fundsmith.repository.CashStateRepository;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,24 +31,40 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Service
 public class CashService {
     private static final Logger log = LoggerFactory.getLogger(CashService.class);
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 1000;
+    // Lock order for batched balance updates
+    private static final Comparator<CashStateId> BALANCE_ORDER =
+            Comparator.comparing(CashStateId::getPortfolioId).thenComparing(CashStateId::getCurrency);
     
     private final CashLedgerRepository cashLedgerRepository;
-    private final ObjectMapper objectMapper;
+    private final CashStateRepository cashStateRepository;
+    private final EventOutboxService eventOutboxService;
+    private final FxRateService fxRateService;
+    private final BookingLocks bookingLocks;
     private final String defaultCurrency;
     
     @Autowired
     public CashService(
             CashLedgerRepository cashLedgerRepository,
-            ObjectMapper objectMapper,
+            CashStateRepository cashStateRepository,
+            EventOutboxService eventOutboxService,
+            FxRateService fxRateService,
+            BookingLocks bookingLocks,
             @Value("${ibor.cash.default-currency:USD}") String defaultCurrency) {
         this.cashLedgerRepository = cashLedgerRepository;
-        this.objectMapper = objectMapper;
+        this.cashStateRepository = cashStateRepository;
+        this.eventOutboxService = eventOutboxService;
+        this.fxRateService = fxRateService;
+        this.bookingLocks = bookingLocks;
         this.defaultCurrency = defaultCurrency;
     }
     
@@ -49,31 +76,52 @@ public class CashService {
      * @param quantity Trade quantity
      * @param price Trade price
      * @param portfolioId Portfolio identifier
+     * @param currency Trade currency; the cash moves in this currency (default currency if null)
      * @return Cash entry created
      */
     @Transactional
     public CashEntry recordTradeImpact(UUID tradeId, TradeSide side, 
-                                      BigDecimal quantity, BigDecimal price, String portfolioId) {
-        // Calculate cash impact based on side
-        // BUY: negative impact (cash decreases)
-        // SELL: positive impact (cash increases)
-        BigDecimal totalCost = quantity.multiply(price).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal cashDelta = (side == TradeSide.BUY) ? totalCost.negate() : totalCost;
-        
-        // Format reason (e.g., "BUY:a5f0...")
-        String reason = side.toString() + ":" + tradeId.toString();
+                                      BigDecimal quantity, BigDecimal price, String portfolioId, String currency) {
+        BigDecimal cashDelta = calculateCashDelta(side, quantity, price);
+        String reason = tradeReason(side, tradeId);
+        String cashCurrency = currencyOrDefault(currency);
         
-        // Record in ledger
-        CashEntry entry = new CashEntry(portfolioId, cashDelta, reason);
+        // Update the materialized balance and record the running balance in the ledger
+        BigDecimal newBalance = applyToBalance(portfolioId, cashCurrency, cashDelta);
+        CashEntry entry = new CashEntry(portfolioId, cashDelta, newBalance, cashCurrency,
+                reason, tradeId.toString());
         CashEntry savedEntry = cashLedgerRepository.save(entry);
         
         // Emit cash movement event
-        emitCashMovementEvent(tradeId, cashDelta, reason, savedEntry.getCreatedAt());
+        emitCashMovementEvent(savedEntry);
         
-        log.info("Recorded cash movement for trade {}: delta={}", tradeId, cashDelta);
+        log.info("Recorded cash movement for trade {}: delta={} {}", tradeId, cashDelta, cashCurrency);
         return savedEntry;
     }
     
+    /**
+     * Cash impact of a single trade, used for batch booking
+     */
+    public record TradeCashImpact(UUID tradeId, TradeSide side, BigDecimal quantity,
+                                  BigDecimal price, String portfolioId, String currency) {}
+    
+    /**
+     * Calculate the cash impact of a trade
+     * BUY: negative impact (cash decreases)
+     * SELL: positive impact (cash increases)
+     */
+    static BigDecimal calculateCashDelta(TradeSide side, BigDecimal quantity, BigDecimal price) {
+        BigDecimal totalCost = quantity.multiply(price).setScale(2, RoundingMode.HALF_UP);
+        return (side == TradeSide.BUY) ? totalCost.negate() : totalCost;
+    }
+    
+    /**
+     * Format the ledger reason for a trade (e.g., "BUY:a5f0...")
+     */
+    static String tradeReason(TradeSide side, UUID tradeId) {
+        return side.toString() + ":" + tradeId.toString();
+    }
+    
     /**
      * Get current cash balance for default portfolio
      * 
@@ -84,35 +132,186 @@ public class CashService {
     }
     
     /**
-     * Get current cash balance for a specific portfolio
+     * Get current cash balance for a specific portfolio: each currency's balance and
+     * their total in the fund base currency at cached FX rates
      * 
      * @param portfolioId Portfolio identifier
      * @return Cash balance DTO
      */
     public CashBalanceDto getCurrentBalance(String portfolioId) {
-        BigDecimal balance = cashLedgerRepository.getCurrentBalance(portfolioId);
+        Map<String, BigDecimal> balances = getBalances(portfolioId);
+        Map<String, String> formatted = new LinkedHashMap<>();
+        balances.forEach((currency, balance) ->
+                formatted.put(currency, balance.setScale(2, RoundingMode.HALF_UP).toString()));
         return new CashBalanceDto(
-            balance.setScale(2, RoundingMode.HALF_UP).toString(),
-            defaultCurrency
+            fxRateService.toBase(balances).setScale(2, RoundingMode.HALF_UP).toString(),
+            fxRateService.getBaseCurrency(),
+            formatted
         );
     }
     
     /**
-     * Emit cash movement event
+     * Get the current cash balance of a portfolio in one currency from the materialized
+     * cash state. This is a primary key lookup regardless of ledger history length.
+     * 
+     * @param portfolioId Portfolio identifier
+     * @param currency Currency (ISO 4217)
+     * @return Current balance, zero if the portfolio has no cash history in that currency
      */
-    private void emitCashMovementEvent(UUID tradeId, BigDecimal delta, String reason, ZonedDateTime createdAt) {
-        CashMovementEvent event = new CashMovementEvent(tradeId, delta, reason, createdAt);
-        try {
-            // For now, just log the event as JSON
-            log.info("EVENT: {}", objectMapper.writeValueAsString(event));
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize cash movement event", e);
+    public BigDecimal getBalance(String portfolioId, String currency) {
+        return cashStateRepository.findById(new CashStateId(portfolioId, currency))
+                .map(CashState::getBalance)
+                .orElse(BigDecimal.ZERO);
+    }
+    
+    /**
+     * Get every currency balance of a portfolio in one primary key range read
+     * 
+     * @param portfolioId Portfolio identifier
+     * @return Balances keyed by currency, in currency order; empty if the portfolio has no cash history
+     */
+    public Map<String, BigDecimal> getBalances(String portfolioId) {
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        for (CashState state : cashStateRepository.findByPortfolioIdOrderByCurrency(portfolioId)) {
+            balances.put(state.getCurrency(), state.getBalance());
+        }
+        return balances;
+    }
+    
+    /**
+     * Page through a portfolio's cash history newest first with a continuation token.
+     * Pages are read by keyset on (portfolio_id, created_at, id), so only the rows
+     * returned are read however long the ledger is.
+     * 
+     * @param portfolioId Portfolio identifier
+     * @param reasonPrefix Only entries whose reason starts with this, e.g. "BUY:" (optional)
+     * @param fromDate Earliest entry date (UTC), inclusive (optional)
+     * @param toDate Latest entry date (UTC), inclusive (optional)
+     * @param cursor Token from the previous page, null for the first page
+     * @param limit Page size (default 50, maximum 1000)
+     * @return Entries and the token for the next page, null when there are no more
+     */
+    @Transactional(readOnly = true)
+    public CashHistoryPageDto findHistoryPage(String portfolioId, String reasonPrefix, LocalDate fromDate,
+                                              LocalDate toDate, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_HISTORY_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_HISTORY_PAGE_SIZE) {
+            throw new ValidationException("limit", "Limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ValidationException("fromDate", "From date cannot be after to date");
+        }
+        String prefix = reasonPrefix != null && !reasonPrefix.isBlank() ? reasonPrefix : null;
+        ZonedDateTime from = fromDate != null ? fromDate.atStartOfDay(ZoneOffset.UTC) : null;
+        ZonedDateTime to = toDate != null ? toDate.plusDays(1).atStartOfDay(ZoneOffset.UTC) : null;
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+
+        // One extra row tells whether another page exists without a count query
+        List<CashEntry> entries = cashLedgerRepository.findHistoryPage(portfolioId, prefix, from, to,
+                after != null ? after.timestamp(ZonedDateTime::parse) : null,
+                after != null ? after.id() : null, pageSize + 1);
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+        CashEntry last = hasMore ? entries.get(entries.size() - 1) : null;
+        String nextCursor = last != null ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new CashHistoryPageDto(entries, nextCursor, hasMore);
+    }
+    
+    /**
+     * Apply a delta to the portfolio's materialized balance in one currency under a row lock.
+     * Must be called in the same transaction as the corresponding ledger insert(s).
+     * 
+     * @param portfolioId Portfolio identifier
+     * @param currency Currency of the delta
+     * @param delta Cash delta to apply
+     * @return Balance in that currency after applying the delta
+     */
+    @Transactional
+    public BigDecimal applyToBalance(String portfolioId, String currency, BigDecimal delta) {
+        return lockCashState(portfolioId, currency).apply(delta);
+    }
+    
+    /**
+     * Apply many trade cash impacts with one locked balance update per portfolio and
+     * currency, and build the corresponding ledger entries with running balances.
+     * Balances are locked in (portfolio, currency) order. The returned entries are not persisted.
+     * 
+     * @param impacts Trade cash impacts in booking order
+     * @return Ledger entries grouped by portfolio and currency, in booking order within each group
+     */
+    @Transactional
+    public List<CashEntry> applyTradeImpacts(List<TradeCashImpact> impacts) {
+        Map<CashStateId, List<TradeCashImpact>> byBalance = impacts.stream()
+                .collect(Collectors.groupingBy(
+                        impact -> new CashStateId(impact.portfolioId(), currencyOrDefault(impact.currency())),
+                        () -> new TreeMap<>(BALANCE_ORDER),
+                        Collectors.toList()));
+        
+        // Take every balance's booking lock up front so first-use creation below never waits out of order
+        bookingLocks.lockCashBalances(byBalance.keySet());
+        
+        List<CashEntry> entries = new ArrayList<>(impacts.size());
+        for (Map.Entry<CashStateId, List<TradeCashImpact>> balance : byBalance.entrySet()) {
+            String portfolioId = balance.getKey().getPortfolioId();
+            String currency = balance.getKey().getCurrency();
+            List<BigDecimal> deltas = balance.getValue().stream()
+                    .map(impact -> calculateCashDelta(impact.side(), impact.quantity(), impact.price()))
+                    .toList();
+            BigDecimal total = deltas.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal running = applyToBalance(portfolioId, currency, total).subtract(total);
+            
+            for (int i = 0; i < deltas.size(); i++) {
+                TradeCashImpact impact = balance.getValue().get(i);
+                running = running.add(deltas.get(i));
+                entries.add(new CashEntry(portfolioId, deltas.get(i), running, currency,
+                        tradeReason(impact.side(), impact.tradeId()), impact.tradeId().toString()));
+            }
         }
-        // In the future, publish to message bus or event stream
+        return entries;
+    }
+    
+    private String currencyOrDefault(String currency) {
+        return currency != null && !currency.isBlank() ? currency : defaultCurrency;
     }
     
     /**
-     * Reset cash balance to a specified amount for a portfolio and clear all history
+     * Lock the cash state row for a portfolio and currency, creating it on first use.
+     * Balances whose ledger predates cash_state are seeded from the ledger sum once.
+     * Creation holds the balance's booking lock until commit, so concurrent first
+     * bookings cannot both insert the row.
+     */
+    private CashState lockCashState(String portfolioId, String currency) {
+        Optional<CashState> existing = cashStateRepository.findByIdForUpdate(portfolioId, currency);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        bookingLocks.lockCashBalance(new CashStateId(portfolioId, currency));
+        return cashStateRepository.findByIdForUpdate(portfolioId, currency)
+                .orElseGet(() -> cashStateRepository.save(
+                        new CashState(portfolioId, currency, cashLedgerRepository.getCurrentBalance(portfolioId, currency))));
+    }
+    
+    /**
+     * Emit cash movement event by recording it in the outbox
+     */
+    private void emitCashMovementEvent(CashEntry entry) {
+        eventOutboxService.record(toOutboxEvent(entry));
+    }
+    
+    /**
+     * Outbox row for a ledger entry
+     */
+    static OutboxEvent toOutboxEvent(CashEntry entry) {
+        UUID tradeId = entry.getTradeId() != null ? UUID.fromString(entry.getTradeId()) : null;
+        return OutboxEvent.cashMovement(tradeId, entry.getPortfolioId(),
+                entry.getDelta(), entry.getBalance(), entry.getCurrency(), entry.getReason(), entry.getCreatedAt());
+    }
+    
+    /**
+     * Reset cash balance to a specified amount in the default currency for a portfolio,
+     * zero its other currency balances and clear all history
      * 
      * @param portfolioId Portfolio identifier
      * @param targetAmount Target amount to reset to
@@ -121,11 +320,9 @@ public class CashService {
     @Transactional
     public CashResetResultDto resetCashBalance(String portfolioId, BigDecimal targetAmount) {
         try {
-            // Delete all cash entries for this portfolio to clear history
-            List<CashEntry> existingEntries = cashLedgerRepository.findByPortfolioIdOrderByCreatedAtDesc(portfolioId);
-            int entriesDeleted = existingEntries.size();
-            if (!existingEntries.isEmpty()) {
-                cashLedgerRepository.deleteAll(existingEntries);
+            // Delete all cash entries for this portfolio to clear history, in one statement
+            int entriesDeleted = cashLedgerRepository.deleteByPortfolioId(portfolioId);
+            if (entriesDeleted > 0) {
                 log.info("Deleted {} cash entries for portfolio {}", entriesDeleted, portfolioId);
             }
             
@@ -140,6 +337,27 @@ public class CashService {
             );
             
             cashLedgerRepository.save(initialEntry);
+            // Every balance of the portfolio, the default currency included, in the same
+            // (portfolio, currency) order as applyTradeImpacts so the two never deadlock
+            TreeSet<CashStateId> balances = new TreeSet<>(BALANCE_ORDER);
+            balances.add(new CashStateId(portfolioId, defaultCurrency));
+            for (CashState state : cashStateRepository.findByPortfolioIdOrderByCurrency(portfolioId)) {
+                balances.add(new CashStateId(portfolioId, state.getCurrency()));
+            }
+            bookingLocks.lockCashBalances(balances);
+            for (CashStateId balance : balances) {
+                CashState locked = lockCashState(portfolioId, balance.getCurrency());
+                if (balance.getCurrency().equals(defaultCurrency)) {
+                    locked.setBalance(targetAmount);
+                    continue;
+                }
+                BigDecimal cleared = locked.getBalance();
+                locked.setBalance(BigDecimal.ZERO);
+                // No ledger row remains for this currency; tell consumers its balance is now zero
+                eventOutboxService.record(OutboxEvent.cashMovement(null, portfolioId, cleared.negate(),
+                        BigDecimal.ZERO, balance.getCurrency(), "ADMIN:RESET_BALANCE", ZonedDateTime.now()));
+            }
+            emitCashMovementEvent(initialEntry);
             log.info("Cash balance reset for portfolio {}: new balance={}", 
                      portfolioId, targetAmount);
             
@@ -0,0 +1,115 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PriceDto;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Prices loaded from a CSV file with the header {@code isin,price,currency,as_of_date}.
+ * A file may hold a history per instrument; an as-of lookup returns the latest
+ * row on or before the requested date. The file is re-read when its
+ * modification time changes.
+ */
+@Component
+@ConditionalOnProperty(name = "ibor.prices.source", havingValue = "csv")
+public class CsvPriceSource implements PriceSource {
+    private static final Logger log = LoggerFactory.getLogger(CsvPriceSource.class);
+
+    private final Path path;
+    private final String defaultCurrency;
+
+    private volatile Map<String, NavigableMap<LocalDate, PriceDto>> history = Map.of();
+    private volatile FileTime loadedModifiedTime;
+
+    public CsvPriceSource(@Value("${ibor.prices.csv.path}") String path,
+                          @Value("${ibor.prices.default-currency:USD}") String defaultCurrency) {
+        this.path = Path.of(path);
+        this.defaultCurrency = defaultCurrency;
+    }
+
+    @Override
+    public Map<String, PriceDto> fetchPrices(Collection<String> isins, LocalDate asOf) {
+        Map<String, NavigableMap<LocalDate, PriceDto>> current = reloadIfModified();
+        LocalDate date = asOf != null ? asOf : LocalDate.MAX;
+        Map<String, PriceDto> prices = new HashMap<>();
+        for (String isin : isins) {
+            NavigableMap<LocalDate, PriceDto> series = current.get(isin);
+            if (series == null) {
+                continue;
+            }
+            Map.Entry<LocalDate, PriceDto> entry = series.floorEntry(date);
+            if (entry != null) {
+                prices.put(isin, entry.getValue());
+            }
+        }
+        return prices;
+    }
+
+    private Map<String, NavigableMap<LocalDate, PriceDto>> reloadIfModified() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (!modified.equals(loadedModifiedTime)) {
+                synchronized (this) {
+                    if (!modified.equals(loadedModifiedTime)) {
+                        history = parse();
+                        loadedModifiedTime = modified;
+                        log.info("Loaded prices for {} instruments from {}", history.size(), path);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read price file " + path, e);
+        }
+        return history;
+    }
+
+    private Map<String, NavigableMap<LocalDate, PriceDto>> parse() throws IOException {
+        Map<String, NavigableMap<LocalDate, PriceDto>> parsed = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("isin"))) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length < 2) {
+                    log.warn("Skipping malformed price row {} in {}: {}", lineNumber, path, line);
+                    continue;
+                }
+                try {
+                    String isin = fields[0].trim();
+                    BigDecimal price = new BigDecimal(fields[1].trim());
+                    String currency = fields.length > 2 && !fields[2].isBlank() ? fields[2].trim() : defaultCurrency;
+                    LocalDate asOf = fields.length > 3 && !fields[3].isBlank()
+                            ? LocalDate.parse(fields[3].trim()) : LocalDate.MIN;
+                    parsed.computeIfAbsent(isin, k -> new TreeMap<>())
+                          .put(asOf, new PriceDto(isin, price, currency, asOf));
+                } catch (RuntimeException e) {
+                    log.warn("Skipping malformed price row {} in {}: {}", lineNumber, path, line);
+                }
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,47 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.config.DemoConfig;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Static USD rates from application.yml (demo.fx-rates), crossed into the requested
+ * base currency; the default source
+ */
+@Component
+@ConditionalOnProperty(name = "ibor.fx.source", havingValue = "demo", matchIfMissing = true)
+public class DemoFxRateSource implements FxRateSource {
+
+    private static final String QUOTE_CURRENCY = "USD";
+
+    private final DemoConfig demoConfig;
+
+    public DemoFxRateSource(DemoConfig demoConfig) {
+        this.demoConfig = demoConfig;
+    }
+
+    @Override
+    public Map<String, BigDecimal> fetchRates(String baseCurrency) {
+        Map<String, BigDecimal> usdRates = new HashMap<>();
+        if (demoConfig.getFxRates() != null) {
+            usdRates.putAll(demoConfig.getFxRates());
+        }
+        usdRates.put(QUOTE_CURRENCY, BigDecimal.ONE);
+
+        BigDecimal baseInUsd = usdRates.get(baseCurrency);
+        Map<String, BigDecimal> rates = new HashMap<>();
+        if (baseInUsd == null || baseInUsd.signum() == 0) {
+            return rates;
+        }
+        for (Map.Entry<String, BigDecimal> rate : usdRates.entrySet()) {
+            rates.put(rate.getKey(), rate.getValue().divide(baseInUsd, MathContext.DECIMAL64));
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,48 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.config.DemoConfig;
+import com.vibe.fundsmith.dto.PriceDto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Static base prices from application.yml (demo.base-prices); the default source
+ */
+@Component
+@ConditionalOnProperty(name = "ibor.prices.source", havingValue = "demo", matchIfMissing = true)
+public class DemoPriceSource implements PriceSource {
+
+    private final DemoConfig demoConfig;
+    private final String currency;
+
+    public DemoPriceSource(DemoConfig demoConfig,
+                           @Value("${ibor.prices.default-currency:USD}") String currency) {
+        this.demoConfig = demoConfig;
+        this.currency = currency;
+    }
+
+    @Override
+    public Map<String, PriceDto> fetchPrices(Collection<String> isins, LocalDate asOf) {
+        Map<String, BigDecimal> basePrices = demoConfig.getBasePrices();
+        LocalDate date = asOf != null ? asOf : LocalDate.now();
+        Map<String, PriceDto> prices = new HashMap<>();
+        if (basePrices == null) {
+            return prices;
+        }
+        for (String isin : isins) {
+            BigDecimal price = basePrices.get(isin);
+            if (price != null) {
+                prices.put(isin, new PriceDto(isin, price, currency, date));
+            }
+        }
+        return prices;
+    }
+}
@@ -16,8 +16,9 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @ConditionalOnProperty(name = "demo.enabled", havingValue = "true")
@@ -34,15 +35,14 @@ public class DemoTradeGenerator {
     
     private final TradeService tradeService;
     private final DemoConfig config;
-    private final Random random;
-    private boolean running;
-    private long tradeCount = 0;
-    private GenerationMode generationMode = GenerationMode.REGULAR;
+    // Read by the scheduler, admin requests and load test producers on different threads
+    private volatile boolean running;
+    private final AtomicLong tradeCount = new AtomicLong();
+    private volatile GenerationMode generationMode = GenerationMode.REGULAR;
 
     public DemoTradeGenerator(TradeService tradeService, DemoConfig config) {
         this.tradeService = tradeService;
         this.config = config;
-        this.random = new Random();
         this.running = true;
     }
 
@@ -60,7 +60,7 @@ public class DemoTradeGenerator {
             trade.setTradeId(UUID.randomUUID());
             
             TradeResponse response = tradeService.bookTrade(trade);
-            tradeCount++;
+            tradeCount.incrementAndGet();
             
             log.info("Generated synthetic trade: tradeId={}, isin={}, quantity={}, price={}, side={}",
                 response.getTradeId(), trade.getIsin(), trade.getQuantity(), trade.getPrice(), trade.getSide());
@@ -69,7 +69,10 @@ public class DemoTradeGenerator {
         }
     }
 
-    private TradeRequest generateRandomTrade() {
+    /**
+     * Build a random trade request for the current generation mode; safe to call from many threads
+     */
+    TradeRequest generateRandomTrade() {
         // Pick random values for required and optional fields
         String isin = pickRandomIsin();
         BigDecimal basePrice = config.getBasePrices().get(isin);
@@ -115,29 +118,29 @@ public class DemoTradeGenerator {
     }
 
     private String pickRandomIsin() {
-        int index = random.nextInt(config.getIsins().size());
+        int index = ThreadLocalRandom.current().nextInt(config.getIsins().size());
         return config.getIsins().get(index);
     }
     
     private String pickRandomCurrency() {
-        int index = random.nextInt(CURRENCIES.size());
+        int index = ThreadLocalRandom.current().nextInt(CURRENCIES.size());
         return CURRENCIES.get(index);
     }
     
     private String pickRandomPortfolio() {
-        int index = random.nextInt(PORTFOLIO_IDS.size());
+        int index = ThreadLocalRandom.current().nextInt(PORTFOLIO_IDS.size());
         return PORTFOLIO_IDS.get(index);
     }
 
     private BigDecimal applyRandomJitter(BigDecimal basePrice) {
-        double jitterPct = (random.nextDouble() * 2 - 1) * config.getMaxPriceJitter();
+        double jitterPct = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * config.getMaxPriceJitter();
         return basePrice.multiply(BigDecimal.ONE.add(BigDecimal.valueOf(jitterPct)))
             .setScale(2, RoundingMode.HALF_UP);
     }
 
     private long generateRandomQuantity() {
         long range = (config.getMaxQuantity() - config.getMinQuantity()) / config.getQuantityStep();
-        return config.getMinQuantity() + random.nextInt((int)range + 1) * config.getQuantityStep();
+        return config.getMinQuantity() + ThreadLocalRandom.current().nextInt((int)range + 1) * config.getQuantityStep();
     }
 
     // Admin endpoints support
@@ -157,7 +160,7 @@ public class DemoTradeGenerator {
     
     // Metrics
     public long getTradeCount() {
-        return tradeCount;
+        return tradeCount.get();
     }
     
     // Generation mode control
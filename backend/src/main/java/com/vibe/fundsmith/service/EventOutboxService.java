@@ -0,0 +1,32 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.model.OutboxEvent;
+import com.vibe.fundsmith.repository.OutboxEventRepository;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records domain events in the transactional outbox.
+ * Events become visible to the relay only if the booking transaction commits.
+ */
+@Service
+public class EventOutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public EventOutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    /**
+     * Add an event to the outbox as part of the caller's transaction
+     *
+     * @param event Event row to record
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent event) {
+        outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,126 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.event.EventEnvelope;
+import com.vibe.fundsmith.event.EventSink;
+import com.vibe.fundsmith.model.OutboxEvent;
+import com.vibe.fundsmith.model.OutboxPublishCursor;
+import com.vibe.fundsmith.repository.OutboxEventRepository;
+import com.vibe.fundsmith.repository.OutboxPublishCursorRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the event outbox in batches and hands each batch to every EventSink.
+ * Serialization and I/O happen here, off the booking path. A batch is marked
+ * published in the same transaction that delivered it, so delivery is at-least-once.
+ * Each batch is numbered with publish sequences while holding the publish cursor lock
+ * until commit, so relays on several instances publish one batch at a time and the
+ * sequences become visible in order, unlike outbox IDs.
+ */
+@Service
+public class EventRelayService {
+    private static final Logger log = LoggerFactory.getLogger(EventRelayService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublishCursorRepository publishCursorRepository;
+    private final List<EventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public EventRelayService(OutboxEventRepository outboxEventRepository,
+                             OutboxPublishCursorRepository publishCursorRepository,
+                             List<EventSink> sinks,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${ibor.events.relay.batch-size:500}") int batchSize,
+                             @Value("${ibor.events.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publishCursorRepository = publishCursorRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Scheduled relay run; drains full batches until the outbox tail is empty
+     */
+    @Scheduled(fixedDelayString = "${ibor.events.relay.interval-ms:250}")
+    public void scheduledRelay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Event relay failed; batch will be retried", e);
+        }
+    }
+
+    /**
+     * Publish one batch of pending events
+     *
+     * @return Number of events published
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> pending = outboxEventRepository.lockUnpublished(PageRequest.of(0, batchSize));
+            if (pending.isEmpty()) {
+                return 0;
+            }
+
+            // Held until commit: the next relay numbers its batch after this one is visible
+            long lastSequence = lockPublishCursor().getLastSequence();
+            List<EventEnvelope> envelopes = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                envelopes.add(pending.get(i).toEnvelope(lastSequence + 1 + i));
+            }
+            for (EventSink sink : sinks) {
+                sink.publish(envelopes);
+            }
+
+            outboxEventRepository.markPublished(pending.stream().map(OutboxEvent::getId).toList(), ZonedDateTime.now(),
+                    lastSequence);
+            publishCursorRepository.advance(lastSequence + pending.size());
+            log.debug("Relayed {} events to {} sinks", pending.size(), sinks.size());
+            return pending.size();
+        });
+        return relayed != null ? relayed : 0;
+    }
+
+    private OutboxPublishCursor lockPublishCursor() {
+        return publishCursorRepository.lockCursor().orElseGet(() -> {
+            // Schema built without migrations (tests): start numbering above every outbox ID
+            Long maxId = outboxEventRepository.findMaxId();
+            publishCursorRepository.saveAndFlush(new OutboxPublishCursor(maxId != null ? maxId : 0L));
+            return publishCursorRepository.lockCursor().orElseThrow();
+        });
+    }
+
+    /**
+     * Remove published events older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${ibor.events.outbox.cleanup-interval-ms:3600000}",
+               initialDelayString = "${ibor.events.outbox.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deletePublishedBefore(ZonedDateTime.now().minus(retention)));
+            log.info("Purged {} published outbox events", deleted);
+        } catch (Exception e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.vibe.fundsmith.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.repository.ExportRepository;
+import com.vibe.fundsmith.repository.ExportRepository.Dataset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams trades, cash ledger, journal lines and NAV snapshots as CSV or NDJSON.
+ * Rows go straight from the JDBC cursor to the output stream, so memory use is
+ * one fetch window regardless of how much history is exported. Each export reads
+ * in one read-only transaction, giving a consistent snapshot.
+ */
+@Service
+public class ExportService {
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Output formats
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws ValidationException for an unknown format
+         */
+        public static Format parse(String format) {
+            try {
+                return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new ValidationException("format", "Format must be csv or ndjson");
+            }
+        }
+    }
+
+    private final ExportRepository exportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(ExportRepository exportRepository,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Check export parameters before the response is committed
+     *
+     * @throws ValidationException if the date range is inverted
+     */
+    public void validate(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ValidationException("fromDate", "From date cannot be after to date");
+        }
+    }
+
+    /**
+     * Write a dataset to a stream
+     *
+     * @param dataset     What to export
+     * @param format      CSV or NDJSON
+     * @param portfolioId Only this portfolio (optional)
+     * @param isin        Only this ISIN, trades only (optional)
+     * @param fromDate    Earliest date, inclusive (optional)
+     * @param toDate      Latest date, inclusive (optional)
+     * @param out         Destination; flushed but not closed
+     * @return Number of rows written
+     */
+    public long export(Dataset dataset, Format format, String portfolioId, String isin,
+                       LocalDate fromDate, LocalDate toDate, OutputStream out) throws IOException {
+        validate(fromDate, toDate);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        ExportRepository.RowHandler handler = format == Format.CSV ? new CsvRows(writer) : new NdjsonRows(writer);
+
+        long started = System.nanoTime();
+        Long rows;
+        try {
+            rows = readOnlyTransaction.execute(status ->
+                exportRepository.stream(dataset, portfolioId, isin, fromDate, toDate, handler));
+        } catch (UncheckedIOException e) {
+            // Client went away mid-export
+            throw e.getCause();
+        }
+        if (handler instanceof NdjsonRows ndjson) {
+            ndjson.generator.flush();
+        }
+        writer.flush();
+        log.info("Exported {} {} rows as {} in {} ms", rows, dataset, format,
+            (System.nanoTime() - started) / 1_000_000);
+        return rows != null ? rows : 0L;
+    }
+
+    static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    /**
+     * One header line, then one line per row (RFC 4180 quoting)
+     */
+    private static final class CsvRows implements ExportRepository.RowHandler {
+        private final Writer writer;
+
+        CsvRows(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void columns(List<String> names) {
+            write(names.toArray());
+        }
+
+        @Override
+        public void row(Object[] values) {
+            write(values);
+        }
+
+        private void write(Object[] values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(csvValue(values[i]));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * One JSON object per line, keyed by column name
+     */
+    private final class NdjsonRows implements ExportRepository.RowHandler {
+        private final JsonGenerator generator;
+        private String[] names;
+
+        NdjsonRows(Writer writer) {
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Lines are separated explicitly below, not by the default root value separator
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void columns(List<String> columnNames) {
+            names = columnNames.toArray(new String[0]);
+        }
+
+        @Override
+        public void row(Object[] values) {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    generator.writeFieldName(names[i]);
+                    Object value = values[i];
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof BigDecimal decimal) {
+                        generator.writeNumber(decimal.toPlainString());
+                    } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+                        generator.writeNumber(((Number) value).longValue());
+                    } else if (value instanceof Boolean bool) {
+                        generator.writeBoolean(bool);
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.exception.NavCalculationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local cache of FX rates into the fund base currency ({@code nav.default.currency}).
+ * All rates are fetched from the configured {@link FxRateSource} in one call and
+ * held as an immutable snapshot, so conversions are map lookups and never go to
+ * the source; a scheduled refresh replaces the whole snapshot at once.
+ */
+@Service
+public class FxRateService {
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private final FxRateSource fxRateSource;
+    private final String baseCurrency;
+
+    // Currency -> units of base currency per unit; replaced wholesale, never mutated
+    private volatile Map<String, BigDecimal> rates;
+
+    public FxRateService(FxRateSource fxRateSource,
+                         @Value("${nav.default.currency:USD}") String baseCurrency) {
+        this.fxRateSource = fxRateSource;
+        this.baseCurrency = baseCurrency;
+    }
+
+    /**
+     * Fund base currency all conversions go into
+     */
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Rate of a currency into the base currency
+     *
+     * @param currency Currency (ISO 4217)
+     * @return Units of base currency per one unit of the currency
+     * @throws NavCalculationException if no rate is known for the currency
+     */
+    public BigDecimal rate(String currency) {
+        if (currency == null || currency.equals(baseCurrency)) {
+            return BigDecimal.ONE;
+        }
+        BigDecimal rate = snapshot().get(currency);
+        if (rate == null) {
+            throw new NavCalculationException("No FX rate for " + currency + " into " + baseCurrency);
+        }
+        return rate;
+    }
+
+    /**
+     * Convert an amount into the base currency
+     *
+     * @param amount   Amount in the given currency
+     * @param currency Currency of the amount
+     * @return Amount in the base currency, rounded to cents
+     */
+    public BigDecimal toBase(BigDecimal amount, String currency) {
+        return amount.multiply(rate(currency)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Total of per-currency amounts in the base currency, using one rate snapshot
+     *
+     * @param amounts Amounts keyed by currency
+     * @return Sum in the base currency, rounded to cents
+     */
+    public BigDecimal toBase(Map<String, BigDecimal> amounts) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> amount : amounts.entrySet()) {
+            total = total.add(toBase(amount.getValue(), amount.getKey()));
+        }
+        return total;
+    }
+
+    /**
+     * Current rate snapshot
+     */
+    public Map<String, BigDecimal> getRates() {
+        return snapshot();
+    }
+
+    /**
+     * Scheduled bulk refresh of all rates
+     */
+    @Scheduled(fixedDelayString = "${ibor.fx.refresh-interval-ms:300000}",
+               initialDelayString = "${ibor.fx.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("FX rate refresh failed", e);
+        }
+    }
+
+    /**
+     * Fetch every rate in one source call and swap in the new snapshot
+     *
+     * @return Number of currencies with a rate
+     */
+    public int refresh() {
+        Map<String, BigDecimal> fetched = new HashMap<>(fxRateSource.fetchRates(baseCurrency));
+        fetched.put(baseCurrency, BigDecimal.ONE);
+        rates = Map.copyOf(fetched);
+        log.debug("FX rates refreshed: {} currencies into {}", fetched.size(), baseCurrency);
+        return fetched.size();
+    }
+
+    private Map<String, BigDecimal> snapshot() {
+        Map<String, BigDecimal> current = rates;
+        if (current == null) {
+            synchronized (this) {
+                if (rates == null) {
+                    refresh();
+                }
+                current = rates;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,20 @@
+package com.vibe.fundsmith.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Origin of FX rates used by {@link FxRateService}.
+ * Implementations answer with every rate they have in one call (never one call per currency).
+ * The active source is chosen with {@code ibor.fx.source} (demo).
+ */
+public interface FxRateSource {
+
+    /**
+     * Fetch the latest rates of all available currencies into a base currency
+     *
+     * @param baseCurrency Currency the rates convert into (ISO 4217)
+     * @return Units of the base currency per one unit of each currency, keyed by currency
+     */
+    Map<String, BigDecimal> fetchRates(String baseCurrency);
+}
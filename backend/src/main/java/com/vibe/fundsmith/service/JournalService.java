@@ -1,61 +1,80 @@
 package com.vibe.fundsmith.service;
 
 import com.vibe.fundsmith.dto.JournalDto;
+import com.vibe.fundsmith.dto.JournalPageDto;
 import com.vibe.fundsmith.exception.UnbalancedJournalException;
+import com.vibe.fundsmith.exception.ValidationException;
 import com.vibe.fundsmith.model.*;
 import com.vibe.fundsmith.repository.JournalRepository;
+import com.vibe.fundsmith.repository.JournalRepository.TradeDateReceivable;
 import com.vibe.fundsmith.repository.ProcessedTradeRepository;
 import com.vibe.fundsmith.repository.SettlementMarkerRepository;
+import com.vibe.fundsmith.repository.TradeBatchRepository;
 import com.vibe.fundsmith.repository.TradeRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
- * Service for managing accounting journals
+ * Service for managing accounting journals. Every saved journal is also posted to
+ * the account balances kept by {@link LedgerService}, in the same transaction.
  */
 @Service
 public class JournalService {
     private static final Logger log = LoggerFactory.getLogger(JournalService.class);
     
+    private static final int MAX_RECENT_JOURNALS = 500;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_PAGE_SIZE = 500;
+    
     private final JournalRepository journalRepository;
     private final SettlementMarkerRepository settlementMarkerRepository;
     private final TradeRepository tradeRepository;
+    private final TradeBatchRepository tradeBatchRepository;
+    private final LedgerService ledgerService;
     
     @Autowired
     public JournalService(
             JournalRepository journalRepository,
             SettlementMarkerRepository settlementMarkerRepository,
-            TradeRepository tradeRepository) {
+            TradeRepository tradeRepository,
+            TradeBatchRepository tradeBatchRepository,
+            LedgerService ledgerService) {
         this.journalRepository = journalRepository;
         this.settlementMarkerRepository = settlementMarkerRepository;
         this.tradeRepository = tradeRepository;
+        this.tradeBatchRepository = tradeBatchRepository;
+        this.ledgerService = ledgerService;
     }
     
     /**
      * Create a trade date journal for a new trade
      * 
      * @param tradeId The trade ID
+     * @param portfolioId The portfolio the trade is booked in
      * @param isin The instrument ISIN
      * @param quantity The trade quantity
      * @param price The trade price
      * @param side The trade side (BUY/SELL)
+     * @param tradeDate The trade date, which is the journal's accounting date
      * @return The created journal DTO
      * @throws UnbalancedJournalException if the journal is not balanced
      */
     @Transactional
-    public JournalDto createTradeDateJournal(UUID tradeId, String isin, BigDecimal quantity, 
-                                            BigDecimal price, TradeSide side) {
+    public JournalDto createTradeDateJournal(UUID tradeId, String portfolioId, String isin, BigDecimal quantity, 
+                                            BigDecimal price, TradeSide side, LocalDate tradeDate) {
         
         // Check for idempotency - if journal already exists for this trade, return it
         Optional<Journal> existingJournal = journalRepository.findByTradeIdAndJournalType(
@@ -66,11 +85,28 @@ public class JournalService {
             return JournalDto.fromEntity(existingJournal.get());
         }
         
+        Journal journal = buildTradeDateJournal(tradeId, portfolioId, tradeDate, quantity, price, side);
+        
+        // Save the journal and post it to the account balances
+        journalRepository.save(journal);
+        ledgerService.applyJournal(journal);
+        log.info("Created trade date journal for trade {}", tradeId);
+        
+        return JournalDto.fromEntity(journal);
+    }
+    
+    /**
+     * Build (but do not persist) a balanced trade date journal
+     * 
+     * @throws UnbalancedJournalException if the journal is not balanced
+     */
+    Journal buildTradeDateJournal(UUID tradeId, String portfolioId, LocalDate tradeDate,
+                                  BigDecimal quantity, BigDecimal price, TradeSide side) {
         // Calculate the trade amount
         BigDecimal amount = quantity.multiply(price);
         
         // Create a new journal
-        Journal journal = new Journal(tradeId, JournalType.TRADE_DATE);
+        Journal journal = new Journal(tradeId, JournalType.TRADE_DATE, portfolioId, tradeDate);
         
         if (side == TradeSide.BUY) {
             // For BUY: Debit Securities Receivable, Credit Cash Payable
@@ -87,11 +123,7 @@ public class JournalService {
             throw new UnbalancedJournalException("Journal is not balanced");
         }
         
-        // Save the journal
-        journalRepository.save(journal);
-        log.info("Created trade date journal for trade {}", tradeId);
-        
-        return JournalDto.fromEntity(journal);
+        return journal;
     }
     
     /**
@@ -117,27 +149,44 @@ public class JournalService {
             log.error("Settlement marker exists but journal missing for trade {}", tradeId);
         }
         
-        // Get the trade date journal to determine values
-        Journal tradeDateJournal = journalRepository.findByTradeIdAndJournalType(
-                tradeId, JournalType.TRADE_DATE)
+        // Get the trade date receivable to determine values
+        TradeDateReceivable receivable = journalRepository.findTradeDateReceivables(List.of(tradeId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new IllegalStateException(
                         "Cannot create settlement journal without trade date journal for trade: " + tradeId));
         
-        // Determine if this is a BUY or SELL from the trade date journal
-        boolean isBuy = tradeDateJournal.getLines().stream()
-                .anyMatch(line -> "SECURITIES_RECEIVABLE".equals(line.getAccount()));
+        LocalDate settleDate = tradeRepository.findByTradeId(tradeId)
+                .map(Trade::getSettleDate)
+                .orElseGet(LocalDate::now);
+        Journal journal = buildSettlementDateJournal(tradeId, receivable, settleDate);
+        
+        // Save the journal and settlement marker, and take the trade out of the open set
+        journalRepository.save(journal);
+        ledgerService.applyJournal(journal);
+        settlementMarkerRepository.save(new SettlementMarker(tradeId));
+        tradeRepository.markSettled(List.of(tradeId));
+        
+        log.info("Created settlement date journal for trade {}", tradeId);
         
-        // Get the amount from the trade date journal
-        BigDecimal amount = isBuy 
-                ? tradeDateJournal.getLines().stream()
-                    .filter(line -> "SECURITIES_RECEIVABLE".equals(line.getAccount()))
-                    .findFirst().get().getDebit()
-                : tradeDateJournal.getLines().stream()
-                    .filter(line -> "CASH_RECEIVABLE".equals(line.getAccount()))
-                    .findFirst().get().getDebit();
+        return JournalDto.fromEntity(journal);
+    }
+    
+    /**
+     * Build (but do not persist) a balanced settlement date journal from the receivable
+     * line of the trade's trade date journal
+     * 
+     * @param receivable SECURITIES_RECEIVABLE (BUY) or CASH_RECEIVABLE (SELL) line of the trade date journal
+     * @param settleDate The settlement date, which is the journal's accounting date
+     * @throws UnbalancedJournalException if the journal is not balanced
+     */
+    Journal buildSettlementDateJournal(UUID tradeId, TradeDateReceivable receivable, LocalDate settleDate) {
+        // A BUY books securities receivable on trade date, a SELL books cash receivable
+        boolean isBuy = "SECURITIES_RECEIVABLE".equals(receivable.getAccount());
+        BigDecimal amount = receivable.getAmount();
         
         // Create a new journal for settlement
-        Journal journal = new Journal(tradeId, JournalType.SETTLEMENT_DATE);
+        Journal journal = new Journal(tradeId, JournalType.SETTLEMENT_DATE,
+                receivable.getPortfolioId(), settleDate);
         
         if (isBuy) {
             // For BUY settlement:
@@ -162,41 +211,22 @@ public class JournalService {
             throw new UnbalancedJournalException("Settlement journal is not balanced");
         }
         
-        // Save the journal and settlement marker
-        journalRepository.save(journal);
-        settlementMarkerRepository.save(new SettlementMarker(tradeId));
-        
-        log.info("Created settlement date journal for trade {}", tradeId);
-        
-        return JournalDto.fromEntity(journal);
+        return journal;
     }
     
     /**
-     * Process settlements for trades that have reached their settlement date
+     * Batch insert built journals and post them to the account balances
      * 
-     * @param settleDate The settlement date to process (defaults to today if null)
-     * @return Number of trades processed
+     * @param journals Journals from {@link #buildTradeDateJournal} or {@link #buildSettlementDateJournal}
+     * @param batchSize JDBC batch size
      */
     @Transactional
-    public int processSettlements(LocalDate settleDate) {
-        LocalDate dateToProcess = settleDate != null ? settleDate : LocalDate.now();
-        
-        // Find trades that need settlement
-        List<Trade> tradesToSettle = tradeRepository.findBySettleDateAndNotSettled(dateToProcess);
-        log.info("Found {} trades to settle for date {}", tradesToSettle.size(), dateToProcess);
-        
-        int processed = 0;
-        for (Trade trade : tradesToSettle) {
-            try {
-                createSettlementDateJournal(trade.getTradeId());
-                processed++;
-            } catch (Exception e) {
-                log.error("Error processing settlement for trade {}: {}", 
-                         trade.getTradeId(), e.getMessage());
-            }
+    public void saveJournals(List<Journal> journals, int batchSize) {
+        if (journals.isEmpty()) {
+            return;
         }
-        
-        return processed;
+        tradeBatchRepository.insertJournals(journals, batchSize);
+        ledgerService.applyJournals(journals);
     }
     
     /**
@@ -205,6 +235,7 @@ public class JournalService {
      * @param tradeId The trade ID
      * @return List of journal DTOs
      */
+    @Transactional(readOnly = true)
     public List<JournalDto> getJournalsForTrade(UUID tradeId) {
         List<Journal> journals = journalRepository.findByTradeIdOrderByCreatedAtDesc(tradeId);
         return journals.stream()
@@ -213,14 +244,79 @@ public class JournalService {
     }
     
     /**
-     * Get the most recent journals (for dashboard/operations view)
+     * Get the most recent journals (for dashboard/operations view).
+     * Two queries whatever the limit: one for the page of journal IDs, one for those journals with their lines.
      * 
-     * @return List of recent journal DTOs
+     * @param limit Maximum number of journals (1 to 500)
+     * @return List of recent journal DTOs, newest first
+     * @throws ValidationException if the limit is out of range
      */
-    public List<JournalDto> getRecentJournals() {
-        List<Journal> journals = journalRepository.findTop10ByOrderByCreatedAtDesc();
+    @Transactional(readOnly = true)
+    public List<JournalDto> getRecentJournals(int limit) {
+        if (limit < 1 || limit > MAX_RECENT_JOURNALS) {
+            throw new ValidationException("limit", "Limit must be between 1 and " + MAX_RECENT_JOURNALS);
+        }
+        List<UUID> ids = journalRepository.findRecentIds(PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Journal> journals = journalRepository.findWithLinesByIdIn(ids);
         return journals.stream()
                 .map(JournalDto::fromEntity)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+    
+    /**
+     * Search journals newest first, one page at a time. Each page is two queries whatever
+     * its size: the page of journal IDs by keyset on (created_at, id), then those journals
+     * with their lines.
+     * 
+     * @param portfolioId Only journals of this portfolio (optional)
+     * @param journalType Only journals of this type (optional)
+     * @param account Only journals with a line on this account (optional)
+     * @param minAmount Smallest line amount, inclusive (optional)
+     * @param maxAmount Largest line amount, inclusive (optional)
+     * @param fromDate Earliest accounting date, inclusive (optional)
+     * @param toDate Latest accounting date, inclusive (optional)
+     * @param cursor Token from the previous page, null for the first page
+     * @param limit Page size (default 50, maximum 500)
+     * @return Journals with their lines and the token for the next page, null when there are no more
+     * @throws ValidationException if the limit, a range or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public JournalPageDto searchJournals(String portfolioId, JournalType journalType, String account,
+                                         BigDecimal minAmount, BigDecimal maxAmount,
+                                         LocalDate fromDate, LocalDate toDate, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_SEARCH_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_SEARCH_PAGE_SIZE) {
+            throw new ValidationException("limit", "Limit must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new ValidationException("minAmount", "Minimum amount cannot be greater than maximum amount");
+        }
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ValidationException("fromDate", "From date cannot be after to date");
+        }
+        String portfolio = portfolioId != null && !portfolioId.isBlank() ? portfolioId : null;
+        String lineAccount = account != null && !account.isBlank() ? account : null;
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        
+        // One extra row tells whether another page exists without a count query
+        List<UUID> ids = journalRepository.findPageIds(portfolio, journalType, lineAccount, minAmount, maxAmount,
+                fromDate, toDate, after != null ? after.timestamp(ZonedDateTime::parse) : null,
+                after != null ? after.uuid() : null, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new JournalPageDto(List.of(), null, false);
+        }
+        
+        List<Journal> journals = journalRepository.findWithLinesByIdIn(ids);
+        Journal last = hasMore ? journals.get(journals.size() - 1) : null;
+        String nextCursor = last != null ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new JournalPageDto(
+                journals.stream().map(JournalDto::fromEntity).collect(Collectors.toList()), nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,74 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Position after the last row of a keyset page: the row's timestamp and id,
+ * serialized as an opaque URL-safe token
+ */
+record KeysetCursor(String timestamp, String key) {
+
+    static String encode(Object timestamp, Object id) {
+        String key = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws ValidationException if the token was not produced by {@link #encode}
+     */
+    static KeysetCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(parts[0], parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * @throws ValidationException if the id is not a number
+     */
+    long id() {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * @throws ValidationException if the id is not a UUID
+     */
+    UUID uuid() {
+        try {
+            return UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * @param parser Parses the timestamp, e.g. {@code LocalDateTime::parse}
+     * @throws ValidationException if the timestamp does not parse
+     */
+    <T> T timestamp(Function<String, T> parser) {
+        try {
+            return parser.apply(timestamp);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private static ValidationException invalid() {
+        return new ValidationException("cursor", "Invalid cursor");
+    }
+}
@@ -0,0 +1,210 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.AccountLedgerDto;
+import com.vibe.fundsmith.dto.TrialBalanceDto;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.model.AccountBalance;
+import com.vibe.fundsmith.model.AccountBalanceId;
+import com.vibe.fundsmith.model.Journal;
+import com.vibe.fundsmith.model.JournalLine;
+import com.vibe.fundsmith.model.LedgerAccount;
+import com.vibe.fundsmith.model.LedgerAccountId;
+import com.vibe.fundsmith.repository.AccountBalanceRepository;
+import com.vibe.fundsmith.repository.LedgerAccountRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains per-account ledger balances by (portfolio, account, accounting date) as
+ * journals are saved, and answers trial balance and account queries from them.
+ * A query reads one balance row per account or per posted date, never journal lines.
+ */
+@Service
+public class LedgerService {
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    // Accounts in portfolio and name order, then dates ascending so carried totals are final when read
+    private static final Comparator<AccountBalanceId> POSTING_ORDER = Comparator
+            .comparing(AccountBalanceId::getPortfolioId)
+            .thenComparing(AccountBalanceId::getAccount)
+            .thenComparing(AccountBalanceId::getAsOfDate);
+
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final LedgerAccountRepository ledgerAccountRepository;
+    private final BookingLocks bookingLocks;
+
+    public LedgerService(AccountBalanceRepository accountBalanceRepository,
+                         LedgerAccountRepository ledgerAccountRepository,
+                         BookingLocks bookingLocks) {
+        this.accountBalanceRepository = accountBalanceRepository;
+        this.ledgerAccountRepository = ledgerAccountRepository;
+        this.bookingLocks = bookingLocks;
+    }
+
+    /**
+     * Post a saved journal's lines to the account balances
+     *
+     * @param journal The journal, with its portfolio and accounting date
+     */
+    @Transactional
+    public void applyJournal(Journal journal) {
+        applyJournals(List.of(journal));
+    }
+
+    /**
+     * Post many saved journals with one balance update per account and accounting date.
+     * Accounts are locked, in order, until the transaction completes.
+     *
+     * @param journals The journals, with their portfolios and accounting dates
+     */
+    @Transactional
+    public void applyJournals(Collection<Journal> journals) {
+        Map<AccountBalanceId, BigDecimal[]> postings = new TreeMap<>(POSTING_ORDER);
+        for (Journal journal : journals) {
+            for (JournalLine line : journal.getLines()) {
+                BigDecimal[] amounts = postings.computeIfAbsent(
+                        new AccountBalanceId(journal.getPortfolioId(), line.getAccount(), journal.getAccountingDate()),
+                        id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+                amounts[0] = amounts[0].add(line.getDebit());
+                amounts[1] = amounts[1].add(line.getCredit());
+            }
+        }
+        if (postings.isEmpty()) {
+            return;
+        }
+
+        // A posting can touch every later date of its account, so lock whole accounts up front
+        bookingLocks.lockLedgerAccounts(postings.keySet().stream()
+                .map(id -> new LedgerAccountId(id.getPortfolioId(), id.getAccount()))
+                .collect(Collectors.toCollection(ArrayList::new)));
+
+        for (Map.Entry<AccountBalanceId, BigDecimal[]> posting : postings.entrySet()) {
+            post(posting.getKey(), posting.getValue()[0], posting.getValue()[1]);
+        }
+        log.debug("Posted {} journals to {} account balances", journals.size(), postings.size());
+    }
+
+    private void post(AccountBalanceId id, BigDecimal debit, BigDecimal credit) {
+        String portfolioId = id.getPortfolioId();
+        String account = id.getAccount();
+        LocalDate date = id.getAsOfDate();
+
+        // Back-dated posting: later closing totals include it too
+        List<AccountBalance> later = accountBalanceRepository.findLaterForUpdate(portfolioId, account, date);
+        for (AccountBalance balance : later) {
+            balance.carry(debit, credit);
+        }
+
+        AccountBalance balance = accountBalanceRepository.findByIdForUpdate(portfolioId, account, date)
+                .orElseGet(() -> openDate(portfolioId, account, date));
+        balance.post(debit, credit);
+    }
+
+    private AccountBalance openDate(String portfolioId, String account, LocalDate date) {
+        Optional<AccountBalance> previous = accountBalanceRepository
+                .findFirstByPortfolioIdAndAccountAndAsOfDateLessThanOrderByAsOfDateDesc(portfolioId, account, date);
+        if (previous.isEmpty()) {
+            // First posting to the account, or one dated before its first
+            registerAccount(portfolioId, account, date);
+        }
+        BigDecimal openingDebit = previous.map(AccountBalance::getTotalDebit).orElse(BigDecimal.ZERO);
+        BigDecimal openingCredit = previous.map(AccountBalance::getTotalCredit).orElse(BigDecimal.ZERO);
+        return accountBalanceRepository.save(
+                new AccountBalance(portfolioId, account, date, openingDebit, openingCredit));
+    }
+
+    private void registerAccount(String portfolioId, String account, LocalDate date) {
+        ledgerAccountRepository.findById(new LedgerAccountId(portfolioId, account))
+                .ifPresentOrElse(
+                        existing -> {
+                            if (date.isBefore(existing.getOpenedOn())) {
+                                existing.setOpenedOn(date);
+                            }
+                        },
+                        () -> ledgerAccountRepository.save(new LedgerAccount(portfolioId, account, date)));
+    }
+
+    /**
+     * Trial balance as of a date: each account's latest balance row on or before it
+     *
+     * @param portfolioId Portfolio (optional; all portfolios summed per account when omitted)
+     * @param asOfDate Accounting date, inclusive
+     * @return Accounts in name order with debit and credit column totals
+     */
+    @Transactional(readOnly = true)
+    public TrialBalanceDto getTrialBalance(String portfolioId, LocalDate asOfDate) {
+        List<LedgerAccount> accounts = portfolioId != null
+                ? ledgerAccountRepository.findByPortfolioIdOrderByAccount(portfolioId)
+                : ledgerAccountRepository.findAllByOrderByPortfolioIdAscAccountAsc();
+
+        Map<String, BigDecimal> balances = new TreeMap<>();
+        Map<String, LocalDate> lastPosted = new TreeMap<>();
+        for (LedgerAccount account : accounts) {
+            if (account.getOpenedOn().isAfter(asOfDate)) {
+                continue;
+            }
+            accountBalanceRepository
+                    .findFirstByPortfolioIdAndAccountAndAsOfDateLessThanEqualOrderByAsOfDateDesc(
+                            account.getPortfolioId(), account.getAccount(), asOfDate)
+                    .ifPresent(balance -> {
+                        balances.merge(balance.getAccount(), balance.getBalance(), BigDecimal::add);
+                        lastPosted.merge(balance.getAccount(), balance.getAsOfDate(),
+                                (a, b) -> a.isAfter(b) ? a : b);
+                    });
+        }
+
+        List<TrialBalanceDto.Line> lines = balances.entrySet().stream()
+                .map(entry -> new TrialBalanceDto.Line(entry.getKey(), entry.getValue(), lastPosted.get(entry.getKey())))
+                .toList();
+        return new TrialBalanceDto(portfolioId, asOfDate, lines);
+    }
+
+    /**
+     * One account's daily postings and closing balances over a date range
+     *
+     * @param portfolioId Portfolio
+     * @param account Account name
+     * @param fromDate Earliest date, inclusive (optional; from the first posting when omitted)
+     * @param toDate Latest date, inclusive
+     * @return Opening balance before the range and one entry per posted date in it
+     * @throws ValidationException if the date range is inverted
+     */
+    @Transactional(readOnly = true)
+    public AccountLedgerDto getAccountLedger(String portfolioId, String account, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate != null && fromDate.isAfter(toDate)) {
+            throw new ValidationException("fromDate", "From date cannot be after to date");
+        }
+        BigDecimal opening = BigDecimal.ZERO;
+        List<AccountBalance> balances;
+        if (fromDate != null) {
+            opening = accountBalanceRepository
+                    .findFirstByPortfolioIdAndAccountAndAsOfDateLessThanOrderByAsOfDateDesc(portfolioId, account, fromDate)
+                    .map(AccountBalance::getBalance)
+                    .orElse(BigDecimal.ZERO);
+            balances = accountBalanceRepository.findByPortfolioIdAndAccountAndAsOfDateBetweenOrderByAsOfDate(
+                    portfolioId, account, fromDate, toDate);
+        } else {
+            balances = accountBalanceRepository.findByPortfolioIdAndAccountAndAsOfDateLessThanEqualOrderByAsOfDate(
+                    portfolioId, account, toDate);
+        }
+        List<AccountLedgerDto.Day> days = balances.stream()
+                .map(balance -> new AccountLedgerDto.Day(balance.getAsOfDate(), balance.getDayDebit(),
+                        balance.getDayCredit(), balance.getBalance()))
+                .toList();
+        return new AccountLedgerDto(portfolioId, account, fromDate, toDate, opening, days);
+    }
+}
@@ -0,0 +1,333 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.event.CashMovementEvent;
+import com.vibe.fundsmith.event.EventEnvelope;
+import com.vibe.fundsmith.event.PositionUpdatedEvent;
+import com.vibe.fundsmith.event.TradeBookedEvent;
+import com.vibe.fundsmith.model.OutboxEvent;
+import com.vibe.fundsmith.repository.OutboxEventRepository;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans committed domain events out to server-sent event clients.
+ * Events arrive once from the outbox relay (in-process sink) and are kept in a
+ * bounded replay buffer. Each client has its own bounded queue drained by a
+ * virtual thread, so a slow client never blocks the relay or other clients.
+ * While a client is behind, position and cash updates are coalesced per key
+ * (latest quantity / balance wins); trade events are not. If the queue still
+ * overflows, queued events are dropped and the client receives a Resync event
+ * telling it to reload snapshots over REST.
+ * Clients resume on the publish sequence, which the relay assigns in commit order;
+ * outbox IDs are not, since a lower ID can commit after a higher one.
+ * Only events relayed by this instance are streamed.
+ */
+@Service
+public class LiveStreamService {
+    private static final Logger log = LoggerFactory.getLogger(LiveStreamService.class);
+
+    public static final String RESYNC = "Resync";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final int replayBufferSize;
+    private final int clientQueueCapacity;
+    private final int maxDatabaseReplay;
+    private final long heartbeatMs;
+    private final long emitterTimeoutMs;
+
+    private final Deque<EventEnvelope> replayBuffer = new ArrayDeque<>();
+    private final Set<ClientStream> clients = ConcurrentHashMap.newKeySet();
+    private volatile long lastSequence = 0L;
+
+    public LiveStreamService(OutboxEventRepository outboxEventRepository,
+                             @Value("${ibor.stream.replay-buffer-size:10000}") int replayBufferSize,
+                             @Value("${ibor.stream.client-queue-capacity:1000}") int clientQueueCapacity,
+                             @Value("${ibor.stream.max-database-replay:50000}") int maxDatabaseReplay,
+                             @Value("${ibor.stream.heartbeat-ms:15000}") long heartbeatMs,
+                             @Value("${ibor.stream.timeout-ms:0}") long emitterTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.replayBufferSize = replayBufferSize;
+        this.clientQueueCapacity = clientQueueCapacity;
+        this.maxDatabaseReplay = maxDatabaseReplay;
+        this.heartbeatMs = heartbeatMs;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Open a stream for one client
+     *
+     * @param resumeAfter Last publish sequence the client has seen (null for live events only)
+     * @param portfolioId Only stream this portfolio's events (null for all)
+     * @return Emitter bound to the HTTP response
+     */
+    public SseEmitter subscribe(Long resumeAfter, String portfolioId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        ClientStream client = new ClientStream(emitter, portfolioId);
+
+        // Register before replaying so events committed during the replay are queued, not missed
+        clients.add(client);
+        emitter.onCompletion(() -> close(client));
+        emitter.onTimeout(() -> close(client));
+        emitter.onError(e -> close(client));
+
+        Thread.ofVirtual().name("sse-client").start(() -> run(client, resumeAfter));
+        log.info("Stream client connected (resumeAfter={}, portfolio={}), {} clients",
+                resumeAfter, portfolioId, clients.size());
+        return emitter;
+    }
+
+    /**
+     * Receive events from the in-process sink once the relay has committed them, so a
+     * client never sees a publish sequence that a rolled back relay will hand out again;
+     * never blocks on client I/O
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(EventEnvelope event) {
+        synchronized (replayBuffer) {
+            replayBuffer.addLast(event);
+            if (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+            }
+        }
+        lastSequence = Math.max(lastSequence, event.publishSequence());
+        for (ClientStream client : clients) {
+            client.offer(event, clientQueueCapacity);
+        }
+    }
+
+    /**
+     * Number of connected clients
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ClientStream client : clients) {
+            close(client);
+            client.emitter.complete();
+        }
+    }
+
+    private void run(ClientStream client, Long resumeAfter) {
+        try {
+            if (resumeAfter != null) {
+                replay(client, resumeAfter);
+            }
+            while (!client.closed) {
+                Batch batch = client.await(heartbeatMs);
+                if (batch.overflowed()) {
+                    sendResync(client, "Client queue overflow");
+                } else if (batch.events().isEmpty()) {
+                    client.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    for (EventEnvelope event : batch.events()) {
+                        client.send(event);
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Stream client disconnected: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(client);
+            client.emitter.complete();
+        }
+    }
+
+    /**
+     * Send events after the resume point: from the replay buffer when it covers
+     * the gap, otherwise from the outbox table, otherwise ask the client to resync
+     */
+    private void replay(ClientStream client, long resumeAfter) throws IOException {
+        List<EventEnvelope> buffered = new ArrayList<>();
+        long oldestBuffered;
+        synchronized (replayBuffer) {
+            oldestBuffered = replayBuffer.isEmpty() ? Long.MAX_VALUE : replayBuffer.peekFirst().publishSequence();
+            for (EventEnvelope event : replayBuffer) {
+                if (event.publishSequence() > resumeAfter) {
+                    buffered.add(event);
+                }
+            }
+        }
+
+        if (resumeAfter + 1 < oldestBuffered) {
+            Long oldestRetained = outboxEventRepository.findMinPublishSequence();
+            if (oldestRetained != null && resumeAfter + 1 < oldestRetained) {
+                sendResync(client, "Resume point no longer retained");
+                return;
+            }
+            List<OutboxEvent> rows = outboxEventRepository.findByPublishSequenceGreaterThanOrderByPublishSequenceAsc(
+                    resumeAfter, PageRequest.of(0, maxDatabaseReplay + 1));
+            if (rows.size() > maxDatabaseReplay) {
+                sendResync(client, "Resume gap too large");
+                return;
+            }
+            for (OutboxEvent row : rows) {
+                client.replay(row.toEnvelope(row.getPublishSequence()));
+            }
+        }
+
+        for (EventEnvelope event : buffered) {
+            client.replay(event);
+        }
+    }
+
+    private void sendResync(ClientStream client, String reason) throws IOException {
+        client.emitter.send(SseEmitter.event()
+                .id(String.valueOf(lastSequence))
+                .name(RESYNC)
+                .data(Map.of("reason", reason, "sequence", lastSequence), MediaType.APPLICATION_JSON));
+    }
+
+    private void close(ClientStream client) {
+        if (clients.remove(client)) {
+            client.close();
+            log.info("Stream client disconnected, {} clients", clients.size());
+        }
+    }
+
+    /**
+     * Coalescing key: one slot per position and per cash currency balance, unique slot per trade
+     */
+    static String coalesceKey(EventEnvelope event) {
+        return switch (event.payload()) {
+            case PositionUpdatedEvent p -> "P:" + p.getPortfolioId() + "/" + p.getIsin();
+            case CashMovementEvent c -> "C:" + c.getPortfolioId() + "/" + c.getCurrency();
+            default -> "S:" + event.sequence();
+        };
+    }
+
+    static String portfolioOf(EventEnvelope event) {
+        return switch (event.payload()) {
+            case PositionUpdatedEvent p -> p.getPortfolioId();
+            case CashMovementEvent c -> c.getPortfolioId();
+            case TradeBookedEvent t -> t.getPortfolioId();
+            default -> null;
+        };
+    }
+
+    /**
+     * Events taken from a client queue in one go
+     */
+    record Batch(List<EventEnvelope> events, boolean overflowed) {}
+
+    /**
+     * Per-client bounded, coalescing queue
+     */
+    static final class ClientStream {
+        private final SseEmitter emitter;
+        private final String portfolioId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private final LinkedHashMap<String, EventEnvelope> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private volatile boolean closed;
+        // Written by the client's own thread only
+        private final Set<Long> replayed = new HashSet<>();
+
+        ClientStream(SseEmitter emitter, String portfolioId) {
+            this.emitter = emitter;
+            this.portfolioId = portfolioId;
+        }
+
+        void offer(EventEnvelope event, int capacity) {
+            if (closed || (portfolioId != null && !portfolioId.equals(portfolioOf(event)))) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (overflowed) {
+                    return;
+                }
+                String key = coalesceKey(event);
+                // Re-insert so a coalesced slot moves to its latest position in sequence order
+                pending.remove(key);
+                pending.put(key, event);
+                if (pending.size() > capacity) {
+                    pending.clear();
+                    overflowed = true;
+                }
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Batch await(long timeoutMs) throws InterruptedException {
+            lock.lock();
+            try {
+                long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                while (pending.isEmpty() && !overflowed && !closed) {
+                    if (nanos <= 0) {
+                        return new Batch(List.of(), false);
+                    }
+                    nanos = ready.awaitNanos(nanos);
+                }
+                Batch batch = new Batch(new ArrayList<>(pending.values()), overflowed);
+                pending.clear();
+                overflowed = false;
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void replay(EventEnvelope event) throws IOException {
+            if (portfolioId != null && !portfolioId.equals(portfolioOf(event))) {
+                return;
+            }
+            if (replayed.add(event.publishSequence())) {
+                write(event);
+            }
+        }
+
+        void send(EventEnvelope event) throws IOException {
+            // Skip live events already sent during replay
+            if (replayed.isEmpty() || !replayed.contains(event.publishSequence())) {
+                write(event);
+            }
+        }
+
+        private void write(EventEnvelope event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.publishSequence()))
+                    .name(event.type())
+                    .data(event.payload(), MediaType.APPLICATION_JSON));
+        }
+
+        void close() {
+            closed = true;
+            lock.lock();
+            try {
+                ready.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
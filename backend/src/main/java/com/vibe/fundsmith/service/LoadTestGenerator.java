@@ -0,0 +1,340 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.exception.ValidationException;
+
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Load test mode for the demo trade generator.
+ * A pacer thread schedules trades open-loop at a constant target rate (each trade has an
+ * intended start time independent of how earlier trades fared) and hands them to a bounded
+ * pool of virtual-thread producers. Latency is measured from the intended start, so time
+ * spent queued behind a slow system is counted rather than omitted. Trades that do not fit
+ * in the producer queue are counted as dropped; they never complete, so they have no place
+ * in the response histogram and would otherwise vanish from its percentiles.
+ * Histograms per stage, in microseconds:
+ * - schedule: intended start to producer pick-up (queueing)
+ * - service: TradeService.bookTrade
+ * - response: intended start to completion of the trades that were run
+ * - responseIncludingDropped: response plus every dropped trade at the highest trackable
+ *   latency (never answered), so the percentiles cover every scheduled trade
+ */
+@Service
+@ConditionalOnProperty(name = "demo.enabled", havingValue = "true")
+public class LoadTestGenerator {
+    private static final Logger log = LoggerFactory.getLogger(LoadTestGenerator.class);
+
+    public static final String STAGE_SCHEDULE = "schedule";
+    public static final String STAGE_SERVICE = "service";
+    public static final String STAGE_RESPONSE = "response";
+    public static final String STAGE_RESPONSE_INCLUDING_DROPPED = "responseIncludingDropped";
+
+    private final DemoTradeGenerator generator;
+    private final TradeService tradeService;
+    private final double maxRate;
+    private final int maxProducers;
+    private final int queueCapacity;
+
+    private volatile LoadTestRun current;
+
+    public LoadTestGenerator(DemoTradeGenerator generator,
+                             TradeService tradeService,
+                             @Value("${demo.load-test.max-rate:50000}") double maxRate,
+                             @Value("${demo.load-test.max-producers:512}") int maxProducers,
+                             @Value("${demo.load-test.queue-capacity:100000}") int queueCapacity) {
+        this.generator = generator;
+        this.tradeService = tradeService;
+        this.maxRate = maxRate;
+        this.maxProducers = maxProducers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Start a load test
+     *
+     * @param rate Target trades per second
+     * @param producers Number of concurrent producers
+     * @param durationSeconds Run length, or 0 to run until stopped
+     * @return Initial status
+     * @throws ValidationException if the parameters are out of range
+     * @throws IllegalStateException if a load test is already running
+     */
+    public synchronized Map<String, Object> start(double rate, int producers, long durationSeconds) {
+        if (rate <= 0 || rate > maxRate) {
+            throw new ValidationException("rate", "Rate must be between 0 and " + maxRate + " trades/s");
+        }
+        if (producers < 1 || producers > maxProducers) {
+            throw new ValidationException("producers", "Producers must be between 1 and " + maxProducers);
+        }
+        if (durationSeconds < 0) {
+            throw new ValidationException("durationSeconds", "Duration cannot be negative");
+        }
+        if (current != null && current.isRunning()) {
+            throw new IllegalStateException("A load test is already running");
+        }
+
+        current = new LoadTestRun(rate, producers, TimeUnit.SECONDS.toNanos(durationSeconds), queueCapacity,
+                this::nextTrade, tradeService::bookTrade);
+        current.start();
+        log.info("Load test started: {} trades/s across {} producers for {}",
+                rate, producers, durationSeconds > 0 ? durationSeconds + "s" : "until stopped");
+        return current.status();
+    }
+
+    /**
+     * Stop the running load test; queued trades still complete
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (current != null && current.isRunning()) {
+            current.stop();
+            log.info("Load test stop requested");
+        }
+    }
+
+    /**
+     * Status of the current or last load test
+     */
+    public Map<String, Object> getStatus() {
+        LoadTestRun run = current;
+        return run != null ? run.status() : Map.of("running", false);
+    }
+
+    private TradeRequest nextTrade() {
+        TradeRequest trade = generator.generateRandomTrade();
+        trade.setTradeId(UUID.randomUUID());
+        return trade;
+    }
+
+    /**
+     * One open-loop run
+     */
+    static final class LoadTestRun {
+        // Up to one hour, three significant digits
+        private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+        private final double rate;
+        private final int producers;
+        private final long durationNanos;
+        private final Supplier<TradeRequest> trades;
+        private final Consumer<TradeRequest> booker;
+        private final ThreadPoolExecutor pool;
+        private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+        private final AtomicLong scheduled = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final Thread pacer;
+        private volatile boolean stopRequested;
+        private volatile boolean running;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile ZonedDateTime startedAt;
+
+        LoadTestRun(double rate, int producers, long durationNanos, int queueCapacity,
+                    Supplier<TradeRequest> trades, Consumer<TradeRequest> booker) {
+            this.rate = rate;
+            this.producers = producers;
+            this.durationNanos = durationNanos;
+            this.trades = trades;
+            this.booker = booker;
+            this.pool = new ThreadPoolExecutor(producers, producers, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("load-producer-", 0).factory());
+            for (String stage : List.of(STAGE_SCHEDULE, STAGE_SERVICE, STAGE_RESPONSE)) {
+                histograms.put(stage, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            }
+            this.pacer = Thread.ofPlatform().daemon().name("load-pacer").unstarted(this::pace);
+        }
+
+        void start() {
+            running = true;
+            startedAt = ZonedDateTime.now();
+            startNanos = System.nanoTime();
+            pacer.start();
+        }
+
+        void stop() {
+            stopRequested = true;
+            LockSupport.unpark(pacer);
+        }
+
+        boolean isRunning() {
+            return running;
+        }
+
+        /**
+         * Wait for the run to finish, including queued trades
+         */
+        boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+            pacer.join(unit.toMillis(timeout));
+            return !running;
+        }
+
+        private void pace() {
+            double intervalNanos = 1_000_000_000d / rate;
+            long sequence = 0;
+            try {
+                while (!stopRequested) {
+                    // Intended start times are fixed up front: a stall never shifts later arrivals
+                    long intended = startNanos + (long) (sequence * intervalNanos);
+                    if (durationNanos > 0 && intended - startNanos >= durationNanos) {
+                        break;
+                    }
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                        continue;
+                    }
+                    sequence++;
+                    scheduled.incrementAndGet();
+                    try {
+                        pool.execute(() -> execute(intended));
+                    } catch (RejectedExecutionException e) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                pool.shutdown();
+                pool.awaitTermination(1, TimeUnit.HOURS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+            } finally {
+                endNanos = System.nanoTime();
+                running = false;
+                log.info("Load test finished: scheduled={}, completed={}, failed={}, dropped={} ({}%)",
+                        scheduled.get(), completed.get(), failed.get(), dropped.get(), round(droppedRatio() * 100));
+            }
+        }
+
+        private void execute(long intendedNanos) {
+            long startedNanos = System.nanoTime();
+            record(STAGE_SCHEDULE, startedNanos - intendedNanos);
+            try {
+                booker.accept(trades.get());
+                completed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.debug("Load test trade failed: {}", e.getMessage());
+            }
+            long finishedNanos = System.nanoTime();
+            record(STAGE_SERVICE, finishedNanos - startedNanos);
+            record(STAGE_RESPONSE, finishedNanos - intendedNanos);
+        }
+
+        private void record(String stage, long nanos) {
+            long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0L), HIGHEST_TRACKABLE_MICROS);
+            histograms.get(stage).recordValue(micros);
+        }
+
+        Histogram histogram(String stage) {
+            return histograms.get(stage);
+        }
+
+        /**
+         * Snapshot of the response histogram with each dropped trade recorded at the highest
+         * trackable latency
+         */
+        Histogram responseIncludingDropped() {
+            Histogram copy = histograms.get(STAGE_RESPONSE).copy();
+            long droppedCount = dropped.get();
+            if (droppedCount > 0) {
+                copy.recordValueWithCount(HIGHEST_TRACKABLE_MICROS, droppedCount);
+            }
+            return copy;
+        }
+
+        private double droppedRatio() {
+            long scheduledCount = scheduled.get();
+            return scheduledCount > 0 ? (double) dropped.get() / scheduledCount : 0.0;
+        }
+
+        long getScheduled() {
+            return scheduled.get();
+        }
+
+        long getCompleted() {
+            return completed.get();
+        }
+
+        long getFailed() {
+            return failed.get();
+        }
+
+        long getDropped() {
+            return dropped.get();
+        }
+
+        Map<String, Object> status() {
+            long elapsedNanos = (running ? System.nanoTime() : endNanos) - startNanos;
+            double elapsedSeconds = Math.max(elapsedNanos, 1L) / 1_000_000_000d;
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("running", running);
+            status.put("targetRate", rate);
+            status.put("producers", producers);
+            status.put("durationSeconds", TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+            status.put("startedAt", startedAt != null ? startedAt.toString() : null);
+            status.put("elapsedSeconds", round(elapsedSeconds));
+            status.put("scheduled", scheduled.get());
+            status.put("completed", completed.get());
+            status.put("failed", failed.get());
+            status.put("dropped", dropped.get());
+            status.put("droppedPercent", round(droppedRatio() * 100));
+            status.put("queued", pool.getQueue().size());
+            status.put("achievedRate", round(completed.get() / elapsedSeconds));
+
+            Map<String, Object> latency = new LinkedHashMap<>();
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                latency.put(entry.getKey(), summary(entry.getValue()));
+            }
+            latency.put(STAGE_RESPONSE_INCLUDING_DROPPED, summary(responseIncludingDropped()));
+            status.put("latencyMs", latency);
+            status.put("latencyNote", "response excludes dropped trades; " + STAGE_RESPONSE_INCLUDING_DROPPED +
+                    " counts each at " + millis(HIGHEST_TRACKABLE_MICROS) + " ms (never answered)");
+            return status;
+        }
+
+        private static Map<String, Object> summary(Histogram histogram) {
+            Histogram copy = histogram.copy();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", copy.getTotalCount());
+            summary.put("p50", millis(copy.getValueAtPercentile(50.0)));
+            summary.put("p90", millis(copy.getValueAtPercentile(90.0)));
+            summary.put("p99", millis(copy.getValueAtPercentile(99.0)));
+            summary.put("p999", millis(copy.getValueAtPercentile(99.9)));
+            summary.put("max", millis(copy.getMaxValue()));
+            summary.put("mean", round(copy.getMean() / 1000.0));
+            return summary;
+        }
+
+        private static double millis(long micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000.0) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.vibe.fundsmith.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibe.fundsmith.dto.PriceDto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices from the market-data service ({@code POST /api/rates/prices}).
+ * Requests are chunked so one call carries up to {@code ibor.prices.market-data.batch-size}
+ * instruments; a valuation therefore costs a handful of calls, never one per ISIN.
+ */
+@Component
+@ConditionalOnProperty(name = "ibor.prices.source", havingValue = "market-data")
+public class MarketDataPriceSource implements PriceSource {
+
+    private static final TypeReference<List<PriceDto>> PRICE_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final URI endpoint;
+    private final Duration timeout;
+    private final int batchSize;
+    private final HttpClient httpClient;
+
+    public MarketDataPriceSource(ObjectMapper objectMapper,
+                                 @Value("${ibor.prices.market-data.url:http://localhost:8082}") String baseUrl,
+                                 @Value("${ibor.prices.market-data.timeout-ms:5000}") long timeoutMs,
+                                 @Value("${ibor.prices.market-data.batch-size:1000}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(baseUrl + "/api/rates/prices");
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.batchSize = batchSize;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public Map<String, PriceDto> fetchPrices(Collection<String> isins, LocalDate asOf) {
+        Map<String, PriceDto> prices = new HashMap<>();
+        List<String> all = new ArrayList<>(isins);
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<String> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+            for (PriceDto price : fetchChunk(chunk, asOf)) {
+                prices.put(price.getIsin(), price);
+            }
+        }
+        return prices;
+    }
+
+    private List<PriceDto> fetchChunk(List<String> isins, LocalDate asOf) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("isins", isins);
+        if (asOf != null) {
+            body.put("asOf", asOf.toString());
+        }
+        HttpResponse<String> response;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Market data endpoint " + endpoint + " returned " + response.statusCode());
+            }
+            return objectMapper.readValue(response.body(), PRICE_LIST);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to fetch prices from " + endpoint, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted fetching prices from " + endpoint, e);
+        }
+    }
+}
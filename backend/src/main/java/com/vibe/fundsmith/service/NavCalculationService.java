@@ -1,10 +1,7 @@
 package com.vibe.fundsmith.service;
 
-import com.vibe.fundsmith.config.DemoConfig;
 import com.vibe.fundsmith.exception.NavCalculationException;
 import com.vibe.fundsmith.model.NavCalculation;
-import com.vibe.fundsmith.model.Position;
-import com.vibe.fundsmith.repository.CashLedgerRepository;
 import com.vibe.fundsmith.repository.NavCalculationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,8 +17,10 @@ import java.util.List;
  * Service responsible for NAV calculation and persistence.
  *
  * Implementation notes / rationale:
- * - Reuses demo prices defined in application.yml via DemoConfig (no new price stub).
- * - Uses cash_ledger aggregate for cash balance (CashLedgerRepository#getCurrentBalance).
+ * - Gross value comes from the incremental NavEngine, so a calculation is a snapshot of
+ *   running per-portfolio state rather than a recompute over positions and the ledger.
+ * - Cash is held per currency and converted into the fund base currency (nav.default.currency)
+ *   with the locally cached FX rates of FxRateService, so no rate is looked up per balance.
  * - Shares outstanding and fee rate are externalized in application.yml for configurability.
  * - Fee accrual is calculated as a daily accrual: (gross * feeRate) / 365 and stored as a liability.
  * - The method is transactional to ensure snapshot persistence is atomic with the read operations.
@@ -31,47 +30,21 @@ public class NavCalculationService {
     private static final Logger log = LoggerFactory.getLogger(NavCalculationService.class);
 
     private final NavCalculationRepository navCalculationRepository;
-    private final PositionService positionService;
-    private final CashLedgerRepository cashLedgerRepository;
-    private final DemoConfig demoConfig;
+    private final NavEngine navEngine;
     private final Long defaultSharesOutstanding;
     private final BigDecimal feeRate; // annual fee rate, e.g. 0.005 for 0.5%
 
     public NavCalculationService(
             NavCalculationRepository navCalculationRepository,
-            PositionService positionService,
-            CashLedgerRepository cashLedgerRepository,
-            DemoConfig demoConfig,
+            NavEngine navEngine,
             @Value("${nav.default.shares-outstanding}") Long defaultSharesOutstanding,
             @Value("${nav.fee-rate:0.005}") BigDecimal feeRate) {
         this.navCalculationRepository = navCalculationRepository;
-        this.positionService = positionService;
-        this.cashLedgerRepository = cashLedgerRepository;
-        this.demoConfig = demoConfig;
+        this.navEngine = navEngine;
         this.defaultSharesOutstanding = defaultSharesOutstanding;
         this.feeRate = feeRate;
     }
 
-    /**
-     * Calculate positions value using demo prices.
-     * Returns BigDecimal.ZERO when no positions exist (explicit empty portfolio handling).
-     */
-    private BigDecimal calculatePositionsValue() {
-        List<Position> positions = positionService.getPositions(); // PositionService must expose getPositions()
-        if (positions == null || positions.isEmpty()) {
-            log.debug("No positions present; positions value = 0");
-            return BigDecimal.ZERO;
-        }
-
-        return positions.stream()
-                .map(pos -> {
-                    BigDecimal price = demoConfig.getBasePrices()
-                            .getOrDefault(pos.getIsin(), BigDecimal.ZERO);
-                    return price.multiply(pos.getQuantity());
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
     /**
      * Calculate NAV for given portfolio scope key and persist snapshot.
      *
@@ -81,13 +54,11 @@ public class NavCalculationService {
     public NavCalculation calculateNav(String portfolioId) {
         log.info("Starting NAV calculation for portfolio {}", portfolioId);
         try {
-            BigDecimal positionsValue = calculatePositionsValue();
-            log.debug("Positions value computed: {}", positionsValue);
-
-            BigDecimal cashBalance = cashLedgerRepository.getCurrentBalance(portfolioId);
-            log.debug("Cash balance fetched: {}", cashBalance);
+            NavEngine.Valuation valuation = navEngine.valuation(portfolioId);
+            log.debug("Valuation version {}: positions={}, cash={}",
+                    valuation.version(), valuation.positionsValue(), valuation.cashBalance());
 
-            BigDecimal grossAssetValue = positionsValue.add(cashBalance);
+            BigDecimal grossAssetValue = valuation.grossAssetValue();
             // daily fee accrual
             BigDecimal dailyFeeAccrual = grossAssetValue
                     .multiply(feeRate)
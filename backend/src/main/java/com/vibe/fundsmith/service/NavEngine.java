@@ -0,0 +1,378 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PriceDto;
+import com.vibe.fundsmith.event.CashMovementEvent;
+import com.vibe.fundsmith.event.EventEnvelope;
+import com.vibe.fundsmith.event.PriceChangedEvent;
+import com.vibe.fundsmith.event.PositionUpdatedEvent;
+import com.vibe.fundsmith.model.Position;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incremental gross asset value per portfolio.
+ * A portfolio is loaded on its first valuation; afterwards committed position
+ * and cash events (from the outbox relay) and price changes adjust its running
+ * value, so a NAV run is a snapshot rather than a full recompute. A periodic
+ * full recompute from the database verifies every loaded portfolio to the cent
+ * and resets it on mismatch.
+ * Prices come from {@link PriceService} in bulk when a portfolio is loaded and
+ * are then held by the engine, so valuations never price instruments one by one.
+ * Position values are held per price currency and cash per balance currency; both
+ * are converted into the base currency at valuation time with the cached rates of
+ * {@link FxRateService}, so amounts in different currencies are never added up.
+ * Each portfolio remembers the quote it valued every instrument at. Position and price
+ * updates both run under the portfolio's lock and reprice from that quote to the
+ * latest one, so a position update racing a price change on the same ISIN leaves no
+ * mismatch behind for the verification pass to repair.
+ * Limitation: the engine only sees events relayed by this instance. When several
+ * instances share the outbox, each relays its own share of the events, so a portfolio
+ * loaded here misses the others' changes until the next verification pass resets it
+ * (every minute by default).
+ */
+@Component
+public class NavEngine {
+    private static final Logger log = LoggerFactory.getLogger(NavEngine.class);
+
+    private final PositionService positionService;
+    private final CashService cashService;
+    private final PriceService priceService;
+    private final FxRateService fxRateService;
+
+    private final Map<String, PortfolioState> portfolios = new ConcurrentHashMap<>();
+    // ISIN -> portfolios holding it, so a price change only touches its holders
+    private final Map<String, Set<String>> holders = new ConcurrentHashMap<>();
+    // ISIN -> price (and its currency) the running values are based on
+    private final Map<String, Quote> prices = new ConcurrentHashMap<>();
+    private final AtomicLong verificationBreaks = new AtomicLong();
+
+    public NavEngine(PositionService positionService, CashService cashService, PriceService priceService,
+                     FxRateService fxRateService) {
+        this.positionService = positionService;
+        this.cashService = cashService;
+        this.priceService = priceService;
+        this.fxRateService = fxRateService;
+    }
+
+    /**
+     * Current valuation of a portfolio, loading it on first use
+     *
+     * @param portfolioId Portfolio identifier
+     * @return Consistent positions value and cash balance in the base currency
+     */
+    public Valuation valuation(String portfolioId) {
+        PortfolioState state = portfolios.computeIfAbsent(portfolioId, this::load);
+        synchronized (state) {
+            return new Valuation(portfolioId, fxRateService.toBase(state.positionsValues),
+                    fxRateService.toBase(state.cashBalances), state.version);
+        }
+    }
+
+    /**
+     * Apply events delivered by the outbox relay once its transaction commits, so a rolled
+     * back batch, which the relay will deliver again, never overwrites newer absolute values
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(EventEnvelope event) {
+        if (event.payload() instanceof PositionUpdatedEvent position) {
+            applyPosition(position.getPortfolioId(), position.getIsin(), position.getNewQuantity());
+        } else if (event.payload() instanceof CashMovementEvent cash && cash.getBalance() != null) {
+            applyCashBalance(cash.getPortfolioId(), cash.getCurrency(), cash.getBalance());
+        }
+    }
+
+    /**
+     * Revalue holders when the price service observes a new price
+     */
+    @EventListener
+    public void onPriceChanged(PriceChangedEvent event) {
+        applyPriceChange(event.getIsin(), event.getNewPrice(), event.getCurrency());
+    }
+
+    /**
+     * Set a position's quantity and adjust the running value in the price currency by
+     * price x quantity change. Absolute quantities make redelivered or coalesced events harmless.
+     */
+    public void applyPosition(String portfolioId, String isin, BigDecimal newQuantity) {
+        PortfolioState state = portfolios.get(portfolioId);
+        if (state == null) {
+            return; // loaded with current state on first valuation
+        }
+        // Register first: a price change from here on reaches this portfolio
+        holders.computeIfAbsent(isin, k -> ConcurrentHashMap.newKeySet()).add(portfolioId);
+        quoteOf(isin); // fetch an unknown price before taking the lock
+        synchronized (state) {
+            Quote quote = state.quotes.computeIfAbsent(isin, this::quoteOf);
+            BigDecimal oldQuantity = state.quantities.getOrDefault(isin, BigDecimal.ZERO);
+            state.quantities.put(isin, newQuantity);
+            state.addValue(quote, newQuantity.subtract(oldQuantity));
+            state.version++;
+        }
+    }
+
+    /**
+     * Set a portfolio's cash balance in one currency
+     */
+    public void applyCashBalance(String portfolioId, String currency, BigDecimal balance) {
+        PortfolioState state = portfolios.get(portfolioId);
+        if (state == null) {
+            return;
+        }
+        String balanceCurrency = currency != null ? currency : fxRateService.getBaseCurrency();
+        synchronized (state) {
+            state.cashBalances.put(balanceCurrency, balance);
+            state.version++;
+        }
+    }
+
+    /**
+     * Reprice an instrument and move every loaded portfolio holding it from the quote it
+     * last applied to the latest one, so concurrent changes converge on the latest price
+     *
+     * @param isin     Instrument ISIN
+     * @param price    New price
+     * @param currency Currency of the price (null keeps the held currency)
+     */
+    public void applyPriceChange(String isin, BigDecimal price, String currency) {
+        Quote held = prices.get(isin);
+        Quote quote = new Quote(price, currency != null ? currency
+                : held != null ? held.currency() : fxRateService.getBaseCurrency());
+        Quote oldQuote = prices.put(isin, quote);
+        if (oldQuote == null) {
+            return; // no loaded portfolio has been valued with this instrument yet
+        }
+        if (sameQuote(oldQuote, quote)) {
+            return;
+        }
+        for (String portfolioId : holders.getOrDefault(isin, Set.of())) {
+            PortfolioState state = portfolios.get(portfolioId);
+            if (state == null) {
+                continue;
+            }
+            synchronized (state) {
+                Quote applied = state.quotes.get(isin);
+                Quote latest = prices.get(isin);
+                if (applied == null || latest == null || sameQuote(applied, latest)) {
+                    continue;
+                }
+                BigDecimal quantity = state.quantities.getOrDefault(isin, BigDecimal.ZERO);
+                state.addValue(applied, quantity.negate());
+                state.addValue(latest, quantity);
+                state.quotes.put(isin, latest);
+                state.version++;
+            }
+        }
+    }
+
+    private static boolean sameQuote(Quote a, Quote b) {
+        return a.price().compareTo(b.price()) == 0 && a.currency().equals(b.currency());
+    }
+
+    /**
+     * Current price and its currency used for valuation
+     */
+    public Quote quoteOf(String isin) {
+        Quote quote = prices.get(isin);
+        if (quote != null) {
+            return quote;
+        }
+        loadPrices(List.of(isin));
+        return prices.getOrDefault(isin, new Quote(BigDecimal.ZERO, fxRateService.getBaseCurrency()));
+    }
+
+    /**
+     * Scheduled verification of every loaded portfolio against a full recompute
+     */
+    @Scheduled(fixedDelayString = "${ibor.nav.engine.verify-interval-ms:60000}",
+               initialDelayString = "${ibor.nav.engine.verify-interval-ms:60000}")
+    public void scheduledVerification() {
+        try {
+            verifyAll();
+        } catch (Exception e) {
+            log.error("NAV engine verification failed", e);
+        }
+    }
+
+    /**
+     * Recompute every loaded portfolio from the database and compare to the cent.
+     * A mismatch is logged and the portfolio is reset to the recomputed state.
+     *
+     * @return Number of portfolios that had to be reset
+     */
+    public int verifyAll() {
+        int breaks = 0;
+        for (String portfolioId : portfolios.keySet()) {
+            if (!verify(portfolioId)) {
+                breaks++;
+            }
+        }
+        return breaks;
+    }
+
+    /**
+     * Verify one loaded portfolio
+     *
+     * @return true if the incremental value matched the full recompute
+     */
+    public boolean verify(String portfolioId) {
+        PortfolioState state = portfolios.get(portfolioId);
+        if (state == null) {
+            return true;
+        }
+        long versionBefore;
+        synchronized (state) {
+            versionBefore = state.version;
+        }
+        PortfolioState recomputed = recompute(portfolioId, positionService.loadPositions(portfolioId));
+        synchronized (state) {
+            if (state.version != versionBefore || repricing(state, recomputed)) {
+                // Events or a price change arrived during the recompute; compare on the next run instead
+                return true;
+            }
+            BigDecimal incremental = fxRateService.toBase(state.positionsValues)
+                    .add(fxRateService.toBase(state.cashBalances)).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal full = fxRateService.toBase(recomputed.positionsValues)
+                    .add(fxRateService.toBase(recomputed.cashBalances)).setScale(2, RoundingMode.HALF_UP);
+            if (incremental.compareTo(full) == 0) {
+                return true;
+            }
+            log.warn("NAV engine break for portfolio {}: incremental gross={}, recomputed gross={}; resetting",
+                    portfolioId, incremental, full);
+            state.quantities.clear();
+            state.quantities.putAll(recomputed.quantities);
+            state.quotes.clear();
+            state.quotes.putAll(recomputed.quotes);
+            state.positionsValues.clear();
+            state.positionsValues.putAll(recomputed.positionsValues);
+            state.cashBalances.clear();
+            state.cashBalances.putAll(recomputed.cashBalances);
+            state.version++;
+        }
+        verificationBreaks.incrementAndGet();
+        return false;
+    }
+
+    // A price change is still being applied when the two sides value a common ISIN differently
+    private static boolean repricing(PortfolioState state, PortfolioState recomputed) {
+        for (Map.Entry<String, Quote> quote : state.quotes.entrySet()) {
+            Quote other = recomputed.quotes.get(quote.getKey());
+            if (other != null && !sameQuote(quote.getValue(), other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of verification breaks since startup
+     */
+    public long getVerificationBreaks() {
+        return verificationBreaks.get();
+    }
+
+    /**
+     * Drop all in-memory state (e.g. after an administrative reset); portfolios reload on next valuation
+     */
+    public void clear() {
+        portfolios.clear();
+        holders.clear();
+        prices.clear();
+    }
+
+    /**
+     * Fetch the prices the engine does not hold yet in one bulk lookup
+     */
+    private void loadPrices(Collection<String> isins) {
+        Set<String> missing = new HashSet<>();
+        for (String isin : isins) {
+            if (!prices.containsKey(isin)) {
+                missing.add(isin);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<String, PriceDto> fetched = priceService.getPrices(missing);
+        for (String isin : missing) {
+            PriceDto price = fetched.get(isin);
+            // Unpriced instruments are held at zero until a price change arrives
+            prices.putIfAbsent(isin, price != null && price.getPrice() != null
+                    ? new Quote(price.getPrice(), price.getCurrency() != null ? price.getCurrency() : fxRateService.getBaseCurrency())
+                    : new Quote(BigDecimal.ZERO, fxRateService.getBaseCurrency()));
+        }
+    }
+
+    private PortfolioState load(String portfolioId) {
+        PortfolioState state = recompute(portfolioId, positionService.getPositions(portfolioId));
+        for (String isin : state.quantities.keySet()) {
+            holders.computeIfAbsent(isin, k -> ConcurrentHashMap.newKeySet()).add(portfolioId);
+        }
+        log.debug("NAV engine loaded portfolio {}: positions value by currency={}", portfolioId, state.positionsValues);
+        return state;
+    }
+
+    private PortfolioState recompute(String portfolioId, List<Position> positions) {
+        PortfolioState state = new PortfolioState();
+        if (positions != null) {
+            loadPrices(positions.stream().map(Position::getIsin).toList());
+            for (Position position : positions) {
+                state.quantities.put(position.getIsin(), position.getQuantity());
+                Quote quote = quoteOf(position.getIsin());
+                state.quotes.put(position.getIsin(), quote);
+                state.addValue(quote, position.getQuantity());
+            }
+        }
+        Map<String, BigDecimal> cashBalances = cashService.getBalances(portfolioId);
+        if (cashBalances != null) {
+            state.cashBalances.putAll(cashBalances);
+        }
+        return state;
+    }
+
+    /**
+     * Point-in-time valuation of one portfolio; cash is in the base currency
+     */
+    public record Valuation(String portfolioId, BigDecimal positionsValue, BigDecimal cashBalance, long version) {
+
+        public BigDecimal grossAssetValue() {
+            return positionsValue.add(cashBalance);
+        }
+    }
+
+    /**
+     * Price of an instrument in its own currency
+     */
+    public record Quote(BigDecimal price, String currency) {
+    }
+
+    private static final class PortfolioState {
+        private final Map<String, BigDecimal> quantities = new HashMap<>();
+        // ISIN -> quote the value of that position is based on
+        private final Map<String, Quote> quotes = new HashMap<>();
+        // Currency -> value of the positions priced in that currency
+        private final Map<String, BigDecimal> positionsValues = new HashMap<>();
+        // Currency -> balance in that currency
+        private final Map<String, BigDecimal> cashBalances = new HashMap<>();
+        private long version;
+
+        private void addValue(Quote quote, BigDecimal quantity) {
+            positionsValues.merge(quote.currency(), quote.price().multiply(quantity), BigDecimal::add);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.config.DatabasePlatform;
+import com.vibe.fundsmith.repository.PartitionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the monthly partitions of the history tables (see V17, V21) ahead of the calendar
+ * and retires whole months past retention by detaching or dropping them, instead of
+ * deleting rows. Months are UTC. Retention defaults to 84 months (7 years); 0 keeps every month.
+ * Does nothing outside PostgreSQL.
+ */
+@Service
+public class PartitionMaintenanceService {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    /**
+     * Tables range-partitioned by month
+     */
+    static final List<String> PARTITIONED_TABLES = List.of("trades", "cash_ledger", "journals", "journal_lines",
+        "nav_snapshots");
+
+    /**
+     * What happens to a month past retention
+     */
+    public enum RetentionMode {
+        /** Detach it and keep it as a standalone table, e.g. for pg_dump to an archive */
+        DETACH,
+        /** Drop it */
+        DROP
+    }
+
+    private final PartitionRepository partitionRepository;
+    private final DatabasePlatform databasePlatform;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionMode retentionMode;
+
+    public PartitionMaintenanceService(PartitionRepository partitionRepository,
+                                       DatabasePlatform databasePlatform,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${ibor.partitions.enabled:true}") boolean enabled,
+                                       @Value("${ibor.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${ibor.partitions.retention-months:84}") int retentionMonths,
+                                       @Value("${ibor.partitions.retention-mode:DETACH}") RetentionMode retentionMode) {
+        this.partitionRepository = partitionRepository;
+        this.databasePlatform = databasePlatform;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionMode = retentionMode;
+    }
+
+    /**
+     * Make sure the coming months exist before traffic is served, however long the service was down
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        scheduledMaintenance();
+    }
+
+    /**
+     * Scheduled maintenance run (daily by default)
+     */
+    @Scheduled(fixedDelayString = "${ibor.partitions.maintenance-interval-ms:86400000}",
+               initialDelayString = "${ibor.partitions.maintenance-interval-ms:86400000}")
+    public void scheduledMaintenance() {
+        if (!enabled || !databasePlatform.isPostgres()) {
+            return;
+        }
+        try {
+            YearMonth current = YearMonth.now(ZoneOffset.UTC);
+            createUpcomingPartitions(current);
+            retireExpiredPartitions(current);
+        } catch (Exception e) {
+            log.error("Partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Create the current month and the configured number of months after it for every
+     * partitioned table, where missing
+     *
+     * @param current Current month
+     * @return Partitions ensured
+     */
+    public List<String> createUpcomingPartitions(YearMonth current) {
+        List<String> ensured = new ArrayList<>();
+        for (String table : PARTITIONED_TABLES) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                ensured.add(transactionTemplate.execute(status ->
+                    partitionRepository.ensureMonthlyPartition(table, month)));
+            }
+        }
+        log.debug("Ensured {} monthly partitions through {}", ensured.size(), current.plusMonths(monthsAhead));
+        return ensured;
+    }
+
+    /**
+     * Detach or drop every month that ended before the retention window, one month per
+     * transaction. Rows in a table's default partition are never retired.
+     *
+     * @param current Current month
+     * @return Partitions retired
+     */
+    public List<String> retireExpiredPartitions(YearMonth current) {
+        if (retentionMonths <= 0) {
+            return List.of();
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> retired = new ArrayList<>();
+        for (String table : PARTITIONED_TABLES) {
+            for (Map.Entry<YearMonth, String> partition :
+                    partitionRepository.findMonthlyPartitions(table).headMap(oldestKept, false).entrySet()) {
+                transactionTemplate.executeWithoutResult(status -> retire(table, partition.getValue()));
+                retired.add(partition.getValue());
+                log.info("{} partition {} ({}), retention {} months",
+                    retentionMode == RetentionMode.DROP ? "Dropped" : "Detached",
+                    partition.getValue(), partition.getKey(), retentionMonths);
+            }
+        }
+        return retired;
+    }
+
+    private void retire(String table, String partition) {
+        if (retentionMode == RetentionMode.DROP) {
+            partitionRepository.dropPartition(partition);
+        } else {
+            partitionRepository.detachPartition(table, partition);
+        }
+    }
+}
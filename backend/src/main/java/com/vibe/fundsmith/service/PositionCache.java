@@ -0,0 +1,235 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PositionDto;
+import com.vibe.fundsmith.model.Position;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the position book.
+ * Writers publish a new immutable snapshot (copy-on-write per portfolio) with an
+ * incremented epoch, so readers always see one consistent version without locking.
+ * Rows are ordered by their database version, never by timestamps: a transaction that
+ * started first may commit last, so updated_at does not follow commit order.
+ */
+@Component
+public class PositionCache {
+
+    private volatile Snapshot snapshot = new Snapshot(0L, Collections.emptyNavigableMap());
+    private volatile boolean loaded;
+    // Epoch at which each row was last written here, so a rebuild can tell rows written
+    // during its database read from rows it should replace. Guarded by this.
+    private final Map<String, Long> writtenAtEpoch = new HashMap<>();
+
+    /**
+     * Current snapshot; never mutated after publication
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Whether the cache has been populated from the database at least once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Apply a position change once the surrounding transaction commits,
+     * or immediately when no transaction is active. Rolled back changes never reach readers.
+     */
+    public void putAfterCommit(String portfolioId, String isin, BigDecimal quantity, ZonedDateTime updatedAt,
+                               long version) {
+        CachedPosition position = new CachedPosition(portfolioId, isin, quantity, updatedAt, version);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(position);
+                }
+            });
+        } else {
+            put(position);
+        }
+    }
+
+    /**
+     * Apply one position change. Changes with a lower version than the cached row are
+     * ignored, which keeps out-of-order commit callbacks from regressing a position.
+     */
+    public synchronized void put(CachedPosition position) {
+        Snapshot current = snapshot;
+        NavigableMap<String, CachedPosition> portfolio = current.byPortfolio().get(position.portfolioId());
+        CachedPosition existing = portfolio != null ? portfolio.get(position.isin()) : null;
+        if (existing != null && position.isOlderThan(existing)) {
+            return;
+        }
+
+        NavigableMap<String, CachedPosition> updatedPortfolio =
+            portfolio != null ? new TreeMap<>(portfolio) : new TreeMap<>();
+        updatedPortfolio.put(position.isin(), position);
+
+        NavigableMap<String, NavigableMap<String, CachedPosition>> updatedBook = new TreeMap<>(current.byPortfolio());
+        updatedBook.put(position.portfolioId(), Collections.unmodifiableNavigableMap(updatedPortfolio));
+
+        snapshot = new Snapshot(current.epoch() + 1, Collections.unmodifiableNavigableMap(updatedBook));
+        writtenAtEpoch.put(key(position.portfolioId(), position.isin()), snapshot.epoch());
+    }
+
+    /**
+     * Apply a set of rows read from the database (cross-node sync)
+     */
+    public synchronized void putAll(Collection<Position> positions) {
+        for (Position position : positions) {
+            put(CachedPosition.of(position));
+        }
+    }
+
+    /**
+     * Replace the whole book with rows read from the database.
+     * Cached rows written after {@code readStartedAtEpoch} were committed while the
+     * rows were being read and are kept where the database copy has a lower version
+     * or does not have the row yet.
+     *
+     * @param positions          All positions read from the database
+     * @param readStartedAtEpoch Snapshot epoch taken before the database read started
+     */
+    public synchronized void replaceAll(Collection<Position> positions, long readStartedAtEpoch) {
+        NavigableMap<String, NavigableMap<String, CachedPosition>> book = new TreeMap<>();
+        for (Position position : positions) {
+            book.computeIfAbsent(position.getPortfolioId(), k -> new TreeMap<>())
+                .put(position.getIsin(), CachedPosition.of(position));
+        }
+
+        for (NavigableMap<String, CachedPosition> portfolio : snapshot.byPortfolio().values()) {
+            for (CachedPosition cached : portfolio.values()) {
+                Long writtenAt = writtenAtEpoch.get(key(cached.portfolioId(), cached.isin()));
+                if (writtenAt != null && writtenAt > readStartedAtEpoch) {
+                    NavigableMap<String, CachedPosition> target =
+                        book.computeIfAbsent(cached.portfolioId(), k -> new TreeMap<>());
+                    CachedPosition fromDb = target.get(cached.isin());
+                    if (fromDb == null || fromDb.isOlderThan(cached)) {
+                        target.put(cached.isin(), cached);
+                    }
+                }
+            }
+        }
+
+        NavigableMap<String, NavigableMap<String, CachedPosition>> frozen = new TreeMap<>();
+        for (Map.Entry<String, NavigableMap<String, CachedPosition>> entry : book.entrySet()) {
+            frozen.put(entry.getKey(), Collections.unmodifiableNavigableMap(entry.getValue()));
+        }
+        snapshot = new Snapshot(snapshot.epoch() + 1, Collections.unmodifiableNavigableMap(frozen));
+        loaded = true;
+    }
+
+    private static String key(String portfolioId, String isin) {
+        return portfolioId + '|' + isin;
+    }
+
+    /**
+     * Immutable cached position row
+     */
+    public record CachedPosition(String portfolioId, String isin, BigDecimal quantity, ZonedDateTime updatedAt,
+                                 long version) {
+
+        static CachedPosition of(Position position) {
+            return new CachedPosition(position.getPortfolioId(), position.getIsin(),
+                position.getQuantity(), position.getUpdatedAt(), position.getVersion());
+        }
+
+        boolean isOlderThan(CachedPosition other) {
+            return version < other.version();
+        }
+
+        PositionDto toDto() {
+            return new PositionDto(portfolioId, isin, quantity, updatedAt);
+        }
+
+        Position toPosition() {
+            Position position = new Position(portfolioId, isin, quantity);
+            position.setUpdatedAt(updatedAt);
+            position.setVersion(version);
+            return position;
+        }
+    }
+
+    /**
+     * One consistent version of the book, identified by its epoch
+     *
+     * @param epoch       Incremented on every change; lets clients detect a newer book
+     * @param byPortfolio Positions keyed by portfolio, then ISIN (both sorted)
+     */
+    public record Snapshot(long epoch, NavigableMap<String, NavigableMap<String, CachedPosition>> byPortfolio) {
+
+        public int size() {
+            int size = 0;
+            for (NavigableMap<String, CachedPosition> portfolio : byPortfolio.values()) {
+                size += portfolio.size();
+            }
+            return size;
+        }
+
+        /**
+         * All positions sorted by portfolio, then ISIN
+         */
+        public List<PositionDto> all() {
+            List<PositionDto> result = new ArrayList<>(size());
+            for (NavigableMap<String, CachedPosition> portfolio : byPortfolio.values()) {
+                for (CachedPosition position : portfolio.values()) {
+                    result.add(position.toDto());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Positions of one portfolio sorted by ISIN
+         */
+        public List<PositionDto> portfolio(String portfolioId) {
+            NavigableMap<String, CachedPosition> portfolio = byPortfolio.get(portfolioId);
+            if (portfolio == null) {
+                return List.of();
+            }
+            List<PositionDto> result = new ArrayList<>(portfolio.size());
+            for (CachedPosition position : portfolio.values()) {
+                result.add(position.toDto());
+            }
+            return result;
+        }
+
+        /**
+         * One cached position, or null when it is not cached
+         */
+        public CachedPosition find(String portfolioId, String isin) {
+            NavigableMap<String, CachedPosition> portfolio = byPortfolio.get(portfolioId);
+            return portfolio != null ? portfolio.get(isin) : null;
+        }
+
+        List<Position> portfolioEntities(String portfolioId) {
+            NavigableMap<String, CachedPosition> portfolio = byPortfolio.get(portfolioId);
+            if (portfolio == null) {
+                return List.of();
+            }
+            List<Position> result = new ArrayList<>(portfolio.size());
+            for (CachedPosition position : portfolio.values()) {
+                result.add(position.toPosition());
+            }
+            return result;
+        }
+    }
+}
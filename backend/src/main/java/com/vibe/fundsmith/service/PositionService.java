@@ -1,108 +1,259 @@
 package com.vibe.fundsmith.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibe.fundsmith.config.DatabasePlatform;
 import com.vibe.fundsmith.dto.PositionDto;
-import com.vibe.fundsmith.event.PositionUpdatedEvent;
+import com.vibe.fundsmith.model.OutboxEvent;
 import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.model.PositionId;
 import com.vibe.fundsmith.model.ProcessedTrade;
 import com.vibe.fundsmith.model.TradeSide;
 import com.vibe.fundsmith.repository.PositionRepository;
+import com.vibe.fundsmith.repository.PositionUpsertRepository;
+import com.vibe.fundsmith.repository.PositionUpsertRepository.UpsertResult;
 import com.vibe.fundsmith.repository.ProcessedTradeRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class PositionService {
     private static final Logger log = LoggerFactory.getLogger(PositionService.class);
 
     private final PositionRepository positionRepository;
+    private final PositionUpsertRepository positionUpsertRepository;
     private final ProcessedTradeRepository processedTradeRepository;
-    private final ObjectMapper objectMapper;
+    private final DatabasePlatform databasePlatform;
+    private final PositionCache positionCache;
+    private final BookingLocks bookingLocks;
+    private final EventOutboxService eventOutboxService;
+    private final boolean cacheSyncEnabled;
 
     @Autowired
     public PositionService(PositionRepository positionRepository,
+            PositionUpsertRepository positionUpsertRepository,
             ProcessedTradeRepository processedTradeRepository,
-            ObjectMapper objectMapper) {
+            DatabasePlatform databasePlatform,
+            PositionCache positionCache,
+            BookingLocks bookingLocks,
+            EventOutboxService eventOutboxService,
+            @Value("${ibor.positions.cache.sync-enabled:false}") boolean cacheSyncEnabled) {
         this.positionRepository = positionRepository;
+        this.positionUpsertRepository = positionUpsertRepository;
         this.processedTradeRepository = processedTradeRepository;
-        this.objectMapper = objectMapper;
+        this.databasePlatform = databasePlatform;
+        this.positionCache = positionCache;
+        this.bookingLocks = bookingLocks;
+        this.eventOutboxService = eventOutboxService;
+        this.cacheSyncEnabled = cacheSyncEnabled;
     }
 
     /**
-     * Get all positions
+     * Get the positions of one portfolio
      * This is used by NAV calculation and position queries
      * 
-     * @return List of all positions sorted by ISIN
+     * @param portfolioId Portfolio identifier
+     * @return List of the portfolio's positions sorted by ISIN
+     */
+    public List<Position> getPositions(String portfolioId) {
+        return getSnapshot().portfolioEntities(portfolioId);
+    }
+
+    /**
+     * Read the positions of one portfolio from the database, bypassing the cache
+     * (used to verify in-memory state)
+     * 
+     * @param portfolioId Portfolio identifier
+     * @return List of the portfolio's positions sorted by ISIN
+     */
+    public List<Position> loadPositions(String portfolioId) {
+        return positionRepository.findByPortfolioIdOrderByIsinAsc(portfolioId);
+    }
+
+    /**
+     * Current in-memory position book, loading it from the database on first use.
+     * Callers that need several reads to agree should read them from one snapshot.
+     * 
+     * @return Immutable snapshot with its epoch
+     */
+    public PositionCache.Snapshot getSnapshot() {
+        if (!positionCache.isLoaded()) {
+            rebuildCache();
+        }
+        return positionCache.snapshot();
+    }
+
+    /**
+     * Reload the whole position book from the database
+     * 
+     * @return The new snapshot
+     */
+    public PositionCache.Snapshot rebuildCache() {
+        long readStartedAtEpoch = positionCache.snapshot().epoch();
+        List<Position> positions = positionRepository.findAllByOrderByPortfolioIdAscIsinAsc();
+        positionCache.replaceAll(positions, readStartedAtEpoch);
+        PositionCache.Snapshot snapshot = positionCache.snapshot();
+        log.info("Position cache rebuilt: {} positions, epoch {}", snapshot.size(), snapshot.epoch());
+        return snapshot;
+    }
+
+    /**
+     * Warm the cache before traffic is served
      */
-    public List<Position> getPositions() {
-        return positionRepository.findAllByOrderByIsinAsc();
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        rebuildCache();
+    }
+
+    /**
+     * Cross-node coherence: when several backend instances share a database, each
+     * one reads the key and version of every position, re-reads the rows whose
+     * version is ahead of the cache and fully rebuilds when the key sets disagree.
+     * Versions follow commit order, so no clock or overlap window is involved.
+     * Disabled by default because a single instance is kept current by write-through.
+     */
+    @Scheduled(fixedDelayString = "${ibor.positions.cache.sync-interval-ms:5000}",
+               initialDelayString = "${ibor.positions.cache.sync-interval-ms:5000}")
+    public void syncCacheFromDatabase() {
+        if (!cacheSyncEnabled || !positionCache.isLoaded()) {
+            return;
+        }
+        try {
+            PositionCache.Snapshot snapshot = positionCache.snapshot();
+            List<Object[]> versions = positionRepository.findAllVersions();
+            if (versions.size() != snapshot.size()) {
+                rebuildCache();
+                return;
+            }
+            List<PositionId> changed = new ArrayList<>();
+            for (Object[] row : versions) {
+                PositionCache.CachedPosition cached = snapshot.find((String) row[0], (String) row[1]);
+                if (cached == null) {
+                    rebuildCache();
+                    return;
+                }
+                if (cached.version() < ((Number) row[2]).longValue()) {
+                    changed.add(new PositionId((String) row[0], (String) row[1]));
+                }
+            }
+            if (!changed.isEmpty()) {
+                positionCache.putAll(positionRepository.findAllById(changed));
+            }
+            log.debug("Position cache sync applied {} changed rows", changed.size());
+        } catch (Exception e) {
+            log.error("Position cache sync failed", e);
+        }
     }
 
     /**
      * Update a position for a given trade if it hasn't been processed already.
+     * On PostgreSQL this is one atomic upsert statement. The portable path reads,
+     * checks and writes, so it holds the position's stripe lock and row lock until
+     * the transaction ends; concurrent bookings of the same new position cannot
+     * both insert it, and the non-negative check always sees the committed quantity.
      * 
-     * @param tradeId  Unique identifier of the trade
-     * @param isin     ISIN of the instrument
+     * @param tradeId     Unique identifier of the trade
+     * @param portfolioId Portfolio holding the position
+     * @param isin        ISIN of the instrument
      * @param quantity Quantity of the trade
      * @param side     Side of the trade (BUY/SELL)
+     * @param tradeDate Trade date, registered with the trade ID
      * @return true if position was updated, false if trade was already processed
      * @throws RuntimeException if the update fails
      */
     @Transactional
-    public boolean updatePosition(UUID tradeId, String isin, BigDecimal quantity, TradeSide side) {
-        // Check for idempotency - if trade already processed, skip
+    public boolean updatePosition(UUID tradeId, String portfolioId, String isin, BigDecimal quantity, TradeSide side,
+                                  LocalDate tradeDate) {
+        // Calculate delta based on side
+        BigDecimal delta = (side == TradeSide.BUY) ? quantity : quantity.negate();
+
+        if (databasePlatform.isPostgres()) {
+            return upsertPosition(tradeId, portfolioId, isin, delta, tradeDate);
+        }
+
+        // Portable path (H2): check for idempotency - if trade already processed, skip
         if (processedTradeRepository.existsByTradeId(tradeId)) {
             log.info("Trade {} already processed - skipping position update", tradeId);
             return false;
         }
 
-        // Calculate delta based on side
-        BigDecimal delta = (side == TradeSide.BUY) ? quantity : quantity.negate();
-
-        // Get current position (if exists) before updating
-        Optional<Position> currentPositionOpt = positionRepository.findById(isin);
+        // Serialize bookings of this position until commit, then read it under a row lock
+        PositionId positionId = new PositionId(portfolioId, isin);
+        bookingLocks.lockPosition(positionId);
+        Optional<Position> currentPositionOpt = positionRepository.findByIdForUpdate(portfolioId, isin);
         BigDecimal currentQuantity = currentPositionOpt.map(Position::getQuantity)
                 .orElse(BigDecimal.ZERO);
+        // The row lock is held until commit, so the next version is exact
+        long newVersion = currentPositionOpt.map(position -> position.getVersion() + 1).orElse(1L);
 
         // Check if resulting quantity would be negative when SELL is not fully
         // supported
         BigDecimal newQuantity = currentQuantity.add(delta);
         if (newQuantity.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalStateException("Position would become negative: " + isin +
+            throw new IllegalStateException("Position would become negative: " + positionId +
                     ", current: " + currentQuantity + ", delta: " + delta);
         }
 
         // Perform atomic update or insert
-        int updated = positionRepository.updateQuantity(isin, delta);
+        int updated = positionRepository.updateQuantity(portfolioId, isin, delta);
         // If no rows were affected, insert new position
         if (updated == 0) {
-            positionRepository.insertPosition(isin, delta);
+            positionRepository.insertPosition(portfolioId, isin, delta);
         }
 
         // Register trade as processed for idempotency
-        processedTradeRepository.save(new ProcessedTrade(tradeId, isin, delta));
+        processedTradeRepository.save(new ProcessedTrade(tradeId, portfolioId, isin, delta, tradeDate));
+
+        // The native update bypasses the persistence context, so report the computed quantity
+        ZonedDateTime updatedAt = ZonedDateTime.now();
+        positionCache.putAfterCommit(portfolioId, isin, newQuantity, updatedAt, newVersion);
+
+        // Emit position updated event (published after commit via the outbox)
+        emitPositionUpdatedEvent(tradeId, portfolioId, isin, delta, newQuantity, updatedAt);
+
+        log.info("Updated position for {} ISIN {}: delta={}, new quantity={}",
+                portfolioId, isin, delta, newQuantity);
+
+        return true;
+    }
 
-        // Fetch the updated position
-        Position updatedPosition = positionRepository.findById(isin)
-                .orElseThrow(() -> new RuntimeException("Position not found after update: " + isin));
+    /**
+     * PostgreSQL path: idempotency registration, non-negative check, upsert and
+     * RETURNING of the new quantity in a single statement (one round trip).
+     */
+    private boolean upsertPosition(UUID tradeId, String portfolioId, String isin, BigDecimal delta,
+                                   LocalDate tradeDate) {
+        UpsertResult result = positionUpsertRepository.applyTradeDelta(tradeId, portfolioId, isin, delta, tradeDate);
+
+        if (!result.registered()) {
+            log.info("Trade {} already processed - skipping position update", tradeId);
+            return false;
+        }
+        if (result.wouldBeNegative()) {
+            // Throwing rolls back the processed_trades registration made by the same statement
+            throw new IllegalStateException("Position would become negative: " +
+                    new PositionId(portfolioId, isin) + ", delta: " + delta);
+        }
 
-        // Emit position updated event (log for now)
-        emitPositionUpdatedEvent(isin, delta, updatedPosition.getQuantity(), updatedPosition.getUpdatedAt());
+        positionCache.putAfterCommit(portfolioId, isin, result.newQuantity(), result.updatedAt(), result.version());
+        emitPositionUpdatedEvent(tradeId, portfolioId, isin, delta, result.newQuantity(), result.updatedAt());
 
-        log.info("Updated position for ISIN {}: delta={}, new quantity={}",
-                isin, delta, updatedPosition.getQuantity());
+        log.info("Updated position for {} ISIN {}: delta={}, new quantity={}",
+                portfolioId, isin, delta, result.newQuantity());
 
         return true;
     }
@@ -110,27 +261,27 @@ public class PositionService {
     /**
      * Get all positions
      * 
-     * @return List of all positions sorted by ISIN
+     * @return List of all positions sorted by portfolio, then ISIN
      */
     public List<PositionDto> getAllPositions() {
-        return positionRepository.findAllByOrderByIsinAsc()
-                .stream()
-                .map(p -> new PositionDto(p.getIsin(), p.getQuantity(), p.getUpdatedAt()))
-                .collect(Collectors.toList());
+        return getSnapshot().all();
     }
 
     /**
-     * Emit position updated event
+     * Get the positions of one portfolio
+     * 
+     * @param portfolioId Portfolio identifier
+     * @return List of the portfolio's positions sorted by ISIN
      */
-    private void emitPositionUpdatedEvent(String isin, BigDecimal delta,
+    public List<PositionDto> getPortfolioPositions(String portfolioId) {
+        return getSnapshot().portfolio(portfolioId);
+    }
+
+    /**
+     * Emit position updated event by recording it in the outbox
+     */
+    private void emitPositionUpdatedEvent(UUID tradeId, String portfolioId, String isin, BigDecimal delta,
             BigDecimal newQuantity, ZonedDateTime updatedAt) {
-        PositionUpdatedEvent event = new PositionUpdatedEvent(isin, delta, newQuantity, updatedAt);
-        try {
-            // For now, just log the event as JSON
-            log.info("EVENT: {}", objectMapper.writeValueAsString(event));
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize position updated event", e);
-        }
-        // In the future, publish to message bus or event stream
+        eventOutboxService.record(OutboxEvent.positionUpdated(tradeId, portfolioId, isin, delta, newQuantity, updatedAt));
     }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PriceDto;
+import com.vibe.fundsmith.event.PriceChangedEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached, time-stamped price snapshots in front of the configured {@link PriceSource}.
+ * Latest prices are cached per ISIN for {@code ibor.prices.cache.ttl-ms}; as-of
+ * lookups are cached per business date, keeping the most recently used
+ * {@code ibor.prices.cache.max-dates} dates. Every lookup is bulk: all cache
+ * misses of a request are fetched from the source in a single call.
+ * A scheduled refresh re-fetches the cached latest prices in bulk and publishes
+ * a {@link PriceChangedEvent} for each instrument whose price moved.
+ */
+@Service
+public class PriceService {
+    private static final Logger log = LoggerFactory.getLogger(PriceService.class);
+
+    private final PriceSource priceSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlMs;
+    private final int maxDates;
+
+    // ISIN -> latest price; a null price remembers that the source had none
+    private final Map<String, CachedPrice> latest = new ConcurrentHashMap<>();
+    // Business date -> snapshot, in access order for LRU eviction
+    private final LinkedHashMap<LocalDate, DateSnapshot> byDate = new LinkedHashMap<>(16, 0.75f, true);
+
+    public PriceService(PriceSource priceSource,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${ibor.prices.cache.ttl-ms:60000}") long ttlMs,
+                        @Value("${ibor.prices.cache.max-dates:30}") int maxDates) {
+        this.priceSource = priceSource;
+        this.eventPublisher = eventPublisher;
+        this.ttlMs = ttlMs;
+        this.maxDates = maxDates;
+    }
+
+    /**
+     * Latest price of one instrument
+     *
+     * @param isin Instrument ISIN
+     * @return Price, or null if the source has none
+     */
+    public PriceDto getPrice(String isin) {
+        return getPrices(List.of(isin)).get(isin);
+    }
+
+    /**
+     * Latest prices of many instruments, fetching all stale or missing ones in one source call
+     *
+     * @param isins Instruments to price
+     * @return Prices keyed by ISIN; instruments without a price are absent
+     */
+    public Map<String, PriceDto> getPrices(Collection<String> isins) {
+        long now = System.currentTimeMillis();
+        Map<String, PriceDto> prices = new HashMap<>();
+        Set<String> misses = new HashSet<>();
+        for (String isin : isins) {
+            CachedPrice cached = latest.get(isin);
+            if (cached != null && now - cached.fetchedAt() < ttlMs) {
+                if (cached.price() != null) {
+                    prices.put(isin, cached.price());
+                }
+            } else {
+                misses.add(isin);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<String, PriceDto> fetched = priceSource.fetchPrices(misses, null);
+            for (String isin : misses) {
+                PriceDto price = fetched.get(isin);
+                latest.put(isin, new CachedPrice(price, now));
+                if (price != null) {
+                    prices.put(isin, price);
+                }
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Prices of many instruments as of a business date
+     *
+     * @param isins Instruments to price
+     * @param asOf  Business date, or null for latest prices
+     * @return Prices keyed by ISIN; instruments without a price are absent
+     */
+    public Map<String, PriceDto> getPrices(Collection<String> isins, LocalDate asOf) {
+        if (asOf == null) {
+            return getPrices(isins);
+        }
+        Map<String, PriceDto> prices = new HashMap<>();
+        Set<String> misses = new HashSet<>();
+        synchronized (byDate) {
+            DateSnapshot snapshot = byDate.get(asOf);
+            for (String isin : isins) {
+                if (snapshot != null && snapshot.requested().contains(isin)) {
+                    PriceDto price = snapshot.prices().get(isin);
+                    if (price != null) {
+                        prices.put(isin, price);
+                    }
+                } else {
+                    misses.add(isin);
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+            return prices;
+        }
+
+        // Fetch outside the lock; historical prices do not change so a concurrent fetch is harmless
+        Map<String, PriceDto> fetched = priceSource.fetchPrices(misses, asOf);
+        prices.putAll(fetched);
+        synchronized (byDate) {
+            DateSnapshot snapshot = byDate.computeIfAbsent(asOf, d -> new DateSnapshot(new HashMap<>(), new HashSet<>()));
+            snapshot.prices().putAll(fetched);
+            snapshot.requested().addAll(misses);
+            while (byDate.size() > maxDates) {
+                LocalDate eldest = byDate.keySet().iterator().next();
+                byDate.remove(eldest);
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Scheduled bulk refresh of every cached latest price
+     */
+    @Scheduled(fixedDelayString = "${ibor.prices.refresh-interval-ms:60000}",
+               initialDelayString = "${ibor.prices.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Price refresh failed", e);
+        }
+    }
+
+    /**
+     * Re-fetch every cached latest price in one source call and publish changes
+     *
+     * @return Number of instruments whose price changed
+     */
+    public int refresh() {
+        List<String> isins = new ArrayList<>(latest.keySet());
+        if (isins.isEmpty()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, PriceDto> fetched = priceSource.fetchPrices(isins, null);
+        int changed = 0;
+        for (String isin : isins) {
+            PriceDto price = fetched.get(isin);
+            CachedPrice previous = latest.put(isin, new CachedPrice(price, now));
+            if (price == null || price.getPrice() == null) {
+                continue;
+            }
+            PriceDto old = previous != null ? previous.price() : null;
+            if (old == null || old.getPrice() == null || old.getPrice().compareTo(price.getPrice()) != 0) {
+                eventPublisher.publishEvent(new PriceChangedEvent(
+                        isin, old != null ? old.getPrice() : null, price.getPrice(), price.getCurrency()));
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            log.info("Price refresh: {} of {} instruments changed", changed, isins.size());
+        }
+        return changed;
+    }
+
+    /**
+     * Number of instruments with a cached latest price
+     */
+    public int getCachedCount() {
+        return latest.size();
+    }
+
+    /**
+     * Drop all cached prices; the next lookups go to the source
+     */
+    public void clear() {
+        latest.clear();
+        synchronized (byDate) {
+            byDate.clear();
+        }
+    }
+
+    private record CachedPrice(PriceDto price, long fetchedAt) {}
+
+    private record DateSnapshot(Map<String, PriceDto> prices, Set<String> requested) {}
+}
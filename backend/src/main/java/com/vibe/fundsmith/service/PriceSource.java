@@ -0,0 +1,24 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PriceDto;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Origin of instrument prices used by {@link PriceService}.
+ * Implementations must answer a whole request in bulk (never one call per ISIN).
+ * The active source is chosen with {@code ibor.prices.source} (demo, csv, market-data).
+ */
+public interface PriceSource {
+
+    /**
+     * Fetch prices for many instruments at once
+     *
+     * @param isins Instruments to price
+     * @param asOf  Business date, or null for the latest available price
+     * @return Prices keyed by ISIN; instruments without a price are absent
+     */
+    Map<String, PriceDto> fetchPrices(Collection<String> isins, LocalDate asOf);
+}
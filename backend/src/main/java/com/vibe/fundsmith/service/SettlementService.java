@@ -0,0 +1,342 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.SettlementRunDto;
+import com.vibe.fundsmith.dto.SettlementRunDto.ChunkFailure;
+import com.vibe.fundsmith.model.Journal;
+import com.vibe.fundsmith.model.SettlementMarker;
+import com.vibe.fundsmith.repository.JournalRepository;
+import com.vibe.fundsmith.repository.JournalRepository.TradeDateReceivable;
+import com.vibe.fundsmith.repository.SettlementMarkerRepository;
+import com.vibe.fundsmith.repository.TradeBatchRepository;
+import com.vibe.fundsmith.repository.TradeRepository;
+import com.vibe.fundsmith.repository.TradeRepository.OpenTrade;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Settles all trades due on a date in bounded chunks.
+ * Open trades are streamed with a keyset query over the partial index of
+ * unsettled trades, one chunk per page, so a run never touches settled
+ * history and never holds the whole day in memory. Each chunk runs in its own transaction on a bounded pool of virtual threads:
+ * it checks settlement markers and loads trade date journals in bulk, then
+ * batch-inserts the settlement journals, their lines and the markers, and
+ * flags the trades settled. A failed
+ * chunk rolls back on its own and is reported on the run; other chunks continue.
+ * Runs are idempotent, so re-running a date settles only what is still open.
+ */
+@Service
+public class SettlementService {
+    private static final Logger log = LoggerFactory.getLogger(SettlementService.class);
+
+    private static final int MAX_REPORTED_TRADE_IDS = 10;
+
+    public static final String METRIC_TRADES = "ibor.settlement.trades";
+    public static final String METRIC_CHUNK = "ibor.settlement.chunk";
+    public static final String METRIC_RUN = "ibor.settlement.run";
+
+    private final TradeRepository tradeRepository;
+    private final JournalRepository journalRepository;
+    private final SettlementMarkerRepository settlementMarkerRepository;
+    private final TradeBatchRepository tradeBatchRepository;
+    private final JournalService journalService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int workers;
+    private final int jdbcBatchSize;
+    private final int retainedRuns;
+
+    // Most recent runs in start order, for progress queries
+    private final Map<UUID, SettlementRun> runs = new LinkedHashMap<>();
+
+    public SettlementService(TradeRepository tradeRepository,
+                             JournalRepository journalRepository,
+                             SettlementMarkerRepository settlementMarkerRepository,
+                             TradeBatchRepository tradeBatchRepository,
+                             JournalService journalService,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${ibor.settlement.chunk-size:500}") int chunkSize,
+                             @Value("${ibor.settlement.workers:4}") int workers,
+                             @Value("${ibor.settlement.jdbc-batch-size:500}") int jdbcBatchSize,
+                             @Value("${ibor.settlement.retained-runs:20}") int retainedRuns) {
+        this.tradeRepository = tradeRepository;
+        this.journalRepository = journalRepository;
+        this.settlementMarkerRepository = settlementMarkerRepository;
+        this.tradeBatchRepository = tradeBatchRepository;
+        this.journalService = journalService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.retainedRuns = retainedRuns;
+    }
+
+    /**
+     * Settle all trades due on a date and wait for the run to finish
+     *
+     * @param settleDate The settlement date to process (defaults to today if null)
+     * @return Final state of the run
+     */
+    public SettlementRunDto processSettlements(LocalDate settleDate) {
+        SettlementRun run = register(settleDate != null ? settleDate : LocalDate.now());
+        execute(run);
+        return run.toDto();
+    }
+
+    /**
+     * Start settling all trades due on a date in the background
+     *
+     * @param settleDate The settlement date to process (defaults to today if null)
+     * @return Initial state of the run; poll {@link #getRun(UUID)} for progress
+     */
+    public SettlementRunDto startSettlements(LocalDate settleDate) {
+        SettlementRun run = register(settleDate != null ? settleDate : LocalDate.now());
+        Thread.ofVirtual().name("settlement-run-" + run.settleDate).start(() -> execute(run));
+        return run.toDto();
+    }
+
+    /**
+     * Progress of a run
+     *
+     * @param runId Run identifier
+     * @return Run state if still retained
+     */
+    public Optional<SettlementRunDto> getRun(UUID runId) {
+        synchronized (runs) {
+            return Optional.ofNullable(runs.get(runId)).map(SettlementRun::toDto);
+        }
+    }
+
+    /**
+     * Most recent runs, newest first
+     */
+    public List<SettlementRunDto> getRecentRuns() {
+        List<SettlementRunDto> recent = new ArrayList<>();
+        synchronized (runs) {
+            for (SettlementRun run : runs.values()) {
+                recent.add(run.toDto());
+            }
+        }
+        Collections.reverse(recent);
+        return recent;
+    }
+
+    private SettlementRun register(LocalDate settleDate) {
+        SettlementRun run = new SettlementRun(UUID.randomUUID(), settleDate);
+        synchronized (runs) {
+            runs.put(run.runId, run);
+            while (runs.size() > retainedRuns) {
+                runs.remove(runs.keySet().iterator().next());
+            }
+        }
+        return run;
+    }
+
+    private void execute(SettlementRun run) {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        try {
+            log.info("Settlement run {} for {} started: chunk size {}, {} workers",
+                    run.runId, run.settleDate, chunkSize, workers);
+
+            // Bounds chunks read ahead of the workers
+            Semaphore inFlight = new Semaphore(workers * 2);
+            // close() waits for every submitted chunk
+            try (ExecutorService pool = Executors.newFixedThreadPool(workers,
+                    Thread.ofVirtual().name("settlement-", 0).factory())) {
+                long afterId = 0L;
+                int chunkIndex = 0;
+                List<OpenTrade> page;
+                do {
+                    page = tradeRepository.findOpenTradesDueAfter(run.settleDate, afterId, PageRequest.of(0, chunkSize));
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    afterId = page.get(page.size() - 1).getId();
+                    List<UUID> chunk = page.stream().map(OpenTrade::getTradeId).toList();
+                    run.totalTrades.addAndGet(chunk.size());
+                    run.totalChunks.incrementAndGet();
+
+                    inFlight.acquire();
+                    int index = chunkIndex++;
+                    pool.submit(() -> {
+                        try {
+                            settleChunk(run, index, chunk);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } while (page.size() == chunkSize);
+            }
+            run.finish(run.failures.isEmpty() ? "COMPLETED" : "COMPLETED_WITH_FAILURES");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.addFailure(new ChunkFailure(-1, 0, List.of(), "Interrupted"));
+            run.finish("FAILED");
+        } catch (Exception e) {
+            log.error("Settlement run {} for {} failed: {}", run.runId, run.settleDate, e.getMessage());
+            run.addFailure(new ChunkFailure(-1, 0, List.of(), e.getMessage()));
+            run.finish("FAILED");
+        }
+        timer.stop(meterRegistry.timer(METRIC_RUN, "status", run.status));
+        log.info("Settlement run {} for {} {}: processed={}, alreadySettled={}, failed={}",
+                run.runId, run.settleDate, run.status, run.processed.get(), run.alreadySettled.get(), run.failed.get());
+    }
+
+    /**
+     * Settle one chunk in its own transaction
+     */
+    void settleChunk(SettlementRun run, int chunkIndex, List<UUID> tradeIds) {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> settle(tradeIds, run.settleDate));
+            run.processed.addAndGet(result.settled());
+            run.alreadySettled.addAndGet(result.alreadySettled());
+            countTrades("settled", result.settled());
+            countTrades("already_settled", result.alreadySettled());
+            if (!result.missingTradeDateJournal().isEmpty()) {
+                run.failed.addAndGet(result.missingTradeDateJournal().size());
+                run.addFailure(new ChunkFailure(chunkIndex, result.missingTradeDateJournal().size(),
+                        sample(result.missingTradeDateJournal()), "Trade date journal missing"));
+                countTrades("failed", result.missingTradeDateJournal().size());
+            }
+        } catch (Exception e) {
+            outcome = "error";
+            log.error("Settlement chunk {} of run {} failed ({} trades): {}",
+                    chunkIndex, run.runId, tradeIds.size(), e.getMessage());
+            run.failed.addAndGet(tradeIds.size());
+            run.addFailure(new ChunkFailure(chunkIndex, tradeIds.size(), sample(tradeIds), e.getMessage()));
+            countTrades("failed", tradeIds.size());
+        } finally {
+            run.completedChunks.incrementAndGet();
+            timer.stop(meterRegistry.timer(METRIC_CHUNK, "outcome", outcome));
+        }
+    }
+
+    private void countTrades(String result, int count) {
+        if (count > 0) {
+            meterRegistry.counter(METRIC_TRADES, "result", result).increment(count);
+        }
+    }
+
+    private ChunkResult settle(List<UUID> tradeIds, LocalDate settleDate) {
+        // Trades settled since the run listed them (e.g. by a concurrent run) are skipped
+        Set<UUID> settled = new HashSet<>(settlementMarkerRepository.findSettledTradeIds(tradeIds));
+        List<UUID> open = tradeIds.stream().filter(id -> !settled.contains(id)).toList();
+        if (!settled.isEmpty()) {
+            // Marker without flag (e.g. settled before the flag existed); take them out of the open set
+            tradeRepository.markSettled(settled);
+        }
+        if (open.isEmpty()) {
+            return new ChunkResult(0, settled.size(), List.of());
+        }
+
+        Map<UUID, TradeDateReceivable> receivables = journalRepository.findTradeDateReceivables(open).stream()
+                .collect(Collectors.toMap(TradeDateReceivable::getTradeId, Function.identity()));
+
+        List<Journal> journals = new ArrayList<>(open.size());
+        List<SettlementMarker> markers = new ArrayList<>(open.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID tradeId : open) {
+            TradeDateReceivable receivable = receivables.get(tradeId);
+            if (receivable == null) {
+                missing.add(tradeId);
+                continue;
+            }
+            journals.add(journalService.buildSettlementDateJournal(tradeId, receivable, settleDate));
+            markers.add(new SettlementMarker(tradeId));
+        }
+
+        journalService.saveJournals(journals, jdbcBatchSize);
+        tradeBatchRepository.insertSettlementMarkers(markers, jdbcBatchSize);
+        if (!markers.isEmpty()) {
+            tradeRepository.markSettled(markers.stream().map(SettlementMarker::getTradeId).toList());
+        }
+        return new ChunkResult(journals.size(), settled.size(), missing);
+    }
+
+    private static List<String> sample(List<UUID> tradeIds) {
+        return tradeIds.stream().limit(MAX_REPORTED_TRADE_IDS).map(UUID::toString).toList();
+    }
+
+    private record ChunkResult(int settled, int alreadySettled, List<UUID> missingTradeDateJournal) {}
+
+    /**
+     * Mutable progress of one run; counters are updated by chunk workers
+     */
+    static final class SettlementRun {
+        private final UUID runId;
+        private final LocalDate settleDate;
+        private final ZonedDateTime startedAt = ZonedDateTime.now();
+        private final AtomicInteger totalTrades = new AtomicInteger();
+        private final AtomicInteger totalChunks = new AtomicInteger();
+        private final AtomicInteger completedChunks = new AtomicInteger();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger alreadySettled = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<ChunkFailure> failures = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = "RUNNING";
+        private volatile ZonedDateTime finishedAt;
+
+        SettlementRun(UUID runId, LocalDate settleDate) {
+            this.runId = runId;
+            this.settleDate = settleDate;
+        }
+
+        void addFailure(ChunkFailure failure) {
+            failures.add(failure);
+        }
+
+        void finish(String finalStatus) {
+            finishedAt = ZonedDateTime.now();
+            status = finalStatus;
+        }
+
+        SettlementRunDto toDto() {
+            SettlementRunDto dto = new SettlementRunDto();
+            dto.setRunId(runId.toString());
+            dto.setDate(settleDate.toString());
+            dto.setStatus(status);
+            dto.setTotalTrades(totalTrades.get());
+            dto.setTotalChunks(totalChunks.get());
+            dto.setCompletedChunks(completedChunks.get());
+            dto.setProcessed(processed.get());
+            dto.setAlreadySettled(alreadySettled.get());
+            dto.setFailed(failed.get());
+            dto.setStartedAt(startedAt.toString());
+            dto.setFinishedAt(finishedAt != null ? finishedAt.toString() : null);
+            synchronized (failures) {
+                dto.setFailures(new ArrayList<>(failures));
+            }
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.config.DatabasePlatform;
+import com.vibe.fundsmith.dto.TradeBatchResponse;
+import com.vibe.fundsmith.dto.TradeBatchResponse.RowResult;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.model.CashEntry;
+import com.vibe.fundsmith.model.Journal;
+import com.vibe.fundsmith.model.OutboxEvent;
+import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.model.PositionId;
+import com.vibe.fundsmith.model.ProcessedTrade;
+import com.vibe.fundsmith.model.Trade;
+import com.vibe.fundsmith.model.TradeSide;
+import com.vibe.fundsmith.repository.PositionRepository;
+import com.vibe.fundsmith.repository.PositionUpsertRepository;
+import com.vibe.fundsmith.repository.TradeBatchRepository;
+import com.vibe.fundsmith.service.CashService.TradeCashImpact;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Books many trades in one transaction using set-based idempotency checks,
+ * JDBC batch inserts and a single net position update per (portfolio, ISIN).
+ * Per-row semantics match {@link TradeService#bookTrade(TradeRequest)}.
+ */
+@Service
+public class TradeBatchService {
+    private static final Logger log = LoggerFactory.getLogger(TradeBatchService.class);
+    private static final Comparator<PositionId> POSITION_ORDER =
+        Comparator.comparing(PositionId::getPortfolioId).thenComparing(PositionId::getIsin);
+
+    private final TradeService tradeService;
+    private final CashService cashService;
+    private final JournalService journalService;
+    private final TradeBatchRepository tradeBatchRepository;
+    private final PositionRepository positionRepository;
+    private final PositionUpsertRepository positionUpsertRepository;
+    private final DatabasePlatform databasePlatform;
+    private final PositionCache positionCache;
+    private final BookingLocks bookingLocks;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final int jdbcBatchSize;
+
+    public TradeBatchService(TradeService tradeService,
+                             CashService cashService,
+                             JournalService journalService,
+                             TradeBatchRepository tradeBatchRepository,
+                             PositionRepository positionRepository,
+                             PositionUpsertRepository positionUpsertRepository,
+                             DatabasePlatform databasePlatform,
+                             PositionCache positionCache,
+                             BookingLocks bookingLocks,
+                             MeterRegistry meterRegistry,
+                             @Value("${ibor.trades.batch.max-size:100000}") int maxBatchSize,
+                             @Value("${ibor.trades.batch.jdbc-batch-size:1000}") int jdbcBatchSize) {
+        this.tradeService = tradeService;
+        this.cashService = cashService;
+        this.journalService = journalService;
+        this.tradeBatchRepository = tradeBatchRepository;
+        this.positionRepository = positionRepository;
+        this.positionUpsertRepository = positionUpsertRepository;
+        this.databasePlatform = databasePlatform;
+        this.positionCache = positionCache;
+        this.bookingLocks = bookingLocks;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * Book a batch of trades. Invalid rows are rejected individually; rows whose
+     * trade ID is already booked (or repeated earlier in the batch) are reported
+     * as idempotent hits. All accepted rows are persisted atomically.
+     *
+     * @param requests Trade requests in blotter order
+     * @return Per-row results in request order plus summary counts
+     */
+    @Transactional
+    public TradeBatchResponse bookTrades(List<TradeRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidationException("trades", "At least one trade is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new ValidationException("trades", "Batch size exceeds maximum of " + maxBatchSize);
+        }
+
+        RowResult[] results = new RowResult[requests.size()];
+
+        // Validate rows and de-duplicate trade IDs repeated within the batch
+        Map<UUID, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TradeRequest request = requests.get(i);
+            UUID tradeId = request != null ? request.getTradeId() : null;
+            try {
+                if (request == null) {
+                    throw new ValidationException("trade", "Trade request is required");
+                }
+                tradeService.validateTradeRequest(request);
+            } catch (ValidationException e) {
+                results[i] = RowResult.rejected(i, tradeId, e.getField(), e.getMessage());
+                continue;
+            }
+
+            if (tradeId == null) {
+                tradeId = UUID.randomUUID();
+            }
+            if (candidates.containsKey(tradeId)) {
+                results[i] = RowResult.idempotentHit(i, tradeId);
+                countReplay(request);
+            } else {
+                candidates.put(tradeId, i);
+            }
+        }
+
+        // One set-based lookup for trade IDs booked by earlier requests
+        Set<UUID> existing = candidates.isEmpty()
+            ? new HashSet<>()
+            : tradeBatchRepository.findExistingTradeIds(candidates.keySet());
+
+        List<Trade> trades = new ArrayList<>();
+        List<ProcessedTrade> processedTrades = new ArrayList<>();
+        List<TradeCashImpact> cashImpacts = new ArrayList<>();
+        List<Journal> journals = new ArrayList<>();
+        Map<PositionId, BigDecimal> netDeltaByPosition = new LinkedHashMap<>();
+
+        for (Map.Entry<UUID, Integer> candidate : candidates.entrySet()) {
+            UUID tradeId = candidate.getKey();
+            int index = candidate.getValue();
+            if (existing.contains(tradeId)) {
+                results[index] = RowResult.idempotentHit(index, tradeId);
+                countReplay(requests.get(index));
+                continue;
+            }
+
+            TradeRequest request = requests.get(index);
+            TradeSide side = request.getSide() != null ? request.getSide() : TradeSide.BUY;
+            String tradeCurrency = request.getTradeCurrency() != null ? request.getTradeCurrency() : "USD";
+            String portfolioId = request.getPortfolioId() != null ? request.getPortfolioId() : "DEFAULT";
+            LocalDate settleDate = request.getSettleDate() != null
+                ? request.getSettleDate()
+                : tradeService.calculateSettlementDate(request.getTradeDate());
+            BigDecimal quantity = new BigDecimal(request.getQuantity());
+            BigDecimal delta = (side == TradeSide.BUY) ? quantity : quantity.negate();
+
+            Trade trade = new Trade(
+                tradeId,
+                request.getIsin(),
+                request.getQuantity(),
+                request.getPrice(),
+                side,
+                tradeCurrency,
+                request.getTradeDate(),
+                settleDate,
+                portfolioId
+            );
+            trade.setSynthetic(request.getTradeId() != null);
+            trades.add(trade);
+
+            processedTrades.add(new ProcessedTrade(tradeId, portfolioId, request.getIsin(), delta, request.getTradeDate()));
+            netDeltaByPosition.merge(new PositionId(portfolioId, request.getIsin()), delta, BigDecimal::add);
+
+            cashImpacts.add(new TradeCashImpact(tradeId, side, quantity, request.getPrice(), portfolioId, tradeCurrency));
+
+            journals.add(journalService.buildTradeDateJournal(
+                tradeId, portfolioId, request.getTradeDate(), quantity, request.getPrice(), side));
+
+            results[index] = RowResult.accepted(index, tradeId);
+        }
+
+        if (!trades.isEmpty()) {
+            List<OutboxEvent> events = applyNetPositionDeltas(netDeltaByPosition);
+            tradeBatchRepository.insertTrades(trades, jdbcBatchSize);
+            tradeBatchRepository.insertProcessedTrades(processedTrades, jdbcBatchSize);
+            List<CashEntry> cashEntries = cashService.applyTradeImpacts(cashImpacts);
+            tradeBatchRepository.insertCashEntries(cashEntries, jdbcBatchSize);
+            journalService.saveJournals(journals, jdbcBatchSize);
+            for (Trade trade : trades) {
+                events.add(OutboxEvent.tradeBooked(trade));
+            }
+            for (CashEntry entry : cashEntries) {
+                events.add(CashService.toOutboxEvent(entry));
+            }
+            tradeBatchRepository.insertOutboxEvents(events, jdbcBatchSize);
+        }
+
+        TradeBatchResponse response = new TradeBatchResponse(Arrays.asList(results));
+        log.info("Booked trade batch: {} rows, {} accepted, {} idempotent hits, {} rejected, {} positions touched",
+            requests.size(), response.getAccepted(), response.getIdempotentHits(),
+            response.getRejected(), netDeltaByPosition.size());
+        return response;
+    }
+
+    private void countReplay(TradeRequest request) {
+        String portfolioId = request.getPortfolioId() != null ? request.getPortfolioId() : "DEFAULT";
+        meterRegistry.counter(TradeService.METRIC_REPLAYS, "portfolio", portfolioId, "path", "batch").increment();
+    }
+
+    /**
+     * Apply one net quantity change per position, enforcing the non-negative position rule.
+     * All touched positions are locked up front (stripes in stripe order, then rows in
+     * (portfolio, ISIN) order) and stay locked until commit, as in the single-trade path.
+     * On PostgreSQL the single-trade upsert takes no stripe lock, so missing positions are
+     * first created empty with ON CONFLICT DO NOTHING and every position is then row locked.
+     *
+     * @return One PositionUpdated outbox event per position
+     */
+    private List<OutboxEvent> applyNetPositionDeltas(Map<PositionId, BigDecimal> netDeltaByPosition) {
+        bookingLocks.lockPositions(netDeltaByPosition.keySet());
+        Map<PositionId, BigDecimal> ordered = new TreeMap<>(POSITION_ORDER);
+        ordered.putAll(netDeltaByPosition);
+
+        List<OutboxEvent> events = new ArrayList<>();
+        for (Map.Entry<PositionId, BigDecimal> entry : ordered.entrySet()) {
+            PositionId positionId = entry.getKey();
+            BigDecimal delta = entry.getValue();
+
+            if (databasePlatform.isPostgres()) {
+                positionUpsertRepository.createIfAbsent(positionId.getPortfolioId(), positionId.getIsin());
+            }
+            Optional<Position> current = positionRepository
+                .findByIdForUpdate(positionId.getPortfolioId(), positionId.getIsin());
+            BigDecimal currentQuantity = current.map(Position::getQuantity).orElse(BigDecimal.ZERO);
+            long newVersion = current.map(position -> position.getVersion() + 1).orElse(1L);
+            BigDecimal newQuantity = currentQuantity.add(delta);
+            if (newQuantity.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalStateException("Position would become negative: " + positionId +
+                    ", current: " + currentQuantity + ", delta: " + delta);
+            }
+
+            if (positionRepository.updateQuantity(positionId.getPortfolioId(), positionId.getIsin(), delta) == 0) {
+                positionRepository.insertPosition(positionId.getPortfolioId(), positionId.getIsin(), delta);
+            }
+            ZonedDateTime updatedAt = ZonedDateTime.now();
+            positionCache.putAfterCommit(positionId.getPortfolioId(), positionId.getIsin(), newQuantity, updatedAt,
+                newVersion);
+            events.add(OutboxEvent.positionUpdated(null, positionId.getPortfolioId(), positionId.getIsin(),
+                delta, newQuantity, updatedAt));
+        }
+        return events;
+    }
+}
@@ -1,13 +1,17 @@
 package com.vibe.fundsmith.service;
 
+import com.vibe.fundsmith.model.OutboxEvent;
 import com.vibe.fundsmith.model.Trade;
 import com.vibe.fundsmith.model.TradeSide;
 import com.vibe.fundsmith.model.TradeStatus;
 import com.vibe.fundsmith.repository.TradeRepository;
+import com.vibe.fundsmith.dto.TradePageDto;
 import com.vibe.fundsmith.dto.TradeRequest;
 import com.vibe.fundsmith.dto.TradeResponse;
 import com.vibe.fundsmith.exception.ValidationException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,55 +22,95 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 @Service
 public class TradeService {
     private static final Logger log = LoggerFactory.getLogger(TradeService.class);
     private static final Pattern ISIN_PATTERN = Pattern.compile("^[A-Z0-9]{12}$");
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Meter names; percentile histograms are enabled for the booking timers in application-actuator.yml
+    public static final String METRIC_BOOKING = "ibor.trade.booking";
+    public static final String METRIC_BOOKING_STAGE = "ibor.trade.booking.stage";
+    public static final String METRIC_REPLAYS = "ibor.trade.replays";
+    public static final String METRIC_REJECTIONS = "ibor.trade.validation.rejections";
     
     private final TradeRepository tradeRepository;
     private final PositionService positionService;
     private final CashService cashService;
     private final JournalService journalService;
+    private final EventOutboxService eventOutboxService;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     public TradeService(TradeRepository tradeRepository,
                        PositionService positionService,
                        CashService cashService,
-                       JournalService journalService) {
+                       JournalService journalService,
+                       EventOutboxService eventOutboxService,
+                       MeterRegistry meterRegistry) {
         this.tradeRepository = tradeRepository;
         this.positionService = positionService;
         this.cashService = cashService;
         this.journalService = journalService;
+        this.eventOutboxService = eventOutboxService;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * Book a trade and update related systems (positions, cash)
+     * Every stage is timed ({@value #METRIC_BOOKING_STAGE}) and the whole booking is timed
+     * ({@value #METRIC_BOOKING}), tagged by side, portfolio and outcome.
      * 
      * @param request Trade request object
      * @return TradeResponse with trade ID and status
      */
     @Transactional
     public TradeResponse bookTrade(TradeRequest request) {
-        validateTradeRequest(request);
+        // Default values for optional fields
+        TradeSide side = request.getSide() != null ? request.getSide() : TradeSide.BUY;
+        String portfolioId = request.getPortfolioId() != null ? request.getPortfolioId() : "DEFAULT";
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            TradeResponse response = book(request, side, portfolioId);
+            outcome = response.isIdempotentHit() ? "replayed" : "booked";
+            return response;
+        } catch (ValidationException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(METRIC_BOOKING,
+                "side", side.name(), "portfolio", portfolioId, "outcome", outcome));
+        }
+    }
+
+    private TradeResponse book(TradeRequest request, TradeSide side, String portfolioId) {
+        stage("validation", side, portfolioId, () -> {
+            validateTradeRequest(request);
+            return null;
+        });
         
         // Check for idempotency first
         UUID tradeId = request.getTradeId() != null ? request.getTradeId() : UUID.randomUUID();
-        Optional<Trade> existingTrade = findTradeByTradeId(tradeId);
+        Optional<Trade> existingTrade = stage("idempotency_check", side, portfolioId,
+            () -> findTradeByTradeId(tradeId));
         
         if (existingTrade.isPresent()) {
             log.info("Trade {} already exists - idempotent operation", tradeId);
+            meterRegistry.counter(METRIC_REPLAYS, "portfolio", portfolioId, "path", "single").increment();
             return new TradeResponse(tradeId, existingTrade.get().getStatus().toString(), true);
         }
         
-        // Default values for optional fields
-        TradeSide side = request.getSide() != null ? request.getSide() : TradeSide.BUY;
         String tradeCurrency = request.getTradeCurrency() != null ? request.getTradeCurrency() : "USD";
-        String portfolioId = request.getPortfolioId() != null ? request.getPortfolioId() : "DEFAULT";
         
         LocalDate settleDate = request.getSettleDate() != null 
             ? request.getSettleDate() 
@@ -91,16 +135,22 @@ public class TradeService {
         boolean isSynthetic = request.getTradeId() != null;
         trade.setSynthetic(isSynthetic);
         
-        Trade savedTrade = tradeRepository.save(trade);
+        stage("trade_insert", side, portfolioId, () -> {
+            Trade savedTrade = tradeRepository.save(trade);
+            eventOutboxService.record(OutboxEvent.tradeBooked(savedTrade));
+            return savedTrade;
+        });
         
         // Update position
         try {
-            positionService.updatePosition(
+            stage("position_update", side, portfolioId, () -> positionService.updatePosition(
                 tradeId,
+                portfolioId,
                 request.getIsin(),
                 new BigDecimal(request.getQuantity()),
-                side
-            );
+                side,
+                request.getTradeDate()
+            ));
         } catch (Exception e) {
             log.error("Failed to update position for trade {}", tradeId, e);
             throw new RuntimeException("Failed to update position: " + e.getMessage(), e);
@@ -108,13 +158,14 @@ public class TradeService {
         
         // Update cash
         try {
-            cashService.recordTradeImpact(
+            stage("cash_update", side, portfolioId, () -> cashService.recordTradeImpact(
                 tradeId,
                 side,
                 new BigDecimal(request.getQuantity()),
                 request.getPrice(),
-                portfolioId
-            );
+                portfolioId,
+                tradeCurrency
+            ));
         } catch (Exception e) {
             log.error("Failed to update cash for trade {}", tradeId, e);
             throw new RuntimeException("Failed to update cash: " + e.getMessage(), e);
@@ -122,13 +173,15 @@ public class TradeService {
         
         // Create accounting journal entries
         try {
-            journalService.createTradeDateJournal(
+            stage("journal", side, portfolioId, () -> journalService.createTradeDateJournal(
                 tradeId,
+                portfolioId,
                 request.getIsin(),
                 new BigDecimal(request.getQuantity()),
                 request.getPrice(),
-                side
-            );
+                side,
+                request.getTradeDate()
+            ));
         } catch (Exception e) {
             log.error("Failed to create journal for trade {}", tradeId, e);
             throw new RuntimeException("Failed to create journal: " + e.getMessage(), e);
@@ -140,6 +193,25 @@ public class TradeService {
         return new TradeResponse(tradeId, TradeStatus.NEW.toString(), false);
     }
 
+    /**
+     * Run one booking stage under its timer
+     */
+    private <T> T stage(String stage, TradeSide side, String portfolioId, Supplier<T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } catch (ValidationException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(METRIC_BOOKING_STAGE,
+                "stage", stage, "side", side.name(), "portfolio", portfolioId, "outcome", outcome));
+        }
+    }
+
     /**
      * Find trades by various criteria
      */
@@ -159,15 +231,41 @@ public class TradeService {
     }
     
     /**
-     * Delete all trades (for testing/demo)
+     * Page through trades newest first with a continuation token.
+     * Pages are read by keyset on (created_at, id), so every page costs the same
+     * however deep into the history it is.
+     *
+     * @param fromDate Earliest trade date, inclusive (optional)
+     * @param toDate Latest trade date, inclusive (optional)
+     * @param isin Only trades in this ISIN (optional)
+     * @param cursor Token from the previous page, null for the first page
+     * @param limit Page size (default 100, maximum 1000)
+     * @return Trades and the token for the next page, null when there are no more
      */
-    @Transactional
-    public long deleteAllTrades() {
-        long count = tradeRepository.count();
-        tradeRepository.deleteAll();
-        return count;
+    @Transactional(readOnly = true)
+    public TradePageDto findTradePage(LocalDate fromDate, LocalDate toDate, String isin, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException("limit", "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ValidationException("fromDate", "From date cannot be after to date");
+        }
+
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+
+        // One extra row tells whether another page exists without a count query
+        List<Trade> trades = tradeRepository.findPage(isin, fromDate, toDate,
+            after != null ? after.timestamp(LocalDateTime::parse) : null, after != null ? after.id() : null, pageSize + 1);
+        boolean hasMore = trades.size() > pageSize;
+        if (hasMore) {
+            trades = trades.subList(0, pageSize);
+        }
+        Trade last = hasMore ? trades.get(trades.size() - 1) : null;
+        String nextCursor = last != null ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new TradePageDto(trades, nextCursor, hasMore);
     }
-    
+
     /**
      * Find a trade by its trade ID
      */
@@ -176,18 +274,27 @@ public class TradeService {
     }
 
     /**
-     * Validate trade request
+     * Validate trade request, counting rejections by field
      */
-    private void validateTradeRequest(TradeRequest request) {
-        if (!ISIN_PATTERN.matcher(request.getIsin()).matches()) {
+    void validateTradeRequest(TradeRequest request) {
+        try {
+            checkTradeRequest(request);
+        } catch (ValidationException e) {
+            meterRegistry.counter(METRIC_REJECTIONS, "field", e.getField()).increment();
+            throw e;
+        }
+    }
+
+    private void checkTradeRequest(TradeRequest request) {
+        if (request.getIsin() == null || !ISIN_PATTERN.matcher(request.getIsin()).matches()) {
             throw new ValidationException("isin", "Invalid ISIN format");
         }
         
-        if (request.getQuantity() <= 0) {
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
             throw new ValidationException("quantity", "Quantity must be positive");
         }
         
-        if (request.getPrice().signum() <= 0) {
+        if (request.getPrice() == null || request.getPrice().signum() <= 0) {
             throw new ValidationException("price", "Price must be positive");
         }
         
@@ -212,7 +319,7 @@ public class TradeService {
     /**
      * Calculate settlement date
      */
-    private LocalDate calculateSettlementDate(LocalDate tradeDate) {
+    LocalDate calculateSettlementDate(LocalDate tradeDate) {
         LocalDate settleDate = tradeDate;
         int daysToAdd = 2;
         
@@ -233,4 +340,4 @@ public class TradeService {
         DayOfWeek day = date.getDayOfWeek();
         return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
     }
-}
\ No newline at end of file
+}
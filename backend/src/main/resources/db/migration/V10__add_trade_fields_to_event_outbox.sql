@@ -0,0 +1,7 @@
+-- TradeBooked events for the live stream carry the trade's price and side
+ALTER TABLE event_outbox ADD COLUMN price NUMERIC(10,2);
+ALTER TABLE event_outbox ADD COLUMN side VARCHAR(4);
+
+COMMENT ON COLUMN event_outbox.price IS 'Trade price (TradeBooked)';
+COMMENT ON COLUMN event_outbox.side IS 'Trade side BUY/SELL (TradeBooked)';
+COMMENT ON COLUMN event_outbox.event_type IS 'TradeBooked, PositionUpdated or CashMovement';
@@ -0,0 +1,12 @@
+-- Settlement state on the trade itself, replacing the NOT IN anti-join against settlement_markers
+ALTER TABLE trades ADD COLUMN settled BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE trades t SET settled = TRUE
+WHERE EXISTS (SELECT 1 FROM settlement_markers sm WHERE sm.trade_id = t.trade_id);
+
+-- Only open trades are indexed, so the settlement run's keyset scan stays the size of
+-- the open set however much settled history accumulates. trade_id is included so the
+-- scan can be index-only.
+CREATE INDEX idx_trades_open_settle_date ON trades (settle_date, id) INCLUDE (trade_id) WHERE NOT settled;
+
+COMMENT ON COLUMN trades.settled IS 'TRUE once the settlement date journal and marker exist';
@@ -0,0 +1,7 @@
+-- Cash history is read per portfolio, newest first, by keyset on (created_at, id).
+-- One composite index serves the portfolio filter, the ordering and the cursor as a
+-- single range scan, so a page costs the same however long the portfolio's ledger is.
+CREATE INDEX idx_cash_ledger_portfolio_created_at_id ON cash_ledger (portfolio_id, created_at DESC, id DESC);
+
+-- Leading column of the new index; the single-column index is redundant
+DROP INDEX IF EXISTS idx_cash_ledger_portfolio;
@@ -0,0 +1,28 @@
+-- Cash balances were kept per portfolio only, so trades in different currencies were
+-- summed into one number. Re-key cash_state by (portfolio_id, currency).
+
+ALTER TABLE cash_state ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'USD';
+ALTER TABLE cash_state DROP CONSTRAINT cash_state_pkey;
+ALTER TABLE cash_state ADD CONSTRAINT cash_state_pkey PRIMARY KEY (portfolio_id, currency);
+ALTER TABLE cash_state ALTER COLUMN currency DROP DEFAULT;
+
+-- Rebuild per-currency balances from the ledger
+DELETE FROM cash_state;
+INSERT INTO cash_state (portfolio_id, currency, balance, updated_at)
+SELECT portfolio_id, currency, SUM(delta), now()
+FROM cash_ledger
+GROUP BY portfolio_id, currency;
+
+-- Running balances are per currency from now on; recompute them for existing rows
+UPDATE cash_ledger c
+SET balance = r.running_balance
+FROM (
+    SELECT id, SUM(delta) OVER (PARTITION BY portfolio_id, currency ORDER BY created_at, id) AS running_balance
+    FROM cash_ledger
+) r
+WHERE c.id = r.id;
+
+-- Comment on table and columns
+COMMENT ON TABLE cash_state IS 'Current cash balance per portfolio and currency (materialized SUM of cash_ledger.delta)';
+COMMENT ON COLUMN cash_state.currency IS 'Currency of the balance (ISO 4217)';
+COMMENT ON COLUMN cash_ledger.balance IS 'Running balance for the portfolio in the entry currency after this entry';
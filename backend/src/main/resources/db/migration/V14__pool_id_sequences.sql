@@ -0,0 +1,10 @@
+-- Trades, cash ledger entries and journal lines now take ids from their sequences in
+-- blocks of 50 (Hibernate pooled-lo optimizer, and TradeBatchRepository for JDBC batches).
+-- Each nextval reserves [value, value + 49], so one round trip serves 50 inserts and
+-- Hibernate can batch them; with IDENTITY every insert had to run alone to read its key.
+--
+-- The BIGSERIAL column defaults stay in place: an ad hoc insert that relies on them
+-- takes the low value of a fresh block, which no allocator will hand out again.
+ALTER SEQUENCE trades_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cash_ledger_id_seq INCREMENT BY 50;
+ALTER SEQUENCE journal_lines_id_seq INCREMENT BY 50;
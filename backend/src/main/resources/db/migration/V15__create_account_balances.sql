@@ -0,0 +1,65 @@
+-- Journals carry the portfolio and accounting date they post to: the trade date for
+-- TRADE_DATE journals and the settlement date for SETTLEMENT_DATE journals.
+ALTER TABLE journals ADD COLUMN portfolio_id VARCHAR(32);
+ALTER TABLE journals ADD COLUMN accounting_date DATE;
+
+UPDATE journals j
+SET portfolio_id = t.portfolio_id,
+    accounting_date = CASE WHEN j.journal_type = 'SETTLEMENT_DATE' THEN t.settle_date ELSE t.trade_date END
+FROM trades t
+WHERE t.trade_id = j.trade_id;
+
+-- Journals whose trade is gone
+UPDATE journals
+SET portfolio_id = 'DEFAULT', accounting_date = CAST(created_at AS DATE)
+WHERE portfolio_id IS NULL;
+
+ALTER TABLE journals ALTER COLUMN portfolio_id SET NOT NULL;
+ALTER TABLE journals ALTER COLUMN accounting_date SET NOT NULL;
+
+-- Accounts posted to per portfolio; a trial balance starts from this short list
+CREATE TABLE ledger_accounts (
+    portfolio_id VARCHAR(32) NOT NULL,
+    account VARCHAR(100) NOT NULL,
+    opened_on DATE NOT NULL,
+    CONSTRAINT ledger_accounts_pkey PRIMARY KEY (portfolio_id, account)
+);
+
+-- One row per account and posted date: that day's postings and the cumulative totals
+-- through it. The balance as of any date is the latest row on or before the date, a
+-- backward primary key range scan, so trial balances cost O(accounts) at any history length.
+CREATE TABLE account_balances (
+    portfolio_id VARCHAR(32) NOT NULL,
+    account VARCHAR(100) NOT NULL,
+    as_of_date DATE NOT NULL,
+    day_debit NUMERIC(28,4) NOT NULL,
+    day_credit NUMERIC(28,4) NOT NULL,
+    total_debit NUMERIC(28,4) NOT NULL,
+    total_credit NUMERIC(28,4) NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT account_balances_pkey PRIMARY KEY (portfolio_id, account, as_of_date)
+);
+
+-- Build both from the journals booked so far
+INSERT INTO account_balances (portfolio_id, account, as_of_date, day_debit, day_credit, total_debit, total_credit, updated_at)
+SELECT portfolio_id, account, accounting_date, day_debit, day_credit,
+       SUM(day_debit) OVER (PARTITION BY portfolio_id, account ORDER BY accounting_date),
+       SUM(day_credit) OVER (PARTITION BY portfolio_id, account ORDER BY accounting_date),
+       now()
+FROM (
+    SELECT j.portfolio_id, l.account, j.accounting_date, SUM(l.dr) AS day_debit, SUM(l.cr) AS day_credit
+    FROM journals j
+    JOIN journal_lines l ON l.journal_id = j.id
+    GROUP BY j.portfolio_id, l.account, j.accounting_date
+) daily;
+
+INSERT INTO ledger_accounts (portfolio_id, account, opened_on)
+SELECT portfolio_id, account, MIN(as_of_date)
+FROM account_balances
+GROUP BY portfolio_id, account;
+
+COMMENT ON TABLE account_balances IS 'Per-account ledger balances by portfolio and accounting date, maintained as journals are saved';
+COMMENT ON COLUMN account_balances.day_debit IS 'Debits posted on this date';
+COMMENT ON COLUMN account_balances.day_credit IS 'Credits posted on this date';
+COMMENT ON COLUMN account_balances.total_debit IS 'Cumulative debits through this date';
+COMMENT ON COLUMN account_balances.total_credit IS 'Cumulative credits through this date';
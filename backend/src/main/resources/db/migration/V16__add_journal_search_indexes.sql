@@ -0,0 +1,13 @@
+-- Journal search pages newest first by keyset on (created_at, id). Each index serves one
+-- equality filter (none, portfolio or journal type), the ordering and the cursor as a
+-- single range scan, so a page costs the same however deep into the history it is.
+CREATE INDEX idx_journals_created_at_id ON journals (created_at DESC, id DESC);
+CREATE INDEX idx_journals_portfolio_created_at_id ON journals (portfolio_id, created_at DESC, id DESC);
+CREATE INDEX idx_journals_type_created_at_id ON journals (journal_type, created_at DESC, id DESC);
+
+-- Account and amount filters probe each candidate journal's lines; with the amounts
+-- included the probe never touches the table
+CREATE INDEX idx_journal_lines_journal_id_account ON journal_lines (journal_id, account) INCLUDE (dr, cr);
+
+-- Leading column of the new index; the single-column index is redundant
+DROP INDEX IF EXISTS idx_journal_lines_journal_id;
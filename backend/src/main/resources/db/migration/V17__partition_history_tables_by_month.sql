@@ -0,0 +1,150 @@
+-- Append-heavy history tables become monthly range partitions of their business date:
+--   trades        by trade_date
+--   cash_ledger   by created_at (UTC months)
+--   journals      by accounting_date
+--   nav_snapshots by calculation_date (UTC months)
+-- Date-bounded queries only scan the months they touch. PartitionMaintenanceService
+-- creates months ahead of time and detaches or drops whole months past retention, so
+-- purges no longer leave dead rows for vacuum and every index stays the size of a month.
+--
+-- Uniqueness caveats: a primary key or unique index on a partitioned table must include
+-- the partition key, so
+--   trades        PK (id, trade_date), trade_id unique per trade_date
+--   cash_ledger   PK (id, created_at)
+--   journals      PK (id, accounting_date), (trade_id, journal_type) unique per accounting_date
+--   nav_snapshots PK (id, calculation_date)
+-- Ids still come from one sequence (or are UUIDs) so they stay unique in practice, and a
+-- trade's journals always post on its trade and settle dates, but only the application's
+-- idempotency checks (processed_trades, settlement_markers) enforce it across months.
+-- journal_lines cannot reference journals(id) any more: the foreign key is dropped and
+-- lines are removed explicitly wherever journals are.
+
+-- Create the monthly partition of a range-partitioned table holding the given date, if
+-- missing. Rows for that month that landed in the default partition move into it first,
+-- otherwise the attach would fail.
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent TEXT, for_date DATE) RETURNS TEXT AS $$
+DECLARE
+    first_day DATE := CAST(date_trunc('month', for_date) AS DATE);
+    partition_name TEXT := parent || '_p' || to_char(first_day, 'YYYYMM');
+    key_column TEXT;
+    key_type TEXT;
+    lower_bound TEXT := to_char(first_day, 'YYYY-MM-DD');
+    upper_bound TEXT := to_char(first_day + INTERVAL '1 month', 'YYYY-MM-DD');
+BEGIN
+    -- Concurrent callers for the same month queue up instead of racing the existence check
+    PERFORM pg_advisory_xact_lock(hashtext(partition_name));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    SELECT a.attname, format_type(a.atttypid, a.atttypmod) INTO key_column, key_type
+    FROM pg_partitioned_table pt
+    JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+    WHERE pt.partrelid = parent::regclass;
+
+    -- Month boundaries of timestamptz keys are UTC, whatever the session time zone
+    IF key_type = 'timestamp with time zone' THEN
+        lower_bound := lower_bound || ' 00:00:00+00';
+        upper_bound := upper_bound || ' 00:00:00+00';
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', key_column, lower_bound, key_column, upper_bound, partition_name);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, partition_name, lower_bound, upper_bound);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION ensure_monthly_partition(TEXT, DATE) IS 'Create the monthly partition of a range-partitioned table for a date, if missing';
+
+-- trades
+ALTER TABLE trades RENAME TO trades_unpartitioned;
+CREATE TABLE trades (LIKE trades_unpartitioned INCLUDING DEFAULTS INCLUDING COMMENTS) PARTITION BY RANGE (trade_date);
+CREATE TABLE trades_default PARTITION OF trades DEFAULT;
+
+SELECT ensure_monthly_partition('trades', CAST(m AS DATE))
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(trade_date) FROM trades_unpartitioned), CURRENT_DATE)),
+    date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+    INTERVAL '1 month') m;
+
+INSERT INTO trades SELECT * FROM trades_unpartitioned;
+ALTER SEQUENCE trades_id_seq OWNED BY trades.id;
+DROP TABLE trades_unpartitioned;
+
+ALTER TABLE trades ADD CONSTRAINT trades_pkey PRIMARY KEY (id, trade_date);
+CREATE UNIQUE INDEX idx_trades_trade_id ON trades (trade_id, trade_date);
+CREATE INDEX idx_trades_created_at_id ON trades (created_at DESC, id DESC);
+CREATE INDEX idx_trades_isin ON trades (isin);
+CREATE INDEX idx_trades_open_settle_date ON trades (settle_date, id) INCLUDE (trade_id) WHERE NOT settled;
+
+COMMENT ON TABLE trades IS 'Booked trades, partitioned by trade_date month';
+
+-- cash_ledger
+ALTER TABLE cash_ledger RENAME TO cash_ledger_unpartitioned;
+CREATE TABLE cash_ledger (LIKE cash_ledger_unpartitioned INCLUDING DEFAULTS INCLUDING COMMENTS) PARTITION BY RANGE (created_at);
+CREATE TABLE cash_ledger_default PARTITION OF cash_ledger DEFAULT;
+
+SELECT ensure_monthly_partition('cash_ledger', CAST(m AS DATE))
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(created_at AT TIME ZONE 'UTC') FROM cash_ledger_unpartitioned), CURRENT_DATE)),
+    date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+    INTERVAL '1 month') m;
+
+INSERT INTO cash_ledger SELECT * FROM cash_ledger_unpartitioned;
+ALTER SEQUENCE cash_ledger_id_seq OWNED BY cash_ledger.id;
+DROP TABLE cash_ledger_unpartitioned;
+
+ALTER TABLE cash_ledger ADD CONSTRAINT cash_ledger_pkey PRIMARY KEY (id, created_at);
+CREATE INDEX idx_cash_ledger_created_at ON cash_ledger (created_at);
+CREATE INDEX idx_cash_ledger_portfolio_created_at_id ON cash_ledger (portfolio_id, created_at DESC, id DESC);
+
+COMMENT ON TABLE cash_ledger IS 'Cash movement ledger tracking all cash impacts (append-only), partitioned by created_at month (UTC)';
+
+-- journals
+ALTER TABLE journal_lines DROP CONSTRAINT journal_lines_journal_id_fk;
+ALTER TABLE journals RENAME TO journals_unpartitioned;
+CREATE TABLE journals (LIKE journals_unpartitioned INCLUDING DEFAULTS INCLUDING COMMENTS) PARTITION BY RANGE (accounting_date);
+CREATE TABLE journals_default PARTITION OF journals DEFAULT;
+
+SELECT ensure_monthly_partition('journals', CAST(m AS DATE))
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(accounting_date) FROM journals_unpartitioned), CURRENT_DATE)),
+    date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+    INTERVAL '1 month') m;
+
+INSERT INTO journals SELECT * FROM journals_unpartitioned;
+DROP TABLE journals_unpartitioned;
+
+ALTER TABLE journals ADD CONSTRAINT journals_pkey PRIMARY KEY (id, accounting_date);
+ALTER TABLE journals ADD CONSTRAINT journals_trade_type_unique UNIQUE (trade_id, journal_type, accounting_date);
+CREATE INDEX idx_journals_trade_id ON journals (trade_id);
+CREATE INDEX idx_journals_created_at_id ON journals (created_at DESC, id DESC);
+CREATE INDEX idx_journals_portfolio_created_at_id ON journals (portfolio_id, created_at DESC, id DESC);
+CREATE INDEX idx_journals_type_created_at_id ON journals (journal_type, created_at DESC, id DESC);
+
+COMMENT ON TABLE journals IS 'Accounting journals representing trade lifecycle events, partitioned by accounting_date month';
+COMMENT ON COLUMN journal_lines.journal_id IS 'Parent journal id (not a foreign key: journals is partitioned)';
+
+-- nav_snapshots
+ALTER TABLE nav_snapshots RENAME TO nav_snapshots_unpartitioned;
+CREATE TABLE nav_snapshots (LIKE nav_snapshots_unpartitioned INCLUDING DEFAULTS INCLUDING COMMENTS) PARTITION BY RANGE (calculation_date);
+CREATE TABLE nav_snapshots_default PARTITION OF nav_snapshots DEFAULT;
+
+SELECT ensure_monthly_partition('nav_snapshots', CAST(m AS DATE))
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(calculation_date AT TIME ZONE 'UTC') FROM nav_snapshots_unpartitioned), CURRENT_DATE)),
+    date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+    INTERVAL '1 month') m;
+
+INSERT INTO nav_snapshots SELECT * FROM nav_snapshots_unpartitioned;
+DROP TABLE nav_snapshots_unpartitioned;
+
+ALTER TABLE nav_snapshots ADD CONSTRAINT nav_snapshots_pkey PRIMARY KEY (id, calculation_date);
+CREATE INDEX idx_nav_snapshot_date_desc ON nav_snapshots (calculation_date DESC);
+-- Latest and paged NAV per portfolio read one index range per month
+CREATE INDEX idx_nav_snapshots_portfolio_date ON nav_snapshots (portfolio_id, calculation_date DESC);
+
+COMMENT ON TABLE nav_snapshots IS 'NAV calculation snapshots (gross, fee accrual, net, shares, nav/share), partitioned by calculation_date month (UTC)';
@@ -0,0 +1,8 @@
+-- Per-row change counter for positions. Every write increments it while holding the
+-- row lock, so it orders a position's states by commit, unlike updated_at (transaction
+-- start time). The position cache and its cross-node sync compare versions, not times.
+ALTER TABLE positions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE positions SET version = 1;
+
+COMMENT ON COLUMN positions.version IS 'Incremented on every change of the position; orders its states by commit';
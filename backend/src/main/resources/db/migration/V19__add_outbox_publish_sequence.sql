@@ -0,0 +1,21 @@
+-- Outbox ids follow insert order, not commit order: id 101 can commit and be relayed
+-- after 102 has already been streamed, and a client resuming after 102 would never see
+-- it. The relay now numbers events in the order it publishes them, under a lock held
+-- until commit, and clients resume on that number.
+ALTER TABLE event_outbox ADD COLUMN publish_seq BIGINT;
+
+-- Rows already published keep their id as position, new ones continue above every id
+UPDATE event_outbox SET publish_seq = id WHERE published_at IS NOT NULL;
+
+CREATE UNIQUE INDEX idx_event_outbox_publish_seq ON event_outbox (publish_seq);
+
+CREATE TABLE event_outbox_publish_cursor (
+    id SMALLINT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
+
+INSERT INTO event_outbox_publish_cursor (id, last_sequence)
+SELECT 1, COALESCE(MAX(id), 0) FROM event_outbox;
+
+COMMENT ON COLUMN event_outbox.publish_seq IS 'Position in publication order, assigned by the relay; NULL while pending';
+COMMENT ON TABLE event_outbox_publish_cursor IS 'Single row: last publish_seq handed out. Locked by the relay until commit, so sequences commit in order';
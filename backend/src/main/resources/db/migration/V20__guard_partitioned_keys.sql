@@ -0,0 +1,73 @@
+-- V17 left trade_id and (trade_id, journal_type) unique only within a month, and
+-- journal_lines without a foreign key. Both are enforced across months again through
+-- non-partitioned tables:
+--   trades        (trade_id, trade_date) references processed_trades, which holds one row
+--                 per trade_id: every row of a trade id must share one trade date, hence one
+--                 partition, where idx_trades_trade_id rejects the duplicate
+--   journals      every row is registered in journal_keys by a trigger, whose unique
+--                 (trade_id, journal_type) rejects a duplicate in any month
+--   journal_lines journal_id references journal_keys and is deleted with its journal
+-- Registrations outlive retired partitions, as processed_trades always did, so a trade
+-- from a retired month can be neither booked nor journaled again.
+
+-- trades -> processed_trades
+ALTER TABLE processed_trades ADD COLUMN trade_date DATE;
+
+UPDATE processed_trades p SET trade_date = t.trade_date FROM trades t WHERE t.trade_id = p.trade_id;
+
+-- Trades booked before the registry existed
+INSERT INTO processed_trades (trade_id, portfolio_id, isin, applied_delta, processed_at, trade_date)
+SELECT t.trade_id, t.portfolio_id, t.isin,
+       CASE WHEN t.side = 'SELL' THEN -t.quantity ELSE t.quantity END, now(), t.trade_date
+FROM trades t
+WHERE NOT EXISTS (SELECT 1 FROM processed_trades p WHERE p.trade_id = t.trade_id)
+ON CONFLICT (trade_id) DO NOTHING;
+
+ALTER TABLE processed_trades ADD CONSTRAINT processed_trades_trade_date_unique UNIQUE (trade_id, trade_date);
+
+-- Checked at commit: TradeService inserts the trade before the position update registers it
+ALTER TABLE trades ADD CONSTRAINT trades_processed_trade_fk FOREIGN KEY (trade_id, trade_date)
+    REFERENCES processed_trades (trade_id, trade_date) DEFERRABLE INITIALLY DEFERRED;
+
+COMMENT ON COLUMN processed_trades.trade_date IS 'Trade date of the registered trade; trades reference (trade_id, trade_date)';
+
+-- journals -> journal_keys <- journal_lines
+CREATE TABLE journal_keys (
+    journal_id UUID PRIMARY KEY,
+    trade_id UUID NOT NULL,
+    journal_type VARCHAR(50) NOT NULL,
+    CONSTRAINT journal_keys_trade_type_unique UNIQUE (trade_id, journal_type)
+);
+
+INSERT INTO journal_keys (journal_id, trade_id, journal_type)
+SELECT id, trade_id, journal_type FROM journals;
+
+-- Maintained in the database so every writer (JPA, batch JDBC, manual fixes) is covered.
+-- TRUNCATE and partition DROP/DETACH fire no row triggers: AdminResetRepository truncates
+-- journal_keys with journals, and retired months keep their keys on purpose.
+CREATE OR REPLACE FUNCTION register_journal_key() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM journal_keys WHERE journal_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO journal_keys (journal_id, trade_id, journal_type) VALUES (NEW.id, NEW.trade_id, NEW.journal_type);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER journals_register_key
+    AFTER INSERT OR DELETE OR UPDATE OF id, trade_id, journal_type ON journals
+    FOR EACH ROW EXECUTE FUNCTION register_journal_key();
+
+-- Lines whose journal is gone cannot be reached by any query; retention and resets removed
+-- lines explicitly, so there should be none
+DELETE FROM journal_lines l WHERE NOT EXISTS (SELECT 1 FROM journal_keys k WHERE k.journal_id = l.journal_id);
+
+-- Checked at commit, so the order in which a flush inserts journals and lines does not matter
+ALTER TABLE journal_lines ADD CONSTRAINT journal_lines_journal_id_fk FOREIGN KEY (journal_id)
+    REFERENCES journal_keys (journal_id) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED;
+
+COMMENT ON TABLE journal_keys IS 'One row per journal in any month, maintained by trigger: global (trade_id, journal_type) uniqueness and parent of journal_lines';
+COMMENT ON COLUMN journal_lines.journal_id IS 'Parent journal id (foreign key to journal_keys: journals is partitioned)';
@@ -0,0 +1,44 @@
+-- V17 partitioned journals by month but left journal_lines whole, so retiring a month
+-- had to copy its lines out and delete them row by row. Each line now carries its
+-- journal's accounting_date and journal_lines is range partitioned on it like journals:
+-- a month of lines is detached or dropped together with its month of journals.
+--
+-- As with the other partitioned tables the primary key includes the partition key:
+--   journal_lines PK (id, accounting_date)
+-- journal_id keeps referencing journal_keys (V20), which is not partitioned.
+
+ALTER TABLE journal_lines ADD COLUMN accounting_date DATE;
+
+UPDATE journal_lines l SET accounting_date = j.accounting_date FROM journals j WHERE j.id = l.journal_id;
+
+-- Retention removed the lines of every retired month with it, so none should be left
+-- without a journal in an attached partition
+DELETE FROM journal_lines WHERE accounting_date IS NULL;
+
+ALTER TABLE journal_lines ALTER COLUMN accounting_date SET NOT NULL;
+
+ALTER TABLE journal_lines RENAME TO journal_lines_unpartitioned;
+CREATE TABLE journal_lines (LIKE journal_lines_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (accounting_date);
+CREATE TABLE journal_lines_default PARTITION OF journal_lines DEFAULT;
+
+-- Same months as journals: from the oldest line, or this month, to three months ahead
+SELECT ensure_monthly_partition('journal_lines', CAST(m AS DATE))
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(accounting_date) FROM journal_lines_unpartitioned), CURRENT_DATE)),
+    date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+    INTERVAL '1 month') m;
+
+INSERT INTO journal_lines SELECT * FROM journal_lines_unpartitioned;
+ALTER SEQUENCE journal_lines_id_seq OWNED BY journal_lines.id;
+DROP TABLE journal_lines_unpartitioned;
+
+ALTER TABLE journal_lines ADD CONSTRAINT journal_lines_pkey PRIMARY KEY (id, accounting_date);
+CREATE INDEX idx_journal_lines_journal_id_account ON journal_lines (journal_id, account) INCLUDE (dr, cr);
+
+-- Checked at commit, so the order in which a flush inserts journals and lines does not matter
+ALTER TABLE journal_lines ADD CONSTRAINT journal_lines_journal_id_fk FOREIGN KEY (journal_id)
+    REFERENCES journal_keys (journal_id) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED;
+
+COMMENT ON TABLE journal_lines IS 'Individual debit and credit lines within a journal, partitioned by accounting_date month';
+COMMENT ON COLUMN journal_lines.accounting_date IS 'Accounting date of the parent journal (partition key)';
@@ -0,0 +1,34 @@
+-- Columns mapped by CashEntry that were missing from the original ledger table
+ALTER TABLE cash_ledger ADD COLUMN IF NOT EXISTS balance NUMERIC(28,2);
+ALTER TABLE cash_ledger ADD COLUMN IF NOT EXISTS currency VARCHAR(3) NOT NULL DEFAULT 'USD';
+ALTER TABLE cash_ledger ADD COLUMN IF NOT EXISTS trade_id VARCHAR(36);
+
+-- Materialized balance per portfolio, maintained with every ledger insert
+CREATE TABLE cash_state (
+    portfolio_id VARCHAR(32) PRIMARY KEY,
+    balance NUMERIC(28,2) NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Seed snapshots from existing ledger history
+INSERT INTO cash_state (portfolio_id, balance, updated_at)
+SELECT portfolio_id, SUM(delta), now()
+FROM cash_ledger
+GROUP BY portfolio_id;
+
+-- Backfill running balances for existing ledger rows
+UPDATE cash_ledger c
+SET balance = r.running_balance
+FROM (
+    SELECT id, SUM(delta) OVER (PARTITION BY portfolio_id ORDER BY created_at, id) AS running_balance
+    FROM cash_ledger
+) r
+WHERE c.id = r.id AND c.balance IS NULL;
+
+-- Comment on table and columns
+COMMENT ON TABLE cash_state IS 'Current cash balance per portfolio (materialized SUM of cash_ledger.delta)';
+COMMENT ON COLUMN cash_state.balance IS 'Balance after the most recent ledger entry with 2 decimal precision';
+COMMENT ON COLUMN cash_state.updated_at IS 'Timestamp of the last balance change (UTC)';
+COMMENT ON COLUMN cash_ledger.balance IS 'Running balance for the portfolio after this entry';
+COMMENT ON COLUMN cash_ledger.currency IS 'Currency of the cash movement (ISO 4217)';
+COMMENT ON COLUMN cash_ledger.trade_id IS 'Trade that caused the movement, if any';
@@ -0,0 +1,30 @@
+-- Positions were keyed by ISIN only, so every portfolio shared one global position.
+-- Re-key by (portfolio_id, isin); the primary key index also serves per-portfolio reads.
+
+ALTER TABLE processed_trades ADD COLUMN portfolio_id VARCHAR(32) NOT NULL DEFAULT 'DEFAULT';
+
+-- Attribute already processed trades to their portfolio
+UPDATE processed_trades p
+SET portfolio_id = t.portfolio_id
+FROM trades t
+WHERE t.trade_id = p.trade_id;
+
+ALTER TABLE processed_trades ALTER COLUMN portfolio_id DROP DEFAULT;
+
+ALTER TABLE positions ADD COLUMN portfolio_id VARCHAR(32) NOT NULL DEFAULT 'DEFAULT';
+ALTER TABLE positions DROP CONSTRAINT positions_pkey;
+ALTER TABLE positions ADD CONSTRAINT positions_pkey PRIMARY KEY (portfolio_id, isin);
+ALTER TABLE positions ALTER COLUMN portfolio_id DROP DEFAULT;
+
+-- Rebuild per-portfolio positions from the idempotency registry of applied deltas
+DELETE FROM positions;
+INSERT INTO positions (portfolio_id, isin, quantity, updated_at)
+SELECT portfolio_id, isin, SUM(applied_delta), MAX(processed_at)
+FROM processed_trades
+GROUP BY portfolio_id, isin;
+
+-- Comment on table and columns
+COMMENT ON TABLE positions IS 'IBOR position master table tracking contractual exposure by portfolio and ISIN';
+COMMENT ON COLUMN positions.portfolio_id IS 'Portfolio holding the position (leading primary key column)';
+COMMENT ON COLUMN positions.isin IS 'ISIN code of the instrument';
+COMMENT ON COLUMN processed_trades.portfolio_id IS 'Portfolio whose position the trade was applied to';
@@ -0,0 +1,5 @@
+-- Enforce the non-negative position rule in the database as well as in the
+-- single-statement upsert used by PositionService on PostgreSQL
+ALTER TABLE positions ADD CONSTRAINT positions_quantity_non_negative CHECK (quantity >= 0);
+
+COMMENT ON CONSTRAINT positions_quantity_non_negative ON positions IS 'Positions cannot go short (SELL beyond holdings is rejected)';
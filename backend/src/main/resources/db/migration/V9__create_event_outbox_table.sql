@@ -0,0 +1,27 @@
+-- Transactional outbox for domain events, drained by the event relay after commit
+CREATE TABLE event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    trade_id UUID,
+    portfolio_id VARCHAR(32) NOT NULL,
+    isin VARCHAR(12),
+    delta NUMERIC(28,6) NOT NULL,
+    new_quantity NUMERIC(28,6),
+    balance NUMERIC(28,2),
+    currency VARCHAR(3),
+    reason VARCHAR(255),
+    occurred_at TIMESTAMPTZ NOT NULL,
+    published_at TIMESTAMPTZ
+);
+
+-- The relay scans only the (small) unpublished tail
+CREATE INDEX idx_event_outbox_unpublished ON event_outbox (id) WHERE published_at IS NULL;
+CREATE INDEX idx_event_outbox_published_at ON event_outbox (published_at, id);
+
+-- Comment on table and columns
+COMMENT ON TABLE event_outbox IS 'Domain events written in the booking transaction and published after commit';
+COMMENT ON COLUMN event_outbox.event_type IS 'PositionUpdated or CashMovement';
+COMMENT ON COLUMN event_outbox.trade_id IS 'Originating trade; NULL for net position updates from batch booking';
+COMMENT ON COLUMN event_outbox.new_quantity IS 'Position quantity after the change (PositionUpdated)';
+COMMENT ON COLUMN event_outbox.balance IS 'Cash balance after the movement (CashMovement)';
+COMMENT ON COLUMN event_outbox.published_at IS 'When the relay delivered the event to all sinks; NULL while pending';
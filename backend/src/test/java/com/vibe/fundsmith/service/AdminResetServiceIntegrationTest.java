@@ -0,0 +1,139 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.ResetResultDto;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.model.TradeSide;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, whose relay runs once at startup only: booked events stay unpublished until
+// the reset instead of being drained by the relays of other cached test contexts
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:resetdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "ibor.events.relay.interval-ms=3600000"
+})
+@ActiveProfiles("test")
+public class AdminResetServiceIntegrationTest {
+
+    @Autowired
+    private AdminResetService adminResetService;
+
+    @Autowired
+    private TradeBatchService tradeBatchService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private CashService cashService;
+
+    @Autowired
+    private PositionService positionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resetAll_ClearsOnePortfolioAndReportsCounts() {
+        // Given - two portfolios with trades, one of them settled
+        String portfolio = "RESET_" + UUID.randomUUID().toString().substring(0, 8);
+        String other = "RESET_" + UUID.randomUUID().toString().substring(0, 8);
+        TradeRequest settled = request(portfolio, "US0378331005");
+        tradeBatchService.bookTrades(List.of(settled, request(portfolio, "US5949181045"), request(other, "US0378331005")));
+        journalService.createSettlementDateJournal(settled.getTradeId());
+        long pendingEvents = unpublishedEvents(portfolio);
+        long otherPendingEvents = unpublishedEvents(other);
+        assertTrue(pendingEvents > 0);
+
+        // When
+        ResetResultDto result = adminResetService.resetAll(portfolio, new BigDecimal("500.00"));
+
+        // Then - the portfolio is empty apart from its opening balance
+        assertEquals(portfolio, result.getPortfolioId());
+        assertEquals(2, result.deletedFrom("trades"));
+        assertEquals(2, result.deletedFrom("processed_trades"));
+        assertEquals(2, result.deletedFrom("positions"));
+        assertEquals(3, result.deletedFrom("journals"));
+        assertEquals(8, result.deletedFrom("journal_lines"));
+        assertEquals(1, result.deletedFrom("settlement_markers"));
+        assertEquals(2, result.deletedFrom("cash_ledger"));
+        assertEquals(pendingEvents, result.deletedFrom("event_outbox"));
+        assertEquals(result.getDeletedRows().values().stream().mapToLong(Long::longValue).sum(), result.getTotalDeleted());
+
+        for (String table : List.of("trades", "processed_trades", "positions", "journals", "account_balances",
+                "ledger_accounts", "nav_snapshots")) {
+            assertEquals(0L, count(table, portfolio), table);
+        }
+        assertEquals(1L, count("cash_ledger", portfolio));
+        Map<String, BigDecimal> balances = cashService.getBalances(portfolio);
+        assertEquals(1, balances.size());
+        assertEquals(0, new BigDecimal("500.00").compareTo(balances.values().iterator().next()));
+        assertTrue(positionService.getPortfolioPositions(portfolio).isEmpty());
+
+        // Only the opening balance's cash events are left for the relay
+        assertEquals(0L, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM event_outbox WHERE portfolio_id = ? AND published_at IS NULL AND event_type <> ?",
+            Long.class, portfolio, "CashMovement"));
+
+        // The other portfolio is untouched
+        assertEquals(otherPendingEvents, unpublishedEvents(other));
+        assertEquals(1L, count("trades", other));
+        assertEquals(1L, count("journals", other));
+        assertEquals(1, positionService.getPortfolioPositions(other).size());
+    }
+
+    @Test
+    void resetTrades_LeavesCashInPlace() {
+        // Given
+        String portfolio = "RESET_" + UUID.randomUUID().toString().substring(0, 8);
+        tradeBatchService.bookTrades(List.of(request(portfolio, "US0378331005")));
+        BigDecimal cashBefore = cashService.getBalances(portfolio).values().iterator().next();
+
+        // When
+        ResetResultDto result = adminResetService.resetTrades(portfolio);
+
+        // Then - pending cash events describe cash that is kept, so they are still relayed
+        assertEquals(1, result.deletedFrom("trades"));
+        assertEquals(0, result.deletedFrom("cash_ledger"));
+        assertEquals(0L, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM event_outbox WHERE portfolio_id = ? AND published_at IS NULL AND event_type <> ?",
+            Long.class, portfolio, "CashMovement"));
+        assertTrue(unpublishedEvents(portfolio) > 0);
+        assertEquals(0L, count("trades", portfolio));
+        assertEquals(1L, count("cash_ledger", portfolio));
+        assertEquals(0, cashBefore.compareTo(cashService.getBalances(portfolio).values().iterator().next()));
+    }
+
+    private long unpublishedEvents(String portfolioId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM event_outbox WHERE portfolio_id = ? AND published_at IS NULL", Long.class, portfolioId);
+    }
+
+    private long count(String table, String portfolioId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + table + " WHERE portfolio_id = ?", Long.class, portfolioId);
+    }
+
+    private static TradeRequest request(String portfolio, String isin) {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(UUID.randomUUID());
+        request.setIsin(isin);
+        request.setQuantity(100L);
+        request.setPrice(new BigDecimal("10.00"));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId(portfolio);
+        request.setTradeDate(LocalDate.now().minusDays(5));
+        return request;
+    }
+}
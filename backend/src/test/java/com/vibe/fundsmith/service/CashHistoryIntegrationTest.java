@@ -0,0 +1,109 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.CashHistoryPageDto;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.model.CashEntry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class CashHistoryIntegrationTest {
+
+    private static final String PORTFOLIO = "HISTORY_A";
+
+    @Autowired
+    private CashService cashService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findHistoryPage_WalksLedgerNewestFirst() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            book();
+        }
+        // Page from what the database holds, not from managed instances
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - pages of two
+        List<CashEntry> walked = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            CashHistoryPageDto page = cashService.findHistoryPage(PORTFOLIO, null, null, null, cursor, 2);
+            walked.addAll(page.getEntries());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then - every entry once, newest first
+        assertEquals(3, pages);
+        assertEquals(5, walked.size());
+        assertEquals(5, walked.stream().map(CashEntry::getId).distinct().count());
+        for (int i = 1; i < walked.size(); i++) {
+            CashEntry previous = walked.get(i - 1);
+            CashEntry current = walked.get(i);
+            assertTrue(previous.getCreatedAt().isAfter(current.getCreatedAt())
+                || (previous.getCreatedAt().isEqual(current.getCreatedAt()) && previous.getId() > current.getId()));
+        }
+    }
+
+    @Test
+    void findHistoryPage_FiltersByReasonPrefixAndDate() {
+        // Given
+        book();
+        book();
+        entityManager.flush();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        // Then
+        assertEquals(2, cashService.findHistoryPage(PORTFOLIO, "BUY:", null, null, null, 10).getEntries().size());
+        assertEquals(0, cashService.findHistoryPage(PORTFOLIO, "SELL:", null, null, null, 10).getEntries().size());
+        // LIKE wildcards in the prefix are matched literally
+        assertEquals(0, cashService.findHistoryPage(PORTFOLIO, "%", null, null, null, 10).getEntries().size());
+        assertEquals(2, cashService.findHistoryPage(PORTFOLIO, null, today, today, null, 10).getEntries().size());
+        assertEquals(0, cashService.findHistoryPage(PORTFOLIO, null, null, today.minusDays(1), null, 10).getEntries().size());
+    }
+
+    @Test
+    void findHistoryPage_RejectsInvalidParameters() {
+        assertThrows(ValidationException.class,
+            () -> cashService.findHistoryPage(PORTFOLIO, null, null, null, "bogus", 10));
+        assertThrows(ValidationException.class,
+            () -> cashService.findHistoryPage(PORTFOLIO, null, null, null, null, 0));
+        assertThrows(ValidationException.class,
+            () -> cashService.findHistoryPage(PORTFOLIO, null, LocalDate.now(), LocalDate.now().minusDays(1), null, 10));
+    }
+
+    private void book() {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(UUID.randomUUID());
+        request.setIsin("US0378331005");
+        request.setQuantity(100L);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setPortfolioId(PORTFOLIO);
+        request.setTradeDate(LocalDate.now());
+        tradeService.bookTrade(request);
+    }
+}
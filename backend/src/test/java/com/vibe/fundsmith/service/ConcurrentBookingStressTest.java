@@ -0,0 +1,155 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.TradeBatchResponse;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.model.PositionId;
+import com.vibe.fundsmith.model.TradeSide;
+import com.vibe.fundsmith.repository.PositionRepository;
+import com.vibe.fundsmith.repository.TradeRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books many trades from many threads through the single-trade and batch paths at once,
+ * then checks every position and cash balance against the sums of what was booked.
+ * Run with {@code mvn -Pstress test}; size with -Dstress.trades and -Dstress.threads.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+    // Own database so committed stress data never meets the transactional tests
+    "spring.datasource.url=jdbc:h2:mem:stressdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=60000",
+    "spring.datasource.hikari.maximum-pool-size=64"
+})
+@ActiveProfiles("test")
+public class ConcurrentBookingStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentBookingStressTest.class);
+    private static final int TRADES = Integer.getInteger("stress.trades", 100_000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 64);
+    private static final int BATCH_SIZE = 50;
+    private static final List<String> PORTFOLIOS = List.of("STRESS_1", "STRESS_2", "STRESS_3", "STRESS_4");
+    private static final List<String> ISINS = List.of(
+        "US0378331005", "US5949181045", "US88160R1014", "GB0002634946", "GB00B03MLX29");
+    private static final List<String> CURRENCIES = List.of("USD", "EUR", "GBP");
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeBatchService tradeBatchService;
+
+    @Autowired
+    private CashService cashService;
+
+    @Autowired
+    private CashReconciliationService cashReconciliationService;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private BookingLocks bookingLocks;
+
+    @Test
+    void parallelBookings_KeepPositionsAndCashExact() throws Exception {
+        // Given - a deterministic blotter and its expected totals
+        Random random = new Random(42);
+        List<TradeRequest> blotter = new ArrayList<>(TRADES);
+        Map<PositionId, BigDecimal> expectedPositions = new HashMap<>();
+        Map<String, BigDecimal> expectedCash = new HashMap<>();
+        for (int i = 0; i < TRADES; i++) {
+            TradeRequest request = new TradeRequest();
+            request.setTradeId(UUID.randomUUID());
+            request.setPortfolioId(PORTFOLIOS.get(random.nextInt(PORTFOLIOS.size())));
+            request.setIsin(ISINS.get(random.nextInt(ISINS.size())));
+            request.setTradeCurrency(CURRENCIES.get(random.nextInt(CURRENCIES.size())));
+            request.setQuantity(1L + random.nextInt(100));
+            request.setPrice(BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+            request.setSide(TradeSide.BUY);
+            request.setTradeDate(LocalDate.now());
+            blotter.add(request);
+
+            BigDecimal quantity = new BigDecimal(request.getQuantity());
+            expectedPositions.merge(new PositionId(request.getPortfolioId(), request.getIsin()), quantity, BigDecimal::add);
+            expectedCash.merge(request.getPortfolioId() + "/" + request.getTradeCurrency(),
+                CashService.calculateCashDelta(TradeSide.BUY, quantity, request.getPrice()), BigDecimal::add);
+        }
+
+        // When - even threads book one trade at a time, odd threads book batches
+        AtomicInteger next = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean batching = t % 2 == 1;
+            workers.add(executor.submit(() -> {
+                while (true) {
+                    int from = next.getAndAdd(batching ? BATCH_SIZE : 1);
+                    if (from >= TRADES) {
+                        return;
+                    }
+                    try {
+                        if (batching) {
+                            TradeBatchResponse response = tradeBatchService.bookTrades(
+                                blotter.subList(from, Math.min(from + BATCH_SIZE, TRADES)));
+                            assertEquals(0, response.getRejected());
+                        } else {
+                            tradeService.bookTrade(blotter.get(from));
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                    assertEquals(0, bookingLocks.heldByCurrentThread(), "Booking locks must be released at commit");
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Booked {} trades from {} threads in {} s ({} trades/s)",
+            TRADES, THREADS, String.format("%.1f", seconds), String.format("%.0f", TRADES / seconds));
+
+        // Then - no booking failed and every total is exact
+        assertTrue(failures.isEmpty(), () -> failures.size() + " bookings failed, first: " + failures.peek());
+        assertEquals(TRADES, tradeRepository.count());
+
+        for (Map.Entry<PositionId, BigDecimal> expected : expectedPositions.entrySet()) {
+            Position position = positionRepository.findById(expected.getKey()).orElseThrow();
+            assertEquals(0, expected.getValue().compareTo(position.getQuantity()), "Position " + expected.getKey());
+        }
+        for (Map.Entry<String, BigDecimal> expected : expectedCash.entrySet()) {
+            String[] key = expected.getKey().split("/");
+            assertEquals(0, expected.getValue().compareTo(cashService.getBalance(key[0], key[1])),
+                "Cash " + expected.getKey());
+        }
+        assertTrue(cashReconciliationService.reconcile().isConsistent(), "Cash state should reconcile with the ledger");
+    }
+}
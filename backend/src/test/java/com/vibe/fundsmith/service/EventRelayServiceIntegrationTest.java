@@ -0,0 +1,119 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.event.CashMovementEvent;
+import com.vibe.fundsmith.event.EventEnvelope;
+import com.vibe.fundsmith.event.PositionUpdatedEvent;
+import com.vibe.fundsmith.event.TradeBookedEvent;
+import com.vibe.fundsmith.model.OutboxEvent;
+import com.vibe.fundsmith.model.TradeSide;
+import com.vibe.fundsmith.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@RecordApplicationEvents
+public class EventRelayServiceIntegrationTest {
+
+    private static final String PORTFOLIO = "OUTBOX_A";
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private EventRelayService eventRelayService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void bookTrade_RecordsOutboxRowsThatRelayPublishesOnce() {
+        // Given
+        UUID tradeId = UUID.randomUUID();
+        tradeService.bookTrade(request(tradeId));
+
+        List<OutboxEvent> recorded = outboxEventRepository.findAll().stream()
+            .filter(e -> PORTFOLIO.equals(e.getPortfolioId()))
+            .toList();
+        assertEquals(3, recorded.size());
+        assertTrue(recorded.stream().allMatch(e -> e.getPublishedAt() == null));
+        assertTrue(recorded.stream().allMatch(e -> tradeId.equals(e.getTradeId())));
+
+        // When
+        eventRelayService.relayBatch();
+
+        // Then - all events reach the in-process sink with their outbox sequence
+        List<EventEnvelope> published = applicationEvents.stream(EventEnvelope.class)
+            .filter(e -> recorded.stream().anyMatch(r -> r.getId() == e.sequence()))
+            .toList();
+        assertEquals(3, published.size());
+
+        TradeBookedEvent trade = published.stream()
+            .filter(e -> OutboxEvent.TRADE_BOOKED.equals(e.type()))
+            .map(e -> (TradeBookedEvent) e.payload())
+            .findFirst().orElseThrow();
+        assertEquals(tradeId, trade.getTradeId());
+        assertEquals("BUY", trade.getSide());
+
+        PositionUpdatedEvent position = published.stream()
+            .filter(e -> OutboxEvent.POSITION_UPDATED.equals(e.type()))
+            .map(e -> (PositionUpdatedEvent) e.payload())
+            .findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("100").compareTo(position.getNewQuantity()));
+
+        CashMovementEvent cash = published.stream()
+            .filter(e -> OutboxEvent.CASH_MOVEMENT.equals(e.type()))
+            .map(e -> (CashMovementEvent) e.payload())
+            .findFirst().orElseThrow();
+        assertEquals(PORTFOLIO, cash.getPortfolioId());
+        assertEquals(0, new BigDecimal("-17550.00").compareTo(cash.getDelta()));
+
+        // Published rows are not relayed again
+        assertTrue(outboxEventRepository.findAllById(recorded.stream().map(OutboxEvent::getId).toList())
+            .stream().allMatch(e -> e.getPublishedAt() != null));
+
+        // Rows keep the publish sequence they were streamed with, numbered in outbox order
+        List<Long> publishSequences = published.stream().map(EventEnvelope::publishSequence).toList();
+        for (EventEnvelope e : published) {
+            assertEquals(e.publishSequence(),
+                outboxEventRepository.findById(e.sequence()).orElseThrow().getPublishSequence());
+        }
+        assertEquals(publishSequences.stream().sorted().toList(), publishSequences);
+        assertEquals(publishSequences.get(0) + 2, publishSequences.get(2));
+        long before = applicationEvents.stream(EventEnvelope.class).count();
+        eventRelayService.relayBatch();
+        assertEquals(0, applicationEvents.stream(EventEnvelope.class)
+            .skip(before)
+            .filter(e -> recorded.stream().anyMatch(r -> r.getId() == e.sequence()))
+            .count());
+    }
+
+    private TradeRequest request(UUID tradeId) {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(tradeId);
+        request.setIsin("US0378331005");
+        request.setQuantity(100L);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId(PORTFOLIO);
+        request.setTradeDate(LocalDate.now());
+        return request;
+    }
+}
@@ -0,0 +1,124 @@
+package com.vibe.fundsmith.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.repository.ExportRepository.Dataset;
+import com.vibe.fundsmith.service.ExportService.Format;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ExportServiceIntegrationTest {
+
+    private static final String PORTFOLIO = "EXPORT_A";
+    private static final String ISIN = "XS0000EXPRT1";
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void export_TradesAsCsvWithHeaderInCreationOrder() throws Exception {
+        // Given
+        UUID first = book(LocalDate.now().minusDays(1));
+        UUID second = book(LocalDate.now());
+
+        // When
+        List<String> lines = export(Dataset.TRADES, Format.CSV, null, ISIN, null, null).lines().toList();
+
+        // Then
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("id,trade_id,portfolio_id,isin,side,quantity,price"));
+        assertTrue(lines.get(1).contains(first.toString()));
+        assertTrue(lines.get(2).contains(second.toString()));
+        assertTrue(lines.get(1).contains(",175.50,"));
+
+        // And the trade date filter is inclusive
+        List<String> today = export(Dataset.TRADES, Format.CSV, null, ISIN, LocalDate.now(), LocalDate.now()).lines().toList();
+        assertEquals(2, today.size());
+        assertTrue(today.get(1).contains(second.toString()));
+    }
+
+    @Test
+    void export_CashLedgerAsNdjson() throws Exception {
+        // Given
+        UUID tradeId = book(LocalDate.now());
+
+        // When
+        List<String> lines = export(Dataset.CASH_LEDGER, Format.NDJSON, PORTFOLIO, null, null, null).lines().toList();
+
+        // Then - one JSON object per line
+        assertEquals(1, lines.size());
+        JsonNode entry = objectMapper.readTree(lines.get(0));
+        assertEquals(PORTFOLIO, entry.get("portfolio_id").asText());
+        assertEquals(tradeId.toString(), entry.get("trade_id").asText());
+        assertEquals(0, new BigDecimal("-17550.00").compareTo(entry.get("delta").decimalValue()));
+    }
+
+    @Test
+    void export_EmptyResultStillHasHeader() throws Exception {
+        String csv = export(Dataset.NAV, Format.CSV, "NO_SUCH_PORTFOLIO", null, null, null);
+
+        assertEquals("id,portfolio_id,calculation_date,gross_value,fee_accrual,net_value,shares_outstanding,nav_per_share",
+            csv.trim());
+    }
+
+    @Test
+    void export_RejectsInvertedDateRangeAndUnknownFormat() {
+        assertThrows(ValidationException.class, () ->
+            export(Dataset.JOURNALS, Format.CSV, null, null, LocalDate.now(), LocalDate.now().minusDays(1)));
+        assertThrows(ValidationException.class, () -> Format.parse("xml"));
+    }
+
+    @Test
+    void csvValue_QuotesSeparatorsAndQuotes() {
+        assertEquals("", ExportService.csvValue(null));
+        assertEquals("1000000", ExportService.csvValue(new BigDecimal("1E+6")));
+        assertEquals("\"BUY, \"\"manual\"\"\"", ExportService.csvValue("BUY, \"manual\""));
+    }
+
+    private String export(Dataset dataset, Format format, String portfolioId, String isin,
+                          LocalDate fromDate, LocalDate toDate) throws Exception {
+        // Exports read over JDBC, so pending JPA writes must reach the database first
+        entityManager.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(dataset, format, portfolioId, isin, fromDate, toDate, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private UUID book(LocalDate tradeDate) {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(UUID.randomUUID());
+        request.setIsin(ISIN);
+        request.setQuantity(100L);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setPortfolioId(PORTFOLIO);
+        request.setTradeDate(tradeDate);
+        return tradeService.bookTrade(request).getTradeId();
+    }
+}
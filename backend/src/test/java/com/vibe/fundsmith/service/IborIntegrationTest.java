@@ -4,6 +4,7 @@ import com.vibe.fundsmith.dto.TradeRequest;
 import com.vibe.fundsmith.dto.TradeResponse;
 import com.vibe.fundsmith.model.CashEntry;
 import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.model.PositionId;
 import com.vibe.fundsmith.model.TradeSide;
 import com.vibe.fundsmith.repository.CashRepository;
 import com.vibe.fundsmith.repository.PositionRepository;
@@ -17,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,6 +38,9 @@ public class IborIntegrationTest {
     @Autowired
     private CashService cashService;
     
+    @Autowired
+    private CashReconciliationService cashReconciliationService;
+    
     @Autowired
     private PositionRepository positionRepository;
     
@@ -70,7 +75,7 @@ public class IborIntegrationTest {
         assertFalse(response.isIdempotentHit());
         
         // Verify position was updated
-        Optional<Position> positionOpt = positionRepository.findById(isin);
+        Optional<Position> positionOpt = positionRepository.findById(new PositionId(portfolioId, isin));
         assertTrue(positionOpt.isPresent(), "Position should be created for ISIN");
         Position position = positionOpt.get();
         assertEquals(0, new BigDecimal(quantity).compareTo(position.getQuantity()), 
@@ -91,6 +96,12 @@ public class IborIntegrationTest {
             assertEquals(response.getTradeId().toString(), latestEntry.getTradeId(), "Cash entry should reference trade ID");
         }
         
+        // Verify the running balance is recorded and matches the materialized balance
+        assertNotNull(latestEntry.getBalance(), "Cash entry should carry the running balance");
+        assertEquals("USD", latestEntry.getCurrency(), "Cash should move in the trade currency");
+        assertEquals(0, latestEntry.getBalance().compareTo(cashService.getBalance(portfolioId, "USD")),
+            "Materialized balance should equal the latest running balance");
+        
         // Verify processed trade record (idempotency)
         assertTrue(processedTradeRepository.existsByTradeId(response.getTradeId()), 
                   "Processed trade record should exist for idempotency");
@@ -108,7 +119,7 @@ public class IborIntegrationTest {
         assertTrue(duplicateResponse.isIdempotentHit(), "Duplicate trade should be detected as idempotent");
         
         // Verify position was not updated twice
-        Optional<Position> positionOptAfterDuplicate = positionRepository.findById(isin);
+        Optional<Position> positionOptAfterDuplicate = positionRepository.findById(new PositionId(portfolioId, isin));
         assertEquals(0, new BigDecimal(quantity).compareTo(positionOptAfterDuplicate.get().getQuantity()), 
                     "Position quantity should not change after duplicate trade (ignoring scale)");
         
@@ -116,5 +127,51 @@ public class IborIntegrationTest {
         List<CashEntry> cashEntriesAfterDuplicate = cashRepository.findByPortfolioIdOrderByCreatedAtDesc(portfolioId);
         assertEquals(cashEntries.size(), cashEntriesAfterDuplicate.size(), 
                     "No additional cash entries should be created for duplicate trade");
+        
+        // Verify the snapshot reconciles with the ledger sum
+        assertTrue(cashReconciliationService.reconcile().isConsistent(),
+                    "Cash state should reconcile with the ledger");
+    }
+    
+    @Test
+    void tradesInSeveralCurrencies_KeepSeparateCashBalances() {
+        // Given
+        String portfolioId = "MULTI_CCY";
+        
+        // When - one BUY settles in USD, two in EUR
+        tradeService.bookTrade(tradeRequest(portfolioId, "USD", new BigDecimal("100.00")));
+        tradeService.bookTrade(tradeRequest(portfolioId, "EUR", new BigDecimal("50.00")));
+        tradeService.bookTrade(tradeRequest(portfolioId, "EUR", new BigDecimal("25.00")));
+        
+        // Then - each currency has its own balance and running balances
+        Map<String, BigDecimal> balances = cashService.getBalances(portfolioId);
+        assertEquals(2, balances.size());
+        assertEquals(0, new BigDecimal("-1000.00").compareTo(balances.get("USD")));
+        assertEquals(0, new BigDecimal("-750.00").compareTo(balances.get("EUR")));
+        
+        List<BigDecimal> eurRunningBalances = cashRepository.findByPortfolioIdOrderByCreatedAtDesc(portfolioId).stream()
+            .filter(entry -> entry.getCurrency().equals("EUR"))
+            .map(CashEntry::getBalance)
+            .sorted()
+            .toList();
+        assertEquals(2, eurRunningBalances.size());
+        assertEquals(0, new BigDecimal("-750.00").compareTo(eurRunningBalances.get(0)),
+            "Running balance should only include entries in the same currency");
+        assertEquals(0, new BigDecimal("-500.00").compareTo(eurRunningBalances.get(1)));
+        
+        assertTrue(cashReconciliationService.reconcile().isConsistent(),
+            "Per-currency cash state should reconcile with the ledger");
+    }
+    
+    private static TradeRequest tradeRequest(String portfolioId, String currency, BigDecimal price) {
+        TradeRequest request = new TradeRequest();
+        request.setIsin("US0378331005");
+        request.setQuantity(10L);
+        request.setPrice(price);
+        request.setSide(TradeSide.BUY);
+        request.setTradeCurrency(currency);
+        request.setTradeDate(LocalDate.now());
+        request.setPortfolioId(portfolioId);
+        return request;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.JournalDto;
+import com.vibe.fundsmith.dto.JournalPageDto;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.model.JournalType;
+import com.vibe.fundsmith.model.TradeSide;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards journal read paths against N+1 line loads: statement counts must not grow with page size.
+ * Statistics are global, so the polling jobs are slowed down to keep their statements out of the counts.
+ * Bookings commit, so the test has its own database.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:journalreaddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "ibor.events.relay.interval-ms=3600000",
+    "ibor.positions.cache.sync-interval-ms=3600000",
+    "ibor.metrics.backlog-refresh-ms=3600000"
+})
+@ActiveProfiles("test")
+public class JournalReadQueryTest {
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TradeBatchService tradeBatchService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getRecentJournals_UsesTwoQueriesForAnyPageSize() {
+        // Given
+        List<TradeRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            requests.add(request());
+        }
+        tradeBatchService.bookTrades(requests);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int limit : new int[] {5, 50}) {
+            // When
+            statistics.clear();
+            List<JournalDto> journals = journalService.getRecentJournals(limit);
+
+            // Then
+            assertEquals(limit, journals.size());
+            assertTrue(journals.stream().allMatch(journal -> journal.getLines().size() == 2));
+            assertEquals(2, statistics.getPrepareStatementCount(), "Statements for a page of " + limit);
+        }
+    }
+
+    @Test
+    void getJournalsForTrade_FetchesLinesWithJournals() {
+        // Given
+        TradeRequest request = request();
+        tradeBatchService.bookTrades(List.of(request));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<JournalDto> journals = journalService.getJournalsForTrade(request.getTradeId());
+
+        // Then
+        assertEquals(1, journals.size());
+        assertEquals(2, journals.get(0).getLines().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchJournals_PagesWithoutGapsInTwoQueriesPerPage() {
+        // Given - 10 buys in a portfolio of their own
+        String portfolio = "SEARCH_" + UUID.randomUUID().toString().substring(0, 8);
+        List<TradeRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            requests.add(request(portfolio, i * 100L));
+        }
+        tradeBatchService.bookTrades(requests);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When - page through the portfolio four journals at a time
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            JournalPageDto page = journalService.searchJournals(
+                portfolio, JournalType.TRADE_DATE, null, null, null, null, null, cursor, 4);
+            assertEquals(2, statistics.getPrepareStatementCount(), "Statements for page " + pages);
+            page.getJournals().forEach(journal -> assertTrue(seen.add(journal.getJournalId())));
+            assertTrue(page.getJournals().stream().allMatch(journal -> journal.getLines().size() == 2));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(10, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void searchJournals_FiltersOnLineAccountAndAmount() {
+        // Given - buys of 3,207.50, 6,415.00, 12,830.00 and 32,075.00 (price 320.75)
+        String portfolio = "SEARCH_" + UUID.randomUUID().toString().substring(0, 8);
+        tradeBatchService.bookTrades(List.of(
+            request(portfolio, 10L),
+            request(portfolio, 20L),
+            request(portfolio, 40L),
+            request(portfolio, 100L)));
+
+        // When
+        JournalPageDto between = journalService.searchJournals(portfolio, null, "SECURITIES_RECEIVABLE",
+            new BigDecimal("3000"), new BigDecimal("7000"), null, null, null, null);
+        JournalPageDto above = journalService.searchJournals(portfolio, null, "CASH_PAYABLE",
+            new BigDecimal("10000"), null, null, null, null, null);
+        JournalPageDto otherAccount = journalService.searchJournals(portfolio, null, "CASH_RECEIVABLE",
+            null, null, null, null, null, null);
+
+        // Then
+        assertEquals(2, between.getJournals().size());
+        assertFalse(between.isHasMore());
+        assertNull(between.getNextCursor());
+        assertTrue(between.getJournals().stream().allMatch(journal -> journal.getLines().stream()
+            .anyMatch(line -> line.getAccount().equals("SECURITIES_RECEIVABLE")
+                && line.getDr().compareTo(new BigDecimal("3000")) >= 0
+                && line.getDr().compareTo(new BigDecimal("7000")) <= 0)));
+        assertEquals(2, above.getJournals().size());
+        assertTrue(above.getJournals().stream().allMatch(journal -> journal.getLines().stream()
+            .anyMatch(line -> line.getAccount().equals("CASH_PAYABLE")
+                && line.getCr().compareTo(new BigDecimal("10000")) >= 0)));
+        assertTrue(otherAccount.getJournals().isEmpty());
+    }
+
+    @Test
+    void searchJournals_RejectsInvalidInput() {
+        assertThrows(ValidationException.class, () -> journalService.searchJournals(
+            null, null, null, null, null, null, null, "not-a-cursor", null));
+        assertThrows(ValidationException.class, () -> journalService.searchJournals(
+            null, null, null, new BigDecimal("10"), BigDecimal.ONE, null, null, null, null));
+        assertThrows(ValidationException.class, () -> journalService.searchJournals(
+            null, null, null, null, null, null, null, null, 501));
+    }
+
+    private static TradeRequest request() {
+        return request("JOURNAL_READS", 10L);
+    }
+
+    private static TradeRequest request(String portfolio, long quantity) {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(UUID.randomUUID());
+        request.setIsin("US5949181045");
+        request.setQuantity(quantity);
+        request.setPrice(new BigDecimal("320.75"));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId(portfolio);
+        request.setTradeDate(LocalDate.now());
+        return request;
+    }
+}
@@ -4,6 +4,7 @@ import com.vibe.fundsmith.exception.UnbalancedJournalException;
 import com.vibe.fundsmith.model.*;
 import com.vibe.fundsmith.repository.JournalRepository;
 import com.vibe.fundsmith.repository.SettlementMarkerRepository;
+import com.vibe.fundsmith.repository.TradeBatchRepository;
 import com.vibe.fundsmith.repository.TradeRepository;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +31,12 @@ class JournalServiceTest {
     @Mock
     private TradeRepository tradeRepository;
     
+    @Mock
+    private TradeBatchRepository tradeBatchRepository;
+    
+    @Mock
+    private LedgerService ledgerService;
+    
     @InjectMocks
     private JournalService journalService;
     
@@ -54,13 +61,15 @@ class JournalServiceTest {
             .thenReturn(Optional.empty());
         
         // When
-        journalService.createTradeDateJournal(tradeId, isin, quantity, price, side);
+        journalService.createTradeDateJournal(tradeId, "PF_1", isin, quantity, price, side, LocalDate.now());
         
         // Then
         verify(journalRepository, times(1)).save(argThat(journal -> {
             // Verify journal properties
             assertEquals(tradeId, journal.getTradeId());
             assertEquals(JournalType.TRADE_DATE, journal.getJournalType());
+            assertEquals("PF_1", journal.getPortfolioId());
+            assertEquals(LocalDate.now(), journal.getAccountingDate());
             
             // Verify journal lines
             assertEquals(2, journal.getLines().size());
@@ -70,6 +79,7 @@ class JournalServiceTest {
             
             return true;
         }));
+        verify(ledgerService, times(1)).applyJournal(any(Journal.class));
     }
     
     @Test
@@ -88,10 +98,11 @@ class JournalServiceTest {
             .thenReturn(Optional.of(existingJournal));
         
         // When
-        journalService.createTradeDateJournal(tradeId, isin, quantity, price, side);
+        journalService.createTradeDateJournal(tradeId, "PF_1", isin, quantity, price, side, LocalDate.now());
         
-        // Then - verify we don't save again
+        // Then - verify we don't save or post again
         verify(journalRepository, never()).save(any());
+        verify(ledgerService, never()).applyJournal(any());
     }
     
     @Test
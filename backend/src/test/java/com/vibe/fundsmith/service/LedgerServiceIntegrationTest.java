@@ -0,0 +1,126 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.AccountLedgerDto;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.dto.TrialBalanceDto;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.model.Trade;
+import com.vibe.fundsmith.model.TradeSide;
+import com.vibe.fundsmith.repository.TradeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database: bookings commit, so they must not show up in the transactional tests
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ledgerdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+public class LedgerServiceIntegrationTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeBatchService tradeBatchService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Test
+    void bookedJournals_MaintainTrialBalanceAndAccountHistory() {
+        // Given - single and batch bookings on two dates, then one back-dated booking
+        String portfolio = "LEDGER_" + UUID.randomUUID().toString().substring(0, 8);
+        LocalDate firstDate = LocalDate.now().minusDays(5);
+        LocalDate secondDate = LocalDate.now().minusDays(2);
+        LocalDate backDate = LocalDate.now().minusDays(9);
+
+        tradeService.bookTrade(request(portfolio, firstDate, 100L, "10.00"));
+        tradeService.bookTrade(request(portfolio, firstDate, 50L, "20.00"));
+        tradeBatchService.bookTrades(List.of(request(portfolio, secondDate, 10L, "30.00")));
+        tradeService.bookTrade(request(portfolio, backDate, 1L, "5.00"));
+
+        // When
+        TrialBalanceDto trialBalance = ledgerService.getTrialBalance(portfolio, secondDate);
+        TrialBalanceDto beforeBackDate = ledgerService.getTrialBalance(portfolio, backDate.minusDays(1));
+        AccountLedgerDto receivable = ledgerService.getAccountLedger(portfolio, "SECURITIES_RECEIVABLE", null, secondDate);
+
+        // Then
+        Map<String, TrialBalanceDto.Line> accounts = trialBalance.getAccounts().stream()
+            .collect(Collectors.toMap(TrialBalanceDto.Line::getAccount, line -> line));
+        assertTrue(trialBalance.isBalanced());
+        assertEquals(0, new BigDecimal("2305").compareTo(accounts.get("SECURITIES_RECEIVABLE").getDebit()));
+        assertEquals(0, new BigDecimal("2305").compareTo(accounts.get("CASH_PAYABLE").getCredit()));
+        assertEquals(secondDate, accounts.get("CASH_PAYABLE").getLastPostedOn());
+        assertTrue(beforeBackDate.getAccounts().isEmpty());
+
+        assertEquals(List.of(backDate, firstDate, secondDate),
+            receivable.getDays().stream().map(AccountLedgerDto.Day::getDate).toList());
+        // The back-dated posting is carried into every later closing balance
+        assertEquals(0, new BigDecimal("2005").compareTo(receivable.getDays().get(1).getBalance()));
+        assertEquals(0, new BigDecimal("2305").compareTo(receivable.getClosingBalance()));
+
+        AccountLedgerDto lastDay = ledgerService.getAccountLedger(portfolio, "SECURITIES_RECEIVABLE", secondDate, secondDate);
+        assertEquals(0, new BigDecimal("2005").compareTo(lastDay.getOpeningBalance()));
+        assertEquals(1, lastDay.getDays().size());
+        assertEquals(0, new BigDecimal("300").compareTo(lastDay.getDays().get(0).getDebit()));
+    }
+
+    @Test
+    void settlementJournal_PostsOnSettleDate() {
+        // Given
+        String portfolio = "LEDGER_" + UUID.randomUUID().toString().substring(0, 8);
+        TradeRequest request = request(portfolio, LocalDate.now().minusDays(10), 100L, "10.00");
+        tradeService.bookTrade(request);
+        Trade trade = tradeRepository.findByTradeId(request.getTradeId()).orElseThrow();
+
+        // When
+        journalService.createSettlementDateJournal(trade.getTradeId());
+
+        // Then - receivable and payable are cleared from the settle date on
+        Map<String, TrialBalanceDto.Line> beforeSettlement = ledgerService
+            .getTrialBalance(portfolio, trade.getSettleDate().minusDays(1)).getAccounts().stream()
+            .collect(Collectors.toMap(TrialBalanceDto.Line::getAccount, line -> line));
+        Map<String, TrialBalanceDto.Line> settled = ledgerService
+            .getTrialBalance(portfolio, trade.getSettleDate()).getAccounts().stream()
+            .collect(Collectors.toMap(TrialBalanceDto.Line::getAccount, line -> line));
+
+        assertFalse(beforeSettlement.containsKey("SECURITIES"));
+        assertEquals(0, new BigDecimal("1000").compareTo(settled.get("SECURITIES").getDebit()));
+        assertEquals(0, new BigDecimal("1000").compareTo(settled.get("CASH").getCredit()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(settled.get("SECURITIES_RECEIVABLE").getDebit()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(settled.get("CASH_PAYABLE").getCredit()));
+    }
+
+    @Test
+    void getAccountLedger_RejectsInvertedRange() {
+        assertThrows(ValidationException.class, () -> ledgerService.getAccountLedger(
+            "DEFAULT", "CASH", LocalDate.now(), LocalDate.now().minusDays(1)));
+    }
+
+    private static TradeRequest request(String portfolio, LocalDate tradeDate, long quantity, String price) {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(UUID.randomUUID());
+        request.setIsin("US0378331005");
+        request.setQuantity(quantity);
+        request.setPrice(new BigDecimal(price));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId(portfolio);
+        request.setTradeDate(tradeDate);
+        return request;
+    }
+}
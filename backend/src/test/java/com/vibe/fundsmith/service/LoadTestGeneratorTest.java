@@ -0,0 +1,99 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.exception.ValidationException;
+import com.vibe.fundsmith.service.LoadTestGenerator.LoadTestRun;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LoadTestGeneratorTest {
+
+    @Test
+    void run_SchedulesOpenLoopAtTargetRate() throws Exception {
+        // Given - 200 trades/s for half a second
+        AtomicInteger booked = new AtomicInteger();
+        LoadTestRun run = new LoadTestRun(200, 4, TimeUnit.MILLISECONDS.toNanos(500), 1000,
+            TradeRequest::new, trade -> booked.incrementAndGet());
+
+        // When
+        run.start();
+
+        // Then
+        assertTrue(run.awaitFinished(10, TimeUnit.SECONDS));
+        assertEquals(100, run.getScheduled());
+        assertEquals(100, run.getCompleted());
+        assertEquals(100, booked.get());
+        assertEquals(0, run.getDropped());
+        assertEquals(100, run.histogram(LoadTestGenerator.STAGE_RESPONSE).getTotalCount());
+        assertEquals(run.histogram(LoadTestGenerator.STAGE_RESPONSE).getMaxValue(),
+            run.responseIncludingDropped().getMaxValue());
+    }
+
+    @Test
+    void run_CountsQueueingBehindSlowServiceInResponseLatency() throws Exception {
+        // Given - one producer taking 20ms per trade, offered 100 trades/s
+        LoadTestRun run = new LoadTestRun(100, 1, TimeUnit.MILLISECONDS.toNanos(300), 1000,
+            TradeRequest::new, trade -> sleep(20));
+
+        // When
+        run.start();
+        assertTrue(run.awaitFinished(10, TimeUnit.SECONDS));
+
+        // Then - arrivals were not held back by the slow service, so the backlog shows in response time
+        assertEquals(30, run.getScheduled());
+        long serviceP99 = run.histogram(LoadTestGenerator.STAGE_SERVICE).getValueAtPercentile(99.0);
+        long responseP99 = run.histogram(LoadTestGenerator.STAGE_RESPONSE).getValueAtPercentile(99.0);
+        assertTrue(responseP99 > 5 * serviceP99, "response p99 " + responseP99 + "us, service p99 " + serviceP99 + "us");
+    }
+
+    @Test
+    void run_DropsTradesThatDoNotFitTheQueue() throws Exception {
+        // Given - a blocked producer and a queue of two
+        LoadTestRun run = new LoadTestRun(1000, 1, TimeUnit.MILLISECONDS.toNanos(50), 2,
+            TradeRequest::new, trade -> sleep(200));
+
+        // When
+        run.start();
+        assertTrue(run.awaitFinished(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(3, run.getCompleted());
+        assertEquals(run.getScheduled() - 3, run.getDropped());
+        assertEquals(3L, run.status().get("completed"));
+
+        // Dropped trades are missing from the response histogram but count as never answered
+        // in the one that includes them
+        assertEquals(3, run.histogram(LoadTestGenerator.STAGE_RESPONSE).getTotalCount());
+        Histogram withDropped = run.responseIncludingDropped();
+        assertEquals(run.getScheduled(), withDropped.getTotalCount());
+        assertTrue(withDropped.getValueAtPercentile(50.0) >= TimeUnit.HOURS.toMicros(1));
+        Map<?, ?> latency = (Map<?, ?>) run.status().get("latencyMs");
+        assertEquals(run.getScheduled(),
+            ((Map<?, ?>) latency.get(LoadTestGenerator.STAGE_RESPONSE_INCLUDING_DROPPED)).get("count"));
+    }
+
+    @Test
+    void start_RejectsOutOfRangeParameters() {
+        LoadTestGenerator generator = new LoadTestGenerator(mock(DemoTradeGenerator.class), mock(TradeService.class), 10_000, 64, 1000);
+
+        assertThrows(ValidationException.class, () -> generator.start(0, 1, 1));
+        assertThrows(ValidationException.class, () -> generator.start(20_000, 1, 1));
+        assertThrows(ValidationException.class, () -> generator.start(100, 0, 1));
+        assertEquals(Map.of("running", false), generator.getStatus());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
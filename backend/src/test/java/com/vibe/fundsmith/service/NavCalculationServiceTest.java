@@ -1,14 +1,14 @@
 package com.vibe.fundsmith.service;
 
-import com.vibe.fundsmith.config.DemoConfig;
+import com.vibe.fundsmith.dto.PriceDto;
 import com.vibe.fundsmith.model.NavCalculation;
 import com.vibe.fundsmith.model.Position;
-import com.vibe.fundsmith.repository.CashLedgerRepository;
 import com.vibe.fundsmith.repository.NavCalculationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,10 +28,10 @@ class NavCalculationServiceTest {
     private PositionService positionService;
 
     @Mock
-    private CashLedgerRepository cashLedgerRepository;
+    private CashService cashService;
 
     @Mock
-    private DemoConfig demoConfig;
+    private PriceService priceService;
 
     @InjectMocks
     private NavCalculationService navCalculationService;
@@ -43,9 +43,8 @@ class NavCalculationServiceTest {
         // recreate service with defaults for test
         navCalculationService = new NavCalculationService(
                 navCalculationRepository,
-                positionService,
-                cashLedgerRepository,
-                demoConfig,
+                new NavEngine(positionService, cashService, priceService,
+                        new FxRateService(baseCurrency -> Map.of(), "USD")),
                 1_000_000L,
                 new BigDecimal("0.005")
         );
@@ -60,13 +59,14 @@ class NavCalculationServiceTest {
         when(pos.getIsin()).thenReturn("US0378331005");
         when(pos.getQuantity()).thenReturn(new BigDecimal("100")); // 100 shares
 
-        when(positionService.getPositions()).thenReturn(List.of(pos));
+        when(positionService.getPositions(portfolioId)).thenReturn(List.of(pos));
 
-        // Demo price for the ISIN
-        when(demoConfig.getBasePrices()).thenReturn(Map.of("US0378331005", new BigDecimal("175.50")));
+        // Price for the ISIN from the price service
+        when(priceService.getPrices(anyCollection())).thenReturn(Map.of("US0378331005",
+                new PriceDto("US0378331005", new BigDecimal("175.50"), "USD", LocalDate.now())));
 
-        // Cash balance from ledger
-        when(cashLedgerRepository.getCurrentBalance(portfolioId)).thenReturn(new BigDecimal("1000.00"));
+        // Cash balance from materialized cash state
+        when(cashService.getBalances(portfolioId)).thenReturn(Map.of("USD", new BigDecimal("1000.00")));
 
         // Capture saved entity
         ArgumentCaptor<NavCalculation> captor = ArgumentCaptor.forClass(NavCalculation.class);
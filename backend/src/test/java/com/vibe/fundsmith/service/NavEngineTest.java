@@ -0,0 +1,219 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PriceDto;
+import com.vibe.fundsmith.event.CashMovementEvent;
+import com.vibe.fundsmith.event.EventEnvelope;
+import com.vibe.fundsmith.event.PriceChangedEvent;
+import com.vibe.fundsmith.event.PositionUpdatedEvent;
+import com.vibe.fundsmith.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NavEngineTest {
+
+    private static final String PORTFOLIO = "DEFAULT";
+    private static final String AAPL = "US0378331005";
+    private static final String MSFT = "US5949181045";
+    private static final String SAP = "DE0007164600";
+
+    @Mock
+    private PositionService positionService;
+
+    @Mock
+    private CashService cashService;
+
+    @Mock
+    private PriceService priceService;
+
+    @Mock
+    private FxRateSource fxRateSource;
+
+    private NavEngine navEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Map<String, PriceDto> basePrices = Map.of(
+            AAPL, new PriceDto(AAPL, new BigDecimal("175.50"), "USD", LocalDate.now()),
+            MSFT, new PriceDto(MSFT, new BigDecimal("320.75"), "USD", LocalDate.now()),
+            SAP, new PriceDto(SAP, new BigDecimal("120.00"), "EUR", LocalDate.now()));
+        when(priceService.getPrices(anyCollection())).thenAnswer(invocation -> {
+            Map<String, PriceDto> prices = new HashMap<>();
+            for (String isin : invocation.<Collection<String>>getArgument(0)) {
+                if (basePrices.containsKey(isin)) {
+                    prices.put(isin, basePrices.get(isin));
+                }
+            }
+            return prices;
+        });
+        when(positionService.getPositions(PORTFOLIO))
+            .thenReturn(List.of(new Position(PORTFOLIO, AAPL, new BigDecimal("100"))));
+        when(cashService.getBalances(PORTFOLIO)).thenReturn(Map.of("USD", new BigDecimal("1000.00")));
+        when(fxRateSource.fetchRates("USD")).thenReturn(Map.of(
+            "EUR", new BigDecimal("1.10"),
+            "GBP", new BigDecimal("1.25")));
+        navEngine = new NavEngine(positionService, cashService, priceService, new FxRateService(fxRateSource, "USD"));
+    }
+
+    @Test
+    void valuation_LoadsPortfolioOnFirstUse() {
+        NavEngine.Valuation valuation = navEngine.valuation(PORTFOLIO);
+
+        // 100 x 175.50 + 1000.00
+        assertEquals(0, new BigDecimal("18550.00").compareTo(valuation.grossAssetValue()));
+    }
+
+    @Test
+    void events_AdjustRunningValueWithoutReloading() {
+        // Given
+        navEngine.valuation(PORTFOLIO);
+
+        // When - BUY 50 AAPL, open 10 MSFT, cash moves accordingly
+        navEngine.onEvent(new EventEnvelope(1L, 1L, "PositionUpdated", new PositionUpdatedEvent(
+            PORTFOLIO, AAPL, new BigDecimal("50"), new BigDecimal("150"), ZonedDateTime.now())));
+        navEngine.onEvent(new EventEnvelope(2L, 2L, "PositionUpdated", new PositionUpdatedEvent(
+            PORTFOLIO, MSFT, new BigDecimal("10"), new BigDecimal("10"), ZonedDateTime.now())));
+        navEngine.onEvent(new EventEnvelope(3L, 3L, "CashMovement", new CashMovementEvent(
+            null, PORTFOLIO, new BigDecimal("-500.00"), new BigDecimal("500.00"), "USD", "ADJ", ZonedDateTime.now())));
+
+        // Then - 150 x 175.50 + 10 x 320.75 + 500.00
+        NavEngine.Valuation valuation = navEngine.valuation(PORTFOLIO);
+        assertEquals(0, new BigDecimal("30032.50").compareTo(valuation.grossAssetValue()));
+        verify(positionService, times(1)).getPositions(PORTFOLIO);
+    }
+
+    @Test
+    void valuation_ConvertsCashPerCurrencyIntoBaseWithCachedRates() {
+        // Given
+        when(cashService.getBalances(PORTFOLIO)).thenReturn(Map.of(
+            "USD", new BigDecimal("1000.00"),
+            "EUR", new BigDecimal("200.00")));
+        navEngine.valuation(PORTFOLIO);
+
+        // When - GBP cash arrives, EUR balance moves
+        navEngine.onEvent(new EventEnvelope(1L, 1L, "CashMovement", new CashMovementEvent(
+            null, PORTFOLIO, new BigDecimal("400.00"), new BigDecimal("400.00"), "GBP", "ADJ", ZonedDateTime.now())));
+        navEngine.onEvent(new EventEnvelope(2L, 2L, "CashMovement", new CashMovementEvent(
+            null, PORTFOLIO, new BigDecimal("-100.00"), new BigDecimal("100.00"), "EUR", "ADJ", ZonedDateTime.now())));
+
+        // Then - 1000.00 + 100 x 1.10 + 400 x 1.25, balances never summed across currencies
+        NavEngine.Valuation valuation = navEngine.valuation(PORTFOLIO);
+        assertEquals(0, new BigDecimal("1610.00").compareTo(valuation.cashBalance()));
+        assertEquals(0, new BigDecimal("19160.00").compareTo(valuation.grossAssetValue()));
+        verify(fxRateSource, times(1)).fetchRates("USD");
+    }
+
+    @Test
+    void valuation_ConvertsPositionsPricedInOtherCurrenciesIntoBase() {
+        // Given - 100 AAPL priced in USD, 10 SAP priced in EUR
+        when(positionService.getPositions(PORTFOLIO)).thenReturn(List.of(
+            new Position(PORTFOLIO, AAPL, new BigDecimal("100")),
+            new Position(PORTFOLIO, SAP, new BigDecimal("10"))));
+
+        // Then - 100 x 175.50 + 10 x 120.00 x 1.10 + 1000.00
+        NavEngine.Valuation loaded = navEngine.valuation(PORTFOLIO);
+        assertEquals(0, new BigDecimal("18870.00").compareTo(loaded.positionsValue()));
+        assertEquals(0, new BigDecimal("19870.00").compareTo(loaded.grossAssetValue()));
+
+        // When - SAP reprices in EUR and the position doubles
+        navEngine.onPriceChanged(new PriceChangedEvent(SAP, new BigDecimal("120.00"), new BigDecimal("130.00"), "EUR"));
+        navEngine.onEvent(new EventEnvelope(1L, 1L, "PositionUpdated", new PositionUpdatedEvent(
+            PORTFOLIO, SAP, new BigDecimal("10"), new BigDecimal("20"), ZonedDateTime.now())));
+
+        // Then - 100 x 175.50 + 20 x 130.00 x 1.10 + 1000.00, and the full recompute agrees
+        assertEquals(0, new BigDecimal("21410.00").compareTo(navEngine.valuation(PORTFOLIO).grossAssetValue()));
+        when(positionService.loadPositions(PORTFOLIO)).thenReturn(List.of(
+            new Position(PORTFOLIO, AAPL, new BigDecimal("100")),
+            new Position(PORTFOLIO, SAP, new BigDecimal("20"))));
+        assertTrue(navEngine.verify(PORTFOLIO));
+    }
+
+    @Test
+    void valuation_PricesPortfolioInOneBulkLookup() {
+        // Given
+        when(positionService.getPositions(PORTFOLIO)).thenReturn(List.of(
+            new Position(PORTFOLIO, AAPL, new BigDecimal("100")),
+            new Position(PORTFOLIO, MSFT, new BigDecimal("10"))));
+
+        // When
+        navEngine.valuation(PORTFOLIO);
+
+        // Then
+        verify(priceService, times(1)).getPrices(anyCollection());
+    }
+
+    @Test
+    void onPriceChanged_RevaluesHolders() {
+        // Given
+        navEngine.valuation(PORTFOLIO);
+
+        // When
+        navEngine.onPriceChanged(new PriceChangedEvent(AAPL, new BigDecimal("175.50"), new BigDecimal("170.00"), "USD"));
+
+        // Then - 100 x 170.00 + 1000.00
+        assertEquals(0, new BigDecimal("18000.00").compareTo(navEngine.valuation(PORTFOLIO).grossAssetValue()));
+    }
+
+    @Test
+    void applyPriceChange_RevaluesHolders() {
+        // Given
+        navEngine.valuation(PORTFOLIO);
+
+        // When
+        navEngine.applyPriceChange(AAPL, new BigDecimal("180.00"), "USD");
+
+        // Then - 100 x 180.00 + 1000.00
+        assertEquals(0, new BigDecimal("19000.00").compareTo(navEngine.valuation(PORTFOLIO).grossAssetValue()));
+    }
+
+    @Test
+    void applyPosition_NewHoldingFollowsLaterPriceChanges() {
+        // Given - MSFT is repriced before the portfolio holds it
+        navEngine.valuation(PORTFOLIO);
+        navEngine.applyPriceChange(MSFT, new BigDecimal("300.00"), "USD");
+
+        // When - the portfolio opens MSFT, then MSFT is repriced again
+        navEngine.applyPosition(PORTFOLIO, MSFT, new BigDecimal("10"));
+        navEngine.applyPriceChange(MSFT, new BigDecimal("310.00"), "USD");
+
+        // Then - 100 x 175.50 + 10 x 310.00 + 1000.00, matching a full recompute
+        assertEquals(0, new BigDecimal("21650.00").compareTo(navEngine.valuation(PORTFOLIO).grossAssetValue()));
+        when(positionService.loadPositions(PORTFOLIO)).thenReturn(List.of(
+            new Position(PORTFOLIO, AAPL, new BigDecimal("100")),
+            new Position(PORTFOLIO, MSFT, new BigDecimal("10"))));
+        assertTrue(navEngine.verify(PORTFOLIO));
+        assertEquals(0, navEngine.getVerificationBreaks());
+    }
+
+    @Test
+    void verify_ResetsToFullRecomputeOnMismatch() {
+        // Given - engine loaded, then a change it never heard about
+        navEngine.valuation(PORTFOLIO);
+        when(positionService.loadPositions(PORTFOLIO))
+            .thenReturn(List.of(new Position(PORTFOLIO, AAPL, new BigDecimal("200"))));
+
+        // When
+        boolean matched = navEngine.verify(PORTFOLIO);
+
+        // Then
+        assertFalse(matched);
+        assertEquals(1, navEngine.getVerificationBreaks());
+        assertEquals(0, new BigDecimal("36100.00").compareTo(navEngine.valuation(PORTFOLIO).grossAssetValue()));
+
+        // And the next verification agrees
+        assertTrue(navEngine.verify(PORTFOLIO));
+    }
+}
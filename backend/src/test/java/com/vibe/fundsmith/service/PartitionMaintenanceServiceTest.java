@@ -0,0 +1,129 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.config.DatabasePlatform;
+import com.vibe.fundsmith.repository.PartitionRepository;
+import com.vibe.fundsmith.service.PartitionMaintenanceService.RetentionMode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PartitionMaintenanceServiceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+
+    @Mock
+    private PartitionRepository partitionRepository;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(databasePlatform.isPostgres()).thenReturn(true);
+        when(partitionRepository.findMonthlyPartitions(anyString())).thenReturn(new TreeMap<>());
+    }
+
+    @Test
+    void createUpcomingPartitions_EnsuresCurrentAndAheadMonthsOfEveryTable() {
+        // Given
+        when(partitionRepository.ensureMonthlyPartition(anyString(), any()))
+            .thenAnswer(invocation -> invocation.getArgument(0) + "_" + invocation.getArgument(1));
+
+        // When
+        List<String> ensured = service(RetentionMode.DETACH, 84).createUpcomingPartitions(CURRENT);
+
+        // Then
+        assertEquals(PartitionMaintenanceService.PARTITIONED_TABLES.size() * 4, ensured.size());
+        verify(partitionRepository).ensureMonthlyPartition("journals", CURRENT);
+        verify(partitionRepository).ensureMonthlyPartition("trades", YearMonth.of(2027, 1));
+        verify(partitionRepository, never()).ensureMonthlyPartition("trades", YearMonth.of(2027, 2));
+    }
+
+    @Test
+    void retireExpiredPartitions_DetachesMonthsBeforeRetentionIncludingJournalLines() {
+        // Given - 84 months back from October 2026 keeps October 2019 onwards
+        when(partitionRepository.findMonthlyPartitions("journals")).thenReturn(partitions("journals",
+            YearMonth.of(2019, 8), YearMonth.of(2019, 9), YearMonth.of(2019, 10)));
+        when(partitionRepository.findMonthlyPartitions("journal_lines")).thenReturn(partitions("journal_lines",
+            YearMonth.of(2019, 9), YearMonth.of(2019, 10)));
+        when(partitionRepository.findMonthlyPartitions("trades")).thenReturn(partitions("trades",
+            YearMonth.of(2019, 9), YearMonth.of(2019, 10)));
+
+        // When
+        List<String> retired = service(RetentionMode.DETACH, 84).retireExpiredPartitions(CURRENT);
+
+        // Then
+        assertEquals(List.of("trades_p201909", "journals_p201908", "journals_p201909", "journal_lines_p201909"),
+            retired);
+        verify(partitionRepository).detachPartition("journals", "journals_p201908");
+        verify(partitionRepository).detachPartition("journal_lines", "journal_lines_p201909");
+        verify(partitionRepository).detachPartition("trades", "trades_p201909");
+        verify(partitionRepository, never()).detachPartition("journals", "journals_p201910");
+        verify(partitionRepository, never()).detachPartition("journal_lines", "journal_lines_p201910");
+        verify(partitionRepository, never()).dropPartition(anyString());
+    }
+
+    @Test
+    void retireExpiredPartitions_DropModeDropsWithoutArchiving() {
+        // Given
+        when(partitionRepository.findMonthlyPartitions("journals")).thenReturn(partitions("journals",
+            YearMonth.of(2019, 1)));
+        when(partitionRepository.findMonthlyPartitions("journal_lines")).thenReturn(partitions("journal_lines",
+            YearMonth.of(2019, 1)));
+
+        // When
+        service(RetentionMode.DROP, 84).retireExpiredPartitions(CURRENT);
+
+        // Then
+        verify(partitionRepository).dropPartition("journals_p201901");
+        verify(partitionRepository).dropPartition("journal_lines_p201901");
+        verify(partitionRepository, never()).detachPartition(anyString(), anyString());
+    }
+
+    @Test
+    void retireExpiredPartitions_ZeroRetentionKeepsEverything() {
+        assertTrue(service(RetentionMode.DROP, 0).retireExpiredPartitions(CURRENT).isEmpty());
+        verify(partitionRepository, never()).findMonthlyPartitions(anyString());
+    }
+
+    @Test
+    void scheduledMaintenance_DoesNothingOutsidePostgres() {
+        // Given
+        when(databasePlatform.isPostgres()).thenReturn(false);
+
+        // When
+        service(RetentionMode.DETACH, 84).scheduledMaintenance();
+
+        // Then
+        verifyNoInteractions(partitionRepository);
+    }
+
+    private PartitionMaintenanceService service(RetentionMode mode, int retentionMonths) {
+        return new PartitionMaintenanceService(partitionRepository, databasePlatform, transactionManager,
+            true, 3, retentionMonths, mode);
+    }
+
+    private static NavigableMap<YearMonth, String> partitions(String table, YearMonth... months) {
+        NavigableMap<YearMonth, String> partitions = new TreeMap<>();
+        for (YearMonth month : months) {
+            partitions.put(month, String.format("%s_p%d%02d", table, month.getYear(), month.getMonthValue()));
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,138 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PositionDto;
+import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.service.PositionCache.CachedPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionCacheTest {
+
+    private PositionCache cache;
+    private ZonedDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PositionCache();
+        now = ZonedDateTime.now();
+    }
+
+    @Test
+    void put_PublishesNewSnapshotWithIncrementedEpoch() {
+        // Given
+        PositionCache.Snapshot before = cache.snapshot();
+
+        // When
+        cache.put(new CachedPosition("P1", "US0378331005", new BigDecimal("100"), now, 1));
+
+        // Then - earlier snapshot is unchanged, new one sees the write
+        PositionCache.Snapshot after = cache.snapshot();
+        assertEquals(before.epoch() + 1, after.epoch());
+        assertEquals(0, before.size());
+        assertEquals(1, after.size());
+        assertEquals(0, new BigDecimal("100").compareTo(after.portfolio("P1").get(0).getQuantity()));
+    }
+
+    @Test
+    void put_IgnoresChangesWithLowerVersionThanCachedRow() {
+        // Given
+        cache.put(new CachedPosition("P1", "US0378331005", new BigDecimal("300"), now, 3));
+        long epoch = cache.snapshot().epoch();
+
+        // When - a late commit callback carries an older state
+        cache.put(new CachedPosition("P1", "US0378331005", new BigDecimal("100"), now.plusSeconds(1), 2));
+
+        // Then
+        assertEquals(epoch, cache.snapshot().epoch());
+        assertEquals(0, new BigDecimal("300").compareTo(cache.snapshot().portfolio("P1").get(0).getQuantity()));
+    }
+
+    @Test
+    void put_OrdersByVersionNotTimestamp() {
+        // Given - B started after A but committed first
+        cache.put(new CachedPosition("P1", "US0378331005", new BigDecimal("150"), now, 2));
+
+        // When - A started first (older transaction timestamp) and committed last
+        cache.put(new CachedPosition("P1", "US0378331005", new BigDecimal("250"), now.minusSeconds(1), 3));
+
+        // Then
+        assertEquals(0, new BigDecimal("250").compareTo(cache.snapshot().portfolio("P1").get(0).getQuantity()));
+    }
+
+    @Test
+    void snapshot_ListsPositionsSortedByPortfolioThenIsin() {
+        // Given
+        cache.put(new CachedPosition("P2", "US5949181045", BigDecimal.ONE, now, 1));
+        cache.put(new CachedPosition("P1", "US88160R1014", BigDecimal.ONE, now, 1));
+        cache.put(new CachedPosition("P1", "US0378331005", BigDecimal.ONE, now, 1));
+
+        // When
+        List<PositionDto> all = cache.snapshot().all();
+
+        // Then
+        assertEquals(3, all.size());
+        assertEquals("P1", all.get(0).getPortfolioId());
+        assertEquals("US0378331005", all.get(0).getIsin());
+        assertEquals("US88160R1014", all.get(1).getIsin());
+        assertEquals("P2", all.get(2).getPortfolioId());
+        assertTrue(cache.snapshot().portfolio("UNKNOWN").isEmpty());
+    }
+
+    @Test
+    void replaceAll_KeepsRowsWrittenDuringTheDatabaseRead() {
+        // Given - a stale cached row, then a read starts and two rows are committed during it
+        cache.put(new CachedPosition("P1", "US0378331005", new BigDecimal("999"), now, 7));
+        cache.put(new CachedPosition("P1", "US5949181045", new BigDecimal("50"), now, 1));
+        long readStartedAtEpoch = cache.snapshot().epoch();
+        cache.put(new CachedPosition("P1", "US88160R1014", new BigDecimal("500"), now.minusMinutes(5), 1));
+        cache.put(new CachedPosition("P1", "US5949181045", new BigDecimal("80"), now.minusMinutes(5), 2));
+
+        Position stale = position("P1", "US0378331005", "100", 8);
+        Position readBeforeCommit = position("P1", "US5949181045", "50", 1);
+
+        // When
+        cache.replaceAll(List.of(stale, readBeforeCommit), readStartedAtEpoch);
+
+        // Then - the database wins for rows not written during the read, whatever their timestamps
+        assertTrue(cache.isLoaded());
+        List<PositionDto> positions = cache.snapshot().portfolio("P1");
+        assertEquals(3, positions.size());
+        assertEquals(0, new BigDecimal("100").compareTo(positions.get(0).getQuantity()));
+        assertEquals(0, new BigDecimal("80").compareTo(positions.get(1).getQuantity()));
+        assertEquals(0, new BigDecimal("500").compareTo(positions.get(2).getQuantity()));
+    }
+
+    @Test
+    void replaceAll_DropsRowsMissingFromDatabaseThatWereNotWrittenDuringTheRead() {
+        // Given
+        cache.put(new CachedPosition("P1", "US0378331005", new BigDecimal("100"), now, 1));
+
+        // When - e.g. after an admin reset
+        cache.replaceAll(List.of(), cache.snapshot().epoch());
+
+        // Then
+        assertEquals(0, cache.snapshot().size());
+    }
+
+    @Test
+    void putAfterCommit_AppliesImmediatelyWithoutTransaction() {
+        // When
+        cache.putAfterCommit("P1", "US0378331005", BigDecimal.TEN, now, 1);
+
+        // Then
+        assertEquals(1, cache.snapshot().size());
+    }
+
+    private Position position(String portfolioId, String isin, String quantity, long version) {
+        Position position = new Position(portfolioId, isin, new BigDecimal(quantity));
+        position.setUpdatedAt(now.minusMinutes(1));
+        position.setVersion(version);
+        return position;
+    }
+}
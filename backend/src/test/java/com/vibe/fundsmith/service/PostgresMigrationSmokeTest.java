@@ -0,0 +1,166 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.repository.PartitionRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies every migration to an empty PostgreSQL server and checks the keys the monthly
+ * partitioning (V17, V20, V21) still enforces across months. Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PostgresMigrationSmokeTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    // Partitions exist from the current month to three months ahead (V17)
+    private final LocalDate thisMonth = LocalDate.now().withDayOfMonth(10);
+    private final LocalDate nextMonth = thisMonth.plusMonths(1);
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        List<String> applied = PostgresMigrations.apply(connection);
+        assertTrue(applied.contains("V21__partition_journal_lines_by_accounting_date.sql"), applied.toString());
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void migrations_PartitionHistoryTablesByMonth() throws SQLException {
+        String suffix = thisMonth.format(DateTimeFormatter.ofPattern("yyyyMM"));
+        for (String table : List.of("trades", "cash_ledger", "journals", "journal_lines", "nav_snapshots")) {
+            assertEquals("p", queryString("SELECT relkind FROM pg_class WHERE relname = '" + table + "'"), table);
+            assertNotNull(queryString("SELECT to_regclass('" + table + "_p" + suffix + "')"), table);
+        }
+    }
+
+    @Test
+    void trades_RejectTradeIdBookedInAnotherMonth() throws SQLException {
+        UUID tradeId = UUID.randomUUID();
+        inTransaction(registerTrade(tradeId, thisMonth), insertTrade(tradeId, thisMonth));
+
+        // Lands in another partition, but its (trade_id, trade_date) is not registered
+        assertThrows(SQLException.class, () -> inTransaction(insertTrade(tradeId, nextMonth)));
+        assertEquals("1", queryString("SELECT COUNT(*) FROM trades WHERE trade_id = '" + tradeId + "'"));
+    }
+
+    @Test
+    void journals_RejectTradeAndTypeJournaledInAnotherMonth() throws SQLException {
+        UUID tradeId = UUID.randomUUID();
+        inTransaction(insertJournal(UUID.randomUUID(), tradeId, "TRADE_DATE", thisMonth));
+
+        assertThrows(SQLException.class,
+            () -> inTransaction(insertJournal(UUID.randomUUID(), tradeId, "TRADE_DATE", nextMonth)));
+        inTransaction(insertJournal(UUID.randomUUID(), tradeId, "SETTLEMENT_DATE", nextMonth));
+        assertEquals("2", queryString("SELECT COUNT(*) FROM journal_keys WHERE trade_id = '" + tradeId + "'"));
+    }
+
+    @Test
+    void journalLines_ReferenceJournalsAcrossPartitions() throws SQLException {
+        UUID journalId = UUID.randomUUID();
+        inTransaction(insertJournal(journalId, UUID.randomUUID(), "TRADE_DATE", nextMonth),
+            insertLine(journalId, nextMonth), insertLine(journalId, nextMonth));
+
+        // Lines are stored in the month of their journal
+        String suffix = nextMonth.format(DateTimeFormatter.ofPattern("yyyyMM"));
+        assertEquals("2", queryString("SELECT COUNT(*) FROM journal_lines_p" + suffix + " WHERE journal_id = '" + journalId + "'"));
+        assertThrows(SQLException.class, () -> inTransaction(insertLine(UUID.randomUUID(), nextMonth)));
+
+        // Deleting the journal deletes its key and, through it, its lines
+        inTransaction("DELETE FROM journals WHERE id = '" + journalId + "'");
+        assertEquals("0", queryString("SELECT COUNT(*) FROM journal_keys WHERE journal_id = '" + journalId + "'"));
+        assertEquals("0", queryString("SELECT COUNT(*) FROM journal_lines WHERE journal_id = '" + journalId + "'"));
+    }
+
+    @Test
+    void detachPartition_ArchivesAMonthOfJournalLinesWithItsJournals() throws SQLException {
+        PartitionRepository partitions = new PartitionRepository(
+            new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+        YearMonth month = YearMonth.of(2001, 1);
+        String journalsPartition = partitions.ensureMonthlyPartition("journals", month);
+        String linesPartition = partitions.ensureMonthlyPartition("journal_lines", month);
+        UUID journalId = UUID.randomUUID();
+        inTransaction(insertJournal(journalId, UUID.randomUUID(), "TRADE_DATE", month.atDay(10)),
+            insertLine(journalId, month.atDay(10)), insertLine(journalId, month.atDay(10)));
+
+        partitions.detachPartition("journals", journalsPartition);
+        partitions.detachPartition("journal_lines", linesPartition);
+
+        // The archive keeps the month's lines, no longer references journal_keys, and its
+        // journal key stays registered
+        assertEquals("2", queryString("SELECT COUNT(*) FROM " + linesPartition));
+        assertEquals("0", queryString("SELECT COUNT(*) FROM journal_lines WHERE journal_id = '" + journalId + "'"));
+        assertEquals("0", queryString("SELECT COUNT(*) FROM pg_constraint " +
+            "WHERE conrelid = to_regclass('" + linesPartition + "') AND contype = 'f'"));
+        assertEquals("1", queryString("SELECT COUNT(*) FROM journal_keys WHERE journal_id = '" + journalId + "'"));
+    }
+
+    private static String registerTrade(UUID tradeId, LocalDate tradeDate) {
+        return ("INSERT INTO processed_trades (trade_id, portfolio_id, isin, applied_delta, trade_date) " +
+                "VALUES ('%s', 'SMOKE', 'US0378331005', 10, DATE '%s')").formatted(tradeId, tradeDate);
+    }
+
+    private static String insertTrade(UUID tradeId, LocalDate tradeDate) {
+        return ("INSERT INTO trades (trade_id, isin, quantity, price, trade_date, settle_date, created_at, portfolio_id) " +
+                "VALUES ('%s', 'US0378331005', 10, 175.50, DATE '%s', DATE '%s', now(), 'SMOKE')")
+            .formatted(tradeId, tradeDate, tradeDate.plusDays(2));
+    }
+
+    private static String insertJournal(UUID journalId, UUID tradeId, String type, LocalDate accountingDate) {
+        return ("INSERT INTO journals (id, trade_id, journal_type, portfolio_id, accounting_date) " +
+                "VALUES ('%s', '%s', '%s', 'SMOKE', DATE '%s')").formatted(journalId, tradeId, type, accountingDate);
+    }
+
+    private static String insertLine(UUID journalId, LocalDate accountingDate) {
+        return ("INSERT INTO journal_lines (journal_id, accounting_date, account, dr, cr) " +
+                "VALUES ('%s', DATE '%s', 'CASH', 10, 0)").formatted(journalId, accountingDate);
+    }
+
+    private static void inTransaction(String... statements) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+            // Deferred foreign keys are checked here
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static String queryString(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.vibe.fundsmith.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies db/migration to a PostgreSQL database in version order, for tests against a real
+ * server. Like Flyway, it refuses two scripts with the same version rather than picking an
+ * order for them. Each script runs as one multi-statement execute, so dollar-quoted function
+ * bodies need no splitting.
+ */
+final class PostgresMigrations {
+
+    // Flyway versions: numeric parts separated by dots or underscores, e.g. V4_1__ is 4.1
+    private static final Pattern VERSION = Pattern.compile("V(\\d+(?:[._]\\d+)*)__.+\\.sql");
+
+    private PostgresMigrations() {}
+
+    /**
+     * @return Script names, in the order they were applied
+     * @throws IllegalStateException if two scripts have the same version
+     */
+    static List<String> apply(Connection connection) throws IOException, SQLException {
+        List<Resource> scripts = Arrays.stream(
+                new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql"))
+            .sorted(Comparator.comparing(PostgresMigrations::version, Arrays::compare))
+            .toList();
+        for (int i = 1; i < scripts.size(); i++) {
+            if (Arrays.equals(version(scripts.get(i - 1)), version(scripts.get(i)))) {
+                throw new IllegalStateException("Duplicate migration version: " +
+                    scripts.get(i - 1).getFilename() + " and " + scripts.get(i).getFilename());
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (Resource script : scripts) {
+                try {
+                    statement.execute(script.getContentAsString(StandardCharsets.UTF_8));
+                } catch (SQLException e) {
+                    throw new SQLException("Migration " + script.getFilename() + " failed: " + e.getMessage(), e);
+                }
+            }
+        }
+        return scripts.stream().map(Resource::getFilename).toList();
+    }
+
+    private static int[] version(Resource script) {
+        Matcher matcher = VERSION.matcher(script.getFilename());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a versioned migration: " + script.getFilename());
+        }
+        int[] parts = Arrays.stream(matcher.group(1).split("[._]")).mapToInt(Integer::parseInt).toArray();
+        // 4 and 4.0 are the same version
+        int length = parts.length;
+        while (length > 1 && parts[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(parts, length);
+    }
+}
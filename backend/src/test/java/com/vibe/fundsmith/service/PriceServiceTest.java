@@ -0,0 +1,122 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PriceDto;
+import com.vibe.fundsmith.event.PriceChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PriceServiceTest {
+
+    private static final String AAPL = "US0378331005";
+    private static final String MSFT = "US5949181045";
+    private static final String UNKNOWN = "XX0000000000";
+
+    @Mock
+    private PriceSource priceSource;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, BigDecimal> sourcePrices = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sourcePrices.put(AAPL, new BigDecimal("175.50"));
+        sourcePrices.put(MSFT, new BigDecimal("320.75"));
+        when(priceSource.fetchPrices(anyCollection(), any())).thenAnswer(invocation -> {
+            LocalDate asOf = invocation.getArgument(1);
+            Map<String, PriceDto> prices = new HashMap<>();
+            for (String isin : invocation.<Collection<String>>getArgument(0)) {
+                if (sourcePrices.containsKey(isin)) {
+                    prices.put(isin, new PriceDto(isin, sourcePrices.get(isin), "USD", asOf));
+                }
+            }
+            return prices;
+        });
+    }
+
+    @Test
+    void getPrices_FetchesMissesInOneCallAndCaches() {
+        // Given
+        PriceService priceService = new PriceService(priceSource, eventPublisher, 60_000L, 30);
+
+        // When
+        Map<String, PriceDto> first = priceService.getPrices(List.of(AAPL, MSFT, UNKNOWN));
+        Map<String, PriceDto> second = priceService.getPrices(List.of(AAPL, MSFT, UNKNOWN));
+
+        // Then - unknown instruments are remembered as unpriced too
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        verify(priceSource, times(1)).fetchPrices(anyCollection(), isNull());
+    }
+
+    @Test
+    void getPrices_ExpiredEntriesAreRefetched() {
+        // Given
+        PriceService priceService = new PriceService(priceSource, eventPublisher, 0L, 30);
+
+        // When
+        priceService.getPrices(List.of(AAPL));
+        priceService.getPrices(List.of(AAPL));
+
+        // Then
+        verify(priceSource, times(2)).fetchPrices(anyCollection(), isNull());
+    }
+
+    @Test
+    void getPricesAsOf_CachesPerDateAndEvictsLeastRecentlyUsed() {
+        // Given
+        PriceService priceService = new PriceService(priceSource, eventPublisher, 60_000L, 2);
+        LocalDate day1 = LocalDate.of(2024, 1, 1);
+        LocalDate day2 = LocalDate.of(2024, 1, 2);
+        LocalDate day3 = LocalDate.of(2024, 1, 3);
+
+        // When
+        priceService.getPrices(List.of(AAPL), day1);
+        priceService.getPrices(List.of(AAPL), day2);
+        priceService.getPrices(List.of(AAPL), day1); // cached, day1 becomes most recent
+        priceService.getPrices(List.of(AAPL), day3); // evicts day2
+        priceService.getPrices(List.of(AAPL), day1); // still cached
+        priceService.getPrices(List.of(AAPL), day2); // refetched
+
+        // Then
+        verify(priceSource, times(1)).fetchPrices(anyCollection(), eq(day1));
+        verify(priceSource, times(2)).fetchPrices(anyCollection(), eq(day2));
+        verify(priceSource, times(1)).fetchPrices(anyCollection(), eq(day3));
+        assertEquals(day1, priceService.getPrices(List.of(AAPL), day1).get(AAPL).getAsOf());
+    }
+
+    @Test
+    void refresh_PublishesChangedPricesOnly() {
+        // Given
+        PriceService priceService = new PriceService(priceSource, eventPublisher, 60_000L, 30);
+        priceService.getPrices(List.of(AAPL, MSFT));
+        sourcePrices.put(AAPL, new BigDecimal("180.00"));
+
+        // When
+        int changed = priceService.refresh();
+
+        // Then
+        assertEquals(1, changed);
+        ArgumentCaptor<PriceChangedEvent> captor = ArgumentCaptor.forClass(PriceChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(AAPL, captor.getValue().getIsin());
+        assertEquals(0, new BigDecimal("180.00").compareTo(captor.getValue().getNewPrice()));
+        assertEquals(0, new BigDecimal("180.00").compareTo(priceService.getPrice(AAPL).getPrice()));
+    }
+}
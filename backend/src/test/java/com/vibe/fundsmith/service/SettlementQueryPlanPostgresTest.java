@@ -0,0 +1,109 @@
+package com.vibe.fundsmith.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks on a migrated PostgreSQL schema that the settlement lookup reads open trades with an
+ * index-only scan of idx_trades_open_settle_date, however much settled history shares the
+ * date. Needs Docker; skipped without it (SettlementQueryPlanTest covers H2).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class SettlementQueryPlanPostgresTest {
+
+    // Same shape as TradeRepository.findOpenTradesDueAfter
+    private static final String OPEN_TRADES_SQL =
+        "SELECT id, trade_id FROM trades WHERE settle_date = DATE '%s' AND settled = FALSE AND id > 0 " +
+        "ORDER BY id LIMIT 500";
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        PostgresMigrations.apply(connection);
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void openTradesQuery_IsIndexOnlyScanOfOpenTradeIndex() throws SQLException {
+        // Given - a large settled history, some of it on the same settle date, and a few open trades
+        LocalDate settleDate = LocalDate.now().plusDays(2);
+        insertTrades(50_000, settleDate, 250, true);
+        insertTrades(10_000, settleDate, 1, true);
+        insertTrades(20, settleDate, 1, false);
+        // Sets the visibility map as well, without which the planner expects heap fetches
+        execute("VACUUM ANALYZE trades");
+
+        // When
+        String plan = String.join("\n", query("EXPLAIN " + OPEN_TRADES_SQL.formatted(settleDate)));
+
+        // Then - the month holding the trades is read through its copy of the partial index;
+        // the planner may still seq scan the empty months, which costs nothing
+        String partition = query("SELECT tableoid::regclass FROM trades LIMIT 1").get(0);
+        String partitionIndex = query(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'idx_trades_open_settle_date'::regclass AND c.relname LIKE '" + partition + "%'").get(0);
+        assertTrue(plan.contains("Index Only Scan using " + partitionIndex + " on " + partition + " "), plan);
+        assertFalse(plan.contains("Bitmap Heap Scan"), plan);
+        Matcher seqScan = SEQ_SCAN.matcher(plan);
+        while (seqScan.find()) {
+            assertEquals("0", query("SELECT COUNT(*) FROM " + seqScan.group(1)).get(0), plan);
+        }
+    }
+
+    /**
+     * Book trades the way the application does: registered in processed_trades (see V20),
+     * settle dates spread over the given number of days before and including the settle date
+     */
+    private static void insertTrades(int count, LocalDate settleDate, int days, boolean settled) throws SQLException {
+        execute(("WITH new_trades AS (SELECT gen_random_uuid() AS trade_id, g FROM generate_series(1, %d) g), " +
+                 "registered AS (INSERT INTO processed_trades (trade_id, portfolio_id, isin, applied_delta, trade_date) " +
+                 "    SELECT trade_id, 'PLAN', 'US0378331005', 10, CURRENT_DATE FROM new_trades) " +
+                 "INSERT INTO trades (trade_id, isin, quantity, price, trade_date, settle_date, created_at, portfolio_id, settled) " +
+                 "SELECT trade_id, 'US0378331005', 10, 175.50, CURRENT_DATE, DATE '%s' - (g %% %d), now(), 'PLAN', %s " +
+                 "FROM new_trades").formatted(count, settleDate, days, settled));
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static List<String> query(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                rows.add(rs.getString(1));
+            }
+        }
+        return rows;
+    }
+}
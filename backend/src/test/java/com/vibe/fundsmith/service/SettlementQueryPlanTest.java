@@ -0,0 +1,126 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.config.DatabasePlatform;
+import com.vibe.fundsmith.model.Trade;
+import com.vibe.fundsmith.model.TradeSide;
+import com.vibe.fundsmith.repository.TradeBatchRepository;
+import com.vibe.fundsmith.repository.TradeRepository;
+import com.vibe.fundsmith.repository.TradeRepository.OpenTrade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the settlement lookup against degrading into a scan of settled history. On the H2
+ * test database this only checks that the open-trade index is chosen; the PostgreSQL plan
+ * (index-only scan of the partial index) is checked by SettlementQueryPlanPostgresTest.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class SettlementQueryPlanTest {
+
+    private static final String OPEN_TRADES_SQL =
+        "SELECT id, trade_id FROM trades WHERE settle_date = DATE '%s' AND settled = FALSE AND id > 0 " +
+        "ORDER BY id LIMIT 500";
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeBatchRepository tradeBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Test
+    void openTradesQuery_UsesOpenTradeIndexAsHistoryGrows() {
+        // Given - a large settled history, some of it on the same settle date
+        LocalDate settleDate = LocalDate.now().plusYears(60);
+        List<Trade> history = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            history.add(trade("PLAN_HIST", settleDate.minusDays(1 + i % 250)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            history.add(trade("PLAN_HIST", settleDate));
+        }
+        tradeBatchRepository.insertTrades(history, 1000);
+        jdbcTemplate.update("UPDATE trades SET settled = TRUE WHERE portfolio_id = 'PLAN_HIST'");
+
+        List<Trade> open = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            open.add(trade("PLAN_OPEN", settleDate));
+        }
+        tradeBatchRepository.insertTrades(open, 1000);
+        if (databasePlatform.isPostgres()) {
+            jdbcTemplate.execute("ANALYZE trades");
+        }
+
+        // When
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+            "EXPLAIN " + OPEN_TRADES_SQL.formatted(settleDate), String.class)).toLowerCase();
+
+        // Then
+        assertTrue(plan.contains("idx_trades_open_settle_date"), plan);
+        if (databasePlatform.isPostgres()) {
+            assertFalse(plan.contains("seq scan"), plan);
+        }
+    }
+
+    @Test
+    void findOpenTradesDueAfter_PagesThroughOpenTradesOnly() {
+        // Given
+        LocalDate settleDate = LocalDate.now().plusYears(61);
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            trades.add(trade("PLAN_PAGE", settleDate));
+        }
+        tradeBatchRepository.insertTrades(trades, 1000);
+        tradeRepository.markSettled(List.of(trades.get(0).getTradeId(), trades.get(5).getTradeId()));
+
+        // When
+        Set<UUID> seen = new HashSet<>();
+        long afterId = 0L;
+        int pages = 0;
+        List<OpenTrade> page;
+        do {
+            page = tradeRepository.findOpenTradesDueAfter(settleDate, afterId, PageRequest.of(0, 8));
+            for (OpenTrade openTrade : page) {
+                assertTrue(openTrade.getId() > afterId);
+                seen.add(openTrade.getTradeId());
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+                pages++;
+            }
+        } while (page.size() == 8);
+
+        // Then
+        assertEquals(18, seen.size());
+        assertEquals(3, pages);
+        assertFalse(seen.contains(trades.get(0).getTradeId()));
+        assertFalse(seen.contains(trades.get(5).getTradeId()));
+    }
+
+    private Trade trade(String portfolioId, LocalDate settleDate) {
+        return new Trade(UUID.randomUUID(), "US0378331005", 10L, new BigDecimal("175.50"),
+            TradeSide.BUY, "USD", LocalDate.now(), settleDate, portfolioId);
+    }
+}
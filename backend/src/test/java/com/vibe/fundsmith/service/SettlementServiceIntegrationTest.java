@@ -0,0 +1,110 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.SettlementRunDto;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.model.Journal;
+import com.vibe.fundsmith.model.JournalType;
+import com.vibe.fundsmith.model.Trade;
+import com.vibe.fundsmith.model.TradeSide;
+import com.vibe.fundsmith.repository.JournalRepository;
+import com.vibe.fundsmith.repository.SettlementMarkerRepository;
+import com.vibe.fundsmith.repository.TradeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not @Transactional: chunks commit in their own transactions on worker threads,
+ * so the test data must be committed before the run starts. Own database, so the
+ * committed trades never show up in the transactional tests' listings.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:settledb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "ibor.settlement.chunk-size=2",
+    "ibor.settlement.workers=2"
+})
+@ActiveProfiles("test")
+public class SettlementServiceIntegrationTest {
+
+    private static final String PORTFOLIO = "SETTLE_A";
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private SettlementMarkerRepository settlementMarkerRepository;
+
+    @Test
+    void processSettlements_SettlesInChunksAndReportsFailures() {
+        // Given - five booked trades and one trade without a trade date journal, all due on a unique date
+        LocalDate settleDate = LocalDate.now().plusYears(50).plusDays(ThreadLocalRandom.current().nextInt(3650));
+        List<UUID> booked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UUID tradeId = UUID.randomUUID();
+            tradeService.bookTrade(request(tradeId, settleDate));
+            booked.add(tradeId);
+        }
+        Trade orphan = tradeRepository.save(new Trade(UUID.randomUUID(), "US0378331005", 10L,
+            new BigDecimal("175.50"), TradeSide.BUY, "USD", LocalDate.now(), settleDate, PORTFOLIO));
+
+        // When
+        SettlementRunDto run = settlementService.processSettlements(settleDate);
+
+        // Then
+        assertEquals("COMPLETED_WITH_FAILURES", run.getStatus());
+        assertEquals(6, run.getTotalTrades());
+        assertEquals(3, run.getTotalChunks());
+        assertEquals(3, run.getCompletedChunks());
+        assertEquals(5, run.getProcessed());
+        assertEquals(1, run.getFailed());
+        assertEquals(1, run.getFailures().size());
+        assertEquals(List.of(orphan.getTradeId().toString()), run.getFailures().get(0).getTradeIds());
+
+        for (UUID tradeId : booked) {
+            assertTrue(settlementMarkerRepository.existsByTradeId(tradeId));
+            Journal settlement = journalRepository.findByTradeIdAndJournalType(tradeId, JournalType.SETTLEMENT_DATE)
+                .orElseThrow();
+            assertEquals(4, settlement.getLines().size());
+            assertTrue(settlement.isBalanced());
+        }
+        assertFalse(settlementMarkerRepository.existsByTradeId(orphan.getTradeId()));
+
+        // And a rerun only sees the trade that is still open
+        SettlementRunDto rerun = settlementService.processSettlements(settleDate);
+        assertEquals(1, rerun.getTotalTrades());
+        assertEquals(0, rerun.getProcessed());
+        assertTrue(settlementService.getRun(UUID.fromString(rerun.getRunId())).isPresent());
+    }
+
+    private TradeRequest request(UUID tradeId, LocalDate settleDate) {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(tradeId);
+        request.setIsin("US0378331005");
+        request.setQuantity(10L);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId(PORTFOLIO);
+        request.setTradeDate(LocalDate.now());
+        request.setSettleDate(settleDate);
+        return request;
+    }
+}
@@ -0,0 +1,119 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.TradeBatchResponse;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.model.CashEntry;
+import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.model.PositionId;
+import com.vibe.fundsmith.model.TradeSide;
+import com.vibe.fundsmith.repository.CashRepository;
+import com.vibe.fundsmith.repository.JournalRepository;
+import com.vibe.fundsmith.repository.PositionRepository;
+import com.vibe.fundsmith.repository.ProcessedTradeRepository;
+import com.vibe.fundsmith.repository.TradeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class TradeBatchServiceIntegrationTest {
+
+    @Autowired
+    private TradeBatchService tradeBatchService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Autowired
+    private ProcessedTradeRepository processedTradeRepository;
+
+    @Autowired
+    private CashRepository cashRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Test
+    void bookTrades_ReportsPerRowResultsAndNetsPositions() {
+        // Given - one trade booked through the single-trade path
+        UUID previouslyBooked = UUID.randomUUID();
+        tradeService.bookTrade(request(previouslyBooked, "US5949181045", 100L, "BATCH_A"));
+
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        TradeRequest invalid = request(UUID.randomUUID(), "BAD", 100L, "BATCH_A");
+
+        List<TradeRequest> batch = List.of(
+            request(first, "US88160R1014", 100L, "BATCH_A"),
+            request(second, "US88160R1014", 250L, "BATCH_A"),
+            invalid,
+            request(first, "US88160R1014", 100L, "BATCH_A"),
+            request(previouslyBooked, "US5949181045", 100L, "BATCH_A")
+        );
+
+        // When
+        TradeBatchResponse response = tradeBatchService.bookTrades(batch);
+
+        // Then - per-row outcomes in request order
+        assertEquals(2, response.getAccepted());
+        assertEquals(2, response.getIdempotentHits());
+        assertEquals(1, response.getRejected());
+        assertEquals(TradeBatchResponse.ACCEPTED, response.getResults().get(0).getOutcome());
+        assertEquals(TradeBatchResponse.ACCEPTED, response.getResults().get(1).getOutcome());
+        assertEquals(TradeBatchResponse.REJECTED, response.getResults().get(2).getOutcome());
+        assertEquals("isin", response.getResults().get(2).getField());
+        assertEquals(TradeBatchResponse.IDEMPOTENT_HIT, response.getResults().get(3).getOutcome());
+        assertEquals(TradeBatchResponse.IDEMPOTENT_HIT, response.getResults().get(4).getOutcome());
+
+        // Trades, idempotency registry and journals are written for accepted rows only
+        assertTrue(tradeRepository.findByTradeId(first).isPresent());
+        assertTrue(tradeRepository.findByTradeId(second).isPresent());
+        assertTrue(processedTradeRepository.existsByTradeId(first));
+        assertTrue(processedTradeRepository.existsByTradeId(second));
+        assertEquals(1, journalRepository.findByTradeIdOrderByCreatedAtDesc(first).size());
+        assertEquals(1, journalRepository.findByTradeIdOrderByCreatedAtDesc(second).size());
+
+        // One net position delta for the ISIN
+        Optional<Position> position = positionRepository.findById(new PositionId("BATCH_A", "US88160R1014"));
+        assertTrue(position.isPresent());
+        assertEquals(0, new BigDecimal("350").compareTo(position.get().getQuantity()));
+
+        // One cash entry per accepted trade
+        List<CashEntry> cashEntries = cashRepository.findByPortfolioIdOrderByCreatedAtDesc("BATCH_A");
+        BigDecimal batchCash = cashEntries.stream()
+            .filter(e -> e.getReason().endsWith(first.toString()) || e.getReason().endsWith(second.toString()))
+            .map(CashEntry::getDelta)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal("-61425.00").compareTo(batchCash));
+    }
+
+    private TradeRequest request(UUID tradeId, String isin, long quantity, String portfolioId) {
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(tradeId);
+        request.setIsin(isin);
+        request.setQuantity(quantity);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId(portfolioId);
+        request.setTradeDate(LocalDate.now());
+        return request;
+    }
+}
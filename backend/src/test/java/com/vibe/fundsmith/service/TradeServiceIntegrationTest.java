@@ -1,10 +1,12 @@
 package com.vibe.fundsmith.service;
 
+import com.vibe.fundsmith.dto.TradePageDto;
 import com.vibe.fundsmith.dto.TradeRequest;
 import com.vibe.fundsmith.dto.TradeResponse;
 import com.vibe.fundsmith.exception.ValidationException;
 import com.vibe.fundsmith.model.Trade;
 import com.vibe.fundsmith.repository.TradeRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -14,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +35,9 @@ public class TradeServiceIntegrationTest {
     @Autowired
     private TradeRepository tradeRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void shouldBookValidTrade() {
         // Given
@@ -126,6 +133,58 @@ public class TradeServiceIntegrationTest {
         assertTrue(trades.stream().allMatch(t -> t.getIsin().equals("US0378331005")));
     }
 
+    @Test
+    void findTradePage_WalksAllTradesWithCursor() {
+        // Given - five trades in an ISIN no other test uses
+        String isin = "XS0000PAGE01";
+        List<UUID> booked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            booked.add(createTestTrade(isin, LocalDate.now().minusDays(i % 2)));
+        }
+        // Page from what the database holds, not from managed instances
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - pages of two
+        List<Trade> walked = new ArrayList<>();
+        List<Boolean> hasMore = new ArrayList<>();
+        String cursor = null;
+        do {
+            TradePageDto page = tradeService.findTradePage(null, null, isin, cursor, 2);
+            walked.addAll(page.getTrades());
+            hasMore.add(page.isHasMore());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then - every trade once, newest first
+        assertEquals(List.of(true, true, false), hasMore);
+        assertEquals(5, walked.size());
+        assertEquals(new HashSet<>(booked), new HashSet<>(walked.stream().map(Trade::getTradeId).toList()));
+        for (int i = 1; i < walked.size(); i++) {
+            Trade previous = walked.get(i - 1);
+            Trade current = walked.get(i);
+            assertTrue(previous.getCreatedAt().isAfter(current.getCreatedAt())
+                || (previous.getCreatedAt().isEqual(current.getCreatedAt()) && previous.getId() > current.getId()));
+        }
+
+        // And the date filter applies on every page
+        TradePageDto today = tradeService.findTradePage(LocalDate.now(), LocalDate.now(), isin, null, 10);
+        assertEquals(3, today.getTrades().size());
+        assertFalse(today.isHasMore());
+        assertNull(today.getNextCursor());
+    }
+
+    @Test
+    void findTradePage_RejectsInvalidCursorAndLimit() {
+        ValidationException cursor = assertThrows(ValidationException.class,
+            () -> tradeService.findTradePage(null, null, null, "not-a-cursor", 10));
+        assertEquals("cursor", cursor.getField());
+
+        ValidationException limit = assertThrows(ValidationException.class,
+            () -> tradeService.findTradePage(null, null, null, null, 5000));
+        assertEquals("limit", limit.getField());
+    }
+
     private UUID createTestTrade(String isin, LocalDate tradeDate) {
         TradeRequest request = new TradeRequest();
         request.setIsin(isin);
@@ -2,16 +2,21 @@ package com.vibe.fundsmith.service;
 
 import com.vibe.fundsmith.dto.TradeRequest;
 import com.vibe.fundsmith.dto.TradeResponse;
+import com.vibe.fundsmith.exception.ValidationException;
 import com.vibe.fundsmith.model.CashEntry;
+import com.vibe.fundsmith.model.OutboxEvent;
 import com.vibe.fundsmith.model.Trade;
 import com.vibe.fundsmith.model.TradeSide;
 import com.vibe.fundsmith.model.TradeStatus;
 import com.vibe.fundsmith.repository.TradeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -33,6 +38,15 @@ class TradeServiceTest {
     @Mock
     private CashService cashService;
     
+    @Mock
+    private JournalService journalService;
+    
+    @Mock
+    private EventOutboxService eventOutboxService;
+    
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
     @InjectMocks
     private TradeService tradeService;
     
@@ -69,10 +83,10 @@ class TradeServiceTest {
         
         when(tradeRepository.findByTradeId(tradeId)).thenReturn(Optional.empty());
         when(tradeRepository.save(any(Trade.class))).thenReturn(mockTrade);
-        when(positionService.updatePosition(eq(tradeId), eq(request.getIsin()), any(BigDecimal.class), eq(TradeSide.BUY))).thenReturn(true);
+        when(positionService.updatePosition(eq(tradeId), eq("DEFAULT"), eq(request.getIsin()), any(BigDecimal.class), eq(TradeSide.BUY), eq(request.getTradeDate()))).thenReturn(true);
         
         CashEntry mockCashEntry = new CashEntry("DEFAULT", new BigDecimal("100.00"), "BUY:" + tradeId.toString());
-        when(cashService.recordTradeImpact(eq(tradeId), eq(TradeSide.BUY), any(BigDecimal.class), any(BigDecimal.class), eq("DEFAULT")))
+        when(cashService.recordTradeImpact(eq(tradeId), eq(TradeSide.BUY), any(BigDecimal.class), any(BigDecimal.class), eq("DEFAULT"), eq("USD")))
             .thenReturn(mockCashEntry);
         
         // When
@@ -86,8 +100,17 @@ class TradeServiceTest {
         
         verify(tradeRepository).findByTradeId(tradeId);
         verify(tradeRepository).save(any(Trade.class));
-        verify(positionService).updatePosition(eq(tradeId), eq(request.getIsin()), any(BigDecimal.class), eq(TradeSide.BUY));
-        verify(cashService).recordTradeImpact(eq(tradeId), eq(TradeSide.BUY), any(BigDecimal.class), any(BigDecimal.class), eq("DEFAULT"));
+        verify(positionService).updatePosition(eq(tradeId), eq("DEFAULT"), eq(request.getIsin()), any(BigDecimal.class), eq(TradeSide.BUY), eq(request.getTradeDate()));
+        verify(cashService).recordTradeImpact(eq(tradeId), eq(TradeSide.BUY), any(BigDecimal.class), any(BigDecimal.class), eq("DEFAULT"), eq("USD"));
+        verify(eventOutboxService).record(any(OutboxEvent.class));
+        
+        // Every stage and the booking as a whole were timed
+        for (String stage : new String[] {"validation", "idempotency_check", "trade_insert", "position_update", "cash_update", "journal"}) {
+            assertEquals(1, meterRegistry.get(TradeService.METRIC_BOOKING_STAGE)
+                .tags("stage", stage, "side", "BUY", "portfolio", "DEFAULT", "outcome", "success")
+                .timer().count(), stage);
+        }
+        assertEquals(1, meterRegistry.get(TradeService.METRIC_BOOKING).tags("outcome", "booked").timer().count());
     }
     
     @Test
@@ -128,7 +151,27 @@ class TradeServiceTest {
         
         verify(tradeRepository).findByTradeId(tradeId);
         verify(tradeRepository, never()).save(any(Trade.class));
-        verify(positionService, never()).updatePosition(any(), any(), any(), any());
-        verify(cashService, never()).recordTradeImpact(any(), any(), any(), any(), any());
+        verify(positionService, never()).updatePosition(any(), any(), any(), any(), any(), any());
+        verify(cashService, never()).recordTradeImpact(any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.get(TradeService.METRIC_REPLAYS).tags("portfolio", "DEFAULT").counter().count());
+        assertEquals(1, meterRegistry.get(TradeService.METRIC_BOOKING).tags("outcome", "replayed").timer().count());
+    }
+    
+    @Test
+    void bookTrade_ValidationRejectionCountedByField() {
+        // Given
+        TradeRequest request = new TradeRequest();
+        request.setIsin("US0378331005");
+        request.setQuantity(-1L);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setTradeDate(LocalDate.now());
+        
+        // When
+        assertThrows(ValidationException.class, () -> tradeService.bookTrade(request));
+        
+        // Then
+        assertEquals(1.0, meterRegistry.get(TradeService.METRIC_REJECTIONS).tags("field", "quantity").counter().count());
+        assertEquals(1, meterRegistry.get(TradeService.METRIC_BOOKING).tags("outcome", "rejected").timer().count());
+        verify(tradeRepository, never()).findByTradeId(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.FundSmithApplication;
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.dto.TradeResponse;
+import com.vibe.fundsmith.model.TradeSide;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end TradeService.bookTrade (trade, position, cash, journal and outbox writes)
+ * against an embedded H2 database in a full application context.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookTradeBenchmark {
+
+    private static final String[] ISINS = {
+        "US0378331005", "US5949181045", "US88160R1014", "GB0002634946", "GB00B03MLX29"
+    };
+
+    private ConfigurableApplicationContext context;
+    private TradeService tradeService;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FundSmithApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.flyway.enabled=false",
+                "demo.enabled=false",
+                "logging.level.root=WARN")
+            .run();
+        tradeService = context.getBean(TradeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TradeResponse bookTrade() {
+        long n = sequence++;
+        TradeRequest request = new TradeRequest();
+        request.setTradeId(UUID.randomUUID());
+        request.setIsin(ISINS[(int) (n % ISINS.length)]);
+        request.setQuantity(100L);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId("BENCH_" + (n % 10));
+        request.setTradeDate(LocalDate.now());
+        return tradeService.bookTrade(request);
+    }
+}
@@ -0,0 +1,58 @@
+package com.vibe.fundsmith.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vibe.fundsmith.event.EventEnvelope;
+import com.vibe.fundsmith.event.PositionUpdatedEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of position events as done by the event sinks and the SSE stream,
+ * configured like Spring Boot's ObjectMapper (ISO dates, not timestamps).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private PositionUpdatedEvent event;
+    private List<EventEnvelope> batch;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        event = new PositionUpdatedEvent("DEFAULT", "US0378331005",
+            new BigDecimal("100"), new BigDecimal("1500"), ZonedDateTime.now());
+
+        // One relay batch at the default ibor.events.relay.batch-size
+        batch = new ArrayList<>(500);
+        for (int i = 0; i < 500; i++) {
+            batch.add(new EventEnvelope(i, i, "PositionUpdated", event));
+        }
+    }
+
+    @Benchmark
+    public String positionUpdatedEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] relayBatch() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(batch);
+    }
+}
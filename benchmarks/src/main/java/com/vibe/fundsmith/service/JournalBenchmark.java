@@ -0,0 +1,53 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.JournalDto;
+import com.vibe.fundsmith.model.Journal;
+import com.vibe.fundsmith.model.JournalType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal balance check and entity-to-DTO mapping for trade date (2 lines)
+ * and settlement date (4 lines) journals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    @Param({"TRADE_DATE", "SETTLEMENT_DATE"})
+    public JournalType journalType;
+
+    private Journal journal;
+
+    @Setup
+    public void setUp() {
+        BigDecimal amount = new BigDecimal("17550.00");
+        journal = new Journal(UUID.randomUUID(), journalType);
+        if (journalType == JournalType.TRADE_DATE) {
+            journal.addLine("SECURITIES_RECEIVABLE", amount, BigDecimal.ZERO);
+            journal.addLine("CASH_PAYABLE", BigDecimal.ZERO, amount);
+        } else {
+            journal.addLine("SECURITIES", amount, BigDecimal.ZERO);
+            journal.addLine("SECURITIES_RECEIVABLE", BigDecimal.ZERO, amount);
+            journal.addLine("CASH_PAYABLE", amount, BigDecimal.ZERO);
+            journal.addLine("CASH", BigDecimal.ZERO, amount);
+        }
+    }
+
+    @Benchmark
+    public boolean isBalanced() {
+        return journal.isBalanced();
+    }
+
+    @Benchmark
+    public JournalDto fromEntity() {
+        return JournalDto.fromEntity(journal);
+    }
+}
@@ -0,0 +1,99 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.FundSmithApplication;
+import com.vibe.fundsmith.model.Journal;
+import com.vibe.fundsmith.model.JournalType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal line insert rate through Hibernate: settlement date journals (4 lines each)
+ * persisted {@value #JOURNALS_PER_TRANSACTION} per transaction, with JDBC batching off
+ * (one statement per row, as under IDENTITY ids) and at the highvolume profile's batch size.
+ * Scores are journal lines per millisecond.
+ * <p>
+ * Runs on embedded H2 by default. Point it at PostgreSQL to include pgjdbc batch rewriting:
+ * -Dbench.datasource.url=jdbc:postgresql://localhost:5432/fundsmith?reWriteBatchedInserts=true
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalInsertBenchmark {
+
+    private static final int JOURNALS_PER_TRANSACTION = 100;
+    private static final int LINES_PER_JOURNAL = 4;
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("bench.datasource.url");
+        List<String> properties = new ArrayList<>(List.of(
+            "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+            "spring.jpa.properties.hibernate.order_inserts=true",
+            "demo.enabled=false",
+            "logging.level.root=WARN"));
+        if (url == null) {
+            properties.addAll(List.of(
+                "spring.datasource.url=jdbc:h2:mem:journals;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.flyway.enabled=false"));
+        } else {
+            // Schema comes from the Flyway migrations in application.yml
+            properties.add("spring.datasource.url=" + url);
+        }
+        context = new SpringApplicationBuilder(FundSmithApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(properties.toArray(new String[0]))
+            .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(JOURNALS_PER_TRANSACTION * LINES_PER_JOURNAL)
+    public int insertJournalLines() {
+        BigDecimal amount = new BigDecimal("17550.00");
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < JOURNALS_PER_TRANSACTION; i++) {
+                Journal journal = new Journal(UUID.randomUUID(), JournalType.SETTLEMENT_DATE);
+                journal.addLine("SECURITIES", amount, BigDecimal.ZERO);
+                journal.addLine("SECURITIES_RECEIVABLE", BigDecimal.ZERO, amount);
+                journal.addLine("CASH_PAYABLE", amount, BigDecimal.ZERO);
+                journal.addLine("CASH", BigDecimal.ZERO, amount);
+                entityManager.persist(journal);
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+        return JOURNALS_PER_TRANSACTION * LINES_PER_JOURNAL;
+    }
+}
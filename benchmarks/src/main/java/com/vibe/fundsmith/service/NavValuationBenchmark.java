@@ -0,0 +1,123 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.PriceDto;
+import com.vibe.fundsmith.model.NavCalculation;
+import com.vibe.fundsmith.model.Position;
+import com.vibe.fundsmith.repository.NavCalculationRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NAV valuation over 1k-1M positions with in-memory collaborators:
+ * - coldValuation: first valuation of a portfolio (bulk price lookup + full pass)
+ * - calculateNav: NavCalculationService snapshot on a loaded engine
+ * - incrementalUpdate: one position change then a valuation
+ * - verify: full recompute compared against the running value
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class NavValuationBenchmark {
+
+    private static final String PORTFOLIO = "BENCH";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int positions;
+
+    private PositionService positionService;
+    private CashService cashService;
+    private PriceService priceService;
+    private FxRateService fxRateService;
+    private NavEngine loadedEngine;
+    private NavCalculationService navCalculationService;
+    private List<Position> portfolio;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        portfolio = new ArrayList<>(positions);
+        Map<String, PriceDto> prices = new HashMap<>(positions * 2);
+        for (int i = 0; i < positions; i++) {
+            String isin = String.format("XS%010d", i);
+            portfolio.add(new Position(PORTFOLIO, isin, BigDecimal.valueOf(100 + i % 1000)));
+            prices.put(isin, new PriceDto(isin, BigDecimal.valueOf(1000 + i % 5000, 2), "USD", LocalDate.now()));
+        }
+
+        positionService = new PositionService(null, null, null, null, null, null, null, false) {
+            @Override
+            public List<Position> getPositions(String portfolioId) {
+                return portfolio;
+            }
+
+            @Override
+            public List<Position> loadPositions(String portfolioId) {
+                return portfolio;
+            }
+        };
+        fxRateService = new FxRateService(baseCurrency -> Map.of(
+            "EUR", new BigDecimal("1.08"),
+            "GBP", new BigDecimal("1.27")), "USD");
+        cashService = new CashService(null, null, null, fxRateService, null, "USD") {
+            @Override
+            public Map<String, BigDecimal> getBalances(String portfolioId) {
+                return Map.of(
+                    "USD", new BigDecimal("1000000.00"),
+                    "EUR", new BigDecimal("250000.00"),
+                    "GBP", new BigDecimal("100000.00"));
+            }
+        };
+        // One source call per cold lookup, as with a remote market data service
+        priceService = new PriceService((isins, asOf) -> {
+            Map<String, PriceDto> found = new HashMap<>(isins.size() * 2);
+            for (String isin : isins) {
+                PriceDto price = prices.get(isin);
+                if (price != null) {
+                    found.put(isin, price);
+                }
+            }
+            return found;
+        }, event -> { }, Long.MAX_VALUE, 30);
+
+        loadedEngine = new NavEngine(positionService, cashService, priceService, fxRateService);
+        loadedEngine.valuation(PORTFOLIO);
+
+        NavCalculationRepository repository = (NavCalculationRepository) Proxy.newProxyInstance(
+            NavCalculationRepository.class.getClassLoader(),
+            new Class<?>[] {NavCalculationRepository.class},
+            (proxy, method, args) -> "save".equals(method.getName()) ? args[0] : null);
+        navCalculationService = new NavCalculationService(repository, loadedEngine, 1_000_000L, new BigDecimal("0.005"));
+    }
+
+    @Benchmark
+    public NavEngine.Valuation coldValuation() {
+        return new NavEngine(positionService, cashService, priceService, fxRateService).valuation(PORTFOLIO);
+    }
+
+    @Benchmark
+    public NavCalculation calculateNav() {
+        return navCalculationService.calculateNav(PORTFOLIO);
+    }
+
+    @Benchmark
+    public NavEngine.Valuation incrementalUpdate() {
+        Position position = portfolio.get((int) (tick++ % positions));
+        loadedEngine.applyPosition(PORTFOLIO, position.getIsin(), position.getQuantity().add(BigDecimal.valueOf(tick & 1)));
+        return loadedEngine.valuation(PORTFOLIO);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return loadedEngine.verify(PORTFOLIO);
+    }
+}
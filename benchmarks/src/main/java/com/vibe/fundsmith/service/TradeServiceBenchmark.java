@@ -0,0 +1,65 @@
+package com.vibe.fundsmith.service;
+
+import com.vibe.fundsmith.dto.TradeRequest;
+import com.vibe.fundsmith.model.TradeSide;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request validation and settlement date calculation on the booking path.
+ * Lives in the service package to reach the package-private methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TradeServiceBenchmark {
+
+    private TradeService tradeService;
+    private TradeRequest request;
+    private LocalDate monday;
+    private LocalDate friday;
+
+    @Setup
+    public void setUp() {
+        // Validation and date maths touch no collaborators
+        tradeService = new TradeService(null, null, null, null, null, new SimpleMeterRegistry());
+
+        request = new TradeRequest();
+        request.setTradeId(UUID.randomUUID());
+        request.setIsin("US0378331005");
+        request.setQuantity(100L);
+        request.setPrice(new BigDecimal("175.50"));
+        request.setSide(TradeSide.BUY);
+        request.setPortfolioId("DEFAULT");
+        request.setTradeDate(LocalDate.now());
+
+        monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        friday = monday.plusDays(4);
+    }
+
+    @Benchmark
+    public TradeRequest validateTradeRequest() {
+        tradeService.validateTradeRequest(request);
+        return request;
+    }
+
+    @Benchmark
+    public LocalDate calculateSettlementDate_Midweek() {
+        return tradeService.calculateSettlementDate(monday);
+    }
+
+    @Benchmark
+    public LocalDate calculateSettlementDate_OverWeekend() {
+        return tradeService.calculateSettlementDate(friday);
+    }
+}
@@ -1,9 +1,11 @@
 import React, { useState, useEffect, useCallback, forwardRef, useImperativeHandle } from 'react';
 import { Position, positionService } from '../../services/positionService';
 import { CashBalance, cashService } from '../../services/cashService';
+import { streamService } from '../../services/streamService';
 import styles from './PositionsPanel.module.css';
 
-const POLL_INTERVAL_MS = 2000; // Update more frequently to catch trade updates
+// Live updates arrive over the event stream; polling is only a slow safety net
+const POLL_INTERVAL_MS = 30000;
 
 export interface PositionsPanelRef {
     refreshData: () => Promise<void>;
@@ -52,10 +54,37 @@ export const PositionsPanel = forwardRef<PositionsPanelRef, PositionsPanelProps>
         
         const interval = setInterval(fetchData, POLL_INTERVAL_MS);
         
+        const unsubscribe = streamService.subscribe({
+            onPositionUpdated: (event) => {
+                setPositions(current => {
+                    const updated = { isin: event.isin, quantity: event.newQuantity, lastUpdated: event.updatedAt };
+                    const index = current.findIndex(p => p.isin === event.isin);
+                    if (index < 0) {
+                        return [...current, updated].sort((a, b) => a.isin.localeCompare(b.isin));
+                    }
+                    const next = [...current];
+                    next[index] = updated;
+                    return next;
+                });
+                setLastUpdated(new Date());
+            },
+            onCashMovement: (event) => {
+                // Events carry one currency's balance; the base currency total refreshes on the next poll
+                setCashBalance(current => current ? {
+                    ...current,
+                    balances: { ...current.balances, [event.currency]: String(event.balance) },
+                    updatedAt: event.createdAt
+                } : current);
+                setLastUpdated(new Date());
+            },
+            onResync: fetchData
+        }, { portfolioId });
+        
         return () => {
             clearInterval(interval);
+            unsubscribe();
         };
-    }, [fetchData]);
+    }, [fetchData, portfolioId]);
 
     const handleRefreshClick = () => {
         fetchData();
@@ -111,9 +140,18 @@ export const PositionsPanel = forwardRef<PositionsPanelRef, PositionsPanelProps>
             
             <h4 className={styles['section-title']}>Cash Balance</h4>
             {cashBalance ? (
-                <div className={cashBalance.balance < 0 ? styles['negative'] : styles['positive']}>
-                    {formatCurrency(cashBalance.balance, cashBalance.currency)}
-                </div>
+                <>
+                    <div className={cashBalance.balance < 0 ? styles['negative'] : styles['positive']}>
+                        {formatCurrency(cashBalance.balance, cashBalance.currency)}
+                    </div>
+                    {cashBalance.balances && Object.keys(cashBalance.balances).length > 1 && (
+                        Object.entries(cashBalance.balances).map(([currency, balance]) => (
+                            <div key={currency} className={Number(balance) < 0 ? styles['negative'] : styles['positive']}>
+                                {formatCurrency(Number(balance), currency)}
+                            </div>
+                        ))
+                    )}
+                </>
             ) : (
                 <div className={styles['empty-message']}>No cash data available</div>
             )}
@@ -4,6 +4,7 @@ export interface CashBalance {
     portfolioId: string;
     balance: number;
     currency: string;
+    balances?: Record<string, string>;
     updatedAt: string;
 }
 
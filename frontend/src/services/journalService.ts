@@ -20,9 +20,24 @@ export interface JournalQueryParams {
     tradeId: string;
 }
 
+export interface SettlementChunkFailure {
+    chunk: number;
+    trades: number;
+    tradeIds: string[];
+    message: string;
+}
+
 export interface SettlementProcessResult {
     processed: number;
     date: string;
+    runId?: string;
+    status?: string;
+    totalTrades?: number;
+    totalChunks?: number;
+    completedChunks?: number;
+    alreadySettled?: number;
+    failed?: number;
+    failures?: SettlementChunkFailure[];
 }
 
 class JournalService {
@@ -0,0 +1,77 @@
+import { API_BASE_URL } from '../config/api';
+
+export interface PositionUpdatedEvent {
+    event: 'PositionUpdated';
+    portfolioId: string;
+    isin: string;
+    delta: number;
+    newQuantity: number;
+    updatedAt: string;
+}
+
+export interface CashMovementEvent {
+    event: 'CashMovement';
+    tradeId: string | null;
+    portfolioId: string;
+    delta: number;
+    balance: number;
+    currency: string;
+    reason: string;
+    createdAt: string;
+}
+
+export interface TradeBookedEvent {
+    event: 'TradeBooked';
+    tradeId: string;
+    portfolioId: string;
+    isin: string;
+    side: 'BUY' | 'SELL';
+    quantity: number;
+    price: number;
+    bookedAt: string;
+}
+
+export interface StreamHandlers {
+    onTradeBooked?: (event: TradeBookedEvent) => void;
+    onPositionUpdated?: (event: PositionUpdatedEvent) => void;
+    onCashMovement?: (event: CashMovementEvent) => void;
+    // Events were missed (slow consumer or lost resume point): reload snapshots over REST
+    onResync?: () => void;
+    onError?: () => void;
+}
+
+export interface StreamParams {
+    portfolioId?: string;
+}
+
+class StreamService {
+    /**
+     * Subscribe to the live event stream. The browser reconnects automatically
+     * and resumes from the last received sequence via Last-Event-ID.
+     * @returns Function that closes the stream
+     */
+    subscribe(handlers: StreamHandlers, params?: StreamParams): () => void {
+        const query = new URLSearchParams();
+        if (params?.portfolioId) query.append('portfolioId', params.portfolioId);
+        const queryString = query.toString();
+
+        const source = new EventSource(`${API_BASE_URL}/stream${queryString ? `?${queryString}` : ''}`);
+
+        const listen = <T,>(name: string, handler?: (event: T) => void) => {
+            if (!handler) return;
+            source.addEventListener(name, (message) => {
+                handler(JSON.parse((message as MessageEvent).data) as T);
+            });
+        };
+
+        listen<TradeBookedEvent>('TradeBooked', handlers.onTradeBooked);
+        listen<PositionUpdatedEvent>('PositionUpdated', handlers.onPositionUpdated);
+        listen<CashMovementEvent>('CashMovement', handlers.onCashMovement);
+        source.addEventListener('Resync', () => handlers.onResync?.());
+        source.onerror = () => handlers.onError?.();
+
+        return () => source.close();
+    }
+}
+
+export const streamService = new StreamService();
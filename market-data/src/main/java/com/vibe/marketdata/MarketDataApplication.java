@@ -0,0 +1,14 @@
+package com.vibe.marketdata;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class MarketDataApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(MarketDataApplication.class, args);
+    }
+}
@@ -0,0 +1,42 @@
+package com.vibe.marketdata.controller;
+
+import com.vibe.marketdata.dto.PriceDto;
+import com.vibe.marketdata.dto.PriceRequest;
+import com.vibe.marketdata.service.StubPriceGenerator;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Price endpoints served behind the gateway's /api/rates route.
+ * - GET /api/rates/prices?isins=..&asOf=.. -> prices for a few instruments
+ * - POST /api/rates/prices {isins, asOf} -> bulk prices in one round trip
+ */
+@RestController
+@RequestMapping("/api/rates")
+public class RateController {
+
+    private final StubPriceGenerator priceGenerator;
+
+    public RateController(StubPriceGenerator priceGenerator) {
+        this.priceGenerator = priceGenerator;
+    }
+
+    @GetMapping("/prices")
+    public List<PriceDto> getPrices(
+            @RequestParam List<String> isins,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return priceGenerator.prices(isins, asOf);
+    }
+
+    @PostMapping("/prices")
+    public ResponseEntity<List<PriceDto>> getPricesBulk(@RequestBody PriceRequest request) {
+        if (request.isins() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(priceGenerator.prices(request.isins(), request.asOf()));
+    }
+}
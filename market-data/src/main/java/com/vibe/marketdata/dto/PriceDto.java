@@ -0,0 +1,9 @@
+package com.vibe.marketdata.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Price of one instrument on a business date
+ */
+public record PriceDto(String isin, BigDecimal price, String currency, LocalDate asOf) {}
@@ -0,0 +1,9 @@
+package com.vibe.marketdata.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Bulk price request; a null asOf asks for today's prices
+ */
+public record PriceRequest(List<String> isins, LocalDate asOf) {}
@@ -0,0 +1,16 @@
+package com.vibe.marketdata.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "market-data")
+public record MarketDataProperties(String currency, BigDecimal maxDailyMove, Map<String, BigDecimal> basePrices) {
+
+    public MarketDataProperties {
+        currency = currency != null ? currency : "USD";
+        maxDailyMove = maxDailyMove != null ? maxDailyMove : new BigDecimal("0.02");
+        basePrices = basePrices != null ? Map.copyOf(basePrices) : Map.of();
+    }
+}
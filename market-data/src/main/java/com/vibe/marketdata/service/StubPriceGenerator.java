@@ -0,0 +1,45 @@
+package com.vibe.marketdata.service;
+
+import com.vibe.marketdata.dto.PriceDto;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic prices: the same ISIN and date always return the same price,
+ * moving by at most the configured daily percentage around its base price.
+ */
+@Service
+public class StubPriceGenerator {
+
+    private final MarketDataProperties properties;
+
+    public StubPriceGenerator(MarketDataProperties properties) {
+        this.properties = properties;
+    }
+
+    public List<PriceDto> prices(List<String> isins, LocalDate asOf) {
+        LocalDate date = asOf != null ? asOf : LocalDate.now();
+        List<PriceDto> prices = new ArrayList<>(isins.size());
+        for (String isin : isins) {
+            prices.add(new PriceDto(isin, price(isin, date), properties.currency(), date));
+        }
+        return prices;
+    }
+
+    BigDecimal price(String isin, LocalDate date) {
+        BigDecimal base = properties.basePrices().get(isin);
+        if (base == null) {
+            // 10.00 - 509.99 derived from the ISIN
+            base = BigDecimal.valueOf(1000 + Math.floorMod(isin.hashCode(), 50_000), 2);
+        }
+        // Fraction in [-1, 1] from the (ISIN, date) pair
+        double fraction = Math.floorMod((isin + date).hashCode(), 2001) / 1000.0 - 1.0;
+        BigDecimal move = properties.maxDailyMove().multiply(BigDecimal.valueOf(fraction));
+        return base.multiply(BigDecimal.ONE.add(move)).setScale(4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,47 @@
+package com.vibe.marketdata.controller;
+
+import com.vibe.marketdata.service.MarketDataProperties;
+import com.vibe.marketdata.service.StubPriceGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(RateController.class)
+@Import(StubPriceGenerator.class)
+@EnableConfigurationProperties(MarketDataProperties.class)
+public class RateControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testBulkPrices() throws Exception {
+        mockMvc.perform(post("/api/rates/prices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isins\":[\"US0378331005\",\"US5949181045\"],\"asOf\":\"2024-01-02\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].isin").value("US0378331005"))
+                .andExpect(jsonPath("$[0].asOf").value("2024-01-02"));
+    }
+
+    @Test
+    public void testPricesAreDeterministic() throws Exception {
+        String first = mockMvc.perform(get("/api/rates/prices").param("isins", "US0378331005").param("asOf", "2024-01-02"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/rates/prices").param("isins", "US0378331005").param("asOf", "2024-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertEquals(first, result.getResponse().getContentAsString()));
+    }
+}